@@ -3,28 +3,58 @@ package com.lab.product.DAO;
 import com.lab.product.entity.PRODUCT_BALANCE;
 import com.lab.product.entity.PRODUCT_DETAILS;
 import com.lab.product.entity.ENUMS.PRODUCT_BALANCE_TYPE;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductBalanceRepository extends JpaRepository<PRODUCT_BALANCE, UUID> {
     
     // INSERT-ONLY Pattern: Find latest non-deleted versions by productCode
     @Query("SELECT b FROM PRODUCT_BALANCE b WHERE b.productCode = :productCode " +
-           "AND b.createdAt = (SELECT MAX(b2.createdAt) FROM PRODUCT_BALANCE b2 " +
+           "AND b.versionNo = (SELECT MAX(b2.versionNo) FROM PRODUCT_BALANCE b2 " +
            "WHERE b2.balanceType = b.balanceType AND b2.productCode = :productCode) " +
            "AND b.crud_value != 'D' " +
            "ORDER BY b.createdAt DESC")
     List<PRODUCT_BALANCE> findByProductCode(@Param("productCode") String productCode);
     
+    // INSERT-ONLY Pattern: Find latest non-deleted versions for several products in one query (batched mapping)
+    @Query("SELECT b FROM PRODUCT_BALANCE b WHERE b.productCode IN :productCodes " +
+           "AND b.versionNo = (SELECT MAX(b2.versionNo) FROM PRODUCT_BALANCE b2 " +
+           "WHERE b2.balanceType = b.balanceType AND b2.productCode = b.productCode) " +
+           "AND b.crud_value != 'D' " +
+           "ORDER BY b.createdAt DESC")
+    List<PRODUCT_BALANCE> findLatestByProductCodes(@Param("productCodes") Collection<String> productCodes);
+    
+    // INSERT-ONLY Pattern: Window-function variant of findLatestByProductCodes (MySQL 8 / H2)
+    @Query(value = "SELECT * FROM (SELECT t.*, ROW_NUMBER() OVER (" +
+           "PARTITION BY t.product_code, t.balance_type ORDER BY t.product_version_no DESC) AS rn " +
+           "FROM product_balances t WHERE t.product_code IN (:productCodes)) latest " +
+           "WHERE latest.rn = 1 AND latest.product_crud_value <> 'D' " +
+           "ORDER BY latest.created_at DESC", nativeQuery = true)
+    List<PRODUCT_BALANCE> findLatestByProductCodesWindowed(@Param("productCodes") Collection<String> productCodes);
+    
+    // INSERT-ONLY Pattern: Pointer-table variant of findLatestByProductCodes (primary-key join)
+    @Query("SELECT b FROM PRODUCT_BALANCE b JOIN PRODUCT_CURRENT_VERSION v ON v.rowId = b.balanceId " +
+           "WHERE v.id.entityType = com.lab.product.entity.ENUMS.PRODUCT_ENTITY_TYPE.BALANCE " +
+           "AND v.id.productCode IN :productCodes " +
+           "AND v.crud_value != 'D' " +
+           "ORDER BY b.createdAt DESC")
+    List<PRODUCT_BALANCE> findLatestByProductCodesViaPointer(@Param("productCodes") Collection<String> productCodes);
+    
     // INSERT-ONLY Pattern: Find all versions for audit trail
     @Query("SELECT b FROM PRODUCT_BALANCE b WHERE b.productCode = :productCode " +
            "ORDER BY b.createdAt DESC")
@@ -40,7 +70,7 @@ public interface ProductBalanceRepository extends JpaRepository<PRODUCT_BALANCE,
     // INSERT-ONLY Pattern: Find specific balance by productCode and balanceType
     @Query("SELECT b FROM PRODUCT_BALANCE b WHERE b.productCode = :productCode " +
            "AND b.balanceType = :balanceType " +
-           "AND b.createdAt = (SELECT MAX(b2.createdAt) FROM PRODUCT_BALANCE b2 " +
+           "AND b.versionNo = (SELECT MAX(b2.versionNo) FROM PRODUCT_BALANCE b2 " +
            "WHERE b2.balanceType = :balanceType AND b2.productCode = :productCode) " +
            "AND b.crud_value != 'D'")
     Optional<PRODUCT_BALANCE> findByProductCodeAndBalanceType(@Param("productCode") String productCode, 
@@ -48,7 +78,7 @@ public interface ProductBalanceRepository extends JpaRepository<PRODUCT_BALANCE,
     
     // INSERT-ONLY Pattern: Find latest non-deleted versions for each balanceType by product
     @Query("SELECT b FROM PRODUCT_BALANCE b WHERE b.product = :product " +
-           "AND b.createdAt = (SELECT MAX(b2.createdAt) FROM PRODUCT_BALANCE b2 " +
+           "AND b.versionNo = (SELECT MAX(b2.versionNo) FROM PRODUCT_BALANCE b2 " +
            "WHERE b2.balanceType = b.balanceType AND b2.product = :product) " +
            "AND b.crud_value != 'D'")
     Page<PRODUCT_BALANCE> findByProduct(@Param("product") PRODUCT_DETAILS product, Pageable pageable);
@@ -61,7 +91,7 @@ public interface ProductBalanceRepository extends JpaRepository<PRODUCT_BALANCE,
     
     @Query("SELECT b FROM PRODUCT_BALANCE b WHERE b.product = :product " +
            "AND b.balanceType = :balanceType " +
-           "AND b.createdAt = (SELECT MAX(b2.createdAt) FROM PRODUCT_BALANCE b2 " +
+           "AND b.versionNo = (SELECT MAX(b2.versionNo) FROM PRODUCT_BALANCE b2 " +
            "WHERE b2.balanceType = :balanceType AND b2.product = :product) " +
            "AND b.crud_value != 'D'")
     Optional<PRODUCT_BALANCE> findByProductAndBalanceType(@Param("product") PRODUCT_DETAILS product, 
@@ -76,4 +106,45 @@ public interface ProductBalanceRepository extends JpaRepository<PRODUCT_BALANCE,
            "WHERE b.product = :product AND b.balanceType = :balanceType AND b.crud_value != 'D'")
     boolean existsByProductAndBalanceType(@Param("product") PRODUCT_DETAILS product, 
                                           @Param("balanceType") PRODUCT_BALANCE_TYPE balanceType);
+    
+    // INSERT-ONLY Pattern: Keyset page of the audit trail, newest first - rows strictly after the (createdAt, versionNo, id) cursor
+    @Query("SELECT b FROM PRODUCT_BALANCE b WHERE b.productCode = :productCode " +
+           "AND (b.createdAt < :cursorCreatedAt " +
+           "OR (b.createdAt = :cursorCreatedAt AND b.versionNo < :cursorVersionNo) " +
+           "OR (b.createdAt = :cursorCreatedAt AND b.versionNo = :cursorVersionNo AND b.balanceId < :cursorId)) " +
+           "ORDER BY b.createdAt DESC, b.versionNo DESC, b.balanceId DESC")
+    List<PRODUCT_BALANCE> findAuditPageByProductCode(@Param("productCode") String productCode,
+                                         @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                         @Param("cursorVersionNo") long cursorVersionNo,
+                                         @Param("cursorId") UUID cursorId,
+                                         Pageable pageable);
+    
+    @Query("SELECT b FROM PRODUCT_BALANCE b WHERE b.productCode = :productCode " +
+           "AND b.balanceType = :balanceType " +
+           "AND (b.createdAt < :cursorCreatedAt " +
+           "OR (b.createdAt = :cursorCreatedAt AND b.versionNo < :cursorVersionNo) " +
+           "OR (b.createdAt = :cursorCreatedAt AND b.versionNo = :cursorVersionNo AND b.balanceId < :cursorId)) " +
+           "ORDER BY b.createdAt DESC, b.versionNo DESC, b.balanceId DESC")
+    List<PRODUCT_BALANCE> findAuditPageByProductCodeAndBalanceType(@Param("productCode") String productCode,
+                                         @Param("balanceType") PRODUCT_BALANCE_TYPE balanceType,
+                                         @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                         @Param("cursorVersionNo") long cursorVersionNo,
+                                         @Param("cursorId") UUID cursorId,
+                                         Pageable pageable);
+    
+    // INSERT-ONLY Pattern: All versions for audit trail, read row by row from a JDBC cursor (NDJSON streaming)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT b FROM PRODUCT_BALANCE b WHERE b.productCode = :productCode " +
+           "ORDER BY b.createdAt DESC, b.versionNo DESC, b.balanceId DESC")
+    Stream<PRODUCT_BALANCE> streamAllVersionsByProductCode(@Param("productCode") String productCode);
+    
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT b FROM PRODUCT_BALANCE b WHERE b.productCode = :productCode " +
+           "AND b.balanceType = :balanceType " +
+           "ORDER BY b.createdAt DESC, b.versionNo DESC, b.balanceId DESC")
+    Stream<PRODUCT_BALANCE> streamAllVersionsByProductCodeAndBalanceType(@Param("productCode") String productCode,
+                                                    @Param("balanceType") PRODUCT_BALANCE_TYPE balanceType);
+    
 }
\ No newline at end of file
@@ -2,28 +2,58 @@ package com.lab.product.DAO;
 
 import com.lab.product.entity.PRODUCT_CHARGES;
 import com.lab.product.entity.PRODUCT_DETAILS;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductChargeRepository extends JpaRepository<PRODUCT_CHARGES, UUID> {
     
     // INSERT-ONLY Pattern: Find latest non-deleted versions by productCode
     @Query("SELECT c FROM PRODUCT_CHARGES c WHERE c.productCode = :productCode " +
-           "AND c.createdAt = (SELECT MAX(c2.createdAt) FROM PRODUCT_CHARGES c2 " +
+           "AND c.versionNo = (SELECT MAX(c2.versionNo) FROM PRODUCT_CHARGES c2 " +
            "WHERE c2.chargeCode = c.chargeCode AND c2.productCode = :productCode) " +
            "AND c.crud_value != 'D' " +
            "ORDER BY c.createdAt DESC")
     List<PRODUCT_CHARGES> findByProductCode(@Param("productCode") String productCode);
     
+    // INSERT-ONLY Pattern: Find latest non-deleted versions for several products in one query (batched mapping)
+    @Query("SELECT c FROM PRODUCT_CHARGES c WHERE c.productCode IN :productCodes " +
+           "AND c.versionNo = (SELECT MAX(c2.versionNo) FROM PRODUCT_CHARGES c2 " +
+           "WHERE c2.chargeCode = c.chargeCode AND c2.productCode = c.productCode) " +
+           "AND c.crud_value != 'D' " +
+           "ORDER BY c.createdAt DESC")
+    List<PRODUCT_CHARGES> findLatestByProductCodes(@Param("productCodes") Collection<String> productCodes);
+    
+    // INSERT-ONLY Pattern: Window-function variant of findLatestByProductCodes (MySQL 8 / H2)
+    @Query(value = "SELECT * FROM (SELECT t.*, ROW_NUMBER() OVER (" +
+           "PARTITION BY t.product_code, t.charge_code ORDER BY t.product_version_no DESC) AS rn " +
+           "FROM product_charges t WHERE t.product_code IN (:productCodes)) latest " +
+           "WHERE latest.rn = 1 AND latest.product_crud_value <> 'D' " +
+           "ORDER BY latest.product_crtn_date DESC", nativeQuery = true)
+    List<PRODUCT_CHARGES> findLatestByProductCodesWindowed(@Param("productCodes") Collection<String> productCodes);
+    
+    // INSERT-ONLY Pattern: Pointer-table variant of findLatestByProductCodes (primary-key join)
+    @Query("SELECT c FROM PRODUCT_CHARGES c JOIN PRODUCT_CURRENT_VERSION v ON v.rowId = c.chargeId " +
+           "WHERE v.id.entityType = com.lab.product.entity.ENUMS.PRODUCT_ENTITY_TYPE.CHARGE " +
+           "AND v.id.productCode IN :productCodes " +
+           "AND v.crud_value != 'D' " +
+           "ORDER BY c.createdAt DESC")
+    List<PRODUCT_CHARGES> findLatestByProductCodesViaPointer(@Param("productCodes") Collection<String> productCodes);
+    
     // INSERT-ONLY Pattern: Find all versions for audit trail
     @Query("SELECT c FROM PRODUCT_CHARGES c WHERE c.productCode = :productCode " +
            "ORDER BY c.createdAt DESC")
@@ -39,7 +69,7 @@ public interface ProductChargeRepository extends JpaRepository<PRODUCT_CHARGES,
     // INSERT-ONLY Pattern: Find specific charge by productCode and chargeCode
     @Query("SELECT c FROM PRODUCT_CHARGES c WHERE c.productCode = :productCode " +
            "AND c.chargeCode = :chargeCode " +
-           "AND c.createdAt = (SELECT MAX(c2.createdAt) FROM PRODUCT_CHARGES c2 " +
+           "AND c.versionNo = (SELECT MAX(c2.versionNo) FROM PRODUCT_CHARGES c2 " +
            "WHERE c2.chargeCode = :chargeCode AND c2.productCode = :productCode) " +
            "AND c.crud_value != 'D'")
     Optional<PRODUCT_CHARGES> findByProductCodeAndChargeCode(@Param("productCode") String productCode, 
@@ -47,7 +77,7 @@ public interface ProductChargeRepository extends JpaRepository<PRODUCT_CHARGES,
     
     // INSERT-ONLY Pattern: Find latest non-deleted versions for each chargeCode by product
     @Query("SELECT c FROM PRODUCT_CHARGES c WHERE c.product = :product " +
-           "AND c.createdAt = (SELECT MAX(c2.createdAt) FROM PRODUCT_CHARGES c2 " +
+           "AND c.versionNo = (SELECT MAX(c2.versionNo) FROM PRODUCT_CHARGES c2 " +
            "WHERE c2.chargeCode = c.chargeCode AND c2.product = :product) " +
            "AND c.crud_value != 'D'")
     Page<PRODUCT_CHARGES> findByProduct(@Param("product") PRODUCT_DETAILS product, Pageable pageable);
@@ -60,7 +90,7 @@ public interface ProductChargeRepository extends JpaRepository<PRODUCT_CHARGES,
     
     @Query("SELECT c FROM PRODUCT_CHARGES c WHERE c.product = :product " +
            "AND c.chargeCode = :chargeCode " +
-           "AND c.createdAt = (SELECT MAX(c2.createdAt) FROM PRODUCT_CHARGES c2 " +
+           "AND c.versionNo = (SELECT MAX(c2.versionNo) FROM PRODUCT_CHARGES c2 " +
            "WHERE c2.chargeCode = :chargeCode AND c2.product = :product) " +
            "AND c.crud_value != 'D'")
     Optional<PRODUCT_CHARGES> findByProductAndChargeCode(@Param("product") PRODUCT_DETAILS product, 
@@ -75,4 +105,45 @@ public interface ProductChargeRepository extends JpaRepository<PRODUCT_CHARGES,
            "WHERE c.product = :product AND c.chargeCode = :chargeCode AND c.crud_value != 'D'")
     boolean existsByProductAndChargeCode(@Param("product") PRODUCT_DETAILS product, 
                                          @Param("chargeCode") String chargeCode);
+    
+    // INSERT-ONLY Pattern: Keyset page of the audit trail, newest first - rows strictly after the (createdAt, versionNo, id) cursor
+    @Query("SELECT c FROM PRODUCT_CHARGES c WHERE c.productCode = :productCode " +
+           "AND (c.createdAt < :cursorCreatedAt " +
+           "OR (c.createdAt = :cursorCreatedAt AND c.versionNo < :cursorVersionNo) " +
+           "OR (c.createdAt = :cursorCreatedAt AND c.versionNo = :cursorVersionNo AND c.chargeId < :cursorId)) " +
+           "ORDER BY c.createdAt DESC, c.versionNo DESC, c.chargeId DESC")
+    List<PRODUCT_CHARGES> findAuditPageByProductCode(@Param("productCode") String productCode,
+                                         @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                         @Param("cursorVersionNo") long cursorVersionNo,
+                                         @Param("cursorId") UUID cursorId,
+                                         Pageable pageable);
+    
+    @Query("SELECT c FROM PRODUCT_CHARGES c WHERE c.productCode = :productCode " +
+           "AND c.chargeCode = :chargeCode " +
+           "AND (c.createdAt < :cursorCreatedAt " +
+           "OR (c.createdAt = :cursorCreatedAt AND c.versionNo < :cursorVersionNo) " +
+           "OR (c.createdAt = :cursorCreatedAt AND c.versionNo = :cursorVersionNo AND c.chargeId < :cursorId)) " +
+           "ORDER BY c.createdAt DESC, c.versionNo DESC, c.chargeId DESC")
+    List<PRODUCT_CHARGES> findAuditPageByProductCodeAndChargeCode(@Param("productCode") String productCode,
+                                         @Param("chargeCode") String chargeCode,
+                                         @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                         @Param("cursorVersionNo") long cursorVersionNo,
+                                         @Param("cursorId") UUID cursorId,
+                                         Pageable pageable);
+    
+    // INSERT-ONLY Pattern: All versions for audit trail, read row by row from a JDBC cursor (NDJSON streaming)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT c FROM PRODUCT_CHARGES c WHERE c.productCode = :productCode " +
+           "ORDER BY c.createdAt DESC, c.versionNo DESC, c.chargeId DESC")
+    Stream<PRODUCT_CHARGES> streamAllVersionsByProductCode(@Param("productCode") String productCode);
+    
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT c FROM PRODUCT_CHARGES c WHERE c.productCode = :productCode " +
+           "AND c.chargeCode = :chargeCode " +
+           "ORDER BY c.createdAt DESC, c.versionNo DESC, c.chargeId DESC")
+    Stream<PRODUCT_CHARGES> streamAllVersionsByProductCodeAndChargeCode(@Param("productCode") String productCode,
+                                                    @Param("chargeCode") String chargeCode);
+    
 }
\ No newline at end of file
@@ -4,28 +4,58 @@ import com.lab.product.entity.PRODUCT_COMMUNICATION;
 import com.lab.product.entity.PRODUCT_DETAILS;
 import com.lab.product.entity.ENUMS.PRODUCT_COMM_TYPE;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductCommunicationRepository extends JpaRepository<PRODUCT_COMMUNICATION, UUID> {
     
     // INSERT-ONLY Pattern: Find latest non-deleted versions by productCode
     @Query("SELECT c FROM PRODUCT_COMMUNICATION c WHERE c.productCode = :productCode " +
-           "AND c.createdAt = (SELECT MAX(c2.createdAt) FROM PRODUCT_COMMUNICATION c2 " +
+           "AND c.versionNo = (SELECT MAX(c2.versionNo) FROM PRODUCT_COMMUNICATION c2 " +
            "WHERE c2.commCode = c.commCode AND c2.productCode = :productCode) " +
            "AND c.crud_value != 'D' " +
            "ORDER BY c.createdAt DESC")
     List<PRODUCT_COMMUNICATION> findByProductCode(@Param("productCode") String productCode);
     
+    // INSERT-ONLY Pattern: Find latest non-deleted versions for several products in one query (batched mapping)
+    @Query("SELECT c FROM PRODUCT_COMMUNICATION c WHERE c.productCode IN :productCodes " +
+           "AND c.versionNo = (SELECT MAX(c2.versionNo) FROM PRODUCT_COMMUNICATION c2 " +
+           "WHERE c2.commCode = c.commCode AND c2.productCode = c.productCode) " +
+           "AND c.crud_value != 'D' " +
+           "ORDER BY c.createdAt DESC")
+    List<PRODUCT_COMMUNICATION> findLatestByProductCodes(@Param("productCodes") Collection<String> productCodes);
+    
+    // INSERT-ONLY Pattern: Window-function variant of findLatestByProductCodes (MySQL 8 / H2)
+    @Query(value = "SELECT * FROM (SELECT t.*, ROW_NUMBER() OVER (" +
+           "PARTITION BY t.product_code, t.comm_code ORDER BY t.product_version_no DESC) AS rn " +
+           "FROM product_communications t WHERE t.product_code IN (:productCodes)) latest " +
+           "WHERE latest.rn = 1 AND latest.product_crud_value <> 'D' " +
+           "ORDER BY latest.product_crtn_date DESC", nativeQuery = true)
+    List<PRODUCT_COMMUNICATION> findLatestByProductCodesWindowed(@Param("productCodes") Collection<String> productCodes);
+    
+    // INSERT-ONLY Pattern: Pointer-table variant of findLatestByProductCodes (primary-key join)
+    @Query("SELECT c FROM PRODUCT_COMMUNICATION c JOIN PRODUCT_CURRENT_VERSION v ON v.rowId = c.commId " +
+           "WHERE v.id.entityType = com.lab.product.entity.ENUMS.PRODUCT_ENTITY_TYPE.COMMUNICATION " +
+           "AND v.id.productCode IN :productCodes " +
+           "AND v.crud_value != 'D' " +
+           "ORDER BY c.createdAt DESC")
+    List<PRODUCT_COMMUNICATION> findLatestByProductCodesViaPointer(@Param("productCodes") Collection<String> productCodes);
+    
     // INSERT-ONLY Pattern: Find all versions for audit trail
     @Query("SELECT c FROM PRODUCT_COMMUNICATION c WHERE c.productCode = :productCode " +
            "ORDER BY c.createdAt DESC")
@@ -41,7 +71,7 @@ public interface ProductCommunicationRepository extends JpaRepository<PRODUCT_CO
     // INSERT-ONLY Pattern: Find specific communication by productCode and commCode
     @Query("SELECT c FROM PRODUCT_COMMUNICATION c WHERE c.productCode = :productCode " +
            "AND c.commCode = :commCode " +
-           "AND c.createdAt = (SELECT MAX(c2.createdAt) FROM PRODUCT_COMMUNICATION c2 " +
+           "AND c.versionNo = (SELECT MAX(c2.versionNo) FROM PRODUCT_COMMUNICATION c2 " +
            "WHERE c2.commCode = :commCode AND c2.productCode = :productCode) " +
            "AND c.crud_value != 'D'")
     Optional<PRODUCT_COMMUNICATION> findByProductCodeAndCommCode(@Param("productCode") String productCode, 
@@ -57,7 +87,7 @@ public interface ProductCommunicationRepository extends JpaRepository<PRODUCT_CO
     
     // INSERT-ONLY Pattern: Find latest non-deleted versions for each commCode by product
     @Query("SELECT c FROM PRODUCT_COMMUNICATION c WHERE c.product = :product " +
-           "AND c.createdAt = (SELECT MAX(c2.createdAt) FROM PRODUCT_COMMUNICATION c2 " +
+           "AND c.versionNo = (SELECT MAX(c2.versionNo) FROM PRODUCT_COMMUNICATION c2 " +
            "WHERE c2.commCode = c.commCode AND c2.product = :product) " +
            "AND c.crud_value != 'D'")
     Page<PRODUCT_COMMUNICATION> findByProduct(@Param("product") PRODUCT_DETAILS product, Pageable pageable);
@@ -74,7 +104,7 @@ public interface ProductCommunicationRepository extends JpaRepository<PRODUCT_CO
     
     @Query("SELECT c FROM PRODUCT_COMMUNICATION c WHERE c.product = :product " +
            "AND c.commCode = :commCode " +
-           "AND c.createdAt = (SELECT MAX(c2.createdAt) FROM PRODUCT_COMMUNICATION c2 " +
+           "AND c.versionNo = (SELECT MAX(c2.versionNo) FROM PRODUCT_COMMUNICATION c2 " +
            "WHERE c2.commCode = :commCode AND c2.product = :product) " +
            "AND c.crud_value != 'D'")
     Optional<PRODUCT_COMMUNICATION> findByProductAndCommCode(@Param("product") PRODUCT_DETAILS product, 
@@ -88,4 +118,45 @@ public interface ProductCommunicationRepository extends JpaRepository<PRODUCT_CO
            "WHERE c.product = :product AND c.commCode = :commCode AND c.crud_value != 'D'")
     boolean existsByProductAndCommCode(@Param("product") PRODUCT_DETAILS product, 
                                        @Param("commCode") String commCode);
+    
+    // INSERT-ONLY Pattern: Keyset page of the audit trail, newest first - rows strictly after the (createdAt, versionNo, id) cursor
+    @Query("SELECT c FROM PRODUCT_COMMUNICATION c WHERE c.productCode = :productCode " +
+           "AND (c.createdAt < :cursorCreatedAt " +
+           "OR (c.createdAt = :cursorCreatedAt AND c.versionNo < :cursorVersionNo) " +
+           "OR (c.createdAt = :cursorCreatedAt AND c.versionNo = :cursorVersionNo AND c.commId < :cursorId)) " +
+           "ORDER BY c.createdAt DESC, c.versionNo DESC, c.commId DESC")
+    List<PRODUCT_COMMUNICATION> findAuditPageByProductCode(@Param("productCode") String productCode,
+                                         @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                         @Param("cursorVersionNo") long cursorVersionNo,
+                                         @Param("cursorId") UUID cursorId,
+                                         Pageable pageable);
+    
+    @Query("SELECT c FROM PRODUCT_COMMUNICATION c WHERE c.productCode = :productCode " +
+           "AND c.commCode = :commCode " +
+           "AND (c.createdAt < :cursorCreatedAt " +
+           "OR (c.createdAt = :cursorCreatedAt AND c.versionNo < :cursorVersionNo) " +
+           "OR (c.createdAt = :cursorCreatedAt AND c.versionNo = :cursorVersionNo AND c.commId < :cursorId)) " +
+           "ORDER BY c.createdAt DESC, c.versionNo DESC, c.commId DESC")
+    List<PRODUCT_COMMUNICATION> findAuditPageByProductCodeAndCommCode(@Param("productCode") String productCode,
+                                         @Param("commCode") String commCode,
+                                         @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                         @Param("cursorVersionNo") long cursorVersionNo,
+                                         @Param("cursorId") UUID cursorId,
+                                         Pageable pageable);
+    
+    // INSERT-ONLY Pattern: All versions for audit trail, read row by row from a JDBC cursor (NDJSON streaming)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT c FROM PRODUCT_COMMUNICATION c WHERE c.productCode = :productCode " +
+           "ORDER BY c.createdAt DESC, c.versionNo DESC, c.commId DESC")
+    Stream<PRODUCT_COMMUNICATION> streamAllVersionsByProductCode(@Param("productCode") String productCode);
+    
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT c FROM PRODUCT_COMMUNICATION c WHERE c.productCode = :productCode " +
+           "AND c.commCode = :commCode " +
+           "ORDER BY c.createdAt DESC, c.versionNo DESC, c.commId DESC")
+    Stream<PRODUCT_COMMUNICATION> streamAllVersionsByProductCodeAndCommCode(@Param("productCode") String productCode,
+                                                    @Param("commCode") String commCode);
+    
 }
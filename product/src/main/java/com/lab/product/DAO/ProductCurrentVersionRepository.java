@@ -0,0 +1,107 @@
+package com.lab.product.DAO;
+
+import com.lab.product.entity.PRODUCT_CURRENT_VERSION;
+import com.lab.product.entity.PRODUCT_CURRENT_VERSION_ID;
+import com.lab.product.entity.ENUMS.CRUD_VALUE;
+import com.lab.product.entity.ENUMS.PRODUCT_ENTITY_TYPE;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ProductCurrentVersionRepository extends JpaRepository<PRODUCT_CURRENT_VERSION, PRODUCT_CURRENT_VERSION_ID> {
+
+    // SELECT ... FOR UPDATE on the product pointer rows: serializes writers of the same products across nodes.
+    // Rows are locked in productCode order; codes without a pointer yet (new products) lock nothing.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM PRODUCT_CURRENT_VERSION p WHERE p.id.entityType = :entityType " +
+           "AND p.id.productCode IN :productCodes ORDER BY p.id.productCode")
+    List<PRODUCT_CURRENT_VERSION> lockPointers(@Param("entityType") PRODUCT_ENTITY_TYPE entityType,
+                                               @Param("productCodes") Collection<String> productCodes);
+
+    // Compare-and-set for conditional (If-Match) writes: moves the pointer only if it still names expectedRowId
+    @Modifying
+    @Query("UPDATE PRODUCT_CURRENT_VERSION p SET p.rowId = :rowId, p.crud_value = :crudValue, p.updatedAt = :updatedAt " +
+           "WHERE p.id.entityType = :entityType AND p.id.productCode = :productCode AND p.id.childCode = :childCode " +
+           "AND p.rowId = :expectedRowId")
+    int moveIfCurrent(@Param("entityType") PRODUCT_ENTITY_TYPE entityType, @Param("productCode") String productCode,
+                      @Param("childCode") String childCode, @Param("expectedRowId") UUID expectedRowId,
+                      @Param("rowId") UUID rowId, @Param("crudValue") CRUD_VALUE crudValue,
+                      @Param("updatedAt") LocalDateTime updatedAt);
+
+    // INSERT-ONLY Pattern: Backfill - rebuild pointers from the version tables (ROW_NUMBER, MySQL 8 / H2).
+    // Callers clear the pointer table first (deleteAllInBatch) inside the same transaction.
+
+    @Modifying
+    @Query(value = "INSERT INTO product_current_versions (entity_type, product_code, child_code, row_id, crud_value, updated_at) " +
+           "SELECT 'PRODUCT', latest.product_code, latest.child_code, latest.product_id, latest.product_crud_value, CURRENT_TIMESTAMP " +
+           "FROM (SELECT t.product_code, '' AS child_code, t.product_id, t.product_crud_value, ROW_NUMBER() OVER (" +
+           "PARTITION BY t.product_code ORDER BY t.product_version_no DESC) AS rn FROM products t) latest " +
+           "WHERE latest.rn = 1", nativeQuery = true)
+    int rebuildProducts();
+
+    @Modifying
+    @Query(value = "INSERT INTO product_current_versions (entity_type, product_code, child_code, row_id, crud_value, updated_at) " +
+           "SELECT 'RULE', latest.product_code, latest.child_code, latest.rule_id, latest.product_crud_value, CURRENT_TIMESTAMP " +
+           "FROM (SELECT t.product_code, t.rule_code AS child_code, t.rule_id, t.product_crud_value, ROW_NUMBER() OVER (" +
+           "PARTITION BY t.product_code, t.rule_code ORDER BY t.product_version_no DESC) AS rn FROM product_rules t) latest " +
+           "WHERE latest.rn = 1", nativeQuery = true)
+    int rebuildRules();
+
+    @Modifying
+    @Query(value = "INSERT INTO product_current_versions (entity_type, product_code, child_code, row_id, crud_value, updated_at) " +
+           "SELECT 'CHARGE', latest.product_code, latest.child_code, latest.charge_id, latest.product_crud_value, CURRENT_TIMESTAMP " +
+           "FROM (SELECT t.product_code, t.charge_code AS child_code, t.charge_id, t.product_crud_value, ROW_NUMBER() OVER (" +
+           "PARTITION BY t.product_code, t.charge_code ORDER BY t.product_version_no DESC) AS rn FROM product_charges t) latest " +
+           "WHERE latest.rn = 1", nativeQuery = true)
+    int rebuildCharges();
+
+    @Modifying
+    @Query(value = "INSERT INTO product_current_versions (entity_type, product_code, child_code, row_id, crud_value, updated_at) " +
+           "SELECT 'ROLE', latest.product_code, latest.child_code, latest.role_id, latest.product_crud_value, CURRENT_TIMESTAMP " +
+           "FROM (SELECT t.product_code, t.role_code AS child_code, t.role_id, t.product_crud_value, ROW_NUMBER() OVER (" +
+           "PARTITION BY t.product_code, t.role_code ORDER BY t.product_version_no DESC) AS rn FROM product_role_types t) latest " +
+           "WHERE latest.rn = 1", nativeQuery = true)
+    int rebuildRoles();
+
+    @Modifying
+    @Query(value = "INSERT INTO product_current_versions (entity_type, product_code, child_code, row_id, crud_value, updated_at) " +
+           "SELECT 'TRANSACTION', latest.product_code, latest.child_code, latest.id, latest.product_crud_value, CURRENT_TIMESTAMP " +
+           "FROM (SELECT t.product_code, t.transaction_code AS child_code, t.id, t.product_crud_value, ROW_NUMBER() OVER (" +
+           "PARTITION BY t.product_code, t.transaction_code ORDER BY t.product_version_no DESC) AS rn FROM product_transaction_types t) latest " +
+           "WHERE latest.rn = 1", nativeQuery = true)
+    int rebuildTransactions();
+
+    @Modifying
+    @Query(value = "INSERT INTO product_current_versions (entity_type, product_code, child_code, row_id, crud_value, updated_at) " +
+           "SELECT 'INTEREST', latest.product_code, latest.child_code, latest.rate_id, latest.product_crud_value, CURRENT_TIMESTAMP " +
+           "FROM (SELECT t.product_code, t.rate_code AS child_code, t.rate_id, t.product_crud_value, ROW_NUMBER() OVER (" +
+           "PARTITION BY t.product_code, t.rate_code ORDER BY t.product_version_no DESC) AS rn FROM interest_rates t) latest " +
+           "WHERE latest.rn = 1", nativeQuery = true)
+    int rebuildInterests();
+
+    @Modifying
+    @Query(value = "INSERT INTO product_current_versions (entity_type, product_code, child_code, row_id, crud_value, updated_at) " +
+           "SELECT 'BALANCE', latest.product_code, latest.child_code, latest.balance_id, latest.product_crud_value, CURRENT_TIMESTAMP " +
+           "FROM (SELECT t.product_code, t.balance_type AS child_code, t.balance_id, t.product_crud_value, ROW_NUMBER() OVER (" +
+           "PARTITION BY t.product_code, t.balance_type ORDER BY t.product_version_no DESC) AS rn FROM product_balances t) latest " +
+           "WHERE latest.rn = 1", nativeQuery = true)
+    int rebuildBalances();
+
+    @Modifying
+    @Query(value = "INSERT INTO product_current_versions (entity_type, product_code, child_code, row_id, crud_value, updated_at) " +
+           "SELECT 'COMMUNICATION', latest.product_code, latest.child_code, latest.comm_id, latest.product_crud_value, CURRENT_TIMESTAMP " +
+           "FROM (SELECT t.product_code, t.comm_code AS child_code, t.comm_id, t.product_crud_value, ROW_NUMBER() OVER (" +
+           "PARTITION BY t.product_code, t.comm_code ORDER BY t.product_version_no DESC) AS rn FROM product_communications t) latest " +
+           "WHERE latest.rn = 1", nativeQuery = true)
+    int rebuildCommunications();
+}
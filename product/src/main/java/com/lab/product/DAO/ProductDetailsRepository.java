@@ -1,28 +1,46 @@
 package com.lab.product.DAO;
 
+import com.lab.product.DTO.ProductSummaryDTO;
 import com.lab.product.entity.PRODUCT_DETAILS;
-import com.lab.product.entity.ENUMS.PRODUCT_TYPE;
-import com.lab.product.entity.ENUMS.PRODUCT_STATUS;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
-import java.sql.Date;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface ProductDetailsRepository extends JpaRepository<PRODUCT_DETAILS, UUID> {
+public interface ProductDetailsRepository extends JpaRepository<PRODUCT_DETAILS, UUID>,
+        JpaSpecificationExecutor<PRODUCT_DETAILS>, ProductSummaryQueries {
     
     // INSERT-ONLY Pattern: Find latest version by productCode, but return only if the latest is not deleted
     @Query("SELECT p FROM PRODUCT_DETAILS p WHERE p.productCode = :productCode " +
-           "AND p.createdAt = (SELECT MAX(p2.createdAt) FROM PRODUCT_DETAILS p2 WHERE p2.productCode = :productCode) " +
+           "AND p.versionNo = (SELECT MAX(p2.versionNo) FROM PRODUCT_DETAILS p2 WHERE p2.productCode = :productCode) " +
            "AND p.crud_value != 'D'")
     Optional<PRODUCT_DETAILS> findLatestByProductCode(@Param("productCode") String productCode);
     
+    // Every productCode ever written (including deleted) - source for the lookup Bloom filter
+    @Query("SELECT DISTINCT p.productCode FROM PRODUCT_DETAILS p")
+    List<String> findAllProductCodes();
+    
+    @Query("SELECT COUNT(DISTINCT p.productCode) FROM PRODUCT_DETAILS p")
+    long countDistinctProductCodes();
+    
+    // Codes with a version created at or after :since - incremental Bloom filter refresh
+    @Query("SELECT DISTINCT p.productCode FROM PRODUCT_DETAILS p WHERE p.createdAt >= :since")
+    List<String> findProductCodesCreatedSince(@Param("since") LocalDateTime since);
+    
     // INSERT-ONLY Pattern: Find all versions (including deleted) for audit trail
     @Query("SELECT p FROM PRODUCT_DETAILS p WHERE p.productCode = :productCode " +
-           "ORDER BY p.createdAt DESC")
+           "ORDER BY p.createdAt DESC, p.versionNo DESC")
     List<PRODUCT_DETAILS> findAllVersionsByProductCode(@Param("productCode") String productCode);
     
     // Legacy method - now returns latest version only
@@ -31,19 +49,76 @@ public interface ProductDetailsRepository extends JpaRepository<PRODUCT_DETAILS,
            "ORDER BY p.createdAt DESC")
     Optional<PRODUCT_DETAILS> findByProductCode(@Param("productCode") String productCode);
     
-    @Query("SELECT p FROM PRODUCT_DETAILS p WHERE p.productType = :productType " +
-           "AND p.createdAt = (SELECT MAX(p2.createdAt) FROM PRODUCT_DETAILS p2 WHERE p2.productCode = p.productCode) " +
-           "AND p.crud_value != 'D'")
-    List<PRODUCT_DETAILS> findByProductType(@Param("productType") PRODUCT_TYPE productType);
+    // INSERT-ONLY Pattern: Window-function variant of findLatestByProductCode (MySQL 8 / H2).
+    // ROW_NUMBER() ranks versions per productCode once instead of re-running MAX(versionNo) per row.
+    @Query(value = "SELECT * FROM (SELECT p.*, ROW_NUMBER() OVER (" +
+           "PARTITION BY p.product_code ORDER BY p.product_version_no DESC) AS rn " +
+           "FROM products p WHERE p.product_code = :productCode) latest " +
+           "WHERE latest.rn = 1 AND latest.product_crud_value <> 'D'", nativeQuery = true)
+    Optional<PRODUCT_DETAILS> findLatestByProductCodeWindowed(@Param("productCode") String productCode);
     
-    @Query("SELECT p FROM PRODUCT_DETAILS p WHERE p.status = :status " +
-           "AND p.createdAt = (SELECT MAX(p2.createdAt) FROM PRODUCT_DETAILS p2 WHERE p2.productCode = p.productCode) " +
-           "AND p.crud_value != 'D'")
-    List<PRODUCT_DETAILS> findByStatus(@Param("status") PRODUCT_STATUS status);
+    // INSERT-ONLY Pattern: Pointer-table variant (primary-key join on product_current_versions)
+    @Query("SELECT p FROM PRODUCT_DETAILS p JOIN PRODUCT_CURRENT_VERSION v ON v.rowId = p.productId " +
+           "WHERE v.id.entityType = com.lab.product.entity.ENUMS.PRODUCT_ENTITY_TYPE.PRODUCT " +
+           "AND v.id.productCode = :productCode AND v.crud_value != 'D'")
+    Optional<PRODUCT_DETAILS> findLatestByProductCodeViaPointer(@Param("productCode") String productCode);
     
-    @Query("SELECT p FROM PRODUCT_DETAILS p WHERE p.efctv_date > :startDate AND p.efctv_date < :endDate " +
-           "AND p.createdAt = (SELECT MAX(p2.createdAt) FROM PRODUCT_DETAILS p2 WHERE p2.productCode = p.productCode) " +
-           "AND p.crud_value != 'D'")
-    List<PRODUCT_DETAILS> findByEfctv_dateBetween(@Param("startDate") Date startDate, @Param("endDate") Date endDate);
+    // Summary projections (view=summary): constructor expressions, no child tables, no managed entities
+    @Query(value = "SELECT new com.lab.product.DTO.ProductSummaryDTO(p.productId, p.productCode, p.productName, " +
+           "p.productType, p.status, p.currency) FROM PRODUCT_DETAILS p",
+           countQuery = "SELECT COUNT(p) FROM PRODUCT_DETAILS p")
+    Page<ProductSummaryDTO> findAllSummaries(Pageable pageable);
+    
+    // INSERT-ONLY Pattern: Keyset page of the audit trail, newest first - rows strictly after the (createdAt, versionNo, id) cursor
+    @Query("SELECT p FROM PRODUCT_DETAILS p WHERE p.productCode = :productCode " +
+           "AND (p.createdAt < :cursorCreatedAt " +
+           "OR (p.createdAt = :cursorCreatedAt AND p.versionNo < :cursorVersionNo) " +
+           "OR (p.createdAt = :cursorCreatedAt AND p.versionNo = :cursorVersionNo AND p.productId < :cursorId)) " +
+           "ORDER BY p.createdAt DESC, p.versionNo DESC, p.productId DESC")
+    List<PRODUCT_DETAILS> findAuditPageByProductCode(@Param("productCode") String productCode,
+                                                     @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                                     @Param("cursorVersionNo") long cursorVersionNo,
+                                                     @Param("cursorId") UUID cursorId,
+                                                     Pageable pageable);
+    
+    // INSERT-ONLY Pattern: All versions for audit trail, read row by row from a JDBC cursor (NDJSON streaming)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT p FROM PRODUCT_DETAILS p WHERE p.productCode = :productCode " +
+           "ORDER BY p.createdAt DESC, p.versionNo DESC, p.productId DESC")
+    Stream<PRODUCT_DETAILS> streamAllVersionsByProductCode(@Param("productCode") String productCode);
+    
+    // INSERT-ONLY Pattern: Latest non-deleted version of every product, read forward-only from a JDBC cursor (catalog export)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT p FROM PRODUCT_DETAILS p " +
+           "WHERE p.versionNo = (SELECT MAX(p2.versionNo) FROM PRODUCT_DETAILS p2 WHERE p2.productCode = p.productCode) " +
+           "AND p.crud_value != 'D' " +
+           "ORDER BY p.productCode")
+    Stream<PRODUCT_DETAILS> streamLatestVersions();
+    
+    // Window-function variant of streamLatestVersions (latest-version strategy WINDOW)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query(value = "SELECT * FROM (SELECT p.*, ROW_NUMBER() OVER (" +
+           "PARTITION BY p.product_code ORDER BY p.product_version_no DESC) AS rn FROM products p) latest " +
+           "WHERE latest.rn = 1 AND latest.product_crud_value <> 'D' " +
+           "ORDER BY latest.product_code", nativeQuery = true)
+    Stream<PRODUCT_DETAILS> streamLatestVersionsWindowed();
+    
+    // Pointer-table variant of streamLatestVersions (latest-version strategy POINTER)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT p FROM PRODUCT_DETAILS p JOIN PRODUCT_CURRENT_VERSION v ON v.rowId = p.productId " +
+           "WHERE v.id.entityType = com.lab.product.entity.ENUMS.PRODUCT_ENTITY_TYPE.PRODUCT " +
+           "AND v.crud_value != 'D' " +
+           "ORDER BY p.productCode")
+    Stream<PRODUCT_DETAILS> streamLatestVersionsViaPointer();
+    
+    // Every version of every product (same rows as findAll), read forward-only from a JDBC cursor
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT p FROM PRODUCT_DETAILS p ORDER BY p.productCode, p.createdAt DESC")
+    Stream<PRODUCT_DETAILS> streamAllVersions();
     
 }
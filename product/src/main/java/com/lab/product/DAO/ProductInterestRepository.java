@@ -2,28 +2,58 @@ package com.lab.product.DAO;
 
 import com.lab.product.entity.PRODUCT_INTEREST;
 import com.lab.product.entity.PRODUCT_DETAILS;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductInterestRepository extends JpaRepository<PRODUCT_INTEREST, UUID> {
     
     // INSERT-ONLY Pattern: Find latest non-deleted versions by productCode
     @Query("SELECT i FROM PRODUCT_INTEREST i WHERE i.productCode = :productCode " +
-           "AND i.createdAt = (SELECT MAX(i2.createdAt) FROM PRODUCT_INTEREST i2 " +
+           "AND i.versionNo = (SELECT MAX(i2.versionNo) FROM PRODUCT_INTEREST i2 " +
            "WHERE i2.rateCode = i.rateCode AND i2.productCode = :productCode) " +
            "AND i.crud_value != 'D' " +
            "ORDER BY i.createdAt DESC")
     List<PRODUCT_INTEREST> findByProductCode(@Param("productCode") String productCode);
     
+    // INSERT-ONLY Pattern: Find latest non-deleted versions for several products in one query (batched mapping)
+    @Query("SELECT i FROM PRODUCT_INTEREST i WHERE i.productCode IN :productCodes " +
+           "AND i.versionNo = (SELECT MAX(i2.versionNo) FROM PRODUCT_INTEREST i2 " +
+           "WHERE i2.rateCode = i.rateCode AND i2.productCode = i.productCode) " +
+           "AND i.crud_value != 'D' " +
+           "ORDER BY i.createdAt DESC")
+    List<PRODUCT_INTEREST> findLatestByProductCodes(@Param("productCodes") Collection<String> productCodes);
+    
+    // INSERT-ONLY Pattern: Window-function variant of findLatestByProductCodes (MySQL 8 / H2)
+    @Query(value = "SELECT * FROM (SELECT t.*, ROW_NUMBER() OVER (" +
+           "PARTITION BY t.product_code, t.rate_code ORDER BY t.product_version_no DESC) AS rn " +
+           "FROM interest_rates t WHERE t.product_code IN (:productCodes)) latest " +
+           "WHERE latest.rn = 1 AND latest.product_crud_value <> 'D' " +
+           "ORDER BY latest.product_crtn_date DESC", nativeQuery = true)
+    List<PRODUCT_INTEREST> findLatestByProductCodesWindowed(@Param("productCodes") Collection<String> productCodes);
+    
+    // INSERT-ONLY Pattern: Pointer-table variant of findLatestByProductCodes (primary-key join)
+    @Query("SELECT i FROM PRODUCT_INTEREST i JOIN PRODUCT_CURRENT_VERSION v ON v.rowId = i.rateId " +
+           "WHERE v.id.entityType = com.lab.product.entity.ENUMS.PRODUCT_ENTITY_TYPE.INTEREST " +
+           "AND v.id.productCode IN :productCodes " +
+           "AND v.crud_value != 'D' " +
+           "ORDER BY i.createdAt DESC")
+    List<PRODUCT_INTEREST> findLatestByProductCodesViaPointer(@Param("productCodes") Collection<String> productCodes);
+    
     // INSERT-ONLY Pattern: Find all versions for audit trail
     @Query("SELECT i FROM PRODUCT_INTEREST i WHERE i.productCode = :productCode " +
            "ORDER BY i.createdAt DESC")
@@ -39,7 +69,7 @@ public interface ProductInterestRepository extends JpaRepository<PRODUCT_INTERES
     // INSERT-ONLY Pattern: Find specific rate by productCode and rateCode
     @Query("SELECT i FROM PRODUCT_INTEREST i WHERE i.productCode = :productCode " +
            "AND i.rateCode = :rateCode " +
-           "AND i.createdAt = (SELECT MAX(i2.createdAt) FROM PRODUCT_INTEREST i2 " +
+           "AND i.versionNo = (SELECT MAX(i2.versionNo) FROM PRODUCT_INTEREST i2 " +
            "WHERE i2.rateCode = :rateCode AND i2.productCode = :productCode) " +
            "AND i.crud_value != 'D'")
     Optional<PRODUCT_INTEREST> findByProductCodeAndRateCode(@Param("productCode") String productCode, 
@@ -47,7 +77,7 @@ public interface ProductInterestRepository extends JpaRepository<PRODUCT_INTERES
     
     // INSERT-ONLY Pattern: Find latest non-deleted versions for each rateCode by product
     @Query("SELECT i FROM PRODUCT_INTEREST i WHERE i.product = :product " +
-           "AND i.createdAt = (SELECT MAX(i2.createdAt) FROM PRODUCT_INTEREST i2 " +
+           "AND i.versionNo = (SELECT MAX(i2.versionNo) FROM PRODUCT_INTEREST i2 " +
            "WHERE i2.rateCode = i.rateCode AND i2.product = :product) " +
            "AND i.crud_value != 'D'")
     Page<PRODUCT_INTEREST> findByProduct(@Param("product") PRODUCT_DETAILS product, Pageable pageable);
@@ -60,7 +90,7 @@ public interface ProductInterestRepository extends JpaRepository<PRODUCT_INTERES
     
     @Query("SELECT i FROM PRODUCT_INTEREST i WHERE i.product = :product " +
            "AND i.rateCode = :rateCode " +
-           "AND i.createdAt = (SELECT MAX(i2.createdAt) FROM PRODUCT_INTEREST i2 " +
+           "AND i.versionNo = (SELECT MAX(i2.versionNo) FROM PRODUCT_INTEREST i2 " +
            "WHERE i2.rateCode = :rateCode AND i2.product = :product) " +
            "AND i.crud_value != 'D'")
     Optional<PRODUCT_INTEREST> findByProductAndRateCode(@Param("product") PRODUCT_DETAILS product, 
@@ -75,4 +105,45 @@ public interface ProductInterestRepository extends JpaRepository<PRODUCT_INTERES
            "WHERE i.product = :product AND i.rateCode = :rateCode AND i.crud_value != 'D'")
     boolean existsByProductAndRateCode(@Param("product") PRODUCT_DETAILS product, 
                                        @Param("rateCode") String rateCode);
+    
+    // INSERT-ONLY Pattern: Keyset page of the audit trail, newest first - rows strictly after the (createdAt, versionNo, id) cursor
+    @Query("SELECT i FROM PRODUCT_INTEREST i WHERE i.productCode = :productCode " +
+           "AND (i.createdAt < :cursorCreatedAt " +
+           "OR (i.createdAt = :cursorCreatedAt AND i.versionNo < :cursorVersionNo) " +
+           "OR (i.createdAt = :cursorCreatedAt AND i.versionNo = :cursorVersionNo AND i.rateId < :cursorId)) " +
+           "ORDER BY i.createdAt DESC, i.versionNo DESC, i.rateId DESC")
+    List<PRODUCT_INTEREST> findAuditPageByProductCode(@Param("productCode") String productCode,
+                                         @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                         @Param("cursorVersionNo") long cursorVersionNo,
+                                         @Param("cursorId") UUID cursorId,
+                                         Pageable pageable);
+    
+    @Query("SELECT i FROM PRODUCT_INTEREST i WHERE i.productCode = :productCode " +
+           "AND i.rateCode = :rateCode " +
+           "AND (i.createdAt < :cursorCreatedAt " +
+           "OR (i.createdAt = :cursorCreatedAt AND i.versionNo < :cursorVersionNo) " +
+           "OR (i.createdAt = :cursorCreatedAt AND i.versionNo = :cursorVersionNo AND i.rateId < :cursorId)) " +
+           "ORDER BY i.createdAt DESC, i.versionNo DESC, i.rateId DESC")
+    List<PRODUCT_INTEREST> findAuditPageByProductCodeAndRateCode(@Param("productCode") String productCode,
+                                         @Param("rateCode") String rateCode,
+                                         @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                         @Param("cursorVersionNo") long cursorVersionNo,
+                                         @Param("cursorId") UUID cursorId,
+                                         Pageable pageable);
+    
+    // INSERT-ONLY Pattern: All versions for audit trail, read row by row from a JDBC cursor (NDJSON streaming)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT i FROM PRODUCT_INTEREST i WHERE i.productCode = :productCode " +
+           "ORDER BY i.createdAt DESC, i.versionNo DESC, i.rateId DESC")
+    Stream<PRODUCT_INTEREST> streamAllVersionsByProductCode(@Param("productCode") String productCode);
+    
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT i FROM PRODUCT_INTEREST i WHERE i.productCode = :productCode " +
+           "AND i.rateCode = :rateCode " +
+           "ORDER BY i.createdAt DESC, i.versionNo DESC, i.rateId DESC")
+    Stream<PRODUCT_INTEREST> streamAllVersionsByProductCodeAndRateCode(@Param("productCode") String productCode,
+                                                    @Param("rateCode") String rateCode);
+    
 }
\ No newline at end of file
@@ -2,28 +2,58 @@ package com.lab.product.DAO;
 
 import com.lab.product.entity.PRODUCT_ROLE;
 import com.lab.product.entity.PRODUCT_DETAILS;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRoleRepository extends JpaRepository<PRODUCT_ROLE, UUID> {
     
     // INSERT-ONLY Pattern: Find latest non-deleted versions by productCode
     @Query("SELECT r FROM PRODUCT_ROLE r WHERE r.productCode = :productCode " +
-           "AND r.createdAt = (SELECT MAX(r2.createdAt) FROM PRODUCT_ROLE r2 " +
+           "AND r.versionNo = (SELECT MAX(r2.versionNo) FROM PRODUCT_ROLE r2 " +
            "WHERE r2.roleCode = r.roleCode AND r2.productCode = :productCode) " +
            "AND r.crud_value != 'D' " +
            "ORDER BY r.createdAt DESC")
     List<PRODUCT_ROLE> findByProductCode(@Param("productCode") String productCode);
     
+    // INSERT-ONLY Pattern: Find latest non-deleted versions for several products in one query (batched mapping)
+    @Query("SELECT r FROM PRODUCT_ROLE r WHERE r.productCode IN :productCodes " +
+           "AND r.versionNo = (SELECT MAX(r2.versionNo) FROM PRODUCT_ROLE r2 " +
+           "WHERE r2.roleCode = r.roleCode AND r2.productCode = r.productCode) " +
+           "AND r.crud_value != 'D' " +
+           "ORDER BY r.createdAt DESC")
+    List<PRODUCT_ROLE> findLatestByProductCodes(@Param("productCodes") Collection<String> productCodes);
+    
+    // INSERT-ONLY Pattern: Window-function variant of findLatestByProductCodes (MySQL 8 / H2)
+    @Query(value = "SELECT * FROM (SELECT t.*, ROW_NUMBER() OVER (" +
+           "PARTITION BY t.product_code, t.role_code ORDER BY t.product_version_no DESC) AS rn " +
+           "FROM product_role_types t WHERE t.product_code IN (:productCodes)) latest " +
+           "WHERE latest.rn = 1 AND latest.product_crud_value <> 'D' " +
+           "ORDER BY latest.product_crtn_date DESC", nativeQuery = true)
+    List<PRODUCT_ROLE> findLatestByProductCodesWindowed(@Param("productCodes") Collection<String> productCodes);
+    
+    // INSERT-ONLY Pattern: Pointer-table variant of findLatestByProductCodes (primary-key join)
+    @Query("SELECT r FROM PRODUCT_ROLE r JOIN PRODUCT_CURRENT_VERSION v ON v.rowId = r.roleId " +
+           "WHERE v.id.entityType = com.lab.product.entity.ENUMS.PRODUCT_ENTITY_TYPE.ROLE " +
+           "AND v.id.productCode IN :productCodes " +
+           "AND v.crud_value != 'D' " +
+           "ORDER BY r.createdAt DESC")
+    List<PRODUCT_ROLE> findLatestByProductCodesViaPointer(@Param("productCodes") Collection<String> productCodes);
+    
     // INSERT-ONLY Pattern: Find all versions for audit trail
     @Query("SELECT r FROM PRODUCT_ROLE r WHERE r.productCode = :productCode " +
            "ORDER BY r.createdAt DESC")
@@ -39,7 +69,7 @@ public interface ProductRoleRepository extends JpaRepository<PRODUCT_ROLE, UUID>
     // INSERT-ONLY Pattern: Find specific role by productCode and roleCode
     @Query("SELECT r FROM PRODUCT_ROLE r WHERE r.productCode = :productCode " +
            "AND r.roleCode = :roleCode " +
-           "AND r.createdAt = (SELECT MAX(r2.createdAt) FROM PRODUCT_ROLE r2 " +
+           "AND r.versionNo = (SELECT MAX(r2.versionNo) FROM PRODUCT_ROLE r2 " +
            "WHERE r2.roleCode = :roleCode AND r2.productCode = :productCode) " +
            "AND r.crud_value != 'D'")
     Optional<PRODUCT_ROLE> findByProductCodeAndRoleCode(@Param("productCode") String productCode, 
@@ -47,7 +77,7 @@ public interface ProductRoleRepository extends JpaRepository<PRODUCT_ROLE, UUID>
     
     // INSERT-ONLY Pattern: Find latest non-deleted versions for each roleCode by product
     @Query("SELECT r FROM PRODUCT_ROLE r WHERE r.product = :product " +
-           "AND r.createdAt = (SELECT MAX(r2.createdAt) FROM PRODUCT_ROLE r2 " +
+           "AND r.versionNo = (SELECT MAX(r2.versionNo) FROM PRODUCT_ROLE r2 " +
            "WHERE r2.roleCode = r.roleCode AND r2.product = :product) " +
            "AND r.crud_value != 'D'")
     Page<PRODUCT_ROLE> findByProduct(@Param("product") PRODUCT_DETAILS product, Pageable pageable);
@@ -60,7 +90,7 @@ public interface ProductRoleRepository extends JpaRepository<PRODUCT_ROLE, UUID>
     
     @Query("SELECT r FROM PRODUCT_ROLE r WHERE r.product = :product " +
            "AND r.roleCode = :roleCode " +
-           "AND r.createdAt = (SELECT MAX(r2.createdAt) FROM PRODUCT_ROLE r2 " +
+           "AND r.versionNo = (SELECT MAX(r2.versionNo) FROM PRODUCT_ROLE r2 " +
            "WHERE r2.roleCode = :roleCode AND r2.product = :product) " +
            "AND r.crud_value != 'D'")
     Optional<PRODUCT_ROLE> findByProductAndRoleCode(@Param("product") PRODUCT_DETAILS product, 
@@ -75,4 +105,45 @@ public interface ProductRoleRepository extends JpaRepository<PRODUCT_ROLE, UUID>
            "WHERE r.product = :product AND r.roleCode = :roleCode AND r.crud_value != 'D'")
     boolean existsByProductAndRoleCode(@Param("product") PRODUCT_DETAILS product, 
                                        @Param("roleCode") String roleCode);
+    
+    // INSERT-ONLY Pattern: Keyset page of the audit trail, newest first - rows strictly after the (createdAt, versionNo, id) cursor
+    @Query("SELECT r FROM PRODUCT_ROLE r WHERE r.productCode = :productCode " +
+           "AND (r.createdAt < :cursorCreatedAt " +
+           "OR (r.createdAt = :cursorCreatedAt AND r.versionNo < :cursorVersionNo) " +
+           "OR (r.createdAt = :cursorCreatedAt AND r.versionNo = :cursorVersionNo AND r.roleId < :cursorId)) " +
+           "ORDER BY r.createdAt DESC, r.versionNo DESC, r.roleId DESC")
+    List<PRODUCT_ROLE> findAuditPageByProductCode(@Param("productCode") String productCode,
+                                         @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                         @Param("cursorVersionNo") long cursorVersionNo,
+                                         @Param("cursorId") UUID cursorId,
+                                         Pageable pageable);
+    
+    @Query("SELECT r FROM PRODUCT_ROLE r WHERE r.productCode = :productCode " +
+           "AND r.roleCode = :roleCode " +
+           "AND (r.createdAt < :cursorCreatedAt " +
+           "OR (r.createdAt = :cursorCreatedAt AND r.versionNo < :cursorVersionNo) " +
+           "OR (r.createdAt = :cursorCreatedAt AND r.versionNo = :cursorVersionNo AND r.roleId < :cursorId)) " +
+           "ORDER BY r.createdAt DESC, r.versionNo DESC, r.roleId DESC")
+    List<PRODUCT_ROLE> findAuditPageByProductCodeAndRoleCode(@Param("productCode") String productCode,
+                                         @Param("roleCode") String roleCode,
+                                         @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                         @Param("cursorVersionNo") long cursorVersionNo,
+                                         @Param("cursorId") UUID cursorId,
+                                         Pageable pageable);
+    
+    // INSERT-ONLY Pattern: All versions for audit trail, read row by row from a JDBC cursor (NDJSON streaming)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT r FROM PRODUCT_ROLE r WHERE r.productCode = :productCode " +
+           "ORDER BY r.createdAt DESC, r.versionNo DESC, r.roleId DESC")
+    Stream<PRODUCT_ROLE> streamAllVersionsByProductCode(@Param("productCode") String productCode);
+    
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT r FROM PRODUCT_ROLE r WHERE r.productCode = :productCode " +
+           "AND r.roleCode = :roleCode " +
+           "ORDER BY r.createdAt DESC, r.versionNo DESC, r.roleId DESC")
+    Stream<PRODUCT_ROLE> streamAllVersionsByProductCodeAndRoleCode(@Param("productCode") String productCode,
+                                                    @Param("roleCode") String roleCode);
+    
 }
\ No newline at end of file
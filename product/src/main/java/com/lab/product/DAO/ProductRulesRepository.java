@@ -2,26 +2,56 @@ package com.lab.product.DAO;
 
 import com.lab.product.entity.PRODUCT_RULES;
 import com.lab.product.entity.PRODUCT_DETAILS;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface ProductRulesRepository extends JpaRepository<PRODUCT_RULES, UUID> {
     
     // INSERT-ONLY Pattern: Find latest non-deleted versions by productCode
     @Query("SELECT r FROM PRODUCT_RULES r WHERE r.productCode = :productCode " +
-           "AND r.createdAt = (SELECT MAX(r2.createdAt) FROM PRODUCT_RULES r2 " +
+           "AND r.versionNo = (SELECT MAX(r2.versionNo) FROM PRODUCT_RULES r2 " +
            "WHERE r2.ruleCode = r.ruleCode AND r2.productCode = :productCode) " +
            "AND r.crud_value != 'D' " +
            "ORDER BY r.createdAt DESC")
     List<PRODUCT_RULES> findByProductCode(@Param("productCode") String productCode);
     
+    // INSERT-ONLY Pattern: Find latest non-deleted versions for several products in one query (batched mapping)
+    @Query("SELECT r FROM PRODUCT_RULES r WHERE r.productCode IN :productCodes " +
+           "AND r.versionNo = (SELECT MAX(r2.versionNo) FROM PRODUCT_RULES r2 " +
+           "WHERE r2.ruleCode = r.ruleCode AND r2.productCode = r.productCode) " +
+           "AND r.crud_value != 'D' " +
+           "ORDER BY r.createdAt DESC")
+    List<PRODUCT_RULES> findLatestByProductCodes(@Param("productCodes") Collection<String> productCodes);
+    
+    // INSERT-ONLY Pattern: Window-function variant of findLatestByProductCodes (MySQL 8 / H2)
+    @Query(value = "SELECT * FROM (SELECT t.*, ROW_NUMBER() OVER (" +
+           "PARTITION BY t.product_code, t.rule_code ORDER BY t.product_version_no DESC) AS rn " +
+           "FROM product_rules t WHERE t.product_code IN (:productCodes)) latest " +
+           "WHERE latest.rn = 1 AND latest.product_crud_value <> 'D' " +
+           "ORDER BY latest.product_crtn_date DESC", nativeQuery = true)
+    List<PRODUCT_RULES> findLatestByProductCodesWindowed(@Param("productCodes") Collection<String> productCodes);
+    
+    // INSERT-ONLY Pattern: Pointer-table variant of findLatestByProductCodes (primary-key join)
+    @Query("SELECT r FROM PRODUCT_RULES r JOIN PRODUCT_CURRENT_VERSION v ON v.rowId = r.ruleId " +
+           "WHERE v.id.entityType = com.lab.product.entity.ENUMS.PRODUCT_ENTITY_TYPE.RULE " +
+           "AND v.id.productCode IN :productCodes " +
+           "AND v.crud_value != 'D' " +
+           "ORDER BY r.createdAt DESC")
+    List<PRODUCT_RULES> findLatestByProductCodesViaPointer(@Param("productCodes") Collection<String> productCodes);
+    
     // INSERT-ONLY Pattern: Find all versions for audit trail
     @Query("SELECT r FROM PRODUCT_RULES r WHERE r.productCode = :productCode " +
            "ORDER BY r.createdAt DESC")
@@ -44,8 +74,49 @@ public interface ProductRulesRepository extends JpaRepository<PRODUCT_RULES, UUI
     
     // INSERT-ONLY Pattern: Find latest non-deleted versions for each ruleCode by product
     @Query("SELECT r FROM PRODUCT_RULES r WHERE r.product = :product " +
-           "AND r.createdAt = (SELECT MAX(r2.createdAt) FROM PRODUCT_RULES r2 " +
+           "AND r.versionNo = (SELECT MAX(r2.versionNo) FROM PRODUCT_RULES r2 " +
            "WHERE r2.ruleCode = r.ruleCode AND r2.product = :product) " +
            "AND r.crud_value != 'D'")
     Page<PRODUCT_RULES> findByProduct(@Param("product") PRODUCT_DETAILS product, Pageable pageable);
+    
+    // INSERT-ONLY Pattern: Keyset page of the audit trail, newest first - rows strictly after the (createdAt, versionNo, id) cursor
+    @Query("SELECT r FROM PRODUCT_RULES r WHERE r.productCode = :productCode " +
+           "AND (r.createdAt < :cursorCreatedAt " +
+           "OR (r.createdAt = :cursorCreatedAt AND r.versionNo < :cursorVersionNo) " +
+           "OR (r.createdAt = :cursorCreatedAt AND r.versionNo = :cursorVersionNo AND r.ruleId < :cursorId)) " +
+           "ORDER BY r.createdAt DESC, r.versionNo DESC, r.ruleId DESC")
+    List<PRODUCT_RULES> findAuditPageByProductCode(@Param("productCode") String productCode,
+                                         @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                         @Param("cursorVersionNo") long cursorVersionNo,
+                                         @Param("cursorId") UUID cursorId,
+                                         Pageable pageable);
+    
+    @Query("SELECT r FROM PRODUCT_RULES r WHERE r.productCode = :productCode " +
+           "AND r.ruleCode = :ruleCode " +
+           "AND (r.createdAt < :cursorCreatedAt " +
+           "OR (r.createdAt = :cursorCreatedAt AND r.versionNo < :cursorVersionNo) " +
+           "OR (r.createdAt = :cursorCreatedAt AND r.versionNo = :cursorVersionNo AND r.ruleId < :cursorId)) " +
+           "ORDER BY r.createdAt DESC, r.versionNo DESC, r.ruleId DESC")
+    List<PRODUCT_RULES> findAuditPageByProductCodeAndRuleCode(@Param("productCode") String productCode,
+                                         @Param("ruleCode") String ruleCode,
+                                         @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                         @Param("cursorVersionNo") long cursorVersionNo,
+                                         @Param("cursorId") UUID cursorId,
+                                         Pageable pageable);
+    
+    // INSERT-ONLY Pattern: All versions for audit trail, read row by row from a JDBC cursor (NDJSON streaming)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT r FROM PRODUCT_RULES r WHERE r.productCode = :productCode " +
+           "ORDER BY r.createdAt DESC, r.versionNo DESC, r.ruleId DESC")
+    Stream<PRODUCT_RULES> streamAllVersionsByProductCode(@Param("productCode") String productCode);
+    
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT r FROM PRODUCT_RULES r WHERE r.productCode = :productCode " +
+           "AND r.ruleCode = :ruleCode " +
+           "ORDER BY r.createdAt DESC, r.versionNo DESC, r.ruleId DESC")
+    Stream<PRODUCT_RULES> streamAllVersionsByProductCodeAndRuleCode(@Param("productCode") String productCode,
+                                                    @Param("ruleCode") String ruleCode);
+    
 }
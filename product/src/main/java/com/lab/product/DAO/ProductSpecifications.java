@@ -0,0 +1,91 @@
+package com.lab.product.DAO;
+
+import com.lab.product.config.LatestVersionStrategy;
+import com.lab.product.entity.ENUMS.CRUD_VALUE;
+import com.lab.product.entity.ENUMS.INTEREST_TYPE;
+import com.lab.product.entity.ENUMS.PRODUCT_CURRENCY;
+import com.lab.product.entity.ENUMS.PRODUCT_ENTITY_TYPE;
+import com.lab.product.entity.ENUMS.PRODUCT_STATUS;
+import com.lab.product.entity.ENUMS.PRODUCT_TYPE;
+import com.lab.product.entity.PRODUCT_CURRENT_VERSION;
+import com.lab.product.entity.PRODUCT_DETAILS;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.sql.Date;
+import java.util.Collection;
+
+/**
+ * Composable search predicates on products. Filters return null when their value is absent,
+ * which Specification composition treats as "no restriction".
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    // INSERT-ONLY Pattern: latest non-deleted version per productCode (applied once per search)
+    public static Specification<PRODUCT_DETAILS> latestNotDeleted(LatestVersionStrategy strategy) {
+        // Window functions cannot be expressed in Criteria; WINDOW uses the MAX subquery here
+        return strategy == LatestVersionStrategy.POINTER ? latestViaPointer() : latestViaMaxSubquery();
+    }
+
+    public static Specification<PRODUCT_DETAILS> hasCode(String productCode) {
+        return productCode == null ? null : (root, query, cb) -> cb.equal(root.get("productCode"), productCode);
+    }
+
+    public static Specification<PRODUCT_DETAILS> hasCodeIn(Collection<String> productCodes) {
+        return productCodes == null ? null : (root, query, cb) -> root.get("productCode").in(productCodes);
+    }
+
+    public static Specification<PRODUCT_DETAILS> hasType(PRODUCT_TYPE productType) {
+        return productType == null ? null : (root, query, cb) -> cb.equal(root.get("productType"), productType);
+    }
+
+    public static Specification<PRODUCT_DETAILS> hasStatus(PRODUCT_STATUS status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<PRODUCT_DETAILS> hasCurrency(PRODUCT_CURRENCY currency) {
+        return currency == null ? null : (root, query, cb) -> cb.equal(root.get("currency"), currency);
+    }
+
+    public static Specification<PRODUCT_DETAILS> hasInterestType(INTEREST_TYPE interestType) {
+        return interestType == null ? null : (root, query, cb) -> cb.equal(root.get("interestType"), interestType);
+    }
+
+    // Exclusive bounds: the effective-date range filter excludes both endpoints
+    public static Specification<PRODUCT_DETAILS> effectiveAfter(Date startDate) {
+        return startDate == null ? null : (root, query, cb) -> cb.greaterThan(root.get("efctv_date"), startDate);
+    }
+
+    public static Specification<PRODUCT_DETAILS> effectiveBefore(Date endDate) {
+        return endDate == null ? null : (root, query, cb) -> cb.lessThan(root.get("efctv_date"), endDate);
+    }
+
+    private static Specification<PRODUCT_DETAILS> latestViaMaxSubquery() {
+        return (root, query, cb) -> {
+            Subquery<Long> latest = query.subquery(Long.class);
+            Root<PRODUCT_DETAILS> version = latest.from(PRODUCT_DETAILS.class);
+            latest.select(cb.max(version.<Long>get("versionNo")))
+                .where(cb.equal(version.get("productCode"), root.get("productCode")));
+            return cb.and(
+                cb.equal(root.get("versionNo"), latest),
+                cb.notEqual(root.get("crud_value"), CRUD_VALUE.D));
+        };
+    }
+
+    // Pointer table: the product row is current iff a PRODUCT pointer references it
+    private static Specification<PRODUCT_DETAILS> latestViaPointer() {
+        return (root, query, cb) -> {
+            Subquery<Integer> pointer = query.subquery(Integer.class);
+            Root<PRODUCT_CURRENT_VERSION> current = pointer.from(PRODUCT_CURRENT_VERSION.class);
+            pointer.select(cb.literal(1)).where(
+                cb.equal(current.get("rowId"), root.get("productId")),
+                cb.equal(current.get("id").get("entityType"), PRODUCT_ENTITY_TYPE.PRODUCT),
+                cb.notEqual(current.get("crud_value"), CRUD_VALUE.D));
+            return cb.exists(pointer);
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.lab.product.DAO;
+
+import com.lab.product.DTO.ProductSummaryDTO;
+import com.lab.product.entity.PRODUCT_DETAILS;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+// Repository fragment: summary projection filtered by a Specification
+public interface ProductSummaryQueries {
+    List<ProductSummaryDTO> findSummaries(Specification<PRODUCT_DETAILS> specification);
+}
@@ -0,0 +1,35 @@
+package com.lab.product.DAO;
+
+import com.lab.product.DTO.ProductSummaryDTO;
+import com.lab.product.entity.PRODUCT_DETAILS;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+class ProductSummaryQueriesImpl implements ProductSummaryQueries {
+
+    private final EntityManager entityManager;
+
+    // Constructor expression, like findAllSummaries: no managed entities, no child tables
+    @Override
+    public List<ProductSummaryDTO> findSummaries(Specification<PRODUCT_DETAILS> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductSummaryDTO> query = cb.createQuery(ProductSummaryDTO.class);
+        Root<PRODUCT_DETAILS> root = query.from(PRODUCT_DETAILS.class);
+        query.select(cb.construct(ProductSummaryDTO.class,
+            root.get("productId"), root.get("productCode"), root.get("productName"),
+            root.get("productType"), root.get("status"), root.get("currency")));
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getResultList();
+    }
+}
@@ -2,28 +2,58 @@ package com.lab.product.DAO;
 
 import com.lab.product.entity.PRODUCT_TRANSACTION;
 import com.lab.product.entity.PRODUCT_DETAILS;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductTransactionRepository extends JpaRepository<PRODUCT_TRANSACTION, UUID> {
     
     // INSERT-ONLY Pattern: Find latest non-deleted versions by productCode
     @Query("SELECT t FROM PRODUCT_TRANSACTION t WHERE t.productCode = :productCode " +
-           "AND t.createdAt = (SELECT MAX(t2.createdAt) FROM PRODUCT_TRANSACTION t2 " +
+           "AND t.versionNo = (SELECT MAX(t2.versionNo) FROM PRODUCT_TRANSACTION t2 " +
            "WHERE t2.transactionCode = t.transactionCode AND t2.productCode = :productCode) " +
            "AND t.crud_value != 'D' " +
            "ORDER BY t.createdAt DESC")
     List<PRODUCT_TRANSACTION> findByProductCode(@Param("productCode") String productCode);
     
+    // INSERT-ONLY Pattern: Find latest non-deleted versions for several products in one query (batched mapping)
+    @Query("SELECT t FROM PRODUCT_TRANSACTION t WHERE t.productCode IN :productCodes " +
+           "AND t.versionNo = (SELECT MAX(t2.versionNo) FROM PRODUCT_TRANSACTION t2 " +
+           "WHERE t2.transactionCode = t.transactionCode AND t2.productCode = t.productCode) " +
+           "AND t.crud_value != 'D' " +
+           "ORDER BY t.createdAt DESC")
+    List<PRODUCT_TRANSACTION> findLatestByProductCodes(@Param("productCodes") Collection<String> productCodes);
+    
+    // INSERT-ONLY Pattern: Window-function variant of findLatestByProductCodes (MySQL 8 / H2)
+    @Query(value = "SELECT * FROM (SELECT t.*, ROW_NUMBER() OVER (" +
+           "PARTITION BY t.product_code, t.transaction_code ORDER BY t.product_version_no DESC) AS rn " +
+           "FROM product_transaction_types t WHERE t.product_code IN (:productCodes)) latest " +
+           "WHERE latest.rn = 1 AND latest.product_crud_value <> 'D' " +
+           "ORDER BY latest.created_at DESC", nativeQuery = true)
+    List<PRODUCT_TRANSACTION> findLatestByProductCodesWindowed(@Param("productCodes") Collection<String> productCodes);
+    
+    // INSERT-ONLY Pattern: Pointer-table variant of findLatestByProductCodes (primary-key join)
+    @Query("SELECT t FROM PRODUCT_TRANSACTION t JOIN PRODUCT_CURRENT_VERSION v ON v.rowId = t.id " +
+           "WHERE v.id.entityType = com.lab.product.entity.ENUMS.PRODUCT_ENTITY_TYPE.TRANSACTION " +
+           "AND v.id.productCode IN :productCodes " +
+           "AND v.crud_value != 'D' " +
+           "ORDER BY t.createdAt DESC")
+    List<PRODUCT_TRANSACTION> findLatestByProductCodesViaPointer(@Param("productCodes") Collection<String> productCodes);
+    
     // INSERT-ONLY Pattern: Find all versions for audit trail
     @Query("SELECT t FROM PRODUCT_TRANSACTION t WHERE t.productCode = :productCode " +
            "ORDER BY t.createdAt DESC")
@@ -39,7 +69,7 @@ public interface ProductTransactionRepository extends JpaRepository<PRODUCT_TRAN
     // INSERT-ONLY Pattern: Find specific transaction by productCode and transactionCode
     @Query("SELECT t FROM PRODUCT_TRANSACTION t WHERE t.productCode = :productCode " +
            "AND t.transactionCode = :transactionCode " +
-           "AND t.createdAt = (SELECT MAX(t2.createdAt) FROM PRODUCT_TRANSACTION t2 " +
+           "AND t.versionNo = (SELECT MAX(t2.versionNo) FROM PRODUCT_TRANSACTION t2 " +
            "WHERE t2.transactionCode = :transactionCode AND t2.productCode = :productCode) " +
            "AND t.crud_value != 'D'")
     Optional<PRODUCT_TRANSACTION> findByProductCodeAndTransactionCode(@Param("productCode") String productCode, 
@@ -47,7 +77,7 @@ public interface ProductTransactionRepository extends JpaRepository<PRODUCT_TRAN
     
     // INSERT-ONLY Pattern: Find latest non-deleted versions for each transactionCode by product
     @Query("SELECT t FROM PRODUCT_TRANSACTION t WHERE t.product = :product " +
-           "AND t.createdAt = (SELECT MAX(t2.createdAt) FROM PRODUCT_TRANSACTION t2 " +
+           "AND t.versionNo = (SELECT MAX(t2.versionNo) FROM PRODUCT_TRANSACTION t2 " +
            "WHERE t2.transactionCode = t.transactionCode AND t2.product = :product) " +
            "AND t.crud_value != 'D'")
     Page<PRODUCT_TRANSACTION> findByProduct(@Param("product") PRODUCT_DETAILS product, Pageable pageable);
@@ -60,7 +90,7 @@ public interface ProductTransactionRepository extends JpaRepository<PRODUCT_TRAN
     
     @Query("SELECT t FROM PRODUCT_TRANSACTION t WHERE t.product = :product " +
            "AND t.transactionCode = :transactionCode " +
-           "AND t.createdAt = (SELECT MAX(t2.createdAt) FROM PRODUCT_TRANSACTION t2 " +
+           "AND t.versionNo = (SELECT MAX(t2.versionNo) FROM PRODUCT_TRANSACTION t2 " +
            "WHERE t2.transactionCode = :transactionCode AND t2.product = :product) " +
            "AND t.crud_value != 'D'")
     Optional<PRODUCT_TRANSACTION> findByProductAndTransactionCode(@Param("product") PRODUCT_DETAILS product, 
@@ -75,4 +105,45 @@ public interface ProductTransactionRepository extends JpaRepository<PRODUCT_TRAN
            "WHERE t.product = :product AND t.transactionCode = :transactionCode AND t.crud_value != 'D'")
     boolean existsByProductAndTransactionCode(@Param("product") PRODUCT_DETAILS product, 
                                               @Param("transactionCode") String transactionCode);
+    
+    // INSERT-ONLY Pattern: Keyset page of the audit trail, newest first - rows strictly after the (createdAt, versionNo, id) cursor
+    @Query("SELECT t FROM PRODUCT_TRANSACTION t WHERE t.productCode = :productCode " +
+           "AND (t.createdAt < :cursorCreatedAt " +
+           "OR (t.createdAt = :cursorCreatedAt AND t.versionNo < :cursorVersionNo) " +
+           "OR (t.createdAt = :cursorCreatedAt AND t.versionNo = :cursorVersionNo AND t.id < :cursorId)) " +
+           "ORDER BY t.createdAt DESC, t.versionNo DESC, t.id DESC")
+    List<PRODUCT_TRANSACTION> findAuditPageByProductCode(@Param("productCode") String productCode,
+                                         @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                         @Param("cursorVersionNo") long cursorVersionNo,
+                                         @Param("cursorId") UUID cursorId,
+                                         Pageable pageable);
+    
+    @Query("SELECT t FROM PRODUCT_TRANSACTION t WHERE t.productCode = :productCode " +
+           "AND t.transactionCode = :transactionCode " +
+           "AND (t.createdAt < :cursorCreatedAt " +
+           "OR (t.createdAt = :cursorCreatedAt AND t.versionNo < :cursorVersionNo) " +
+           "OR (t.createdAt = :cursorCreatedAt AND t.versionNo = :cursorVersionNo AND t.id < :cursorId)) " +
+           "ORDER BY t.createdAt DESC, t.versionNo DESC, t.id DESC")
+    List<PRODUCT_TRANSACTION> findAuditPageByProductCodeAndTransactionCode(@Param("productCode") String productCode,
+                                         @Param("transactionCode") String transactionCode,
+                                         @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                         @Param("cursorVersionNo") long cursorVersionNo,
+                                         @Param("cursorId") UUID cursorId,
+                                         Pageable pageable);
+    
+    // INSERT-ONLY Pattern: All versions for audit trail, read row by row from a JDBC cursor (NDJSON streaming)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT t FROM PRODUCT_TRANSACTION t WHERE t.productCode = :productCode " +
+           "ORDER BY t.createdAt DESC, t.versionNo DESC, t.id DESC")
+    Stream<PRODUCT_TRANSACTION> streamAllVersionsByProductCode(@Param("productCode") String productCode);
+    
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT t FROM PRODUCT_TRANSACTION t WHERE t.productCode = :productCode " +
+           "AND t.transactionCode = :transactionCode " +
+           "ORDER BY t.createdAt DESC, t.versionNo DESC, t.id DESC")
+    Stream<PRODUCT_TRANSACTION> streamAllVersionsByProductCodeAndTransactionCode(@Param("productCode") String productCode,
+                                                    @Param("transactionCode") String transactionCode);
+    
 }
\ No newline at end of file
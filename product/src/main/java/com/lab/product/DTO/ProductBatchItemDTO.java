@@ -0,0 +1,16 @@
+package com.lab.product.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One entry of a multi-get response, in request order; product is null when found is false
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchItemDTO {
+    private String productCode;
+    private boolean found;
+    // ProductDetailsDTO, or its sparse view when fields= is given
+    private Object product;
+}
@@ -0,0 +1,38 @@
+package com.lab.product.DTO;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// A product together with its full set of child rows, written in one transaction
+@Data
+public class ProductBundleRequestDTO {
+
+    @Valid
+    @NotNull(message = "Product is required")
+    private CreateOrUpdateProductRequestDTO product;
+
+    @Valid
+    private List<ProductRuleRequestDTO> productRules = new ArrayList<>();
+
+    @Valid
+    private List<ProductChargeRequestDTO> productCharges = new ArrayList<>();
+
+    @Valid
+    private List<ProductRoleRequestDTO> productRoles = new ArrayList<>();
+
+    @Valid
+    private List<ProductTransactionRequestDTO> productTransactions = new ArrayList<>();
+
+    @Valid
+    private List<ProductInterestRequestDTO> productInterests = new ArrayList<>();
+
+    @Valid
+    private List<ProductBalanceRequestDTO> productBalances = new ArrayList<>();
+
+    @Valid
+    private List<ProductCommunicationRequestDTO> productCommunications = new ArrayList<>();
+}
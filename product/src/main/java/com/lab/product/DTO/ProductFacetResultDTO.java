@@ -0,0 +1,19 @@
+package com.lab.product.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+// Facet query result: matching product codes plus per-value counts for every facet
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacetResultDTO {
+    private int total;
+    private List<String> productCodes;
+    // facet parameter name -> facet value -> number of matching products
+    private Map<String, Map<String, Integer>> counts;
+}
@@ -0,0 +1,29 @@
+package com.lab.product.DTO;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+// One row of a bulk rate revision: the new rates for one product's rate code; null rates stay unchanged
+@Data
+public class ProductInterestRevisionDTO {
+    @NotBlank(message = "Product code is required")
+    private String productCode;
+
+    @NotBlank(message = "Rate code is required")
+    private String rateCode;
+
+    @DecimalMin(value = "0.0", inclusive = false, message = "Cumulative rate must be greater than 0")
+    private BigDecimal rateCumulative;
+
+    @DecimalMin(value = "0.0", inclusive = false, message = "Non-cumulative monthly rate must be greater than 0")
+    private BigDecimal rateNonCumulativeMonthly;
+
+    @DecimalMin(value = "0.0", inclusive = false, message = "Non-cumulative quarterly rate must be greater than 0")
+    private BigDecimal rateNonCumulativeQuarterly;
+
+    @DecimalMin(value = "0.0", inclusive = false, message = "Non-cumulative yearly rate must be greater than 0")
+    private BigDecimal rateNonCumulativeYearly;
+}
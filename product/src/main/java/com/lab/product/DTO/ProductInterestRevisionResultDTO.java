@@ -0,0 +1,24 @@
+package com.lab.product.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Outcome of a bulk rate revision, with the write throughput
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductInterestRevisionResultDTO {
+    private int requested;
+    private int revised;
+    // revisions equal to the current rate; the current version is kept and no row is written
+    private int unchanged;
+    // "productCode/rateCode" of rows without a current (non-deleted) rate; nothing is written for them
+    private List<String> notFound;
+    // flushes of up to REVISION_CHUNK_SIZE rows, each sent as JDBC batches
+    private int chunks;
+    private long elapsedMillis;
+    private double ratesPerSecond;
+}
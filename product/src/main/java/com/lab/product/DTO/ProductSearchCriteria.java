@@ -0,0 +1,18 @@
+package com.lab.product.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Search filters as received from the API; every non-null filter is combined with AND
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchCriteria {
+    private String productType;
+    private String status;
+    private String startDate;
+    private String endDate;
+    private String currency;
+    private String interestType;
+}
@@ -0,0 +1,23 @@
+package com.lab.product.DTO;
+
+import com.lab.product.entity.ENUMS.PRODUCT_CURRENCY;
+import com.lab.product.entity.ENUMS.PRODUCT_STATUS;
+import com.lab.product.entity.ENUMS.PRODUCT_TYPE;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+// Lightweight list view (view=summary) - built by a JPQL constructor expression straight from products
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSummaryDTO {
+    private UUID productId;
+    private String productCode;
+    private String productName;
+    private PRODUCT_TYPE productType;
+    private PRODUCT_STATUS status;
+    private PRODUCT_CURRENCY currency;
+}
@@ -0,0 +1,8 @@
+package com.lab.product.Exception;
+
+// If-Match named a version that is no longer the current one
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.lab.product.Exception;
+
+/**
+ * Stackless "Product not found" for productCode lookups. Unknown codes are expected traffic
+ * (clients probing codes), so building a stack trace for each one is pure overhead.
+ */
+public class ProductNotFoundException extends ResourceNotFoundException {
+    public ProductNotFoundException(String productCode) {
+        super("Product not found: " + productCode, false);
+    }
+}
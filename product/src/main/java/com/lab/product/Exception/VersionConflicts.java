@@ -0,0 +1,26 @@
+package com.lab.product.Exception;
+
+import org.hibernate.exception.ConstraintViolationException;
+
+import java.util.Locale;
+
+// INSERT-ONLY Pattern: two writers picked the same versionNo for one key (unique index uk_<table>_code_version);
+// any other integrity violation is a bad request or a bug, not a conflict to retry
+public final class VersionConflicts {
+
+    private static final String VERSION_CONSTRAINT_SUFFIX = "_code_version";
+
+    private VersionConflicts() {
+    }
+
+    public static boolean isVersionConflict(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                String constraint = violation.getConstraintName();
+                return constraint != null
+                    && constraint.toLowerCase(Locale.ROOT).contains(VERSION_CONSTRAINT_SUFFIX);
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,75 @@
+package com.lab.product.cache;
+
+import com.lab.product.event.ProductChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Collects the productCodes of the ProductChangedEvents published in one transaction and hands them
+ * to the owner once, after commit. One product write publishes an event per child row, so in-memory
+ * indexes re-read each written product once instead of once per row.
+ * <p>
+ * The owner runs on a background thread, so the write does not wait for the index and a failed
+ * re-read never reaches the client after its transaction has committed; it is logged and the
+ * owner's scheduled rebuild repairs the index.
+ */
+@Slf4j
+final class CommittedProductCodes {
+
+    // One thread for all indexes: re-reads of the same product run in commit order
+    private static final ExecutorService REINDEX_EXECUTOR =
+        Executors.newSingleThreadExecutor(Thread.ofVirtual().name("product-index-reindex").factory());
+
+    private CommittedProductCodes() {
+    }
+
+    // Call from a synchronous @EventListener; without a transaction the code is handed over immediately
+    static void collect(Object owner, ProductChangedEvent event, Consumer<Set<String>> afterCommit) {
+        String productCode = event.getProductCode();
+        if (productCode == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            handOver(owner, Set.of(productCode), afterCommit);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<String> pending = (Set<String>) TransactionSynchronizationManager.getResource(owner);
+        if (pending == null) {
+            Set<String> codes = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(owner, codes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    handOver(owner, codes, afterCommit);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(owner);
+                }
+            });
+            pending = codes;
+        }
+        pending.add(productCode);
+    }
+
+    // Also for codes an owner re-reads itself (e.g. after a rebuild), so they queue behind committed writes
+    static void handOver(Object owner, Set<String> codes, Consumer<Set<String>> afterCommit) {
+        REINDEX_EXECUTOR.execute(() -> {
+            try {
+                afterCommit.accept(codes);
+            } catch (RuntimeException e) {
+                log.warn("{} re-read of {} failed, left to the scheduled rebuild",
+                         owner.getClass().getSimpleName(), codes, e);
+            }
+        });
+    }
+}
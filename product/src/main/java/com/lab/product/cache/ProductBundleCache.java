@@ -0,0 +1,188 @@
+package com.lab.product.cache;
+
+import com.lab.product.DTO.ProductDetailsDTO;
+import com.lab.product.event.ProductChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Size- and TTL-bounded cache of fully assembled latest-version ProductDetailsDTO bundles keyed by productCode.
+ * Every insert-only write (product or child) invalidates the product's entry, once synchronously when the
+ * write happens and once more after commit, so a reader racing the writing transaction cannot keep a stale bundle.
+ * Entries are keyed by the case-folded productCode, so invalidating one spelling drops them all in O(1), but an
+ * entry is only served for the spelling it was loaded with.
+ */
+@Component
+public class ProductBundleCache {
+
+    static final String CACHE_NAME = "productBundles";
+
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // access-order LinkedHashMap = LRU iteration order
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    // bumped by every invalidation of the key; a load that overlapped one is not cached.
+    // Never shrinks (a removed counter could restart at a value an in-flight load captured): one Long per written code.
+    private final ConcurrentHashMap<String, Long> generations = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private final Counter expirations;
+
+    // Coalesces concurrent misses for the same productCode into one load
+    private final SingleFlight<String, Entry> loads;
+
+    public ProductBundleCache(MeterRegistry meterRegistry,
+                              @Value("${product.cache.bundle.max-entries:1000}") int maxEntries,
+                              @Value("${product.cache.bundle.ttl:60s}") Duration ttl,
+                              @Value("${product.cache.bundle.coalesce-timeout:5s}") Duration coalesceTimeout) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.loads = new SingleFlight<>(CACHE_NAME, coalesceTimeout, meterRegistry);
+        this.hits = cacheCounter(meterRegistry, "cache.gets", "result", "hit");
+        this.misses = cacheCounter(meterRegistry, "cache.gets", "result", "miss");
+        this.evictions = cacheCounter(meterRegistry, "cache.evictions", "cause", "size");
+        this.expirations = cacheCounter(meterRegistry, "cache.evictions", "cause", "expired");
+        Gauge.builder("cache.size", this, ProductBundleCache::size)
+            .tag("cache", CACHE_NAME)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached bundle for productCode, or loads, caches and returns it.
+     * Concurrent misses for the same productCode are coalesced into a single load.
+     * Loader exceptions (e.g. ResourceNotFoundException) propagate and nothing is cached.
+     */
+    public ProductDetailsDTO getOrLoad(String productCode, Supplier<ProductDetailsDTO> loader) {
+        String key = cacheKey(productCode);
+        ProductDetailsDTO cached = get(key, productCode);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        // Only one load per productCode runs at a time; concurrent misses share its result
+        Entry loaded = loads.execute(key, () -> load(key, productCode, loader));
+        if (!loaded.productCode().equals(productCode)) {
+            // shared load of another spelling: not necessarily this code's bundle if the database compares case-sensitively
+            loaded = load(key, productCode, loader);
+        }
+        return loaded.value();
+    }
+
+    public void invalidate(String productCode) {
+        if (productCode == null) {
+            return;
+        }
+        // productCode lookups may be case-insensitive in the database: the folded key covers every spelling
+        String key = cacheKey(productCode);
+        lock.lock();
+        try {
+            generations.merge(key, 1L, Long::sum);
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+        loads.forget(key);
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Synchronous invalidation, inside the writing transaction
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate(event.getProductCode());
+    }
+
+    // Second invalidation once the new version is visible to other transactions
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChangeCommitted(ProductChangedEvent event) {
+        invalidate(event.getProductCode());
+    }
+
+    private Entry load(String key, String productCode, Supplier<ProductDetailsDTO> loader) {
+        long generation = generations.getOrDefault(key, 0L);
+        Entry loaded = new Entry(productCode, loader.get(), System.nanoTime());
+        put(key, loaded, generation);
+        return loaded;
+    }
+
+    private ProductDetailsDTO get(String key, String productCode) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry == null || !entry.productCode.equals(productCode)) {
+                return null;
+            }
+            if (System.nanoTime() - entry.loadedAt > ttlNanos) {
+                entries.remove(key);
+                expirations.increment();
+                return null;
+            }
+            return entry.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(String key, Entry entry, long generation) {
+        if (entry.value == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (generations.getOrDefault(key, 0L) != generation) {
+                return;
+            }
+            entries.put(key, entry);
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while (entries.size() > maxEntries && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String cacheKey(String productCode) {
+        return productCode.toUpperCase(Locale.ROOT);
+    }
+
+    private static Counter cacheCounter(MeterRegistry registry, String name, String tagKey, String tagValue) {
+        return Counter.builder(name)
+            .tag("cache", CACHE_NAME)
+            .tag(tagKey, tagValue)
+            .register(registry);
+    }
+
+    // productCode: the spelling the bundle was loaded for
+    private record Entry(String productCode, ProductDetailsDTO value, long loadedAt) {
+    }
+}
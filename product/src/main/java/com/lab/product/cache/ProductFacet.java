@@ -0,0 +1,54 @@
+package com.lab.product.cache;
+
+import com.lab.product.Exception.ValidationException;
+import com.lab.product.entity.ENUMS.PRODUCT_BALANCE_TYPE;
+import com.lab.product.entity.ENUMS.PRODUCT_CURRENCY;
+import com.lab.product.entity.ENUMS.PRODUCT_STATUS;
+import com.lab.product.entity.ENUMS.PRODUCT_TRANSACTION_TYPE;
+import com.lab.product.entity.ENUMS.PRODUCT_TYPE;
+
+import java.util.Locale;
+
+/**
+ * Catalog facets held by {@link ProductFacetIndex}: one bitmap per enum value of each facet.
+ * The first three come from the product row, the last two from its latest active balances
+ * and allowed transactions.
+ */
+public enum ProductFacet {
+    TYPE("productType", PRODUCT_TYPE.class),
+    STATUS("status", PRODUCT_STATUS.class),
+    CURRENCY("currency", PRODUCT_CURRENCY.class),
+    BALANCE_TYPE("balanceType", PRODUCT_BALANCE_TYPE.class),
+    TRANSACTION_TYPE("transactionType", PRODUCT_TRANSACTION_TYPE.class);
+
+    private final String paramName;
+    private final Class<? extends Enum<?>> valueType;
+
+    ProductFacet(String paramName, Class<? extends Enum<?>> valueType) {
+        this.paramName = paramName;
+        this.valueType = valueType;
+    }
+
+    public String getParamName() {
+        return paramName;
+    }
+
+    public Enum<?>[] facetValues() {
+        return valueType.getEnumConstants();
+    }
+
+    public int size() {
+        return valueType.getEnumConstants().length;
+    }
+
+    // Case-insensitive, like the search endpoint
+    public Enum<?> parse(String value) {
+        String name = value.trim().toUpperCase(Locale.ROOT);
+        for (Enum<?> constant : valueType.getEnumConstants()) {
+            if (constant.name().equals(name)) {
+                return constant;
+            }
+        }
+        throw new ValidationException("Invalid " + paramName + ": " + value);
+    }
+}
@@ -0,0 +1,328 @@
+package com.lab.product.cache;
+
+import com.lab.product.DAO.ProductDetailsRepository;
+import com.lab.product.DAO.ProductSpecifications;
+import com.lab.product.DTO.ProductFacetResultDTO;
+import com.lab.product.DTO.ProductSummaryDTO;
+import com.lab.product.config.LatestVersionProperties;
+import com.lab.product.entity.PRODUCT_BALANCE;
+import com.lab.product.entity.PRODUCT_DETAILS;
+import com.lab.product.entity.PRODUCT_TRANSACTION;
+import com.lab.product.event.ProductChangedEvent;
+import com.lab.product.service.helper.ProductBundleLoader;
+import com.lab.product.service.helper.ProductChildBundle;
+import com.lab.product.service.helper.ProductChildType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory bitmap index over the latest non-deleted product versions, for faceted catalog search.
+ * Every productCode gets a dense int id; each facet value ({@link ProductFacet}) has a BitSet of the
+ * ids that carry it. Facet queries are answered with bitmap AND/OR and cardinality, without a database
+ * round trip.
+ * <p>
+ * Plain BitSets rather than compressed bitmaps: ids are dense (assigned 0..n-1 and compacted by every
+ * rebuild), so a bitmap of n products is n/8 bytes whatever its density, about 400 KB for 100,000
+ * products across all facet values. A compressed format only saves space on sparse id ranges and
+ * would add a dependency for no gain at catalog sizes.
+ * <p>
+ * The index is built at startup (and periodically, to drop stale ids) and kept current by re-reading
+ * the products written in a transaction once that transaction commits. Those re-reads, including the
+ * one for codes written during a rebuild, run on the single {@link CommittedProductCodes} thread, so an
+ * older read never overwrites a newer one.
+ */
+@Slf4j
+@Component
+public class ProductFacetIndex {
+
+    private static final EnumSet<ProductChildType> FACET_CHILDREN =
+        EnumSet.of(ProductChildType.BALANCES, ProductChildType.TRANSACTIONS);
+
+    // Products re-read per child query batch during a full build
+    private static final int BUILD_CHUNK_SIZE = 500;
+
+    private final ProductDetailsRepository productDetailsRepository;
+    private final ProductBundleLoader bundleLoader;
+    private final LatestVersionProperties latestVersion;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // null until the first build completes
+    private Bitmaps bitmaps;
+    // codes written while a rebuild is reading the database; re-read once the rebuild is swapped in
+    private Set<String> writtenDuringRebuild;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public ProductFacetIndex(ProductDetailsRepository productDetailsRepository,
+                             ProductBundleLoader bundleLoader,
+                             LatestVersionProperties latestVersion) {
+        this.productDetailsRepository = productDetailsRepository;
+        this.bundleLoader = bundleLoader;
+        this.latestVersion = latestVersion;
+    }
+
+    /**
+     * Products matching every selected facet, where a facet matches if the product has any of the
+     * selected values (AND across facets, OR within a facet). Counts per facet value are computed
+     * against the selection on the other facets, so a client can show how many products each
+     * additional or alternative value would yield.
+     */
+    public ProductFacetResultDTO query(Map<ProductFacet, Set<Enum<?>>> selection) {
+        ensureBuilt();
+        lock.readLock().lock();
+        try {
+            Map<ProductFacet, BitSet> selected = new EnumMap<>(ProductFacet.class);
+            selection.forEach((facet, values) -> selected.put(facet, bitmaps.union(facet, values)));
+
+            BitSet matches = bitmaps.matching(selected, null);
+            List<String> codes = new ArrayList<>(matches.cardinality());
+            matches.stream().forEach(id -> codes.add(bitmaps.codes.get(id)));
+            codes.sort(null);
+
+            Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+            for (ProductFacet facet : ProductFacet.values()) {
+                // a facet's own selection does not narrow its counts
+                BitSet base = selected.containsKey(facet) ? bitmaps.matching(selected, facet) : matches;
+                Map<String, Integer> valueCounts = new LinkedHashMap<>();
+                for (Enum<?> value : facet.facetValues()) {
+                    BitSet hits = (BitSet) base.clone();
+                    hits.and(bitmaps.get(facet, value));
+                    valueCounts.put(value.name(), hits.cardinality());
+                }
+                counts.put(facet.getParamName(), valueCounts);
+            }
+            return new ProductFacetResultDTO(codes.size(), codes, counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Synchronous, inside the writing transaction: collect the codes, re-read them once in the background after commit
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        CommittedProductCodes.collect(this, event, this::reindex);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // the first facet query retries the build
+            log.warn("Product facet index build failed", e);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${product.facet-index.rebuild-interval:PT30M}",
+               fixedDelayString = "${product.facet-index.rebuild-interval:PT30M}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                writtenDuringRebuild = new LinkedHashSet<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Bitmaps next = new Bitmaps();
+            List<ProductSummaryDTO> products = productDetailsRepository.findSummaries(latestProducts(null));
+            for (int from = 0; from < products.size(); from += BUILD_CHUNK_SIZE) {
+                List<ProductSummaryDTO> chunk = products.subList(from, Math.min(products.size(), from + BUILD_CHUNK_SIZE));
+                Map<String, ProductChildBundle> children = bundleLoader.loadLatestChildren(
+                    chunk.stream().map(ProductSummaryDTO::getProductCode).toList(), FACET_CHILDREN);
+                chunk.forEach(p -> next.put(p.getProductCode(), facetsOf(p, children.get(p.getProductCode()))));
+            }
+
+            Set<String> written;
+            lock.writeLock().lock();
+            try {
+                bitmaps = next;
+                written = writtenDuringRebuild;
+                writtenDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            // queued behind re-reads already in flight, which may have read these codes before the rebuild did
+            CommittedProductCodes.handOver(this, written, this::reindex);
+            log.info("Product facet index built: {} products", products.size());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // Startup build failed or has not finished yet: build now, once for all waiting queries
+    private void ensureBuilt() {
+        if (isBuilt()) {
+            return;
+        }
+        rebuildLock.lock();
+        try {
+            if (!isBuilt()) {
+                rebuild();
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private boolean isBuilt() {
+        lock.readLock().lock();
+        try {
+            return bitmaps != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Re-reads the latest version of each code and replaces its bits (clears them if it is deleted)
+    private void reindex(Collection<String> productCodes) {
+        if (productCodes.isEmpty()) {
+            return;
+        }
+        Map<String, Map<ProductFacet, Set<Enum<?>>>> facets = new HashMap<>();
+        List<String> codes = new ArrayList<>(productCodes);
+        for (int from = 0; from < codes.size(); from += BUILD_CHUNK_SIZE) {
+            List<String> chunk = codes.subList(from, Math.min(codes.size(), from + BUILD_CHUNK_SIZE));
+            Map<String, ProductSummaryDTO> latest = new HashMap<>();
+            productDetailsRepository.findSummaries(latestProducts(chunk))
+                .forEach(p -> latest.put(p.getProductCode(), p));
+            Map<String, ProductChildBundle> children = bundleLoader.loadLatestChildren(chunk, FACET_CHILDREN);
+            for (String productCode : chunk) {
+                ProductSummaryDTO product = latest.get(productCode);
+                facets.put(productCode, product == null ? null : facetsOf(product, children.get(productCode)));
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (writtenDuringRebuild != null) {
+                writtenDuringRebuild.addAll(productCodes);
+            }
+            if (bitmaps != null) {
+                facets.forEach(bitmaps::put);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // productCodes == null: every product
+    private Specification<PRODUCT_DETAILS> latestProducts(Collection<String> productCodes) {
+        return Specification.allOf(
+            ProductSpecifications.latestNotDeleted(latestVersion.strategyFor(LatestVersionProperties.PRODUCTS)),
+            ProductSpecifications.hasCodeIn(productCodes));
+    }
+
+    private static Map<ProductFacet, Set<Enum<?>>> facetsOf(ProductSummaryDTO product, ProductChildBundle children) {
+        Map<ProductFacet, Set<Enum<?>>> facets = new EnumMap<>(ProductFacet.class);
+        add(facets, ProductFacet.TYPE, product.getProductType());
+        add(facets, ProductFacet.STATUS, product.getStatus());
+        add(facets, ProductFacet.CURRENCY, product.getCurrency());
+        if (children != null) {
+            for (PRODUCT_BALANCE balance : children.getBalances()) {
+                if (!Boolean.FALSE.equals(balance.getIsActive())) {
+                    add(facets, ProductFacet.BALANCE_TYPE, balance.getBalanceType());
+                }
+            }
+            for (PRODUCT_TRANSACTION transaction : children.getTransactions()) {
+                if (transaction.isAllowed()) {
+                    add(facets, ProductFacet.TRANSACTION_TYPE, transaction.getTransactionType());
+                }
+            }
+        }
+        return facets;
+    }
+
+    private static void add(Map<ProductFacet, Set<Enum<?>>> facets, ProductFacet facet, Enum<?> value) {
+        if (value != null) {
+            facets.computeIfAbsent(facet, f -> new LinkedHashSet<>()).add(value);
+        }
+    }
+
+    /**
+     * Id assignment plus one BitSet per facet value. Ids of deleted products are not reused;
+     * their bits are cleared and the periodic rebuild compacts them away.
+     */
+    private static final class Bitmaps {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> codes = new ArrayList<>();
+        private final BitSet live = new BitSet();
+        private final Map<ProductFacet, BitSet[]> values = new EnumMap<>(ProductFacet.class);
+
+        Bitmaps() {
+            for (ProductFacet facet : ProductFacet.values()) {
+                BitSet[] bitsets = new BitSet[facet.size()];
+                for (int i = 0; i < bitsets.length; i++) {
+                    bitsets[i] = new BitSet();
+                }
+                values.put(facet, bitsets);
+            }
+        }
+
+        // facets == null: the product has no live version
+        void put(String productCode, Map<ProductFacet, Set<Enum<?>>> facets) {
+            Integer existing = ids.get(productCode);
+            if (existing == null && facets == null) {
+                return;
+            }
+            int id = existing != null ? existing : assign(productCode);
+            values.values().forEach(bitsets -> {
+                for (BitSet bits : bitsets) {
+                    bits.clear(id);
+                }
+            });
+            if (facets == null) {
+                live.clear(id);
+                return;
+            }
+            live.set(id);
+            facets.forEach((facet, facetValues) -> facetValues.forEach(value -> get(facet, value).set(id)));
+        }
+
+        BitSet get(ProductFacet facet, Enum<?> value) {
+            return values.get(facet)[value.ordinal()];
+        }
+
+        BitSet union(ProductFacet facet, Set<Enum<?>> facetValues) {
+            BitSet union = new BitSet();
+            facetValues.forEach(value -> union.or(get(facet, value)));
+            return union;
+        }
+
+        // live AND every selected facet except the skipped one
+        BitSet matching(Map<ProductFacet, BitSet> selected, ProductFacet skip) {
+            BitSet result = (BitSet) live.clone();
+            selected.forEach((facet, bits) -> {
+                if (facet != skip) {
+                    result.and(bits);
+                }
+            });
+            return result;
+        }
+
+        private int assign(String productCode) {
+            int id = codes.size();
+            codes.add(productCode);
+            ids.put(productCode, id);
+            return id;
+        }
+    }
+}
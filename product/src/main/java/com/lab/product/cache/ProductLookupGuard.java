@@ -0,0 +1,244 @@
+package com.lab.product.cache;
+
+import com.lab.product.DAO.ProductDetailsRepository;
+import com.lab.product.Exception.ProductNotFoundException;
+import com.lab.product.entity.ENUMS.PRODUCT_ENTITY_TYPE;
+import com.lab.product.event.ProductChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Negative-lookup fast path for productCode reads:
+ * <ul>
+ *   <li>a Bloom filter of every productCode ever written rejects codes that were never created. It is
+ *       built from the products table at startup and rebuilt periodically, updated on every product
+ *       write through this instance, and refreshed every few seconds with the codes created since the
+ *       last refresh, which picks up products written by other instances or directly in SQL;</li>
+ *   <li>a short-lived negative cache rejects codes that were recently looked up and not found
+ *       (e.g. deleted products), until the TTL expires or the product is written again.</li>
+ * </ul>
+ * Both paths throw the stackless {@link ProductNotFoundException} without touching the database.
+ * A filter that has not been refreshed within max-staleness (e.g. the database is unreachable) rejects
+ * nothing, so a product created elsewhere is never rejected for longer than that.
+ */
+@Slf4j
+@Component
+public class ProductLookupGuard {
+
+    private final ProductDetailsRepository productDetailsRepository;
+
+    private final long expectedProducts;
+    private final double falsePositiveRate;
+    private final long negativeTtlNanos;
+    private final int negativeMaxEntries;
+    private final Duration refreshOverlap;
+    private final long maxStalenessNanos;
+
+    // null until the first build completes: until then every code may exist
+    private volatile BloomFilter knownCodes;
+    // receives writes that happen while a rebuild is reading the products table
+    private BloomFilter rebuilding;
+    private final ReentrantLock filterLock = new ReentrantLock();
+    // creation time the next incremental refresh reads from, and System.nanoTime() of the last build or refresh
+    private LocalDateTime refreshedThrough;
+    private volatile long refreshedAt;
+
+    private final ConcurrentHashMap<String, Long> recentlyMissing = new ConcurrentHashMap<>();
+    // bumped by every product write; a not-found result that overlapped one is not cached
+    private final AtomicLong writes = new AtomicLong();
+
+    private final Counter bloomRejections;
+    private final Counter negativeHits;
+
+    public ProductLookupGuard(ProductDetailsRepository productDetailsRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${product.lookup.bloom.expected-products:100000}") long expectedProducts,
+                              @Value("${product.lookup.bloom.false-positive-rate:0.01}") double falsePositiveRate,
+                              @Value("${product.lookup.negative-cache.ttl:5s}") Duration negativeTtl,
+                              @Value("${product.lookup.negative-cache.max-entries:10000}") int negativeMaxEntries,
+                              @Value("${product.lookup.bloom.refresh-overlap:PT1M}") Duration refreshOverlap,
+                              @Value("${product.lookup.bloom.max-staleness:PT30S}") Duration maxStaleness) {
+        this.productDetailsRepository = productDetailsRepository;
+        this.expectedProducts = expectedProducts;
+        this.falsePositiveRate = falsePositiveRate;
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.negativeMaxEntries = negativeMaxEntries;
+        this.refreshOverlap = refreshOverlap;
+        this.maxStalenessNanos = maxStaleness.toNanos();
+        this.bloomRejections = rejectionCounter(meterRegistry, "bloom");
+        this.negativeHits = rejectionCounter(meterRegistry, "negative-cache");
+    }
+
+    /**
+     * Throws ProductNotFoundException if productCode is known not to exist.
+     * Returns a token to pass to {@link #recordMissing} if the lookup then finds nothing.
+     */
+    public long checkMayExist(String productCode) {
+        long token = writes.get();
+        BloomFilter filter = knownCodes;
+        if (filter != null && System.nanoTime() - refreshedAt < maxStalenessNanos
+                && !filter.mightContain(bloomKey(productCode))) {
+            bloomRejections.increment();
+            throw new ProductNotFoundException(productCode);
+        }
+        Long expiresAt = recentlyMissing.get(productCode);
+        if (expiresAt != null) {
+            if (System.nanoTime() - expiresAt < 0) {
+                negativeHits.increment();
+                throw new ProductNotFoundException(productCode);
+            }
+            recentlyMissing.remove(productCode, expiresAt);
+        }
+        return token;
+    }
+
+    public void recordMissing(String productCode, long token) {
+        if (writes.get() != token) {
+            return;
+        }
+        if (recentlyMissing.size() >= negativeMaxEntries) {
+            // bounded: drop everything rather than track LRU order for a seconds-long cache
+            recentlyMissing.clear();
+        }
+        recentlyMissing.put(productCode, System.nanoTime() + negativeTtlNanos);
+    }
+
+    // Synchronous, inside the writing transaction
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getEntityType() == PRODUCT_ENTITY_TYPE.PRODUCT) {
+            productWritten(event.getProductCode());
+        }
+    }
+
+    // Again after commit, so a lookup that raced the transaction cannot leave a stale negative entry
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChangeCommitted(ProductChangedEvent event) {
+        onProductChanged(event);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // fail open: without a filter every code may exist; the scheduled rebuild retries
+            log.warn("Product code Bloom filter build failed, lookups are not pre-filtered", e);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${product.lookup.bloom.rebuild-interval:PT30M}",
+               fixedDelayString = "${product.lookup.bloom.rebuild-interval:PT30M}")
+    public void rebuild() {
+        long startedAt = System.nanoTime();
+        LocalDateTime startedThrough = LocalDateTime.now();
+        long count = productDetailsRepository.countDistinctProductCodes();
+        BloomFilter next = new BloomFilter(Math.max(expectedProducts, count * 2), falsePositiveRate);
+        filterLock.lock();
+        try {
+            rebuilding = next;
+        } finally {
+            filterLock.unlock();
+        }
+
+        List<String> codes = productDetailsRepository.findAllProductCodes();
+        filterLock.lock();
+        try {
+            codes.forEach(code -> next.add(bloomKey(code)));
+            knownCodes = next;
+            rebuilding = null;
+            refreshedThrough = startedThrough;
+            refreshedAt = startedAt;
+        } finally {
+            filterLock.unlock();
+        }
+    }
+
+    /**
+     * Adds the codes created since the last build or refresh. The read window starts refresh-overlap
+     * earlier, because a row's createdAt is set before its transaction commits and clocks of other
+     * instances may differ.
+     */
+    @Scheduled(initialDelayString = "${product.lookup.bloom.refresh-interval:PT5S}",
+               fixedDelayString = "${product.lookup.bloom.refresh-interval:PT5S}")
+    public void refresh() {
+        LocalDateTime since;
+        filterLock.lock();
+        try {
+            if (knownCodes == null) {
+                // the next build reads every code
+                return;
+            }
+            since = refreshedThrough.minus(refreshOverlap);
+        } finally {
+            filterLock.unlock();
+        }
+
+        long startedAt = System.nanoTime();
+        LocalDateTime startedThrough = LocalDateTime.now();
+        List<String> codes = productDetailsRepository.findProductCodesCreatedSince(since);
+        filterLock.lock();
+        try {
+            codes.forEach(code -> {
+                knownCodes.add(bloomKey(code));
+                if (rebuilding != null) {
+                    rebuilding.add(bloomKey(code));
+                }
+            });
+            // a rebuild that finished meanwhile may already be more recent
+            if (startedThrough.isAfter(refreshedThrough)) {
+                refreshedThrough = startedThrough;
+                refreshedAt = startedAt;
+            }
+        } finally {
+            filterLock.unlock();
+        }
+    }
+
+    private void productWritten(String productCode) {
+        if (productCode == null) {
+            return;
+        }
+        writes.incrementAndGet();
+        recentlyMissing.keySet().removeIf(productCode::equalsIgnoreCase);
+        filterLock.lock();
+        try {
+            BloomFilter filter = knownCodes;
+            if (filter != null) {
+                filter.add(bloomKey(productCode));
+            }
+            if (rebuilding != null) {
+                rebuilding.add(bloomKey(productCode));
+            }
+        } finally {
+            filterLock.unlock();
+        }
+    }
+
+    // productCode comparisons may be case-insensitive in the database; a case-folded key keeps the filter a superset
+    private static String bloomKey(String productCode) {
+        return productCode.toUpperCase(Locale.ROOT);
+    }
+
+    private static Counter rejectionCounter(MeterRegistry registry, String reason) {
+        return Counter.builder("product.lookup.rejected")
+            .tag("reason", reason)
+            .register(registry);
+    }
+}
@@ -0,0 +1,241 @@
+package com.lab.product.cache;
+
+import com.lab.product.DAO.ProductDetailsRepository;
+import com.lab.product.DAO.ProductSpecifications;
+import com.lab.product.DTO.ProductSuggestionDTO;
+import com.lab.product.DTO.ProductSummaryDTO;
+import com.lab.product.config.LatestVersionProperties;
+import com.lab.product.entity.PRODUCT_DETAILS;
+import com.lab.product.event.ProductChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory prefix index for typeahead over the latest non-deleted products. Keys are lower-cased
+ * terms followed by the productCode, kept in sorted skip lists, so the matches for a prefix are a
+ * contiguous key range that is read without locks:
+ * <ul>
+ *   <li>code keys: the productCode;</li>
+ *   <li>name keys: the productName from each word onwards, so "yield" matches "High Yield Savings".</li>
+ * </ul>
+ * Built at startup and periodically; the products written in a transaction are re-read once after commit,
+ * off the writing thread. Those re-reads, including the one for codes written during a rebuild, run on the
+ * single {@link CommittedProductCodes} thread, so an older read never overwrites a newer one.
+ */
+@Slf4j
+@Component
+public class ProductSuggestIndex {
+
+    // Separates the term from the productCode in a key; sorts before every printable character
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    // Codes per productCode IN (...) query when re-reading written products
+    private static final int REINDEX_CHUNK_SIZE = 500;
+
+    private final ProductDetailsRepository productDetailsRepository;
+    private final LatestVersionProperties latestVersion;
+
+    // null until the first build completes
+    private volatile Terms terms;
+    // codes written while a rebuild is reading the database; re-read once the rebuild is swapped in
+    private Set<String> writtenDuringRebuild;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public ProductSuggestIndex(ProductDetailsRepository productDetailsRepository,
+                               LatestVersionProperties latestVersion) {
+        this.productDetailsRepository = productDetailsRepository;
+        this.latestVersion = latestVersion;
+    }
+
+    /**
+     * Up to limit products whose code or any word of whose name starts with the prefix (case-insensitive).
+     * Code matches come first, then name matches; each group is in key order.
+     */
+    public List<ProductSuggestionDTO> suggest(String prefix, int limit) {
+        Terms current = ensureBuilt();
+        String term = normalize(prefix);
+        Map<String, ProductSuggestionDTO> matches = new LinkedHashMap<>();
+        collect(current.byCode, term, limit, matches, current);
+        collect(current.byName, term, limit, matches, current);
+        return new ArrayList<>(matches.values());
+    }
+
+    // Synchronous, inside the writing transaction: collect the codes, re-read them once in the background after commit
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        CommittedProductCodes.collect(this, event, this::reindex);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // the first suggest request retries the build
+            log.warn("Product suggest index build failed", e);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${product.suggest-index.rebuild-interval:PT30M}",
+               fixedDelayString = "${product.suggest-index.rebuild-interval:PT30M}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            writeLock.lock();
+            try {
+                writtenDuringRebuild = new LinkedHashSet<>();
+            } finally {
+                writeLock.unlock();
+            }
+
+            Terms next = new Terms();
+            List<ProductSummaryDTO> products = productDetailsRepository.findSummaries(latestProducts(null));
+            products.forEach(p -> next.put(p.getProductCode(), p.getProductName()));
+
+            Set<String> written;
+            writeLock.lock();
+            try {
+                terms = next;
+                written = writtenDuringRebuild;
+                writtenDuringRebuild = null;
+            } finally {
+                writeLock.unlock();
+            }
+            // queued behind re-reads already in flight, which may have read these codes before the rebuild did
+            CommittedProductCodes.handOver(this, written, this::reindex);
+            log.info("Product suggest index built: {} products", products.size());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // Startup build failed or has not finished yet: build now, once for all waiting requests
+    private Terms ensureBuilt() {
+        Terms current = terms;
+        if (current != null) {
+            return current;
+        }
+        rebuildLock.lock();
+        try {
+            if (terms == null) {
+                rebuild();
+            }
+            return terms;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // Re-reads the latest version of each code and replaces its keys (removes them if it is deleted)
+    private void reindex(Collection<String> productCodes) {
+        if (productCodes.isEmpty()) {
+            return;
+        }
+        Map<String, String> names = new LinkedHashMap<>();
+        List<String> codes = new ArrayList<>(productCodes);
+        for (int from = 0; from < codes.size(); from += REINDEX_CHUNK_SIZE) {
+            List<String> chunk = codes.subList(from, Math.min(codes.size(), from + REINDEX_CHUNK_SIZE));
+            Map<String, String> latest = new HashMap<>();
+            productDetailsRepository.findSummaries(latestProducts(chunk))
+                .forEach(p -> latest.put(p.getProductCode(), p.getProductName()));
+            // a code without a live version maps to null and is removed
+            chunk.forEach(productCode -> names.put(productCode, latest.get(productCode)));
+        }
+
+        writeLock.lock();
+        try {
+            if (writtenDuringRebuild != null) {
+                writtenDuringRebuild.addAll(productCodes);
+            }
+            Terms current = terms;
+            if (current != null) {
+                names.forEach(current::put);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // productCodes == null: every product
+    private Specification<PRODUCT_DETAILS> latestProducts(Collection<String> productCodes) {
+        return Specification.allOf(
+            ProductSpecifications.latestNotDeleted(latestVersion.strategyFor(LatestVersionProperties.PRODUCTS)),
+            ProductSpecifications.hasCodeIn(productCodes));
+    }
+
+    private static void collect(ConcurrentSkipListMap<String, String> keys, String term, int limit,
+                                Map<String, ProductSuggestionDTO> matches, Terms current) {
+        // keys starting with term: from term (inclusive) up to term + Character.MAX_VALUE
+        for (String productCode : keys.subMap(term, term + Character.MAX_VALUE).values()) {
+            if (matches.size() >= limit) {
+                return;
+            }
+            String productName = current.names.get(productCode);
+            if (productName != null) {
+                matches.putIfAbsent(productCode, new ProductSuggestionDTO(productCode, productName));
+            }
+        }
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Sorted term keys plus the current name per productCode. Writers are serialized by writeLock;
+     * readers see each key add/remove atomically and skip codes that were removed meanwhile.
+     */
+    private static final class Terms {
+        private final ConcurrentSkipListMap<String, String> byCode = new ConcurrentSkipListMap<>();
+        private final ConcurrentSkipListMap<String, String> byName = new ConcurrentSkipListMap<>();
+        private final ConcurrentHashMap<String, String> names = new ConcurrentHashMap<>();
+
+        // productName == null: the product has no live version
+        void put(String productCode, String productName) {
+            String previous = productName == null ? names.remove(productCode) : names.put(productCode, productName);
+            if (previous != null) {
+                nameKeys(productCode, previous).forEach(byName::remove);
+            }
+            if (productName == null) {
+                byCode.remove(codeKey(productCode));
+                return;
+            }
+            byCode.put(codeKey(productCode), productCode);
+            nameKeys(productCode, productName).forEach(key -> byName.put(key, productCode));
+        }
+
+        private static String codeKey(String productCode) {
+            return normalize(productCode) + KEY_SEPARATOR + productCode;
+        }
+
+        // One key per word start: "High Yield Savings" -> "high yield savings", "yield savings", "savings"
+        private static List<String> nameKeys(String productCode, String productName) {
+            String name = normalize(productName);
+            List<String> keys = new ArrayList<>();
+            for (int i = 0; i < name.length(); i++) {
+                if (!Character.isWhitespace(name.charAt(i)) && (i == 0 || Character.isWhitespace(name.charAt(i - 1)))) {
+                    keys.add(name.substring(i) + KEY_SEPARATOR + productCode);
+                }
+            }
+            return keys;
+        }
+    }
+}
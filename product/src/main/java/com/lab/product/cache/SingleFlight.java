@@ -0,0 +1,99 @@
+package com.lab.product.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Request coalescing: concurrent calls for the same key share a single in-flight load.
+ * The first caller (leader) runs the loader on its own thread; later callers wait for its result.
+ * A waiter that times out stops waiting and runs the loader itself, so a slow leader cannot
+ * stall every request for the key.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long timeoutNanos;
+
+    private final Counter leaders;
+    private final Counter coalesced;
+    private final Counter timeouts;
+
+    public SingleFlight(String name, Duration timeout, MeterRegistry meterRegistry) {
+        this.timeoutNanos = timeout.toNanos();
+        this.leaders = callCounter(meterRegistry, name, "leader");
+        this.coalesced = callCounter(meterRegistry, name, "coalesced");
+        this.timeouts = callCounter(meterRegistry, name, "timeout");
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing == null) {
+            leaders.increment();
+            return lead(key, mine, loader);
+        }
+        coalesced.increment();
+        return await(existing, loader);
+    }
+
+    private V lead(K key, CompletableFuture<V> future, Supplier<V> loader) {
+        try {
+            V value = loader.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private V await(CompletableFuture<V> future, Supplier<V> loader) {
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            return loader.get();
+        } catch (ExecutionException e) {
+            // rethrow the leader's failure (e.g. ResourceNotFoundException) unchanged
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for in-flight load", e);
+        }
+    }
+
+    /**
+     * Detaches the in-flight load for key (e.g. after the underlying data changed):
+     * its current waiters still get the result, but later callers start a fresh load.
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private static Counter callCounter(MeterRegistry registry, String name, String role) {
+        return Counter.builder("singleflight.calls")
+            .tag("name", name)
+            .tag("role", role)
+            .register(registry);
+    }
+}
@@ -0,0 +1,95 @@
+package com.lab.product.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * INSERT-ONLY Pattern: A version row never changes once written, so its serialized JSON can be
+ * cached for the lifetime of the process. Bounded LRU of response bytes keyed by version UUID,
+ * limited both by entry count and by total payload size.
+ */
+@Component
+@RequiredArgsConstructor
+public class VersionResponseCache {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${product.cache.version.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${product.cache.version.max-bytes:67108864}")
+    private long maxBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // access-order LinkedHashMap = LRU iteration order
+    private final LinkedHashMap<UUID, byte[]> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    public byte[] get(UUID versionId) {
+        lock.lock();
+        try {
+            return entries.get(versionId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the cached JSON for versionId, or serializes the loader's result and caches it.
+     * Loader exceptions (e.g. ResourceNotFoundException) propagate and nothing is cached.
+     */
+    public byte[] getOrLoad(UUID versionId, Supplier<?> loader) {
+        byte[] cached = get(versionId);
+        if (cached != null) {
+            return cached;
+        }
+        byte[] json = serialize(loader.get());
+        put(versionId, json);
+        return json;
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(UUID versionId, byte[] json) {
+        if (json.length > maxBytes) {
+            return;
+        }
+        lock.lock();
+        try {
+            byte[] previous = entries.put(versionId, json);
+            totalBytes += json.length - (previous != null ? previous.length : 0);
+            Iterator<Map.Entry<UUID, byte[]>> eldest = entries.entrySet().iterator();
+            while ((entries.size() > maxEntries || totalBytes > maxBytes) && eldest.hasNext()) {
+                totalBytes -= eldest.next().getValue().length;
+                eldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize version " + value, e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.lab.product.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Selects the latest-version query strategy per table, e.g.
+ * <pre>
+ * product.latest-version.default-strategy=MAX_SUBQUERY
+ * product.latest-version.tables.products=WINDOW
+ * </pre>
+ * Child tables are best left on MAX_SUBQUERY: their lookups are batched over many products, where the
+ * window variant ranks every version of every product and is slower (LatestVersionQueryBenchmarkTest).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "product.latest-version")
+public class LatestVersionProperties {
+
+    public static final String PRODUCTS = "products";
+    public static final String CHARGES = "product-charges";
+    public static final String INTEREST_RATES = "interest-rates";
+    public static final String BALANCES = "product-balances";
+    public static final String RULES = "product-rules";
+    public static final String ROLES = "product-roles";
+    public static final String TRANSACTIONS = "product-transactions";
+    public static final String COMMUNICATIONS = "product-communications";
+
+    private LatestVersionStrategy defaultStrategy = LatestVersionStrategy.MAX_SUBQUERY;
+
+    private Map<String, LatestVersionStrategy> tables = new HashMap<>();
+
+    public LatestVersionStrategy strategyFor(String table) {
+        return tables.getOrDefault(table, defaultStrategy);
+    }
+}
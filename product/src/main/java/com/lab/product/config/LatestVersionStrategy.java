@@ -0,0 +1,14 @@
+package com.lab.product.config;
+
+/**
+ * How the latest (current) version of an insert-only row is located.
+ */
+public enum LatestVersionStrategy {
+    // versionNo = (SELECT MAX(versionNo) ...) correlated subquery (original JPQL queries)
+    MAX_SUBQUERY,
+    // ROW_NUMBER() OVER (PARTITION BY productCode[, childCode] ORDER BY versionNo DESC) native queries.
+    // Faster for a single product's lookup, slower for batched child lookups over many products.
+    WINDOW,
+    // Primary-key join on the product_current_versions pointer table
+    POINTER
+}
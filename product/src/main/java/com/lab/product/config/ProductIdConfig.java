@@ -0,0 +1,24 @@
+package com.lab.product.config;
+
+import com.lab.product.entity.ProductIdGenerator;
+import com.lab.product.entity.RandomProductIdGenerator;
+import com.lab.product.entity.TimeOrderedProductIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Selects the product id generator, e.g. product.id.generator=RANDOM. Both implementations draw their
+ * random bits from SecureRandom; TIME_ORDERED (the default) additionally keeps inserts sequential.
+ */
+@Configuration
+public class ProductIdConfig {
+
+    @Bean
+    public ProductIdGenerator productIdGenerator(@Value("${product.id.generator:TIME_ORDERED}") ProductIdStrategy strategy) {
+        return switch (strategy) {
+            case TIME_ORDERED -> new TimeOrderedProductIdGenerator();
+            case RANDOM -> new RandomProductIdGenerator();
+        };
+    }
+}
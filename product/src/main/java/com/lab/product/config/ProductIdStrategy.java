@@ -0,0 +1,11 @@
+package com.lab.product.config;
+
+/**
+ * How primary keys (and UUID_reference values) of new product rows are generated.
+ */
+public enum ProductIdStrategy {
+    // UUIDv7: time-ordered, inserts append to the clustered primary key
+    TIME_ORDERED,
+    // UUIDv4: fully random, inserts scatter across the clustered primary key
+    RANDOM
+}
@@ -50,6 +50,9 @@ public class SecurityConfig {
                 // All GET endpoints - public (no authentication)
                 .requestMatchers(HttpMethod.GET, "/api/products/**").permitAll()
                 
+                // Multi-get with the codes in the body - a read, public like the GET variant
+                .requestMatchers(HttpMethod.POST, "/api/products/batch").permitAll()
+                
                 // Admin-only endpoints - POST, PUT, DELETE require ADMIN role
                 .requestMatchers(HttpMethod.POST, "/api/products/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.PUT, "/api/products/**").hasRole("ADMIN")
@@ -92,7 +95,7 @@ public class SecurityConfig {
         ));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
-        configuration.setExposedHeaders(Arrays.asList("Authorization"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "ETag", "X-Product-Version"));
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,42 @@
+package com.lab.product.controller;
+
+import com.lab.product.Exception.ValidationException;
+
+import java.util.UUID;
+
+/**
+ * If-Match on PUT: the version the client read, which is the row id of that version (productId, chargeId, ...)
+ * in quotes. The child single-resource GETs and PUTs return it as their ETag, since a child body is that one
+ * row. A product body also contains children, so the product GET sends a representation ETag
+ * ({@link ProductRepresentationETag}), and the product GET and PUTs return the product version in
+ * {@link #VERSION_HEADER} instead.
+ * Either way a client can chain conditional updates without reading in between.
+ */
+final class IfMatchHeader {
+
+    // If-Match token of the product version in a product bundle response
+    static final String VERSION_HEADER = "X-Product-Version";
+
+    private IfMatchHeader() {
+    }
+
+    // null when absent or "*": the update applies to whatever the latest version is
+    static UUID parse(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("\"") && value.endsWith("\"") && value.length() > 1) {
+            value = value.substring(1, value.length() - 1);
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("If-Match must be a single version ETag: " + ifMatch);
+        }
+    }
+
+    static String etag(UUID rowId) {
+        return "\"" + rowId + "\"";
+    }
+}
@@ -0,0 +1,53 @@
+package com.lab.product.controller;
+
+/**
+ * If-None-Match on GET: a list of entity tags ({@code "a", W/"b"}) or {@code *}. Tags are compared exactly,
+ * using the weak comparison RFC 9110 prescribes for If-None-Match (a W/ prefix is ignored). Only called for
+ * a resource that exists, so {@code *} always matches. A malformed header matches nothing and the full
+ * response is sent.
+ */
+final class IfNoneMatchHeader {
+
+    private IfNoneMatchHeader() {
+    }
+
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        if ("*".equals(ifNoneMatch.trim())) {
+            return true;
+        }
+        String opaqueTag = opaque(etag);
+        int i = 0;
+        int length = ifNoneMatch.length();
+        while (i < length) {
+            char c = ifNoneMatch.charAt(i);
+            if (c == ',' || Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            if (ifNoneMatch.startsWith("W/", i)) {
+                i += 2;
+            }
+            if (i >= length || ifNoneMatch.charAt(i) != '"') {
+                return false;
+            }
+            int end = ifNoneMatch.indexOf('"', i + 1);
+            if (end < 0) {
+                return false;
+            }
+            if (ifNoneMatch.substring(i + 1, end).equals(opaqueTag)) {
+                return true;
+            }
+            i = end + 1;
+        }
+        return false;
+    }
+
+    // "abc" or W/"abc" -> abc
+    private static String opaque(String etag) {
+        String value = etag.startsWith("W/") ? etag.substring(2) : etag;
+        return value.substring(1, value.length() - 1);
+    }
+}
@@ -1,5 +1,6 @@
 package com.lab.product.controller;
 
+import com.lab.product.DTO.CursorPage;
 import com.lab.product.DTO.ProductBalanceDTO;
 import com.lab.product.DTO.ProductBalanceRequestDTO;
 import com.lab.product.service.ProductBalanceService;
@@ -17,9 +18,12 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -38,6 +42,8 @@ public class ProductBalanceController {
     @Autowired
     private final ProductBalanceService productBalanceService;
 
+    private final NdjsonResponseWriter ndjsonWriter;
+
     @PostMapping
     @Operation(
         summary = "Configure applicable balance type for product",
@@ -509,7 +515,8 @@ public class ProductBalanceController {
                 example = "LOAN_PRINCIPAL"
             )
             @PathVariable String balanceType) {
-        return ResponseEntity.ok(productBalanceService.getBalanceByType(productCode, balanceType));
+        ProductBalanceDTO balance = productBalanceService.getBalanceByType(productCode, balanceType);
+        return ResponseEntity.ok().eTag(IfMatchHeader.etag(balance.getBalanceId())).body(balance);
     }
 
     @PutMapping("/{balanceType}")
@@ -618,7 +625,8 @@ public class ProductBalanceController {
                         """
                 )
             )
-        )
+        ),
+        @ApiResponse(responseCode = "412", description = "If-Match is not the current version")
     })
     public ResponseEntity<ProductBalanceDTO> updateBalance(
             @Parameter(
@@ -643,8 +651,11 @@ public class ProductBalanceController {
                     """,
                 required = true
             )
-            @Valid @RequestBody ProductBalanceRequestDTO balanceDto) {
-        return ResponseEntity.ok(productBalanceService.updateBalance(productCode, balanceType, balanceDto));
+            @Valid @RequestBody ProductBalanceRequestDTO balanceDto,
+            @Parameter(description = "ETag of the version being updated; fails with 412 if a newer version exists")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ProductBalanceDTO updated = productBalanceService.updateBalance(productCode, balanceType, balanceDto, IfMatchHeader.parse(ifMatch));
+        return ResponseEntity.ok().eTag(IfMatchHeader.etag(updated.getBalanceId())).body(updated);
     }
 
     @DeleteMapping("/{balanceType}")
@@ -838,4 +849,65 @@ public class ProductBalanceController {
             @PathVariable String balanceType) {
         return ResponseEntity.ok(productBalanceService.getBalanceAuditTrail(productCode, balanceType));
     }
+
+    @GetMapping("/audit-trail/page")
+    @Operation(
+        summary = "Get one page of the audit trail of all balances for a product",
+        description = "Keyset-paginated audit trail, newest first. Pass nextCursor of a page as cursor to get the next one; " +
+                      "nextCursor is null on the last page.",
+        tags = {"Product Balance Types"}
+    )
+    public ResponseEntity<CursorPage<ProductBalanceDTO>> getBalancesAuditTrailPage(
+            @Parameter(description = "Product code", required = true)
+            @PathVariable String productCode,
+            @Parameter(description = "Cursor from the previous page (omit for the first page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-500)", example = "50")
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(productBalanceService.getBalancesAuditTrailPage(productCode, cursor, size));
+    }
+
+    @GetMapping(value = "/audit-trail/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+        summary = "Stream the audit trail of all balances for a product as NDJSON",
+        description = "ALL versions, newest first, one JSON object per line, written while rows are read from the database.",
+        tags = {"Product Balance Types"}
+    )
+    public ResponseEntity<StreamingResponseBody> streamBalancesAuditTrail(
+            @Parameter(description = "Product code", required = true)
+            @PathVariable String productCode) {
+        return ndjsonWriter.<ProductBalanceDTO>stream(sink -> productBalanceService.streamBalancesAuditTrail(productCode, sink));
+    }
+
+    @GetMapping("/{balanceType}/audit-trail/page")
+    @Operation(
+        summary = "Get one page of the audit trail of a specific balance type",
+        description = "Keyset-paginated audit trail, newest first. Pass nextCursor of a page as cursor to get the next one.",
+        tags = {"Product Balance Types"}
+    )
+    public ResponseEntity<CursorPage<ProductBalanceDTO>> getBalanceAuditTrailPage(
+            @Parameter(description = "Product code", required = true)
+            @PathVariable String productCode,
+            @Parameter(description = "Balance type", required = true)
+            @PathVariable String balanceType,
+            @Parameter(description = "Cursor from the previous page (omit for the first page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-500)", example = "50")
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(productBalanceService.getBalanceAuditTrailPage(productCode, balanceType, cursor, size));
+    }
+
+    @GetMapping(value = "/{balanceType}/audit-trail/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+        summary = "Stream the audit trail of a specific balance type as NDJSON",
+        description = "ALL versions, newest first, one JSON object per line, written while rows are read from the database.",
+        tags = {"Product Balance Types"}
+    )
+    public ResponseEntity<StreamingResponseBody> streamBalanceAuditTrail(
+            @Parameter(description = "Product code", required = true)
+            @PathVariable String productCode,
+            @Parameter(description = "Balance type", required = true)
+            @PathVariable String balanceType) {
+        return ndjsonWriter.<ProductBalanceDTO>stream(sink -> productBalanceService.streamBalanceAuditTrail(productCode, balanceType, sink));
+    }
 }
\ No newline at end of file
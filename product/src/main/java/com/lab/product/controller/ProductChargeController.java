@@ -1,5 +1,6 @@
 package com.lab.product.controller;
 
+import com.lab.product.DTO.CursorPage;
 import com.lab.product.DTO.ProductChargeDTO;
 import com.lab.product.DTO.ProductChargeRequestDTO;
 import com.lab.product.service.ProductChargeService;
@@ -17,9 +18,12 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -39,6 +43,8 @@ public class ProductChargeController {
     @Autowired
     private final ProductChargeService productChargeService;
 
+    private final NdjsonResponseWriter ndjsonWriter;
+
     @PostMapping
     @Operation(
         summary = "Configure fee or charge for product",
@@ -347,7 +353,8 @@ public class ProductChargeController {
             @PathVariable String productCode,
             @Parameter(description = "Charge ID", required = true)
             @PathVariable String chargeId) {
-        return ResponseEntity.ok(productChargeService.getChargeByCode(productCode, chargeId));
+        ProductChargeDTO charge = productChargeService.getChargeByCode(productCode, chargeId);
+        return ResponseEntity.ok().eTag(IfMatchHeader.etag(charge.getChargeId())).body(charge);
     }
 
     @PutMapping("/{chargeId}")
@@ -392,7 +399,8 @@ public class ProductChargeController {
             )
         ),
         @ApiResponse(responseCode = "404", description = "Charge or product not found"),
-        @ApiResponse(responseCode = "400", description = "Invalid charge data")
+        @ApiResponse(responseCode = "400", description = "Invalid charge data"),
+        @ApiResponse(responseCode = "412", description = "If-Match is not the current version")
     })
     public ResponseEntity<ProductChargeDTO> updateCharge(
             @Parameter(description = "Product code", required = true)
@@ -400,8 +408,11 @@ public class ProductChargeController {
             @Parameter(description = "Charge ID to update", required = true)
             @PathVariable String chargeId,
             @Parameter(description = "Updated charge configuration", required = true)
-            @Valid @RequestBody ProductChargeRequestDTO chargeDto) {
-        return ResponseEntity.ok(productChargeService.updateCharge(productCode, chargeId, chargeDto));
+            @Valid @RequestBody ProductChargeRequestDTO chargeDto,
+            @Parameter(description = "ETag of the version being updated; fails with 412 if a newer version exists")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ProductChargeDTO updated = productChargeService.updateCharge(productCode, chargeId, chargeDto, IfMatchHeader.parse(ifMatch));
+        return ResponseEntity.ok().eTag(IfMatchHeader.etag(updated.getChargeId())).body(updated);
     }
 
     @DeleteMapping("/{chargeId}")
@@ -482,4 +493,65 @@ public class ProductChargeController {
             @PathVariable String chargeCode) {
         return ResponseEntity.ok(productChargeService.getChargeAuditTrail(productCode, chargeCode));
     }
+
+    @GetMapping("/audit-trail/page")
+    @Operation(
+        summary = "Get one page of the audit trail of all charges for a product",
+        description = "Keyset-paginated audit trail, newest first. Pass nextCursor of a page as cursor to get the next one; " +
+                      "nextCursor is null on the last page.",
+        tags = {"Product Charges & Fees"}
+    )
+    public ResponseEntity<CursorPage<ProductChargeDTO>> getChargesAuditTrailPage(
+            @Parameter(description = "Product code", required = true, example = "FD001")
+            @PathVariable String productCode,
+            @Parameter(description = "Cursor from the previous page (omit for the first page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-500)", example = "50")
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(productChargeService.getChargesAuditTrailPage(productCode, cursor, size));
+    }
+
+    @GetMapping(value = "/audit-trail/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+        summary = "Stream the audit trail of all charges for a product as NDJSON",
+        description = "ALL versions, newest first, one JSON object per line, written while rows are read from the database.",
+        tags = {"Product Charges & Fees"}
+    )
+    public ResponseEntity<StreamingResponseBody> streamChargesAuditTrail(
+            @Parameter(description = "Product code", required = true, example = "FD001")
+            @PathVariable String productCode) {
+        return ndjsonWriter.<ProductChargeDTO>stream(sink -> productChargeService.streamChargesAuditTrail(productCode, sink));
+    }
+
+    @GetMapping("/{chargeCode}/audit-trail/page")
+    @Operation(
+        summary = "Get one page of the audit trail of a specific charge",
+        description = "Keyset-paginated audit trail, newest first. Pass nextCursor of a page as cursor to get the next one.",
+        tags = {"Product Charges & Fees"}
+    )
+    public ResponseEntity<CursorPage<ProductChargeDTO>> getChargeAuditTrailPage(
+            @Parameter(description = "Product code", required = true, example = "FD001")
+            @PathVariable String productCode,
+            @Parameter(description = "Charge code", required = true, example = "FEE001")
+            @PathVariable String chargeCode,
+            @Parameter(description = "Cursor from the previous page (omit for the first page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-500)", example = "50")
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(productChargeService.getChargeAuditTrailPage(productCode, chargeCode, cursor, size));
+    }
+
+    @GetMapping(value = "/{chargeCode}/audit-trail/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+        summary = "Stream the audit trail of a specific charge as NDJSON",
+        description = "ALL versions, newest first, one JSON object per line, written while rows are read from the database.",
+        tags = {"Product Charges & Fees"}
+    )
+    public ResponseEntity<StreamingResponseBody> streamChargeAuditTrail(
+            @Parameter(description = "Product code", required = true, example = "FD001")
+            @PathVariable String productCode,
+            @Parameter(description = "Charge code", required = true, example = "FEE001")
+            @PathVariable String chargeCode) {
+        return ndjsonWriter.<ProductChargeDTO>stream(sink -> productChargeService.streamChargeAuditTrail(productCode, chargeCode, sink));
+    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.lab.product.controller;
 
+import com.lab.product.DTO.CursorPage;
 import com.lab.product.DTO.ProductCommunicationDTO;
 import com.lab.product.DTO.ProductCommunicationRequestDTO;
 import com.lab.product.service.ProductCommunicationService;
@@ -17,9 +18,12 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -40,6 +44,8 @@ public class ProductCommunicationController {
     @Autowired
     private final ProductCommunicationService productCommunicationService;
 
+    private final NdjsonResponseWriter ndjsonWriter;
+
     @PostMapping
     @Operation(
         summary = "Configure customer communication template for product",
@@ -728,7 +734,8 @@ public class ProductCommunicationController {
                 example = "comm-991e8400-e29b-41d4-a716-446655440001"
             )
             @PathVariable String commId) {
-        return ResponseEntity.ok(productCommunicationService.getCommunicationByCode(productCode, commId));
+        ProductCommunicationDTO communication = productCommunicationService.getCommunicationByCode(productCode, commId);
+        return ResponseEntity.ok().eTag(IfMatchHeader.etag(communication.getCommId())).body(communication);
     }
 
     @PutMapping("/{commId}")
@@ -905,7 +912,8 @@ public class ProductCommunicationController {
                     )
                 }
             )
-        )
+        ),
+        @ApiResponse(responseCode = "412", description = "If-Match is not the current version")
     })
     public ResponseEntity<ProductCommunicationDTO> updateCommunication(
             @Parameter(
@@ -966,8 +974,11 @@ public class ProductCommunicationController {
                     }
                 )
             )
-            @Valid @RequestBody ProductCommunicationRequestDTO communicationDto) {
-        return ResponseEntity.ok(productCommunicationService.updateCommunication(productCode, commId, communicationDto));
+            @Valid @RequestBody ProductCommunicationRequestDTO communicationDto,
+            @Parameter(description = "ETag of the version being updated; fails with 412 if a newer version exists")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ProductCommunicationDTO updated = productCommunicationService.updateCommunication(productCode, commId, communicationDto, IfMatchHeader.parse(ifMatch));
+        return ResponseEntity.ok().eTag(IfMatchHeader.etag(updated.getCommId())).body(updated);
     }
 
     @DeleteMapping("/{commId}")
@@ -1143,4 +1154,65 @@ public class ProductCommunicationController {
             @PathVariable String commCode) {
         return ResponseEntity.ok(productCommunicationService.getCommunicationAuditTrail(productCode, commCode));
     }
+
+    @GetMapping("/audit-trail/page")
+    @Operation(
+        summary = "Get one page of the audit trail of all communications for a product",
+        description = "Keyset-paginated audit trail, newest first. Pass nextCursor of a page as cursor to get the next one; " +
+                      "nextCursor is null on the last page.",
+        tags = {"Product Communication Templates"}
+    )
+    public ResponseEntity<CursorPage<ProductCommunicationDTO>> getCommunicationsAuditTrailPage(
+            @Parameter(description = "Product code", required = true)
+            @PathVariable String productCode,
+            @Parameter(description = "Cursor from the previous page (omit for the first page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-500)", example = "50")
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(productCommunicationService.getCommunicationsAuditTrailPage(productCode, cursor, size));
+    }
+
+    @GetMapping(value = "/audit-trail/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+        summary = "Stream the audit trail of all communications for a product as NDJSON",
+        description = "ALL versions, newest first, one JSON object per line, written while rows are read from the database.",
+        tags = {"Product Communication Templates"}
+    )
+    public ResponseEntity<StreamingResponseBody> streamCommunicationsAuditTrail(
+            @Parameter(description = "Product code", required = true)
+            @PathVariable String productCode) {
+        return ndjsonWriter.<ProductCommunicationDTO>stream(sink -> productCommunicationService.streamCommunicationsAuditTrail(productCode, sink));
+    }
+
+    @GetMapping("/{commCode}/audit-trail/page")
+    @Operation(
+        summary = "Get one page of the audit trail of a specific communication",
+        description = "Keyset-paginated audit trail, newest first. Pass nextCursor of a page as cursor to get the next one.",
+        tags = {"Product Communication Templates"}
+    )
+    public ResponseEntity<CursorPage<ProductCommunicationDTO>> getCommunicationAuditTrailPage(
+            @Parameter(description = "Product code", required = true)
+            @PathVariable String productCode,
+            @Parameter(description = "Communication code", required = true)
+            @PathVariable String commCode,
+            @Parameter(description = "Cursor from the previous page (omit for the first page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-500)", example = "50")
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(productCommunicationService.getCommunicationAuditTrailPage(productCode, commCode, cursor, size));
+    }
+
+    @GetMapping(value = "/{commCode}/audit-trail/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+        summary = "Stream the audit trail of a specific communication as NDJSON",
+        description = "ALL versions, newest first, one JSON object per line, written while rows are read from the database.",
+        tags = {"Product Communication Templates"}
+    )
+    public ResponseEntity<StreamingResponseBody> streamCommunicationAuditTrail(
+            @Parameter(description = "Product code", required = true)
+            @PathVariable String productCode,
+            @Parameter(description = "Communication code", required = true)
+            @PathVariable String commCode) {
+        return ndjsonWriter.<ProductCommunicationDTO>stream(sink -> productCommunicationService.streamCommunicationAuditTrail(productCode, commCode, sink));
+    }
 }
\ No newline at end of file
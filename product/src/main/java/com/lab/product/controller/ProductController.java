@@ -1,9 +1,20 @@
 package com.lab.product.controller;
 
+import com.lab.product.cache.ProductFacet;
+import com.lab.product.cache.VersionResponseCache;
 import com.lab.product.DTO.CreateOrUpdateProductRequestDTO;
+import com.lab.product.DTO.ProductBatchItemDTO;
+import com.lab.product.DTO.ProductBundleRequestDTO;
+import com.lab.product.DTO.CursorPage;
 import com.lab.product.DTO.ProductDetailsDTO;
+import com.lab.product.DTO.ProductFacetResultDTO;
+import com.lab.product.DTO.ProductSuggestionDTO;
+import com.lab.product.DTO.ProductSearchCriteria;
+import com.lab.product.Exception.ValidationException;
 import com.lab.product.entity.ENUMS.PRODUCT_TYPE;
 import com.lab.product.service.ProductService;
+import com.lab.product.service.helper.ProductFieldFilter;
+import com.lab.product.service.helper.ProductReadOptions;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -18,12 +29,19 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/products")
@@ -39,6 +57,12 @@ public class ProductController {
     @Autowired
     private final ProductService productService;
 
+    private final VersionResponseCache versionResponseCache;
+
+    private final ProductFieldFilter fieldFilter;
+
+    private final NdjsonResponseWriter ndjsonWriter;
+
     @PostMapping
     @Operation(
         summary = "Create a new financial product",
@@ -289,6 +313,48 @@ public class ProductController {
         return new ResponseEntity<>(productService.createProduct(requestDTO), HttpStatus.CREATED);
     }
 
+    @PostMapping("/bundle")
+    @Operation(
+        summary = "Create a product together with all of its child collections",
+        description = """
+            Creates the product and its rules, charges, roles, transactions, interest rates, balances and
+            communications in a single transaction, instead of one request per child.
+            
+            - Every row is validated before anything is written; on any error nothing is saved
+            - Child codes must be unique within each collection
+            - Fails with 400 if the product code already exists
+            """,
+        tags = {"Product Management"}
+    )
+    public ResponseEntity<ProductDetailsDTO> createProductBundle(@Valid @RequestBody ProductBundleRequestDTO requestDTO) {
+        return new ResponseEntity<>(productService.createProductBundle(requestDTO), HttpStatus.CREATED);
+    }
+
+    @PutMapping("/{productCode}/bundle")
+    @Operation(
+        summary = "Replace a product and all of its child collections",
+        description = """
+            Writes a new version of the product and of every child in the request, in a single transaction.
+            Existing children whose code is not in the request are deleted (soft delete markers).
+            The product code in the body must match the path.
+            With If-Match, the replace fails with 412 unless the header names the latest product version.
+            The X-Product-Version response header is the If-Match value for the next replace.
+            """,
+        tags = {"Product Management"}
+    )
+    public ResponseEntity<ProductDetailsDTO> replaceProductBundle(
+            @Parameter(description = "Product code identifier", required = true, example = "SAV001")
+            @PathVariable String productCode,
+            @Valid @RequestBody ProductBundleRequestDTO requestDTO,
+            @Parameter(description = "X-Product-Version of the product version being replaced; fails with 412 if a newer version exists")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ProductDetailsDTO replaced = productService.replaceProductBundle(productCode, requestDTO, IfMatchHeader.parse(ifMatch));
+        // no ETag: this body is not what a GET returns, so it must not be revalidated with If-None-Match
+        return ResponseEntity.ok()
+            .header(IfMatchHeader.VERSION_HEADER, IfMatchHeader.etag(replaced.getProductId()))
+            .body(replaced);
+    }
+
     @GetMapping
     @Operation(
         summary = "Retrieve all products with pagination and sorting",
@@ -470,7 +536,7 @@ public class ProductController {
             )
         )
     })
-    public ResponseEntity<Page<ProductDetailsDTO>> getAllProducts(
+    public ResponseEntity<Page<?>> getAllProducts(
             @Parameter(
                 description = """
                     Pagination and sorting parameters:
@@ -485,8 +551,182 @@ public class ProductController {
                     """,
                 example = "page=0&size=20&sort=productName,asc"
             )
-            Pageable pageable) {
-        return ResponseEntity.ok(productService.getAllProducts(pageable));
+            Pageable pageable,
+            @Parameter(
+                description = """
+                    Response view (optional, default full).
+                    - full: product with its latest child collections
+                    - summary: id, code, name, type, status and currency only; child tables are not read
+                    """,
+                example = "summary"
+            )
+            @RequestParam(defaultValue = "full") String view,
+            @Parameter(
+                description = """
+                    Child collections to load (optional, default all).
+                    Comma-separated: rules, charges, roles, transactions, interest, balances, communications,
+                    or all / none. Child tables that are not listed are not queried.
+                    
+                    Example: include=charges,interest
+                    """,
+                example = "charges,interest"
+            )
+            @RequestParam(required = false) String include,
+            @Parameter(
+                description = """
+                    Product fields to return (optional, default all).
+                    Comma-separated ProductDetailsDTO property names; child collections that are not
+                    listed are not loaded either.
+                    
+                    Example: fields=productCode,productName,productInterests
+                    """,
+                example = "productCode,productName,productInterests"
+            )
+            @RequestParam(required = false) String fields) {
+        if (isSummaryView(view)) {
+            rejectSparseParamsForSummary(include, fields);
+            return ResponseEntity.ok(productService.getAllProductSummaries(pageable));
+        }
+        ProductReadOptions options = fieldFilter.parse(include, fields);
+        return ResponseEntity.ok(productService.getAllProducts(pageable, options)
+            .map(dto -> fieldFilter.apply(dto, options)));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+        summary = "Export the product catalog as NDJSON",
+        description = """
+            Streams every product, one JSON object per line, while rows are read from a database cursor.
+            Output starts immediately and server memory stays constant regardless of catalog size.
+            
+            - versions=latest (default): latest non-deleted version of each product, ordered by productCode
+            - versions=all: every version of every product (same rows as the unfiltered list)
+            - include / fields: same meaning as on GET /api/products/{productCode}
+            """,
+        tags = {"Product Management"}
+    )
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @Parameter(description = "latest (default) or all", example = "latest")
+            @RequestParam(defaultValue = "latest") String versions,
+            @Parameter(description = "Child collections to load (default all), e.g. charges,interest")
+            @RequestParam(required = false) String include,
+            @Parameter(description = "Product fields to return (default all), e.g. productCode,productName")
+            @RequestParam(required = false) String fields) {
+        boolean allVersions;
+        if ("all".equalsIgnoreCase(versions)) {
+            allVersions = true;
+        } else if ("latest".equalsIgnoreCase(versions)) {
+            allVersions = false;
+        } else {
+            throw new ValidationException("Invalid versions: " + versions + ". Allowed values: latest, all");
+        }
+        ProductReadOptions options = fieldFilter.parse(include, fields);
+        return ndjsonWriter.<Object>stream(sink ->
+            productService.exportProducts(allVersions, options, dto -> sink.accept(fieldFilter.apply(dto, options))));
+    }
+
+    @GetMapping("/batch")
+    @Operation(
+        summary = "Get the latest versions of several products at once",
+        description = """
+            Multi-get for up to 100 product codes (comma-separated). All latest versions are read with one
+            query and their children with one query per child table, instead of one
+            GET /api/products/{productCode} call per code.
+            
+            - Results are in request order (duplicate codes are returned once)
+            - Unknown or deleted codes are returned with found=false and no product
+            - include / fields: same meaning as on GET /api/products/{productCode}
+            
+            POST /api/products/batch accepts the codes as a JSON array body, for long code lists.
+            """,
+        tags = {"Product Management"}
+    )
+    public ResponseEntity<List<ProductBatchItemDTO>> getProductsByCodes(
+            @Parameter(description = "Comma-separated product codes", example = "SAV001,FD001")
+            @RequestParam List<String> codes,
+            @Parameter(description = "Child collections to load (default all), e.g. charges,interest")
+            @RequestParam(required = false) String include,
+            @Parameter(description = "Product fields to return (default all), e.g. productCode,productName")
+            @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(batch(codes, include, fields));
+    }
+
+    @PostMapping("/batch")
+    @Operation(
+        summary = "Get the latest versions of several products at once (codes in the body)",
+        description = "Same as GET /api/products/batch, with the product codes as a JSON array body. Read-only.",
+        tags = {"Product Management"}
+    )
+    public ResponseEntity<List<ProductBatchItemDTO>> getProductsByCodesPost(
+            @RequestBody List<String> codes,
+            @Parameter(description = "Child collections to load (default all), e.g. charges,interest")
+            @RequestParam(required = false) String include,
+            @Parameter(description = "Product fields to return (default all), e.g. productCode,productName")
+            @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(batch(codes, include, fields));
+    }
+
+    private List<ProductBatchItemDTO> batch(List<String> codes, String include, String fields) {
+        ProductReadOptions options = fieldFilter.parse(include, fields);
+        List<ProductBatchItemDTO> items = productService.getProductsByCodes(codes, options);
+        items.stream()
+            .filter(ProductBatchItemDTO::isFound)
+            .forEach(item -> item.setProduct(fieldFilter.apply((ProductDetailsDTO) item.getProduct(), options)));
+        return items;
+    }
+
+    @GetMapping("/facets")
+    @Operation(
+        summary = "Faceted catalog search",
+        description = """
+            Filters the current catalog by facets and returns the matching product codes together with
+            a count for every facet value. Answered from an in-memory bitmap index over the latest product
+            versions, kept up to date on every write; the database is not queried.
+            
+            - Each facet takes a comma-separated list of values; a product matches a facet if it has any of them (OR)
+            - A product must match every given facet (AND)
+            - Counts of a facet are computed against the other facets' selection, so they show how many
+              products each value would add or yield
+            - balanceType: active balance types; transactionType: allowed transaction types
+            """,
+        tags = {"Product Management"}
+    )
+    public ResponseEntity<ProductFacetResultDTO> searchFacets(
+            @Parameter(description = "Product types, e.g. SAVINGS,LOAN", example = "SAVINGS")
+            @RequestParam(required = false) String productType,
+            @Parameter(description = "Statuses, e.g. ACTIVE", example = "ACTIVE")
+            @RequestParam(required = false) String status,
+            @Parameter(description = "Currencies, e.g. INR,AED", example = "INR")
+            @RequestParam(required = false) String currency,
+            @Parameter(description = "Supported balance types, e.g. FD_PRINCIPAL", example = "FD_PRINCIPAL")
+            @RequestParam(required = false) String balanceType,
+            @Parameter(description = "Allowed transaction types, e.g. DEPOSIT,WITHDRAWAL", example = "DEPOSIT")
+            @RequestParam(required = false) String transactionType) {
+        Map<ProductFacet, String> selections = new EnumMap<>(ProductFacet.class);
+        selections.put(ProductFacet.TYPE, productType);
+        selections.put(ProductFacet.STATUS, status);
+        selections.put(ProductFacet.CURRENCY, currency);
+        selections.put(ProductFacet.BALANCE_TYPE, balanceType);
+        selections.put(ProductFacet.TRANSACTION_TYPE, transactionType);
+        return ResponseEntity.ok(productService.searchFacets(selections));
+    }
+
+    @GetMapping("/suggest")
+    @Operation(
+        summary = "Typeahead suggestions by product code or name",
+        description = """
+            Returns up to limit current products whose productCode, or any word of whose productName,
+            starts with q (case-insensitive). Code matches are listed before name matches.
+            Answered from an in-memory prefix index kept up to date on every write; the database is not queried.
+            """,
+        tags = {"Product Management"}
+    )
+    public ResponseEntity<List<ProductSuggestionDTO>> suggestProducts(
+            @Parameter(description = "Prefix of a product code or of a word in the product name", example = "sav")
+            @RequestParam String q,
+            @Parameter(description = "Maximum number of suggestions (1-50, default 10)", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productService.suggestProducts(q, limit));
     }
 
     @GetMapping("/{productCode}")
@@ -898,7 +1138,7 @@ public class ProductController {
             )
         )
     })
-    public ResponseEntity<ProductDetailsDTO> getProductByCode(
+    public ResponseEntity<?> getProductByCode(
             @Parameter(
                 description = """
                     Unique product code identifier (business key).
@@ -913,8 +1153,37 @@ public class ProductController {
                 required = true,
                 example = "FD001"
             )
-            @PathVariable String productCode) {
-        return ResponseEntity.ok(productService.getProductByCode(productCode));
+            @PathVariable String productCode,
+            @Parameter(
+                description = """
+                    Child collections to load (optional, default all).
+                    Comma-separated: rules, charges, roles, transactions, interest, balances, communications,
+                    or all / none. Child tables that are not listed are not queried.
+                    
+                    Example: include=charges,interest
+                    """,
+                example = "charges,interest"
+            )
+            @RequestParam(required = false) String include,
+            @Parameter(
+                description = """
+                    Product fields to return (optional, default all).
+                    Comma-separated ProductDetailsDTO property names; child collections that are not
+                    listed are not loaded either.
+                    
+                    Example: fields=productCode,productName,productInterests
+                    """,
+                example = "productCode,productName,productInterests"
+            )
+            @RequestParam(required = false) String fields) {
+        ProductReadOptions options = fieldFilter.parse(include, fields);
+        ProductDetailsDTO product = productService.getProductByCode(productCode, options);
+        // ETag of this body (changes with child writes, so If-None-Match gets 304 only for the same bundle);
+        // the product version read, the If-Match of a following PUT, goes in its own header
+        return ResponseEntity.ok()
+            .eTag(ProductRepresentationETag.of(product, options))
+            .header(IfMatchHeader.VERSION_HEADER, IfMatchHeader.etag(product.getProductId()))
+            .body(fieldFilter.apply(product, options));
     }
 
     @PutMapping("/{productCode}")
@@ -943,6 +1212,12 @@ public class ProductController {
             - End date must be after start date
             - Product code in path must match code in request body
             
+            **Optimistic concurrency:**
+            - Send `If-Match: "<productId>"` with the version you read (the `X-Product-Version` header of
+              GET /api/products/{productCode}): the new version is written directly after it, and the update
+              fails with 412 if another version was written meanwhile
+            - The response carries the `X-Product-Version` of the new version for the next conditional update
+            
             **Use Cases:**
             
             **Scenario 1: Update Product Status**
@@ -1102,7 +1377,8 @@ public class ProductController {
                         """
                 )
             )
-        )
+        ),
+        @ApiResponse(responseCode = "412", description = "If-Match is not the current version")
     })
     public ResponseEntity<ProductDetailsDTO> updateProduct(
             @Parameter(
@@ -1136,8 +1412,14 @@ public class ProductController {
                     """,
                 required = true
             )
-            @Valid @RequestBody CreateOrUpdateProductRequestDTO requestDTO) {
-        return ResponseEntity.ok(productService.updateProduct(productCode, requestDTO));
+            @Valid @RequestBody CreateOrUpdateProductRequestDTO requestDTO,
+            @Parameter(description = "X-Product-Version of the version being updated; fails with 412 if a newer version exists")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ProductDetailsDTO updated = productService.updateProduct(productCode, requestDTO, IfMatchHeader.parse(ifMatch));
+        // no ETag: this body is not what a GET returns, so it must not be revalidated with If-None-Match
+        return ResponseEntity.ok()
+            .header(IfMatchHeader.VERSION_HEADER, IfMatchHeader.etag(updated.getProductId()))
+            .body(updated);
     }
 
     @DeleteMapping("/{productCode}")
@@ -1299,10 +1581,12 @@ public class ProductController {
             **Filter Options:**
             - **productType**: Filter by product category (SAVINGS, LOAN, DEPOSIT, etc.)
             - **status**: Filter by lifecycle status (ACTIVE, INACTIVE, PENDING)
-            - **Date Range**: Filter by effective date period (startDate + endDate)
+            - **Date Range**: Filter by effective date period (startDate and/or endDate)
+            - **currency**: Filter by product currency (INR, JPY, AED)
+            - **interestType**: Filter by interest calculation method (SIMPLE, COMPOUND)
             
             **Filter Combinations:**
-            - No parameters → Returns all products
+            - No parameters → Returns all current products
             - Single parameter → Filter by that criterion only
             - Multiple parameters → AND logic (all criteria must match)
             
@@ -1344,8 +1628,8 @@ public class ProductController {
             - POST /api/products - Create new product
             
             **Performance Notes:**
-            - Indexed on productType and status
-            - Date range queries may be slower on large datasets
+            - All filters are evaluated together in a single query against the latest product versions
+            - Composite indexes cover type/status/effective date and currency/interest type
             - Consider pagination for large result sets
             - Results are not paginated (returns all matches)
             """,
@@ -1491,7 +1775,7 @@ public class ProductController {
             )
         )
     })
-    public ResponseEntity<List<ProductDetailsDTO>> searchProducts(
+    public ResponseEntity<List<?>> searchProducts(
             @Parameter(
                 description = """
                     Filter by product type (optional).
@@ -1532,8 +1816,8 @@ public class ProductController {
                     Format: YYYY-MM-DD (ISO-8601)
                     Example: 2025-01-01
                     
-                    Must be used with endDate parameter.
-                    Finds products effective from this date onward.
+                    Can be combined with endDate or used alone.
+                    Finds products effective after this date.
                     """,
                 example = "2025-01-01"
             )
@@ -1545,14 +1829,74 @@ public class ProductController {
                     Format: YYYY-MM-DD (ISO-8601)
                     Example: 2025-12-31
                     
-                    Must be used with startDate parameter.
+                    Can be combined with startDate or used alone.
                     Must be >= startDate.
-                    Finds products effective until this date.
+                    Finds products effective before this date.
                     """,
                 example = "2025-12-31"
             )
-            @RequestParam(required = false) String endDate) {
-        return ResponseEntity.ok(productService.searchProducts(productType, status, startDate, endDate));
+            @RequestParam(required = false) String endDate,
+            @Parameter(
+                description = """
+                    Filter by currency (optional).
+                    
+                    Valid values: INR, JPY, AED
+                    
+                    Case-insensitive. Omit to search all currencies.
+                    """,
+                example = "INR"
+            )
+            @RequestParam(required = false) String currency,
+            @Parameter(
+                description = """
+                    Filter by interest type (optional).
+                    
+                    Valid values: SIMPLE, COMPOUND
+                    
+                    Case-insensitive. Omit to search all interest types.
+                    """,
+                example = "COMPOUND"
+            )
+            @RequestParam(required = false) String interestType,
+            @Parameter(
+                description = """
+                    Response view (optional, default full).
+                    - full: product with its latest child collections
+                    - summary: id, code, name, type, status and currency only; child tables are not read
+                    """,
+                example = "summary"
+            )
+            @RequestParam(defaultValue = "full") String view,
+            @Parameter(
+                description = """
+                    Child collections to load (optional, default all).
+                    Comma-separated: rules, charges, roles, transactions, interest, balances, communications,
+                    or all / none. Child tables that are not listed are not queried.
+                    
+                    Example: include=charges,interest
+                    """,
+                example = "charges,interest"
+            )
+            @RequestParam(required = false) String include,
+            @Parameter(
+                description = """
+                    Product fields to return (optional, default all).
+                    Comma-separated ProductDetailsDTO property names; child collections that are not
+                    listed are not loaded either.
+                    
+                    Example: fields=productCode,productName,productInterests
+                    """,
+                example = "productCode,productName,productInterests"
+            )
+            @RequestParam(required = false) String fields) {
+        ProductSearchCriteria criteria =
+            new ProductSearchCriteria(productType, status, startDate, endDate, currency, interestType);
+        if (isSummaryView(view)) {
+            rejectSparseParamsForSummary(include, fields);
+            return ResponseEntity.ok(productService.searchProductSummaries(criteria));
+        }
+        ProductReadOptions options = fieldFilter.parse(include, fields);
+        return ResponseEntity.ok(fieldFilter.apply(productService.searchProducts(criteria, options), options));
     }
 
     @GetMapping("/{productCode}/audit-trail")
@@ -1610,4 +1954,115 @@ public class ProductController {
             @PathVariable String productCode) {
         return ResponseEntity.ok(productService.getProductAuditTrail(productCode));
     }
+
+    @GetMapping("/{productCode}/audit-trail/page")
+    @Operation(
+        summary = "Get one page of the audit trail of a product",
+        description = """
+            Keyset-paginated audit trail: product version rows (with audit fields, without child collections),
+            newest first. Pass nextCursor of a page as cursor to get the next one; nextCursor is null on the last page.
+            Memory per request is bounded by the page size, regardless of history length.
+            """,
+        tags = {"Product Management"}
+    )
+    public ResponseEntity<CursorPage<ProductDetailsDTO>> getProductAuditTrailPage(
+            @Parameter(description = "Product code to retrieve audit trail for", required = true, example = "FD001")
+            @PathVariable String productCode,
+            @Parameter(description = "Cursor from the previous page (omit for the first page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-500)", example = "50")
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(productService.getProductAuditTrailPage(productCode, cursor, size));
+    }
+
+    @GetMapping(value = "/{productCode}/audit-trail/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+        summary = "Stream the audit trail of a product as NDJSON",
+        description = """
+            ALL product version rows (with audit fields, without child collections), newest first,
+            one JSON object per line, written while rows are read from a database cursor.
+            An unknown product code yields an empty stream.
+            """,
+        tags = {"Product Management"}
+    )
+    public ResponseEntity<StreamingResponseBody> streamProductAuditTrail(
+            @Parameter(description = "Product code to retrieve audit trail for", required = true, example = "FD001")
+            @PathVariable String productCode) {
+        return ndjsonWriter.<ProductDetailsDTO>stream(sink -> productService.streamProductAuditTrail(productCode, sink));
+    }
+
+    @GetMapping("/versions/{productId}")
+    @Operation(
+        summary = "Get a single immutable product version by its row id",
+        description = """
+            Retrieve one version row of a product (as listed in the audit trail) by its productId.
+            
+            **What it returns:**
+            - The product fields and audit fields of exactly that version
+            - No child lists (charges, rules, ...), since those keep changing after the version is written
+            
+            **Caching:**
+            - Version rows are insert-only and never change, so the response is served with
+              `Cache-Control: immutable` and a strong ETag
+            - Send the ETag back in `If-None-Match` to receive `304 Not Modified`
+            - Responses are cached server-side as serialized JSON, bypassing the database on repeat calls
+            """,
+        tags = {"Product Management"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Product version retrieved successfully",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ProductDetailsDTO.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Not modified - the ETag in If-None-Match matches this version"
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Product version not found"
+        )
+    })
+    public ResponseEntity<byte[]> getProductVersion(
+            @Parameter(
+                description = "Row id (productId) of the product version",
+                required = true,
+                example = "3fa85f64-5717-4562-b3fc-2c963f66afa6"
+            )
+            @PathVariable UUID productId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Resolved first (usually from the response cache): an id that was never stored is a 404, not a 304
+        byte[] body = versionResponseCache.getOrLoad(productId, () -> productService.getProductVersion(productId));
+        // INSERT-ONLY Pattern: the row id identifies the content forever, so it doubles as the ETag
+        String etag = IfMatchHeader.etag(productId);
+        CacheControl cacheControl = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+        if (IfNoneMatchHeader.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private static boolean isSummaryView(String view) {
+        if ("summary".equalsIgnoreCase(view)) {
+            return true;
+        }
+        if ("full".equalsIgnoreCase(view)) {
+            return false;
+        }
+        throw new ValidationException("Invalid view: " + view + ". Allowed values: full, summary");
+    }
+
+    private static void rejectSparseParamsForSummary(String include, String fields) {
+        if (include != null || fields != null) {
+            throw new ValidationException("include and fields cannot be combined with view=summary");
+        }
+    }
 }
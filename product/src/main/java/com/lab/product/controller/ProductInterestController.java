@@ -1,5 +1,6 @@
 package com.lab.product.controller;
 
+import com.lab.product.DTO.CursorPage;
 import com.lab.product.DTO.ProductInterestDTO;
 import com.lab.product.DTO.ProductInterestRequestDTO;
 import com.lab.product.service.ProductInterestService;
@@ -17,9 +18,12 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -38,6 +42,8 @@ public class ProductInterestController {
     @Autowired
     private final ProductInterestService productInterestService;
 
+    private final NdjsonResponseWriter ndjsonWriter;
+
     @PostMapping
     @Operation(
         summary = "Configure interest rate tier for a product",
@@ -555,7 +561,8 @@ public class ProductInterestController {
                 example = "661e8400-e29b-41d4-a716-446655440001"
             )
             @PathVariable String interestId) {
-        return ResponseEntity.ok(productInterestService.getInterestRateByCode(productCode, interestId));
+        ProductInterestDTO interest = productInterestService.getInterestRateByCode(productCode, interestId);
+        return ResponseEntity.ok().eTag(IfMatchHeader.etag(interest.getRateId())).body(interest);
     }
 
     @PutMapping("/{interestId}")
@@ -693,7 +700,8 @@ public class ProductInterestController {
                         """
                 )
             )
-        )
+        ),
+        @ApiResponse(responseCode = "412", description = "If-Match is not the current version")
     })
     public ResponseEntity<ProductInterestDTO> updateInterestRate(
             @Parameter(
@@ -717,8 +725,11 @@ public class ProductInterestController {
                     """,
                 required = true
             )
-            @Valid @RequestBody ProductInterestRequestDTO interestDto) {
-        return ResponseEntity.ok(productInterestService.updateInterestRate(productCode, interestId, interestDto));
+            @Valid @RequestBody ProductInterestRequestDTO interestDto,
+            @Parameter(description = "ETag of the version being updated; fails with 412 if a newer version exists")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ProductInterestDTO updated = productInterestService.updateInterestRate(productCode, interestId, interestDto, IfMatchHeader.parse(ifMatch));
+        return ResponseEntity.ok().eTag(IfMatchHeader.etag(updated.getRateId())).body(updated);
     }
 
     @DeleteMapping("/{interestId}")
@@ -990,4 +1001,65 @@ public class ProductInterestController {
             @PathVariable String rateCode) {
         return ResponseEntity.ok(productInterestService.getInterestRateAuditTrail(productCode, rateCode));
     }
+
+    @GetMapping("/audit-trail/page")
+    @Operation(
+        summary = "Get one page of the audit trail of all interest rates for a product",
+        description = "Keyset-paginated audit trail, newest first. Pass nextCursor of a page as cursor to get the next one; " +
+                      "nextCursor is null on the last page.",
+        tags = {"Product Interest Rates"}
+    )
+    public ResponseEntity<CursorPage<ProductInterestDTO>> getInterestRatesAuditTrailPage(
+            @Parameter(description = "Product code", required = true, example = "FD001")
+            @PathVariable String productCode,
+            @Parameter(description = "Cursor from the previous page (omit for the first page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-500)", example = "50")
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(productInterestService.getInterestRatesAuditTrailPage(productCode, cursor, size));
+    }
+
+    @GetMapping(value = "/audit-trail/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+        summary = "Stream the audit trail of all interest rates for a product as NDJSON",
+        description = "ALL versions, newest first, one JSON object per line, written while rows are read from the database.",
+        tags = {"Product Interest Rates"}
+    )
+    public ResponseEntity<StreamingResponseBody> streamInterestRatesAuditTrail(
+            @Parameter(description = "Product code", required = true, example = "FD001")
+            @PathVariable String productCode) {
+        return ndjsonWriter.<ProductInterestDTO>stream(sink -> productInterestService.streamInterestRatesAuditTrail(productCode, sink));
+    }
+
+    @GetMapping("/{rateCode}/audit-trail/page")
+    @Operation(
+        summary = "Get one page of the audit trail of a specific interest rate",
+        description = "Keyset-paginated audit trail, newest first. Pass nextCursor of a page as cursor to get the next one.",
+        tags = {"Product Interest Rates"}
+    )
+    public ResponseEntity<CursorPage<ProductInterestDTO>> getInterestRateAuditTrailPage(
+            @Parameter(description = "Product code", required = true, example = "FD001")
+            @PathVariable String productCode,
+            @Parameter(description = "Interest rate code", required = true, example = "INT12M001")
+            @PathVariable String rateCode,
+            @Parameter(description = "Cursor from the previous page (omit for the first page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-500)", example = "50")
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(productInterestService.getInterestRateAuditTrailPage(productCode, rateCode, cursor, size));
+    }
+
+    @GetMapping(value = "/{rateCode}/audit-trail/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+        summary = "Stream the audit trail of a specific interest rate as NDJSON",
+        description = "ALL versions, newest first, one JSON object per line, written while rows are read from the database.",
+        tags = {"Product Interest Rates"}
+    )
+    public ResponseEntity<StreamingResponseBody> streamInterestRateAuditTrail(
+            @Parameter(description = "Product code", required = true, example = "FD001")
+            @PathVariable String productCode,
+            @Parameter(description = "Interest rate code", required = true, example = "INT12M001")
+            @PathVariable String rateCode) {
+        return ndjsonWriter.<ProductInterestDTO>stream(sink -> productInterestService.streamInterestRateAuditTrail(productCode, rateCode, sink));
+    }
 }
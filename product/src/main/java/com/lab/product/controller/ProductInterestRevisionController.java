@@ -0,0 +1,43 @@
+package com.lab.product.controller;
+
+import com.lab.product.DTO.ProductInterestRevisionDTO;
+import com.lab.product.DTO.ProductInterestRevisionResultDTO;
+import com.lab.product.service.ProductInterestService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/products/interest-rates")
+@RequiredArgsConstructor
+@Tag(name = "Product Interest Rates")
+public class ProductInterestRevisionController {
+
+    private final ProductInterestService productInterestService;
+
+    @PostMapping("/revisions")
+    @Operation(
+        summary = "Revise interest rates across products in bulk",
+        description = """
+            Takes a rate table (productCode x rateCode -> new rates) and writes a new version of every listed
+            rate in one transaction, e.g. after a central bank rate change across all FIXED_DEPOSIT products.
+            
+            - At most 10000 rows; each productCode/rateCode pair may appear once
+            - A rate that is not given keeps its current value
+            - Rows without a current rate are returned in notFound and not written
+            - The response reports the elapsed time and rates written per second
+            """,
+        tags = {"Product Interest Rates"}
+    )
+    public ResponseEntity<ProductInterestRevisionResultDTO> reviseInterestRates(
+            @RequestBody List<ProductInterestRevisionDTO> revisions) {
+        return ResponseEntity.ok(productInterestService.reviseInterestRates(revisions));
+    }
+}
@@ -0,0 +1,60 @@
+package com.lab.product.controller;
+
+import com.lab.product.DTO.ProductBalanceDTO;
+import com.lab.product.DTO.ProductChargeDTO;
+import com.lab.product.DTO.ProductCommunicationDTO;
+import com.lab.product.DTO.ProductDetailsDTO;
+import com.lab.product.DTO.ProductInterestDTO;
+import com.lab.product.DTO.ProductRoleDTO;
+import com.lab.product.DTO.ProductRuleDTO;
+import com.lab.product.DTO.ProductTransactionDTO;
+import com.lab.product.service.helper.ProductReadOptions;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * ETag of a product bundle response (GET /api/products/{productCode}): a hash of the product row id, the row
+ * ids of the children returned and the include/fields options. Version rows are never modified, so these ids
+ * identify the body; a child write changes the ETag even though the product row, and with it the If-Match
+ * token in {@link IfMatchHeader#VERSION_HEADER}, stays the same.
+ */
+final class ProductRepresentationETag {
+
+    private ProductRepresentationETag() {
+    }
+
+    static String of(ProductDetailsDTO product, ProductReadOptions options) {
+        StringBuilder content = new StringBuilder(512).append(product.getProductId()).append('\n');
+        appendIds(content, "rules", product.getProductRules(), ProductRuleDTO::getRuleId);
+        appendIds(content, "charges", product.getProductCharges(), ProductChargeDTO::getChargeId);
+        appendIds(content, "roles", product.getProductRoles(), ProductRoleDTO::getRoleId);
+        appendIds(content, "transactions", product.getProductTransactions(), ProductTransactionDTO::getTransactionId);
+        appendIds(content, "balances", product.getProductBalances(), ProductBalanceDTO::getBalanceId);
+        appendIds(content, "communications", product.getProductCommunications(), ProductCommunicationDTO::getCommId);
+        appendIds(content, "interests", product.getProductInterests(), ProductInterestDTO::getRateId);
+        content.append("include=").append(options.getChildren()).append('\n');
+        content.append("fields=").append(options.getFields() == null ? "*" : new TreeSet<>(options.getFields()));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.toString().getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // Children are hashed in response order: a reordered list is a different body
+    private static <T> void appendIds(StringBuilder content, String name, List<T> children, Function<T, UUID> idOf) {
+        content.append(name).append('=');
+        if (children != null) {
+            children.forEach(child -> content.append(idOf.apply(child)).append(','));
+        }
+        content.append('\n');
+    }
+}
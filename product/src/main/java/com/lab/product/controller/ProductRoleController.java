@@ -1,5 +1,6 @@
 package com.lab.product.controller;
 
+import com.lab.product.DTO.CursorPage;
 import com.lab.product.DTO.ProductRoleDTO;
 import com.lab.product.DTO.ProductRoleRequestDTO;
 import com.lab.product.service.ProductRoleService;
@@ -17,9 +18,12 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -38,6 +42,8 @@ public class ProductRoleController {
     @Autowired
     private final ProductRoleService productRoleService;
 
+    private final NdjsonResponseWriter ndjsonWriter;
+
     @PostMapping
     @Operation(
         summary = "Define user role permissions for product access",
@@ -648,7 +654,8 @@ public class ProductRoleController {
                 example = "role-991e8400-e29b-41d4-a716-446655440001"
             )
             @PathVariable String roleId) {
-        return ResponseEntity.ok(productRoleService.getRoleByCode(productCode, roleId));
+        ProductRoleDTO role = productRoleService.getRoleByCode(productCode, roleId);
+        return ResponseEntity.ok().eTag(IfMatchHeader.etag(role.getRoleId())).body(role);
     }
 
     @PutMapping("/{roleId}")
@@ -810,7 +817,8 @@ public class ProductRoleController {
                     )
                 }
             )
-        )
+        ),
+        @ApiResponse(responseCode = "412", description = "If-Match is not the current version")
     })
     public ResponseEntity<ProductRoleDTO> updateRole(
             @Parameter(
@@ -867,8 +875,11 @@ public class ProductRoleController {
                     }
                 )
             )
-            @Valid @RequestBody ProductRoleRequestDTO roleDto) {
-        return ResponseEntity.ok(productRoleService.updateRole(productCode, roleId, roleDto));
+            @Valid @RequestBody ProductRoleRequestDTO roleDto,
+            @Parameter(description = "ETag of the version being updated; fails with 412 if a newer version exists")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ProductRoleDTO updated = productRoleService.updateRole(productCode, roleId, roleDto, IfMatchHeader.parse(ifMatch));
+        return ResponseEntity.ok().eTag(IfMatchHeader.etag(updated.getRoleId())).body(updated);
     }
 
     @DeleteMapping("/{roleId}")
@@ -1033,4 +1044,65 @@ public class ProductRoleController {
             @PathVariable String roleCode) {
         return ResponseEntity.ok(productRoleService.getRoleAuditTrail(productCode, roleCode));
     }
+
+    @GetMapping("/audit-trail/page")
+    @Operation(
+        summary = "Get one page of the audit trail of all roles for a product",
+        description = "Keyset-paginated audit trail, newest first. Pass nextCursor of a page as cursor to get the next one; " +
+                      "nextCursor is null on the last page.",
+        tags = {"Product Role Management"}
+    )
+    public ResponseEntity<CursorPage<ProductRoleDTO>> getRolesAuditTrailPage(
+            @Parameter(description = "Product code", required = true)
+            @PathVariable String productCode,
+            @Parameter(description = "Cursor from the previous page (omit for the first page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-500)", example = "50")
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(productRoleService.getRolesAuditTrailPage(productCode, cursor, size));
+    }
+
+    @GetMapping(value = "/audit-trail/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+        summary = "Stream the audit trail of all roles for a product as NDJSON",
+        description = "ALL versions, newest first, one JSON object per line, written while rows are read from the database.",
+        tags = {"Product Role Management"}
+    )
+    public ResponseEntity<StreamingResponseBody> streamRolesAuditTrail(
+            @Parameter(description = "Product code", required = true)
+            @PathVariable String productCode) {
+        return ndjsonWriter.<ProductRoleDTO>stream(sink -> productRoleService.streamRolesAuditTrail(productCode, sink));
+    }
+
+    @GetMapping("/{roleCode}/audit-trail/page")
+    @Operation(
+        summary = "Get one page of the audit trail of a specific role",
+        description = "Keyset-paginated audit trail, newest first. Pass nextCursor of a page as cursor to get the next one.",
+        tags = {"Product Role Management"}
+    )
+    public ResponseEntity<CursorPage<ProductRoleDTO>> getRoleAuditTrailPage(
+            @Parameter(description = "Product code", required = true)
+            @PathVariable String productCode,
+            @Parameter(description = "Role code", required = true)
+            @PathVariable String roleCode,
+            @Parameter(description = "Cursor from the previous page (omit for the first page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-500)", example = "50")
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(productRoleService.getRoleAuditTrailPage(productCode, roleCode, cursor, size));
+    }
+
+    @GetMapping(value = "/{roleCode}/audit-trail/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+        summary = "Stream the audit trail of a specific role as NDJSON",
+        description = "ALL versions, newest first, one JSON object per line, written while rows are read from the database.",
+        tags = {"Product Role Management"}
+    )
+    public ResponseEntity<StreamingResponseBody> streamRoleAuditTrail(
+            @Parameter(description = "Product code", required = true)
+            @PathVariable String productCode,
+            @Parameter(description = "Role code", required = true)
+            @PathVariable String roleCode) {
+        return ndjsonWriter.<ProductRoleDTO>stream(sink -> productRoleService.streamRoleAuditTrail(productCode, roleCode, sink));
+    }
 }
\ No newline at end of file
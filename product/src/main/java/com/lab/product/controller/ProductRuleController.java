@@ -1,5 +1,6 @@
 package com.lab.product.controller;
 
+import com.lab.product.DTO.CursorPage;
 import com.lab.product.DTO.ProductRuleDTO;
 import com.lab.product.DTO.ProductRuleRequestDTO;
 import com.lab.product.service.ProductRuleService;
@@ -17,9 +18,12 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -39,6 +43,8 @@ public class ProductRuleController {
     @Autowired
     private final ProductRuleService productRuleService;
 
+    private final NdjsonResponseWriter ndjsonWriter;
+
     @PostMapping
     @Operation(
         summary = "Configure business rule for product",
@@ -698,7 +704,8 @@ public class ProductRuleController {
                 example = "991e8400-e29b-41d4-a716-446655440001"
             )
             @PathVariable String ruleId) {
-        return ResponseEntity.ok(productRuleService.getRuleByCode(productCode, ruleId));
+        ProductRuleDTO rule = productRuleService.getRuleByCode(productCode, ruleId);
+        return ResponseEntity.ok().eTag(IfMatchHeader.etag(rule.getRuleId())).body(rule);
     }
 
     @PutMapping("/{ruleId}")
@@ -852,7 +859,8 @@ public class ProductRuleController {
                     )
                 }
             )
-        )
+        ),
+        @ApiResponse(responseCode = "412", description = "If-Match is not the current version")
     })
     public ResponseEntity<ProductRuleDTO> updateRule(
             @Parameter(
@@ -909,8 +917,11 @@ public class ProductRuleController {
                     }
                 )
             )
-            @RequestBody ProductRuleRequestDTO request) {
-        return ResponseEntity.ok(productRuleService.updateRule(productCode, ruleId, request));
+            @RequestBody ProductRuleRequestDTO request,
+            @Parameter(description = "ETag of the version being updated; fails with 412 if a newer version exists")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ProductRuleDTO updated = productRuleService.updateRule(productCode, ruleId, request, IfMatchHeader.parse(ifMatch));
+        return ResponseEntity.ok().eTag(IfMatchHeader.etag(updated.getRuleId())).body(updated);
     }
 
     @DeleteMapping("/{ruleId}")
@@ -1057,4 +1068,65 @@ public class ProductRuleController {
             @PathVariable String ruleCode) {
         return ResponseEntity.ok(productRuleService.getRuleAuditTrail(productCode, ruleCode));
     }
+
+    @GetMapping("/audit-trail/page")
+    @Operation(
+        summary = "Get one page of the audit trail of all rules for a product",
+        description = "Keyset-paginated audit trail, newest first. Pass nextCursor of a page as cursor to get the next one; " +
+                      "nextCursor is null on the last page.",
+        tags = {"Product Business Rules"}
+    )
+    public ResponseEntity<CursorPage<ProductRuleDTO>> getRulesAuditTrailPage(
+            @Parameter(description = "Product code", required = true)
+            @PathVariable String productCode,
+            @Parameter(description = "Cursor from the previous page (omit for the first page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-500)", example = "50")
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(productRuleService.getRulesAuditTrailPage(productCode, cursor, size));
+    }
+
+    @GetMapping(value = "/audit-trail/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+        summary = "Stream the audit trail of all rules for a product as NDJSON",
+        description = "ALL versions, newest first, one JSON object per line, written while rows are read from the database.",
+        tags = {"Product Business Rules"}
+    )
+    public ResponseEntity<StreamingResponseBody> streamRulesAuditTrail(
+            @Parameter(description = "Product code", required = true)
+            @PathVariable String productCode) {
+        return ndjsonWriter.<ProductRuleDTO>stream(sink -> productRuleService.streamRulesAuditTrail(productCode, sink));
+    }
+
+    @GetMapping("/{ruleCode}/audit-trail/page")
+    @Operation(
+        summary = "Get one page of the audit trail of a specific rule",
+        description = "Keyset-paginated audit trail, newest first. Pass nextCursor of a page as cursor to get the next one.",
+        tags = {"Product Business Rules"}
+    )
+    public ResponseEntity<CursorPage<ProductRuleDTO>> getRuleAuditTrailPage(
+            @Parameter(description = "Product code", required = true)
+            @PathVariable String productCode,
+            @Parameter(description = "Rule code", required = true)
+            @PathVariable String ruleCode,
+            @Parameter(description = "Cursor from the previous page (omit for the first page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-500)", example = "50")
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(productRuleService.getRuleAuditTrailPage(productCode, ruleCode, cursor, size));
+    }
+
+    @GetMapping(value = "/{ruleCode}/audit-trail/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+        summary = "Stream the audit trail of a specific rule as NDJSON",
+        description = "ALL versions, newest first, one JSON object per line, written while rows are read from the database.",
+        tags = {"Product Business Rules"}
+    )
+    public ResponseEntity<StreamingResponseBody> streamRuleAuditTrail(
+            @Parameter(description = "Product code", required = true)
+            @PathVariable String productCode,
+            @Parameter(description = "Rule code", required = true)
+            @PathVariable String ruleCode) {
+        return ndjsonWriter.<ProductRuleDTO>stream(sink -> productRuleService.streamRuleAuditTrail(productCode, ruleCode, sink));
+    }
 }
\ No newline at end of file
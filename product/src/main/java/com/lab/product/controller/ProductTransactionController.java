@@ -1,5 +1,6 @@
 package com.lab.product.controller;
 
+import com.lab.product.DTO.CursorPage;
 import com.lab.product.DTO.ProductTransactionDTO;
 import com.lab.product.DTO.ProductTransactionRequestDTO;
 import com.lab.product.service.ProductTransactionService;
@@ -17,9 +18,12 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -40,6 +44,8 @@ public class ProductTransactionController {
     @Autowired
     private final ProductTransactionService productTransactionService;
 
+    private final NdjsonResponseWriter ndjsonWriter;
+
     @PostMapping
     @Operation(
         summary = "Configure allowed transaction type for product",
@@ -637,7 +643,8 @@ public class ProductTransactionController {
                 example = "TXN_WITHDRAWAL"
             )
             @PathVariable String transactionCode) {
-        return ResponseEntity.ok(productTransactionService.getTransactionByCode(productCode, transactionCode));
+        ProductTransactionDTO transaction = productTransactionService.getTransactionByCode(productCode, transactionCode);
+        return ResponseEntity.ok().eTag(IfMatchHeader.etag(transaction.getTransactionId())).body(transaction);
     }
 
     @PutMapping("/{transactionCode}")
@@ -782,7 +789,8 @@ public class ProductTransactionController {
                     )
                 }
             )
-        )
+        ),
+        @ApiResponse(responseCode = "412", description = "If-Match is not the current version")
     })
     public ResponseEntity<ProductTransactionDTO> updateTransaction(
             @Parameter(
@@ -843,8 +851,11 @@ public class ProductTransactionController {
                     }
                 )
             )
-            @Valid @RequestBody ProductTransactionRequestDTO transactionDto) {
-        return ResponseEntity.ok(productTransactionService.updateTransaction(productCode, transactionCode, transactionDto));
+            @Valid @RequestBody ProductTransactionRequestDTO transactionDto,
+            @Parameter(description = "ETag of the version being updated; fails with 412 if a newer version exists")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ProductTransactionDTO updated = productTransactionService.updateTransaction(productCode, transactionCode, transactionDto, IfMatchHeader.parse(ifMatch));
+        return ResponseEntity.ok().eTag(IfMatchHeader.etag(updated.getTransactionId())).body(updated);
     }
 
     @DeleteMapping("/{transactionCode}")
@@ -986,4 +997,65 @@ public class ProductTransactionController {
             @PathVariable String transactionCode) {
         return ResponseEntity.ok(productTransactionService.getTransactionAuditTrail(productCode, transactionCode));
     }
+
+    @GetMapping("/audit-trail/page")
+    @Operation(
+        summary = "Get one page of the audit trail of all transactions for a product",
+        description = "Keyset-paginated audit trail, newest first. Pass nextCursor of a page as cursor to get the next one; " +
+                      "nextCursor is null on the last page.",
+        tags = {"Product Transaction Configuration"}
+    )
+    public ResponseEntity<CursorPage<ProductTransactionDTO>> getTransactionsAuditTrailPage(
+            @Parameter(description = "Product code", required = true)
+            @PathVariable String productCode,
+            @Parameter(description = "Cursor from the previous page (omit for the first page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-500)", example = "50")
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(productTransactionService.getTransactionsAuditTrailPage(productCode, cursor, size));
+    }
+
+    @GetMapping(value = "/audit-trail/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+        summary = "Stream the audit trail of all transactions for a product as NDJSON",
+        description = "ALL versions, newest first, one JSON object per line, written while rows are read from the database.",
+        tags = {"Product Transaction Configuration"}
+    )
+    public ResponseEntity<StreamingResponseBody> streamTransactionsAuditTrail(
+            @Parameter(description = "Product code", required = true)
+            @PathVariable String productCode) {
+        return ndjsonWriter.<ProductTransactionDTO>stream(sink -> productTransactionService.streamTransactionsAuditTrail(productCode, sink));
+    }
+
+    @GetMapping("/{transactionCode}/audit-trail/page")
+    @Operation(
+        summary = "Get one page of the audit trail of a specific transaction",
+        description = "Keyset-paginated audit trail, newest first. Pass nextCursor of a page as cursor to get the next one.",
+        tags = {"Product Transaction Configuration"}
+    )
+    public ResponseEntity<CursorPage<ProductTransactionDTO>> getTransactionAuditTrailPage(
+            @Parameter(description = "Product code", required = true)
+            @PathVariable String productCode,
+            @Parameter(description = "Transaction code", required = true)
+            @PathVariable String transactionCode,
+            @Parameter(description = "Cursor from the previous page (omit for the first page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-500)", example = "50")
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(productTransactionService.getTransactionAuditTrailPage(productCode, transactionCode, cursor, size));
+    }
+
+    @GetMapping(value = "/{transactionCode}/audit-trail/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+        summary = "Stream the audit trail of a specific transaction as NDJSON",
+        description = "ALL versions, newest first, one JSON object per line, written while rows are read from the database.",
+        tags = {"Product Transaction Configuration"}
+    )
+    public ResponseEntity<StreamingResponseBody> streamTransactionAuditTrail(
+            @Parameter(description = "Product code", required = true)
+            @PathVariable String productCode,
+            @Parameter(description = "Transaction code", required = true)
+            @PathVariable String transactionCode) {
+        return ndjsonWriter.<ProductTransactionDTO>stream(sink -> productTransactionService.streamTransactionAuditTrail(productCode, transactionCode, sink));
+    }
 }
\ No newline at end of file
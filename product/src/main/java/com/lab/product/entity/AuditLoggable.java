@@ -19,6 +19,13 @@ public abstract class AuditLoggable {
     @CreationTimestamp
     @Column(name = "PRODUCT_CRTN_DATE")
     private LocalDateTime createdAt;
+    // INSERT-ONLY Pattern: 1, 2, 3... per productCode (and child code); the highest is the latest version.
+    // Assigned by ProductVersionNumbers before insert; unique per business key (V6 migration and the
+    // uniqueConstraints of each versioned entity, so ddl-auto schemas enforce it too).
+    // Never null: V6 backfills existing rows and must run before the application starts, so no read or
+    // write path handles rows without a number.
+    @Column(name = "PRODUCT_VERSION_NO", nullable = false)
+    private Long versionNo;
     @Column(name = "PRODUCT_EFCTV_DATE")
     private Date efctv_date;
     @Column(name = "PRODUCT_CRUD_VALUE")
@@ -45,6 +52,9 @@ public abstract class AuditLoggable {
     private Timestamp acpt_ts_utc_ofst;
     @Column(name = "PRODUCT_UUID")
     private UUID UUID_reference;
+    // INSERT-ONLY Pattern: SHA-256 of the business content (ContentHashes), set on insert; identical updates are skipped
+    @Column(name = "PRODUCT_CONTENT_HASH", length = 64)
+    private String contentHash;
     
     // INSERT-ONLY Pattern: Set default crud_value on persist
     // createdAt (PRODUCT_CRTN_DATE) serves as version timestamp via @CreationTimestamp
@@ -53,6 +63,7 @@ public abstract class AuditLoggable {
         if (crud_value == null) {
             crud_value = CRUD_VALUE.C;
         }
+        contentHash = ContentHashes.of(this);
     }
 
 }
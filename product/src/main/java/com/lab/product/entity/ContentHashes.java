@@ -0,0 +1,103 @@
+package com.lab.product.entity;
+
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Transient;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * INSERT-ONLY Pattern: SHA-256 over the business content of a version row, stored in PRODUCT_CONTENT_HASH.
+ * Two versions with the same hash carry the same data, so an update whose new version hashes like the
+ * current one can be skipped. Hashed: the entity's own columns plus efctv_date. Not hashed: ids,
+ * relations, versionNo, crud_value, audit user/timestamps and UUID_reference, which differ per row
+ * by construction.
+ */
+public final class ContentHashes {
+
+    private static final List<Class<? extends Annotation>> NOT_CONTENT = List.of(
+        Id.class, ManyToOne.class, OneToMany.class, OneToOne.class, ManyToMany.class, Transient.class,
+        CreationTimestamp.class, UpdateTimestamp.class);
+
+    private static final Map<Class<?>, List<Field>> CONTENT_FIELDS = new ConcurrentHashMap<>();
+
+    private ContentHashes() {
+    }
+
+    public static String of(AuditLoggable row) {
+        AuditLoggable entity = (AuditLoggable) Hibernate.unproxy(row);
+        StringBuilder content = new StringBuilder(256);
+        for (Field field : contentFields(entity.getClass())) {
+            content.append(field.getName()).append('=').append(canonical(read(field, entity))).append('\n');
+        }
+        content.append("efctv_date=").append(canonical(entity.getEfctv_date())).append('\n');
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // Rows written before PRODUCT_CONTENT_HASH existed have no stored hash; theirs is computed on the fly
+    public static boolean sameContent(AuditLoggable current, AuditLoggable next) {
+        String currentHash = current.getContentHash() != null ? current.getContentHash() : of(current);
+        return currentHash.equals(of(next));
+    }
+
+    private static List<Field> contentFields(Class<?> type) {
+        return CONTENT_FIELDS.computeIfAbsent(type, t -> {
+            List<Field> fields = new ArrayList<>();
+            for (Field field : t.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())
+                        || NOT_CONTENT.stream().anyMatch(field::isAnnotationPresent)) {
+                    continue;
+                }
+                field.setAccessible(true);
+                fields.add(field);
+            }
+            fields.sort(Comparator.comparing(Field::getName));
+            return List.copyOf(fields);
+        });
+    }
+
+    private static Object read(Field field, Object entity) {
+        try {
+            return field.get(entity);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot read " + field, e);
+        }
+    }
+
+    // 100.00 read back from a DECIMAL(26,4) column is 100.0000: compare numbers by value, not scale
+    private static String canonical(Object value) {
+        if (value == null) {
+            return "\u0000";
+        }
+        if (value instanceof BigDecimal number) {
+            return number.stripTrailingZeros().toPlainString();
+        }
+        if (value instanceof Enum<?> constant) {
+            return constant.name();
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,6 @@
+package com.lab.product.entity.ENUMS;
+
+// Insert-only tables tracked by the current-version pointer table
+public enum PRODUCT_ENTITY_TYPE {
+    PRODUCT, RULE, CHARGE, ROLE, TRANSACTION, INTEREST, BALANCE, COMMUNICATION
+}
@@ -15,13 +15,14 @@ import java.util.UUID;
  * This simply indicates which balances are relevant for the product.
  */
 @Entity
-@Table(name = "product_balances")
+@Table(name = "product_balances",
+    uniqueConstraints = @UniqueConstraint(name = "uk_balances_code_version", columnNames = {"PRODUCT_CODE", "balanceType", "PRODUCT_VERSION_NO"}))
 @Data
 @lombok.EqualsAndHashCode(callSuper = false)
 public class PRODUCT_BALANCE extends AuditLoggable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @ProductId
     private UUID balanceId;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -11,12 +11,13 @@ import java.math.BigDecimal;
 import java.util.UUID;
 
 @Entity
-@Table(name = "product_charges")
+@Table(name = "product_charges",
+    uniqueConstraints = @UniqueConstraint(name = "uk_charges_code_version", columnNames = {"PRODUCT_CODE", "chargeCode", "PRODUCT_VERSION_NO"}))
 @Data
 public class PRODUCT_CHARGES extends AuditLoggable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @ProductId
     private UUID chargeId;
 
     @ManyToOne(fetch = FetchType.LAZY)
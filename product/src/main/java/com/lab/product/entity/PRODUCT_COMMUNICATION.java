@@ -8,12 +8,13 @@ import lombok.Data;
 import java.util.UUID;
 
 @Entity
-@Table(name = "product_communications")
+@Table(name = "product_communications",
+    uniqueConstraints = @UniqueConstraint(name = "uk_communications_code_version", columnNames = {"PRODUCT_CODE", "commCode", "PRODUCT_VERSION_NO"}))
 @Data
 public class PRODUCT_COMMUNICATION extends AuditLoggable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @ProductId
     private UUID commId;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,34 @@
+package com.lab.product.entity;
+
+import com.lab.product.entity.ENUMS.CRUD_VALUE;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * INSERT-ONLY Pattern: Pointer to the latest version row of every business key.
+ * Maintained in the same transaction as each insert-only write, so latest-version
+ * reads become a primary-key join instead of a MAX(createdAt) scan.
+ */
+@Entity
+@Table(name = "product_current_versions")
+@Data
+public class PRODUCT_CURRENT_VERSION {
+
+    @EmbeddedId
+    private PRODUCT_CURRENT_VERSION_ID id;
+
+    // Primary key of the latest version row in the entity's own table
+    @Column(name = "ROW_ID", nullable = false)
+    private UUID rowId;
+
+    // crud_value of the latest version; 'D' means the business key is deleted
+    @Enumerated(EnumType.STRING)
+    @Column(name = "CRUD_VALUE", nullable = false, length = 1)
+    private CRUD_VALUE crud_value;
+
+    @Column(name = "UPDATED_AT", nullable = false)
+    private LocalDateTime updatedAt;
+}
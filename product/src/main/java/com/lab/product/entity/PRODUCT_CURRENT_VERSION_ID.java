@@ -0,0 +1,35 @@
+package com.lab.product.entity;
+
+import com.lab.product.entity.ENUMS.PRODUCT_ENTITY_TYPE;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Business key of a versioned row: entity type + productCode + child code.
+ * The product row itself uses an empty child code.
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PRODUCT_CURRENT_VERSION_ID implements Serializable {
+
+    public static final String NO_CHILD_CODE = "";
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "ENTITY_TYPE", nullable = false, length = 20)
+    private PRODUCT_ENTITY_TYPE entityType;
+
+    @Column(name = "PRODUCT_CODE", nullable = false, length = 50)
+    private String productCode;
+
+    @Column(name = "CHILD_CODE", nullable = false, length = 100)
+    private String childCode;
+}
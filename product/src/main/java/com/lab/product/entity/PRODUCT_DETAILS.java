@@ -20,12 +20,13 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products",
+    uniqueConstraints = @UniqueConstraint(name = "uk_products_code_version", columnNames = {"PRODUCT_CODE", "PRODUCT_VERSION_NO"}))
 @Data
 public class PRODUCT_DETAILS extends AuditLoggable {
     @Id
     @Column(name = "PRODUCT_ID")
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @ProductId
     private UUID productId;
 
     @Column(name = "PRODUCT_CODE", nullable = false, length = 50)
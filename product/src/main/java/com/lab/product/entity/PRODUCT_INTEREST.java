@@ -12,11 +12,12 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "interest_rates")
+@Table(name = "interest_rates",
+    uniqueConstraints = @UniqueConstraint(name = "uk_interest_code_version", columnNames = {"PRODUCT_CODE", "rateCode", "PRODUCT_VERSION_NO"}))
 @Data
 public class PRODUCT_INTEREST extends AuditLoggable {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @ProductId
     private UUID rateId;
 
     @ManyToOne(fetch = FetchType.LAZY)
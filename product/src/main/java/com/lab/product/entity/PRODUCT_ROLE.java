@@ -9,12 +9,13 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "product_role_types")
+@Table(name = "product_role_types",
+    uniqueConstraints = @UniqueConstraint(name = "uk_roles_code_version", columnNames = {"PRODUCT_CODE", "roleCode", "PRODUCT_VERSION_NO"}))
 @Data
 public class PRODUCT_ROLE extends AuditLoggable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @ProductId
     private UUID roleId;
 
     @ManyToOne(fetch = FetchType.LAZY)
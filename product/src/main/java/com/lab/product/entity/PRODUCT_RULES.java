@@ -14,12 +14,13 @@ import java.util.UUID;
 
 // All the business rules related to a product
 @Entity
-@Table(name = "PRODUCT_RULES")
+@Table(name = "PRODUCT_RULES",
+    uniqueConstraints = @UniqueConstraint(name = "uk_rules_code_version", columnNames = {"PRODUCT_CODE", "RULE_CODE", "PRODUCT_VERSION_NO"}))
 @Data
 public class PRODUCT_RULES extends AuditLoggable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @ProductId
     @Column(name="RULE_ID")
     private UUID ruleId;
 
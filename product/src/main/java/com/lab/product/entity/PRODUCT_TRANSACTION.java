@@ -9,12 +9,13 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "product_transaction_types")
+@Table(name = "product_transaction_types",
+    uniqueConstraints = @UniqueConstraint(name = "uk_transactions_code_version", columnNames = {"PRODUCT_CODE", "transactionCode", "PRODUCT_VERSION_NO"}))
 @Data
 public class PRODUCT_TRANSACTION extends AuditLoggable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @ProductId
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,19 @@
+package com.lab.product.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates the annotated UUID primary key with the configured {@link ProductIdGenerator} when the row
+ * is inserted. Replaces @GeneratedValue(strategy = GenerationType.AUTO), whose random UUIDs scatter
+ * clustered-index inserts.
+ */
+@IdGeneratorType(ProductIdHibernateGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface ProductId {
+}
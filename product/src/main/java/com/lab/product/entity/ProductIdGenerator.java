@@ -0,0 +1,12 @@
+package com.lab.product.entity;
+
+import java.util.UUID;
+
+/**
+ * Source of primary keys for the product tables and of the UUID_reference audit column.
+ * The implementation is selected with product.id.generator (see ProductIdConfig).
+ */
+public interface ProductIdGenerator {
+
+    UUID next();
+}
@@ -0,0 +1,39 @@
+package com.lab.product.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.EnumSet;
+
+/**
+ * Hibernate side of @ProductId: the id is assigned in memory before the insert, so inserts still batch.
+ * Hibernate creates the generator through Spring's bean container, which injects the configured
+ * ProductIdGenerator; without one (e.g. a @DataJpaTest slice) it falls back to the no-arg constructor.
+ */
+public class ProductIdHibernateGenerator implements BeforeExecutionGenerator {
+
+    private final ProductIdGenerator ids;
+
+    public ProductIdHibernateGenerator() {
+        this(new TimeOrderedProductIdGenerator());
+    }
+
+    @Autowired
+    public ProductIdHibernateGenerator(ProductIdGenerator ids) {
+        this.ids = ids;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return ids.next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
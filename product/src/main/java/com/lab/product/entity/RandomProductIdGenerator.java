@@ -0,0 +1,15 @@
+package com.lab.product.entity;
+
+import java.util.UUID;
+
+/**
+ * Random (version 4) UUIDs from UUID.randomUUID(), i.e. 122 bits from the shared SecureRandom.
+ * Unguessable, but inserts land on random pages of the clustered primary key.
+ */
+public class RandomProductIdGenerator implements ProductIdGenerator {
+
+    @Override
+    public UUID next() {
+        return UUID.randomUUID();
+    }
+}
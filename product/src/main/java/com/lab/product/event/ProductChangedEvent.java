@@ -0,0 +1,21 @@
+package com.lab.product.event;
+
+import com.lab.product.entity.ENUMS.CRUD_VALUE;
+import com.lab.product.entity.ENUMS.PRODUCT_ENTITY_TYPE;
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * Published by ProductVersionRecorder for every insert-only write (product or child version),
+ * inside the writing transaction. Listeners that must only see committed data use
+ * {@code @TransactionalEventListener}.
+ */
+@Value
+public class ProductChangedEvent {
+    PRODUCT_ENTITY_TYPE entityType;
+    String productCode;
+    String childCode;
+    UUID rowId;
+    CRUD_VALUE crud_value;
+}
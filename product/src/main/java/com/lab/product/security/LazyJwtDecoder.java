@@ -5,6 +5,8 @@ import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtException;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 
+import java.util.concurrent.locks.ReentrantLock;
+
 /**
  * Lazy-loading JWT Decoder that only fetches public key when first token is validated.
  * This prevents startup failures if Auth Service is temporarily unavailable.
@@ -13,7 +15,8 @@ public class LazyJwtDecoder implements JwtDecoder {
 
     private final String jwkSetUri;
     private volatile JwtDecoder delegate;
-    private final Object lock = new Object();
+    // ReentrantLock instead of synchronized: a virtual thread blocked here unmounts instead of pinning its carrier
+    private final ReentrantLock lock = new ReentrantLock();
 
     public LazyJwtDecoder(String jwkSetUri) {
         this.jwkSetUri = jwkSetUri;
@@ -23,11 +26,14 @@ public class LazyJwtDecoder implements JwtDecoder {
     public Jwt decode(String token) throws JwtException {
         // Double-checked locking for lazy initialization
         if (delegate == null) {
-            synchronized (lock) {
+            lock.lock();
+            try {
                 if (delegate == null) {
                     // Fetch public key from Auth Service only when first token arrives
                     delegate = NimbusJwtDecoder.withJwkSetUri(jwkSetUri).build();
                 }
+            } finally {
+                lock.unlock();
             }
         }
         return delegate.decode(token);
@@ -1,18 +1,27 @@
 package com.lab.product.service;
 
+import com.lab.product.DTO.CursorPage;
 import com.lab.product.DTO.ProductBalanceDTO;
 import com.lab.product.DTO.ProductBalanceRequestDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface ProductBalanceService {
     ProductBalanceDTO addBalanceToProduct(String productCode, ProductBalanceRequestDTO balanceDto);
     Page<ProductBalanceDTO> getBalancesForProduct(String productCode, Pageable pageable);
     ProductBalanceDTO getBalanceByType(String productCode, String balanceType);
     ProductBalanceDTO updateBalance(String productCode, String balanceType, ProductBalanceRequestDTO balanceDto);
+    // ifMatch: row id of the version the client read; null updates the latest version unconditionally
+    ProductBalanceDTO updateBalance(String productCode, String balanceType, ProductBalanceRequestDTO balanceDto, UUID ifMatch);
     void deleteBalance(String productCode, String balanceType);
     List<ProductBalanceDTO> getBalancesAuditTrail(String productCode);
     List<ProductBalanceDTO> getBalanceAuditTrail(String productCode, String balanceType);
+    CursorPage<ProductBalanceDTO> getBalancesAuditTrailPage(String productCode, String cursor, int size);
+    CursorPage<ProductBalanceDTO> getBalanceAuditTrailPage(String productCode, String balanceType, String cursor, int size);
+    void streamBalancesAuditTrail(String productCode, Consumer<ProductBalanceDTO> sink);
+    void streamBalanceAuditTrail(String productCode, String balanceType, Consumer<ProductBalanceDTO> sink);
 }
\ No newline at end of file
@@ -1,18 +1,27 @@
 package com.lab.product.service;
 
+import com.lab.product.DTO.CursorPage;
 import com.lab.product.DTO.ProductChargeDTO;
 import com.lab.product.DTO.ProductChargeRequestDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface ProductChargeService {
     ProductChargeDTO addChargeToProduct(String productCode, ProductChargeRequestDTO chargeDto);
     Page<ProductChargeDTO> getChargesForProduct(String productCode, Pageable pageable);
     ProductChargeDTO getChargeByCode(String productCode, String chargeCode);
     ProductChargeDTO updateCharge(String productCode, String chargeCode, ProductChargeRequestDTO chargeDto);
+    // ifMatch: row id of the version the client read; null updates the latest version unconditionally
+    ProductChargeDTO updateCharge(String productCode, String chargeCode, ProductChargeRequestDTO chargeDto, UUID ifMatch);
     void deleteCharge(String productCode, String chargeCode);
     List<ProductChargeDTO> getChargesAuditTrail(String productCode);
     List<ProductChargeDTO> getChargeAuditTrail(String productCode, String chargeCode);
+    CursorPage<ProductChargeDTO> getChargesAuditTrailPage(String productCode, String cursor, int size);
+    CursorPage<ProductChargeDTO> getChargeAuditTrailPage(String productCode, String chargeCode, String cursor, int size);
+    void streamChargesAuditTrail(String productCode, Consumer<ProductChargeDTO> sink);
+    void streamChargeAuditTrail(String productCode, String chargeCode, Consumer<ProductChargeDTO> sink);
 }
\ No newline at end of file
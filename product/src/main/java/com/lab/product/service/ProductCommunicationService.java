@@ -1,18 +1,27 @@
 package com.lab.product.service;
 
+import com.lab.product.DTO.CursorPage;
 import com.lab.product.DTO.ProductCommunicationDTO;
 import com.lab.product.DTO.ProductCommunicationRequestDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface ProductCommunicationService {
     ProductCommunicationDTO addCommunicationToProduct(String productCode, ProductCommunicationRequestDTO communicationDto);
     Page<ProductCommunicationDTO> getCommunicationsForProduct(String productCode, Pageable pageable);
     ProductCommunicationDTO getCommunicationByCode(String productCode, String commCode);
     ProductCommunicationDTO updateCommunication(String productCode, String commCode, ProductCommunicationRequestDTO communicationDto);
+    // ifMatch: row id of the version the client read; null updates the latest version unconditionally
+    ProductCommunicationDTO updateCommunication(String productCode, String commCode, ProductCommunicationRequestDTO communicationDto, UUID ifMatch);
     void deleteCommunication(String productCode, String commCode);
     List<ProductCommunicationDTO> getCommunicationsAuditTrail(String productCode);
     List<ProductCommunicationDTO> getCommunicationAuditTrail(String productCode, String commCode);
+    CursorPage<ProductCommunicationDTO> getCommunicationsAuditTrailPage(String productCode, String cursor, int size);
+    CursorPage<ProductCommunicationDTO> getCommunicationAuditTrailPage(String productCode, String commCode, String cursor, int size);
+    void streamCommunicationsAuditTrail(String productCode, Consumer<ProductCommunicationDTO> sink);
+    void streamCommunicationAuditTrail(String productCode, String commCode, Consumer<ProductCommunicationDTO> sink);
 }
\ No newline at end of file
@@ -1,11 +1,16 @@
 package com.lab.product.service;
 
+import com.lab.product.DTO.CursorPage;
 import com.lab.product.DTO.ProductInterestDTO;
 import com.lab.product.DTO.ProductInterestRequestDTO;
+import com.lab.product.DTO.ProductInterestRevisionDTO;
+import com.lab.product.DTO.ProductInterestRevisionResultDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface ProductInterestService {
     /**
@@ -27,11 +32,18 @@ public interface ProductInterestService {
      * Update an interest rate
      */
     ProductInterestDTO updateInterestRate(String productCode, String rateCode, ProductInterestRequestDTO interestDto);
+    // ifMatch: row id of the version the client read; null updates the latest version unconditionally
+    ProductInterestDTO updateInterestRate(String productCode, String rateCode, ProductInterestRequestDTO interestDto, UUID ifMatch);
     
     /**
      * Delete an interest rate
      */
     void deleteInterestRate(String productCode, String rateCode);
+
+    /**
+     * Write a new version of every listed rate (across products) in one transaction, using batched inserts
+     */
+    ProductInterestRevisionResultDTO reviseInterestRates(List<ProductInterestRevisionDTO> revisions);
     
     /**
      * Get all versions of interest rates for a product (audit trail)
@@ -42,4 +54,24 @@ public interface ProductInterestService {
      * Get all versions of a specific interest rate (audit trail)
      */
     List<ProductInterestDTO> getInterestRateAuditTrail(String productCode, String rateCode);
+    
+    /**
+     * One keyset page of the interest rate audit trail, newest first (cursor = nextCursor of the previous page)
+     */
+    CursorPage<ProductInterestDTO> getInterestRatesAuditTrailPage(String productCode, String cursor, int size);
+    
+    /**
+     * One keyset page of a specific interest rate's audit trail
+     */
+    CursorPage<ProductInterestDTO> getInterestRateAuditTrailPage(String productCode, String rateCode, String cursor, int size);
+    
+    /**
+     * Hand every version of the product's interest rates to sink, newest first, without materializing the list
+     */
+    void streamInterestRatesAuditTrail(String productCode, Consumer<ProductInterestDTO> sink);
+    
+    /**
+     * Hand every version of a specific interest rate to sink, newest first
+     */
+    void streamInterestRateAuditTrail(String productCode, String rateCode, Consumer<ProductInterestDTO> sink);
 }
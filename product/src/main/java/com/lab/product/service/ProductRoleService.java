@@ -1,18 +1,27 @@
 package com.lab.product.service;
 
+import com.lab.product.DTO.CursorPage;
 import com.lab.product.DTO.ProductRoleDTO;
 import com.lab.product.DTO.ProductRoleRequestDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface ProductRoleService {
     ProductRoleDTO addRoleToProduct(String productCode, ProductRoleRequestDTO roleDto);
     Page<ProductRoleDTO> getRolesForProduct(String productCode, Pageable pageable);
     ProductRoleDTO getRoleByCode(String productCode, String roleCode);
     ProductRoleDTO updateRole(String productCode, String roleCode, ProductRoleRequestDTO roleDto);
+    // ifMatch: row id of the version the client read; null updates the latest version unconditionally
+    ProductRoleDTO updateRole(String productCode, String roleCode, ProductRoleRequestDTO roleDto, UUID ifMatch);
     void deleteRole(String productCode, String roleCode);
     List<ProductRoleDTO> getRolesAuditTrail(String productCode);
     List<ProductRoleDTO> getRoleAuditTrail(String productCode, String roleCode);
+    CursorPage<ProductRoleDTO> getRolesAuditTrailPage(String productCode, String cursor, int size);
+    CursorPage<ProductRoleDTO> getRoleAuditTrailPage(String productCode, String roleCode, String cursor, int size);
+    void streamRolesAuditTrail(String productCode, Consumer<ProductRoleDTO> sink);
+    void streamRoleAuditTrail(String productCode, String roleCode, Consumer<ProductRoleDTO> sink);
 }
\ No newline at end of file
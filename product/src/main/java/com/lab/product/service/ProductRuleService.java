@@ -1,18 +1,27 @@
 package com.lab.product.service;
 
+import com.lab.product.DTO.CursorPage;
 import com.lab.product.DTO.ProductRuleDTO;
 import com.lab.product.DTO.ProductRuleRequestDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface ProductRuleService {
     ProductRuleDTO addRuleToProduct(String productCode, ProductRuleRequestDTO ruleDto);
     Page<ProductRuleDTO> getRulesForProduct(String productCode, Pageable pageable);
     ProductRuleDTO getRuleByCode(String productCode, String ruleCode);
     ProductRuleDTO updateRule(String productCode, String ruleCode, ProductRuleRequestDTO ruleDto);
+    // ifMatch: row id of the version the client read; null updates the latest version unconditionally
+    ProductRuleDTO updateRule(String productCode, String ruleCode, ProductRuleRequestDTO ruleDto, UUID ifMatch);
     void deleteRule(String productCode, String ruleCode);
     List<ProductRuleDTO> getRulesAuditTrail(String productCode);
     List<ProductRuleDTO> getRuleAuditTrail(String productCode, String ruleCode);
+    CursorPage<ProductRuleDTO> getRulesAuditTrailPage(String productCode, String cursor, int size);
+    CursorPage<ProductRuleDTO> getRuleAuditTrailPage(String productCode, String ruleCode, String cursor, int size);
+    void streamRulesAuditTrail(String productCode, Consumer<ProductRuleDTO> sink);
+    void streamRuleAuditTrail(String productCode, String ruleCode, Consumer<ProductRuleDTO> sink);
 }
\ No newline at end of file
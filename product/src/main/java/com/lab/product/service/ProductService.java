@@ -1,20 +1,48 @@
 package com.lab.product.service;
 
+import com.lab.product.cache.ProductFacet;
 import com.lab.product.DTO.CreateOrUpdateProductRequestDTO;
+import com.lab.product.DTO.ProductBatchItemDTO;
+import com.lab.product.DTO.ProductBundleRequestDTO;
+import com.lab.product.DTO.CursorPage;
 import com.lab.product.DTO.ProductDetailsDTO;
+import com.lab.product.DTO.ProductFacetResultDTO;
+import com.lab.product.DTO.ProductSearchCriteria;
+import com.lab.product.DTO.ProductSuggestionDTO;
+import com.lab.product.DTO.ProductSummaryDTO;
+import com.lab.product.service.helper.ProductReadOptions;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface ProductService {
     ProductDetailsDTO createProduct(CreateOrUpdateProductRequestDTO requestDTO);
     ProductDetailsDTO updateProduct(String productCode, CreateOrUpdateProductRequestDTO requestDTO);
+    // ifMatch: productId of the version the client read; null updates the latest version unconditionally
+    ProductDetailsDTO updateProduct(String productCode, CreateOrUpdateProductRequestDTO requestDTO, UUID ifMatch);
+    ProductDetailsDTO createProductBundle(ProductBundleRequestDTO requestDTO);
+    ProductDetailsDTO replaceProductBundle(String productCode, ProductBundleRequestDTO requestDTO);
+    ProductDetailsDTO replaceProductBundle(String productCode, ProductBundleRequestDTO requestDTO, UUID ifMatch);
     ProductDetailsDTO getProductById(UUID productId);
+    ProductDetailsDTO getProductVersion(UUID productId);
     ProductDetailsDTO getProductByCode(String productCode);
+    ProductDetailsDTO getProductByCode(String productCode, ProductReadOptions options);
+    List<ProductBatchItemDTO> getProductsByCodes(List<String> productCodes, ProductReadOptions options);
     Page<ProductDetailsDTO> getAllProducts(Pageable pageable);
+    Page<ProductDetailsDTO> getAllProducts(Pageable pageable, ProductReadOptions options);
+    Page<ProductSummaryDTO> getAllProductSummaries(Pageable pageable);
     void deleteProduct(String productCode);
-    List<ProductDetailsDTO> searchProducts(String productType, String status, String startDate, String endDate);
+    List<ProductDetailsDTO> searchProducts(ProductSearchCriteria criteria);
+    List<ProductDetailsDTO> searchProducts(ProductSearchCriteria criteria, ProductReadOptions options);
+    List<ProductSummaryDTO> searchProductSummaries(ProductSearchCriteria criteria);
+    ProductFacetResultDTO searchFacets(Map<ProductFacet, String> selections);
+    List<ProductSuggestionDTO> suggestProducts(String prefix, int limit);
     List<ProductDetailsDTO> getProductAuditTrail(String productCode);
+    CursorPage<ProductDetailsDTO> getProductAuditTrailPage(String productCode, String cursor, int size);
+    void streamProductAuditTrail(String productCode, Consumer<ProductDetailsDTO> sink);
+    void exportProducts(boolean allVersions, ProductReadOptions options, Consumer<ProductDetailsDTO> sink);
 }
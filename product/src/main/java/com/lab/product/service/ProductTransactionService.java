@@ -1,18 +1,27 @@
 package com.lab.product.service;
 
+import com.lab.product.DTO.CursorPage;
 import com.lab.product.DTO.ProductTransactionDTO;
 import com.lab.product.DTO.ProductTransactionRequestDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface ProductTransactionService {
     ProductTransactionDTO addTransactionToProduct(String productCode, ProductTransactionRequestDTO transactionDto);
     Page<ProductTransactionDTO> getTransactionsForProduct(String productCode, Pageable pageable);
     ProductTransactionDTO getTransactionByCode(String productCode, String transactionCode);
     ProductTransactionDTO updateTransaction(String productCode, String transactionCode, ProductTransactionRequestDTO transactionDto);
+    // ifMatch: row id of the version the client read; null updates the latest version unconditionally
+    ProductTransactionDTO updateTransaction(String productCode, String transactionCode, ProductTransactionRequestDTO transactionDto, UUID ifMatch);
     void deleteTransaction(String productCode, String transactionCode);
     List<ProductTransactionDTO> getTransactionsAuditTrail(String productCode);
     List<ProductTransactionDTO> getTransactionAuditTrail(String productCode, String transactionCode);
+    CursorPage<ProductTransactionDTO> getTransactionsAuditTrailPage(String productCode, String cursor, int size);
+    CursorPage<ProductTransactionDTO> getTransactionAuditTrailPage(String productCode, String transactionCode, String cursor, int size);
+    void streamTransactionsAuditTrail(String productCode, Consumer<ProductTransactionDTO> sink);
+    void streamTransactionAuditTrail(String productCode, String transactionCode, Consumer<ProductTransactionDTO> sink);
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.lab.product.service.helper;
+
+import com.lab.product.Exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in an audit trail ordered by (createdAt DESC, versionNo DESC, id DESC): the last row of the
+ * previous page. versionNo orders versions that share a createdAt; the id only breaks ties between business keys.
+ * Encoded as an opaque URL-safe token.
+ */
+public record AuditCursor(LocalDateTime createdAt, long versionNo, UUID id) {
+
+    // Before every real row: the first page is "everything older than the end of time"
+    public static final AuditCursor FIRST =
+        new AuditCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE, new UUID(0L, 0L));
+
+    private static final char SEPARATOR = '|';
+
+    public boolean isFirst() {
+        return FIRST.equals(this);
+    }
+
+    public String encode() {
+        String raw = createdAt + String.valueOf(SEPARATOR) + versionNo + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // null or blank = first page
+    public static AuditCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int first = raw.indexOf(SEPARATOR);
+            int second = raw.indexOf(SEPARATOR, first + 1);
+            if (first < 0 || second < 0) {
+                throw new ValidationException("Invalid cursor: " + cursor);
+            }
+            return new AuditCursor(LocalDateTime.parse(raw.substring(0, first)),
+                Long.parseLong(raw.substring(first + 1, second)),
+                UUID.fromString(raw.substring(second + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.lab.product.service.helper;
+
+import com.lab.product.DTO.CursorPage;
+import com.lab.product.Exception.ResourceNotFoundException;
+import com.lab.product.Exception.ValidationException;
+import com.lab.product.entity.AuditLoggable;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Shared plumbing for the bounded audit-trail reads: keyset pages on (createdAt, versionNo, id) and
+ * row-by-row streaming from a JDBC cursor.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuditTrailPaging {
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final int CLEAR_EVERY_ROWS = 100;
+
+    private final EntityManager entityManager;
+
+    // A repository findAuditPageBy... query with its business-key arguments bound
+    @FunctionalInterface
+    public interface PageQuery<E> {
+        List<E> find(LocalDateTime cursorCreatedAt, long cursorVersionNo, UUID cursorId, Pageable limit);
+    }
+
+    /**
+     * Reads the page after cursor (null = first page). An empty first page means the trail does not exist
+     * and throws ResourceNotFoundException with notFoundMessage.
+     */
+    public <E extends AuditLoggable, D> CursorPage<D> page(String cursor, int size, PageQuery<E> query,
+                                                           Function<E, UUID> idOf, Function<E, D> toDto,
+                                                           String notFoundMessage) {
+        AuditCursor after = AuditCursor.decode(cursor);
+        List<E> rows = query.find(after.createdAt(), after.versionNo(), after.id(), limit(size));
+        if (rows.isEmpty() && after.isFirst()) {
+            throw new ResourceNotFoundException(notFoundMessage);
+        }
+        boolean hasMore = rows.size() > size;
+        List<E> pageRows = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            E last = pageRows.get(size - 1);
+            nextCursor = new AuditCursor(last.getCreatedAt(), last.getVersionNo(), idOf.apply(last)).encode();
+        }
+        List<D> items = pageRows.stream().map(toDto).collect(Collectors.toList());
+        return new CursorPage<>(items, nextCursor, items.size());
+    }
+
+    // One row more than the page size tells whether another page follows
+    private static Pageable limit(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return PageRequest.of(0, size + 1);
+    }
+
+    /**
+     * Maps and hands over rows one at a time. The persistence context is cleared every few rows
+     * (eagerly loaded parents included), so memory does not grow with history length.
+     * Must run in a (read-only) transaction that keeps the cursor open.
+     */
+    public <E, D> void stream(Stream<E> rows, Function<E, D> toDto, Consumer<D> sink) {
+        try (rows) {
+            Iterator<E> iterator = rows.iterator();
+            int read = 0;
+            while (iterator.hasNext()) {
+                sink.accept(toDto.apply(iterator.next()));
+                if (++read % CLEAR_EVERY_ROWS == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.lab.product.service.helper;
+
+import com.lab.product.DAO.*;
+import com.lab.product.DTO.ProductDetailsDTO;
+import com.lab.product.entity.*;
+import com.lab.product.entity.ENUMS.CRUD_VALUE;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maps the audit trail of one product: every product version together with the child versions that
+ * were in effect while it was the current version, i.e. as they stood just before the next product
+ * version was written (the latest version shows the current children). Child rows are written after
+ * their product row, so a cut-off at the version's own createdAt would miss them.
+ * Each child table is read once (all versions), so the cost is linear in rows instead of
+ * product versions x child tables.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductAuditTrailAssembler {
+
+    private static final Comparator<LocalDateTime> CREATED_AT_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+    // Versions of a key written within one timestamp tick share a createdAt; versionNo decides which came last
+    private static final Comparator<AuditLoggable> VERSION_ORDER = Comparator
+        .comparing(AuditLoggable::getCreatedAt, CREATED_AT_ORDER)
+        .thenComparing(AuditLoggable::getVersionNo);
+
+    private final ProductRulesRepository rulesRepository;
+    private final ProductChargeRepository chargeRepository;
+    private final ProductRoleRepository roleRepository;
+    private final ProductTransactionRepository transactionRepository;
+    private final ProductInterestRepository interestRepository;
+    private final ProductBalanceRepository balanceRepository;
+    private final ProductCommunicationRepository communicationRepository;
+    private final ProductMapper mapper;
+
+    /**
+     * INSERT-ONLY Pattern: versions are the product rows of one productCode (any order); the result keeps that order.
+     */
+    public List<ProductDetailsDTO> assemble(String productCode, List<PRODUCT_DETAILS> versions) {
+        AsOf<PRODUCT_RULES> rules = new AsOf<>(rulesRepository.findAllVersionsByProductCode(productCode),
+            PRODUCT_RULES::getRuleCode, PRODUCT_RULES::getCreatedAt);
+        AsOf<PRODUCT_CHARGES> charges = new AsOf<>(chargeRepository.findAllVersionsByProductCode(productCode),
+            PRODUCT_CHARGES::getChargeCode, PRODUCT_CHARGES::getCreatedAt);
+        AsOf<PRODUCT_ROLE> roles = new AsOf<>(roleRepository.findAllVersionsByProductCode(productCode),
+            PRODUCT_ROLE::getRoleCode, PRODUCT_ROLE::getCreatedAt);
+        AsOf<PRODUCT_TRANSACTION> transactions = new AsOf<>(transactionRepository.findAllVersionsByProductCode(productCode),
+            PRODUCT_TRANSACTION::getTransactionCode, PRODUCT_TRANSACTION::getCreatedAt);
+        AsOf<PRODUCT_INTEREST> interests = new AsOf<>(interestRepository.findAllVersionsByProductCode(productCode),
+            PRODUCT_INTEREST::getRateCode, PRODUCT_INTEREST::getCreatedAt);
+        AsOf<PRODUCT_BALANCE> balances = new AsOf<>(balanceRepository.findAllVersionsByProductCode(productCode),
+            PRODUCT_BALANCE::getBalanceType, PRODUCT_BALANCE::getCreatedAt);
+        AsOf<PRODUCT_COMMUNICATION> communications = new AsOf<>(communicationRepository.findAllVersionsByProductCode(productCode),
+            PRODUCT_COMMUNICATION::getCommCode, PRODUCT_COMMUNICATION::getCreatedAt);
+
+        // Single pass in (createdAt, versionNo) order: every child cursor only moves forward
+        List<PRODUCT_DETAILS> ascending = new ArrayList<>(versions);
+        ascending.sort(VERSION_ORDER);
+
+        Map<UUID, ProductDetailsDTO> dtos = new HashMap<>();
+        for (int i = 0; i < ascending.size(); i++) {
+            PRODUCT_DETAILS version = ascending.get(i);
+            // Validity window ends where the next product version starts; null = open-ended (latest version)
+            LocalDateTime asOf = i + 1 < ascending.size() ? ascending.get(i + 1).getCreatedAt() : null;
+            ProductChildBundle children = new ProductChildBundle();
+            children.getRules().addAll(rules.advanceTo(asOf));
+            children.getCharges().addAll(charges.advanceTo(asOf));
+            children.getRoles().addAll(roles.advanceTo(asOf));
+            children.getTransactions().addAll(transactions.advanceTo(asOf));
+            children.getInterests().addAll(interests.advanceTo(asOf));
+            children.getBalances().addAll(balances.advanceTo(asOf));
+            children.getCommunications().addAll(communications.advanceTo(asOf));
+            dtos.put(version.getProductId(), mapper.toDtoWithAudit(version, children));
+        }
+        return versions.stream()
+            .map(version -> dtos.get(version.getProductId()))
+            .collect(Collectors.toList());
+    }
+
+    // Cursor over one child table's versions: the latest row per child code up to a point in time
+    private static final class AsOf<T extends AuditLoggable> {
+
+        private final List<T> rows;
+        private final Function<T, ?> childCode;
+        private final Function<T, LocalDateTime> createdAt;
+        private final Map<Object, T> latestByCode = new LinkedHashMap<>();
+        private List<T> live = List.of();
+        private int next;
+
+        AsOf(List<T> rows, Function<T, ?> childCode, Function<T, LocalDateTime> createdAt) {
+            this.rows = new ArrayList<>(rows);
+            this.rows.sort(VERSION_ORDER);
+            this.childCode = childCode;
+            this.createdAt = createdAt;
+        }
+
+        // INSERT-ONLY Pattern: latest version per child code with createdAt < asOf, deleted ones excluded
+        List<T> advanceTo(LocalDateTime asOf) {
+            boolean changed = false;
+            while (next < rows.size() && isBefore(createdAt.apply(rows.get(next)), asOf)) {
+                T row = rows.get(next++);
+                latestByCode.put(childCode.apply(row), row);
+                changed = true;
+            }
+            if (changed) {
+                live = latestByCode.values().stream()
+                    .filter(row -> row.getCrud_value() != CRUD_VALUE.D)
+                    .collect(Collectors.toList());
+            }
+            return live;
+        }
+
+        private static boolean isBefore(LocalDateTime rowCreatedAt, LocalDateTime asOf) {
+            return asOf == null || rowCreatedAt == null || rowCreatedAt.isBefore(asOf);
+        }
+    }
+}
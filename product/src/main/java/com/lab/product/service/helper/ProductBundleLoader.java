@@ -0,0 +1,302 @@
+package com.lab.product.service.helper;
+
+import com.lab.product.DAO.*;
+import com.lab.product.config.LatestVersionProperties;
+import com.lab.product.entity.*;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Loads the latest child versions (rules, charges, roles, transactions, interest rates, balances
+ * and communications) for a set of products with one query per child table, instead of seven
+ * queries per product.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductBundleLoader {
+
+    // Upper bound for the IN (...) list of a single child query
+    static final int MAX_CODES_PER_QUERY = 500;
+
+    private static final int CHILD_TABLES = 7;
+
+    private final ProductRulesRepository rulesRepository;
+    private final ProductChargeRepository chargeRepository;
+    private final ProductRoleRepository roleRepository;
+    private final ProductTransactionRepository transactionRepository;
+    private final ProductInterestRepository interestRepository;
+    private final ProductBalanceRepository balanceRepository;
+    private final ProductCommunicationRepository communicationRepository;
+    private final LatestVersionProperties latestVersion;
+
+    // Opt-in: run the seven child queries concurrently on virtual threads
+    @Value("${product.bundle-loader.parallel-children:false}")
+    private boolean parallelChildren;
+
+    // Child queries in flight across all concurrent loads, i.e. connections the fan-out may hold at once.
+    // Keep it below the connection pool size (DB_POOL_SIZE) so other requests still get connections.
+    @Value("${product.bundle-loader.max-concurrent-queries:4}")
+    private int maxConcurrentQueries;
+
+    // Virtual-thread-per-task: no pooled threads are held while parallel loading is off
+    private final ExecutorService childExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private Semaphore queryPermits;
+
+    @PostConstruct
+    void createQueryPermits() {
+        queryPermits = new Semaphore(maxConcurrentQueries, true);
+    }
+
+    /**
+     * INSERT-ONLY Pattern: Fetch latest non-deleted child versions for every given productCode.
+     * The returned map contains an entry (possibly empty) for each distinct, non-null code in request order.
+     */
+    public Map<String, ProductChildBundle> loadLatestChildren(Collection<String> productCodes) {
+        return loadLatestChildren(productCodes, EnumSet.allOf(ProductChildType.class));
+    }
+
+    /**
+     * Same as {@link #loadLatestChildren(Collection)}, but only queries the given child tables;
+     * the collections of every other child type are left empty.
+     */
+    public Map<String, ProductChildBundle> loadLatestChildren(Collection<String> productCodes,
+                                                              Set<ProductChildType> types) {
+        Map<String, ProductChildBundle> bundles = new LinkedHashMap<>();
+        if (productCodes == null || productCodes.isEmpty()) {
+            return bundles;
+        }
+
+        Set<String> codes = new LinkedHashSet<>();
+        productCodes.stream().filter(Objects::nonNull).forEach(codes::add);
+        codes.forEach(code -> bundles.put(code, new ProductChildBundle()));
+
+        if (types.isEmpty()) {
+            return bundles;
+        }
+
+        for (List<String> chunk : chunks(codes)) {
+            ChildRows rows = fanOut(types) ? loadConcurrently(chunk, types) : loadSequentially(chunk, types);
+            rows.rules()
+                .forEach(r -> bundleFor(bundles, r.getProductCode()).getRules().add(r));
+            rows.charges()
+                .forEach(c -> bundleFor(bundles, c.getProductCode()).getCharges().add(c));
+            rows.roles()
+                .forEach(r -> bundleFor(bundles, r.getProductCode()).getRoles().add(r));
+            rows.transactions()
+                .forEach(t -> bundleFor(bundles, t.getProductCode()).getTransactions().add(t));
+            rows.interests()
+                .forEach(i -> bundleFor(bundles, i.getProductCode()).getInterests().add(i));
+            rows.balances()
+                .forEach(b -> bundleFor(bundles, b.getProductCode()).getBalances().add(b));
+            rows.communications()
+                .forEach(c -> bundleFor(bundles, c.getProductCode()).getCommunications().add(c));
+        }
+        return bundles;
+    }
+
+    private ChildRows loadSequentially(List<String> codes, Set<ProductChildType> types) {
+        return new ChildRows(
+            types.contains(ProductChildType.RULES) ? rulesOf(codes) : List.of(),
+            types.contains(ProductChildType.CHARGES) ? chargesOf(codes) : List.of(),
+            types.contains(ProductChildType.ROLES) ? rolesOf(codes) : List.of(),
+            types.contains(ProductChildType.TRANSACTIONS) ? transactionsOf(codes) : List.of(),
+            types.contains(ProductChildType.INTEREST) ? interestsOf(codes) : List.of(),
+            types.contains(ProductChildType.BALANCES) ? balancesOf(codes) : List.of(),
+            types.contains(ProductChildType.COMMUNICATIONS) ? communicationsOf(codes) : List.of());
+    }
+
+    /**
+     * Issues the requested child queries concurrently, one virtual thread each, and joins them.
+     * A query only starts once it holds one of the max-concurrent-queries permits, so the fan-out of all
+     * requests together never takes more connections than that; waiting threads hold no connection.
+     * The first failure cancels (interrupts) the remaining queries and is rethrown unchanged.
+     */
+    private ChildRows loadConcurrently(List<String> codes, Set<ProductChildType> types) {
+        ExecutorCompletionService<Object> completion = new ExecutorCompletionService<>(childExecutor);
+        List<Future<Object>> futures = new ArrayList<>(CHILD_TABLES);
+        Future<List<PRODUCT_RULES>> rules =
+            submit(completion, futures, types, ProductChildType.RULES, () -> rulesOf(codes));
+        Future<List<PRODUCT_CHARGES>> charges =
+            submit(completion, futures, types, ProductChildType.CHARGES, () -> chargesOf(codes));
+        Future<List<PRODUCT_ROLE>> roles =
+            submit(completion, futures, types, ProductChildType.ROLES, () -> rolesOf(codes));
+        Future<List<PRODUCT_TRANSACTION>> transactions =
+            submit(completion, futures, types, ProductChildType.TRANSACTIONS, () -> transactionsOf(codes));
+        Future<List<PRODUCT_INTEREST>> interests =
+            submit(completion, futures, types, ProductChildType.INTEREST, () -> interestsOf(codes));
+        Future<List<PRODUCT_BALANCE>> balances =
+            submit(completion, futures, types, ProductChildType.BALANCES, () -> balancesOf(codes));
+        Future<List<PRODUCT_COMMUNICATION>> communications =
+            submit(completion, futures, types, ProductChildType.COMMUNICATIONS, () -> communicationsOf(codes));
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                // completion order: a failed query is seen as soon as it fails, not after its siblings
+                completion.take().get();
+            }
+            return new ChildRows(joined(rules), joined(charges), joined(roles), joined(transactions),
+                joined(interests), joined(balances), joined(communications));
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading product children", e);
+        }
+    }
+
+    // Not-requested child types are not submitted at all; their future is null
+    @SuppressWarnings("unchecked")
+    private <T> Future<List<T>> submit(ExecutorCompletionService<Object> completion, List<Future<Object>> futures,
+                                       Set<ProductChildType> types, ProductChildType type,
+                                       Callable<List<T>> query) {
+        if (!types.contains(type)) {
+            return null;
+        }
+        Future<Object> future = completion.submit(() -> withQueryPermit(query));
+        futures.add(future);
+        return (Future<List<T>>) (Future<?>) future;
+    }
+
+    private <T> T withQueryPermit(Callable<T> query) throws Exception {
+        queryPermits.acquire();
+        try {
+            return query.call();
+        } finally {
+            queryPermits.release();
+        }
+    }
+
+    private static <T> List<T> joined(Future<List<T>> future) throws InterruptedException, ExecutionException {
+        return future == null ? List.of() : future.get();
+    }
+
+    // Fan out only outside a transaction: worker threads use their own connections and
+    // could not see rows the caller's transaction has not committed yet
+    private boolean fanOut(Set<ProductChildType> types) {
+        return parallelChildren && maxConcurrentQueries > 1 && types.size() > 1
+            && !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        childExecutor.shutdownNow();
+    }
+
+    // Latest-version query per child table, as selected by product.latest-version.* (MAX subquery, window function or pointer table)
+    private List<PRODUCT_RULES> rulesOf(List<String> codes) {
+        return latest(LatestVersionProperties.RULES,
+            () -> rulesRepository.findLatestByProductCodes(codes),
+            () -> rulesRepository.findLatestByProductCodesWindowed(codes),
+            () -> rulesRepository.findLatestByProductCodesViaPointer(codes));
+    }
+
+    private List<PRODUCT_CHARGES> chargesOf(List<String> codes) {
+        return latest(LatestVersionProperties.CHARGES,
+            () -> chargeRepository.findLatestByProductCodes(codes),
+            () -> chargeRepository.findLatestByProductCodesWindowed(codes),
+            () -> chargeRepository.findLatestByProductCodesViaPointer(codes));
+    }
+
+    private List<PRODUCT_ROLE> rolesOf(List<String> codes) {
+        return latest(LatestVersionProperties.ROLES,
+            () -> roleRepository.findLatestByProductCodes(codes),
+            () -> roleRepository.findLatestByProductCodesWindowed(codes),
+            () -> roleRepository.findLatestByProductCodesViaPointer(codes));
+    }
+
+    private List<PRODUCT_TRANSACTION> transactionsOf(List<String> codes) {
+        return latest(LatestVersionProperties.TRANSACTIONS,
+            () -> transactionRepository.findLatestByProductCodes(codes),
+            () -> transactionRepository.findLatestByProductCodesWindowed(codes),
+            () -> transactionRepository.findLatestByProductCodesViaPointer(codes));
+    }
+
+    private List<PRODUCT_INTEREST> interestsOf(List<String> codes) {
+        return latest(LatestVersionProperties.INTEREST_RATES,
+            () -> interestRepository.findLatestByProductCodes(codes),
+            () -> interestRepository.findLatestByProductCodesWindowed(codes),
+            () -> interestRepository.findLatestByProductCodesViaPointer(codes));
+    }
+
+    private List<PRODUCT_BALANCE> balancesOf(List<String> codes) {
+        return latest(LatestVersionProperties.BALANCES,
+            () -> balanceRepository.findLatestByProductCodes(codes),
+            () -> balanceRepository.findLatestByProductCodesWindowed(codes),
+            () -> balanceRepository.findLatestByProductCodesViaPointer(codes));
+    }
+
+    private List<PRODUCT_COMMUNICATION> communicationsOf(List<String> codes) {
+        return latest(LatestVersionProperties.COMMUNICATIONS,
+            () -> communicationRepository.findLatestByProductCodes(codes),
+            () -> communicationRepository.findLatestByProductCodesWindowed(codes),
+            () -> communicationRepository.findLatestByProductCodesViaPointer(codes));
+    }
+
+    private <T> List<T> latest(String table, Supplier<List<T>> maxSubquery,
+                               Supplier<List<T>> window, Supplier<List<T>> pointer) {
+        return switch (latestVersion.strategyFor(table)) {
+            case WINDOW -> window.get();
+            case POINTER -> pointer.get();
+            default -> maxSubquery.get();
+        };
+    }
+
+    private record ChildRows(List<PRODUCT_RULES> rules,
+                             List<PRODUCT_CHARGES> charges,
+                             List<PRODUCT_ROLE> roles,
+                             List<PRODUCT_TRANSACTION> transactions,
+                             List<PRODUCT_INTEREST> interests,
+                             List<PRODUCT_BALANCE> balances,
+                             List<PRODUCT_COMMUNICATION> communications) {
+    }
+
+    private static ProductChildBundle bundleFor(Map<String, ProductChildBundle> bundles, String productCode) {
+        return bundles.computeIfAbsent(productCode, code -> new ProductChildBundle());
+    }
+
+    private static List<List<String>> chunks(Set<String> codes) {
+        List<List<String>> chunks = new ArrayList<>();
+        List<String> current = new ArrayList<>(Math.min(codes.size(), MAX_CODES_PER_QUERY));
+        for (String code : codes) {
+            current.add(code);
+            if (current.size() == MAX_CODES_PER_QUERY) {
+                chunks.add(current);
+                current = new ArrayList<>(MAX_CODES_PER_QUERY);
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,141 @@
+package com.lab.product.service.helper;
+
+import com.lab.product.DAO.*;
+import com.lab.product.DTO.ProductBundleRequestDTO;
+import com.lab.product.Exception.ValidationException;
+import com.lab.product.entity.*;
+import com.lab.product.entity.ENUMS.CRUD_VALUE;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.BeanUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * INSERT-ONLY Pattern: Writes every child collection of a product bundle as new version rows.
+ * A requested child whose code is among the existing children becomes a 'U' row, any other a 'C' row,
+ * and an existing child that is no longer requested gets a 'D' marker. All rows are built and validated
+ * before the first insert; each child table is then written with one saveAll, so Hibernate can send the
+ * inserts as JDBC batches (spring.jpa.properties.hibernate.jdbc.batch_size). A requested child whose content
+ * equals its current version (ContentHashes) is not written again and stays live as it is.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductBundleWriter {
+
+    private final ProductRulesRepository rulesRepository;
+    private final ProductChargeRepository chargeRepository;
+    private final ProductRoleRepository roleRepository;
+    private final ProductTransactionRepository transactionRepository;
+    private final ProductInterestRepository interestRepository;
+    private final ProductBalanceRepository balanceRepository;
+    private final ProductCommunicationRepository communicationRepository;
+    private final ProductMapper mapper;
+    private final ProductVersionRecorder versionRecorder;
+    private final ProductVersionNumbers versionNumbers;
+
+    /**
+     * Writes the child rows of the bundle against the existing latest children (empty for a new product)
+     * and moves all version pointers, including the product's own. The product version must already be saved.
+     * Returns the children that are live after the write.
+     */
+    public ProductChildBundle write(PRODUCT_DETAILS product, ProductBundleRequestDTO request, ProductChildBundle existing) {
+        ProductChildBundle rows = new ProductChildBundle();
+        ProductChildBundle unchanged = new ProductChildBundle();
+        try {
+            rows.getRules().addAll(versions("rule", request.getProductRules(), existing.getRules(), unchanged.getRules(),
+                dto -> mapper.toRuleEntity(product, dto), PRODUCT_RULES::getRuleCode, PRODUCT_RULES::new, "ruleId"));
+            rows.getCharges().addAll(versions("charge", request.getProductCharges(), existing.getCharges(),
+                unchanged.getCharges(), dto -> mapper.toChargeEntity(product, dto), PRODUCT_CHARGES::getChargeCode,
+                PRODUCT_CHARGES::new, "chargeId"));
+            rows.getRoles().addAll(versions("role", request.getProductRoles(), existing.getRoles(), unchanged.getRoles(),
+                dto -> mapper.toRoleEntity(product, dto), PRODUCT_ROLE::getRoleCode, PRODUCT_ROLE::new, "roleId"));
+            rows.getTransactions().addAll(versions("transaction", request.getProductTransactions(), existing.getTransactions(),
+                unchanged.getTransactions(), dto -> mapper.toTransactionEntity(product, dto),
+                PRODUCT_TRANSACTION::getTransactionCode, PRODUCT_TRANSACTION::new, "id"));
+            rows.getInterests().addAll(versions("interest rate", request.getProductInterests(), existing.getInterests(),
+                unchanged.getInterests(), dto -> mapper.toInterestEntity(product, dto), PRODUCT_INTEREST::getRateCode,
+                PRODUCT_INTEREST::new, "rateId"));
+            rows.getBalances().addAll(versions("balance", request.getProductBalances(), existing.getBalances(),
+                unchanged.getBalances(), dto -> mapper.toBalanceEntity(product, dto),
+                balance -> String.valueOf(balance.getBalanceType()), PRODUCT_BALANCE::new, "balanceId"));
+            rows.getCommunications().addAll(versions("communication", request.getProductCommunications(),
+                existing.getCommunications(), unchanged.getCommunications(), dto -> mapper.toCommunicationEntity(product, dto),
+                PRODUCT_COMMUNICATION::getCommCode, PRODUCT_COMMUNICATION::new, "commId"));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid enum value: " + e.getMessage());
+        }
+
+        ProductChildBundle saved = new ProductChildBundle();
+        saved.getRules().addAll(rulesRepository.saveAll(versionNumbers.assignAll(rows.getRules())));
+        saved.getCharges().addAll(chargeRepository.saveAll(versionNumbers.assignAll(rows.getCharges())));
+        saved.getRoles().addAll(roleRepository.saveAll(versionNumbers.assignAll(rows.getRoles())));
+        saved.getTransactions().addAll(transactionRepository.saveAll(versionNumbers.assignAll(rows.getTransactions())));
+        saved.getInterests().addAll(interestRepository.saveAll(versionNumbers.assignAll(rows.getInterests())));
+        saved.getBalances().addAll(balanceRepository.saveAll(versionNumbers.assignAll(rows.getBalances())));
+        saved.getCommunications().addAll(communicationRepository.saveAll(versionNumbers.assignAll(rows.getCommunications())));
+        versionRecorder.recordAll(product, saved);
+
+        ProductChildBundle current = new ProductChildBundle();
+        current.getRules().addAll(live(saved.getRules(), unchanged.getRules()));
+        current.getCharges().addAll(live(saved.getCharges(), unchanged.getCharges()));
+        current.getRoles().addAll(live(saved.getRoles(), unchanged.getRoles()));
+        current.getTransactions().addAll(live(saved.getTransactions(), unchanged.getTransactions()));
+        current.getInterests().addAll(live(saved.getInterests(), unchanged.getInterests()));
+        current.getBalances().addAll(live(saved.getBalances(), unchanged.getBalances()));
+        current.getCommunications().addAll(live(saved.getCommunications(), unchanged.getCommunications()));
+        return current;
+    }
+
+    // New version rows for one child table, keyed by child code in request order, then delete markers.
+    // A requested child identical to its current version gets no row; the current version goes to unchanged.
+    private <D, E extends AuditLoggable> List<E> versions(String kind, List<D> requested, List<E> existing,
+                                                          List<E> unchanged, Function<D, E> build,
+                                                          Function<E, String> code, Supplier<E> blank, String idProperty) {
+        Map<String, E> existingByCode = existing.stream()
+            .collect(Collectors.toMap(code, Function.identity(), (first, second) -> first));
+        Set<String> requestedCodes = new HashSet<>();
+        Map<String, E> rows = new LinkedHashMap<>();
+        for (D dto : requested != null ? requested : List.<D>of()) {
+            E row = build.apply(dto);
+            String key = code.apply(row);
+            if (!requestedCodes.add(key)) {
+                throw new ValidationException("Duplicate " + kind + " in bundle: " + key);
+            }
+            E current = existingByCode.get(key);
+            if (current == null) {
+                mapper.fillAuditFieldsForCreate(row);
+            } else if (ContentHashes.sameContent(current, row)) {
+                // INSERT-ONLY Pattern: Identical payload - keep the current version instead of inserting a copy
+                unchanged.add(current);
+                continue;
+            } else {
+                mapper.fillAuditFieldsForUpdate(row);
+            }
+            rows.put(key, row);
+        }
+        for (E current : existing) {
+            if (!requestedCodes.contains(code.apply(current))) {
+                // INSERT-ONLY Pattern: Create NEW object for delete marker (soft delete)
+                E deleteVersion = blank.get();
+                BeanUtils.copyProperties(current, deleteVersion, idProperty);
+                rows.put(code.apply(current), mapper.fillAuditFieldsForDelete(deleteVersion));
+            }
+        }
+        return new ArrayList<>(rows.values());
+    }
+
+    private static <E extends AuditLoggable> List<E> live(List<E> rows, List<E> unchanged) {
+        List<E> live = new ArrayList<>(unchanged);
+        rows.stream().filter(row -> row.getCrud_value() != CRUD_VALUE.D).forEach(live::add);
+        return live;
+    }
+}
@@ -0,0 +1,22 @@
+package com.lab.product.service.helper;
+
+import com.lab.product.entity.*;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Latest non-deleted child versions of a single product, loaded in bulk by {@link ProductBundleLoader}
+ * and assembled into a ProductDetailsDTO by {@link ProductMapper}.
+ */
+@Data
+public class ProductChildBundle {
+    private final List<PRODUCT_RULES> rules = new ArrayList<>();
+    private final List<PRODUCT_CHARGES> charges = new ArrayList<>();
+    private final List<PRODUCT_ROLE> roles = new ArrayList<>();
+    private final List<PRODUCT_TRANSACTION> transactions = new ArrayList<>();
+    private final List<PRODUCT_INTEREST> interests = new ArrayList<>();
+    private final List<PRODUCT_BALANCE> balances = new ArrayList<>();
+    private final List<PRODUCT_COMMUNICATION> communications = new ArrayList<>();
+}
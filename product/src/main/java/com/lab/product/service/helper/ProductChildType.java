@@ -0,0 +1,47 @@
+package com.lab.product.service.helper;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * The seven child collections of a product, as named by the include= parameter
+ * and by the ProductDetailsDTO property that carries them.
+ */
+public enum ProductChildType {
+    RULES("rules", "productRules"),
+    CHARGES("charges", "productCharges"),
+    ROLES("roles", "productRoles"),
+    TRANSACTIONS("transactions", "productTransactions"),
+    INTEREST("interest", "productInterests"),
+    BALANCES("balances", "productBalances"),
+    COMMUNICATIONS("communications", "productCommunications");
+
+    private final String includeName;
+    private final String dtoField;
+
+    ProductChildType(String includeName, String dtoField) {
+        this.includeName = includeName;
+        this.dtoField = dtoField;
+    }
+
+    public String getIncludeName() {
+        return includeName;
+    }
+
+    public String getDtoField() {
+        return dtoField;
+    }
+
+    // Accepts the include name ("charges") or the DTO property name ("productCharges")
+    public static Optional<ProductChildType> fromIncludeName(String name) {
+        return Arrays.stream(values())
+            .filter(type -> type.includeName.equalsIgnoreCase(name) || type.dtoField.equalsIgnoreCase(name))
+            .findFirst();
+    }
+
+    public static Optional<ProductChildType> fromDtoField(String field) {
+        return Arrays.stream(values())
+            .filter(type -> type.dtoField.equals(field))
+            .findFirst();
+    }
+}
@@ -0,0 +1,44 @@
+package com.lab.product.service.helper;
+
+import com.lab.product.DAO.ProductCurrentVersionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * INSERT-ONLY Pattern: Rebuilds product_current_versions from the version tables for data written
+ * before the pointer table existed. Enable once with product.current-version.backfill-on-startup=true.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "product.current-version.backfill-on-startup", havingValue = "true")
+public class ProductCurrentVersionBackfill implements ApplicationRunner {
+
+    private final ProductCurrentVersionRepository currentVersionRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // Clear and rebuild in one transaction so readers never see a half-filled pointer table
+        transactionTemplate.executeWithoutResult(status -> backfill());
+    }
+
+    private int backfill() {
+        currentVersionRepository.deleteAllInBatch();
+        int pointers = currentVersionRepository.rebuildProducts()
+            + currentVersionRepository.rebuildRules()
+            + currentVersionRepository.rebuildCharges()
+            + currentVersionRepository.rebuildRoles()
+            + currentVersionRepository.rebuildTransactions()
+            + currentVersionRepository.rebuildInterests()
+            + currentVersionRepository.rebuildBalances()
+            + currentVersionRepository.rebuildCommunications();
+        log.info("Rebuilt {} current-version pointers", pointers);
+        return pointers;
+    }
+}
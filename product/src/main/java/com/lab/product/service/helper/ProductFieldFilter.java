@@ -0,0 +1,107 @@
+package com.lab.product.service.helper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.lab.product.DTO.ProductDetailsDTO;
+import com.lab.product.Exception.ValidationException;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Parses the include= / fields= read parameters and trims serialized products to the requested fields.
+ */
+@Component
+public class ProductFieldFilter {
+
+    private static final String ALL = "all";
+    private static final String NONE = "none";
+
+    private final ObjectMapper objectMapper;
+    // JSON property names of ProductDetailsDTO, as Jackson serializes them
+    private final Set<String> knownFields;
+
+    public ProductFieldFilter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        Set<String> names = new LinkedHashSet<>();
+        objectMapper.valueToTree(new ProductDetailsDTO()).fieldNames().forEachRemaining(names::add);
+        this.knownFields = Collections.unmodifiableSet(names);
+    }
+
+    /**
+     * include: comma-separated child collections (e.g. "charges,interest"), "all" or "none"; absent = all.
+     * fields: comma-separated ProductDetailsDTO properties; absent = all. Child collections that are
+     * not listed in fields are not loaded either.
+     */
+    public ProductReadOptions parse(String include, String fields) {
+        Set<ProductChildType> children = parseInclude(include);
+        Set<String> fieldSet = parseFields(fields);
+        if (fieldSet != null) {
+            children.removeIf(type -> !fieldSet.contains(type.getDtoField()));
+        }
+        return new ProductReadOptions(children, fieldSet);
+    }
+
+    // Returns the DTO itself when no field filter applies, otherwise a JSON object with only the requested fields
+    public Object apply(ProductDetailsDTO dto, ProductReadOptions options) {
+        if (dto == null || options.getFields() == null) {
+            return dto;
+        }
+        ObjectNode node = objectMapper.valueToTree(dto);
+        node.retain(options.getFields());
+        return node;
+    }
+
+    public List<Object> apply(List<ProductDetailsDTO> dtos, ProductReadOptions options) {
+        return dtos.stream()
+            .map(dto -> apply(dto, options))
+            .collect(Collectors.toList());
+    }
+
+    private static Set<ProductChildType> parseInclude(String include) {
+        EnumSet<ProductChildType> children = EnumSet.noneOf(ProductChildType.class);
+        if (include == null || include.isBlank()) {
+            children.addAll(EnumSet.allOf(ProductChildType.class));
+            return children;
+        }
+        for (String name : tokens(include)) {
+            if (ALL.equalsIgnoreCase(name)) {
+                children.addAll(EnumSet.allOf(ProductChildType.class));
+            } else if (!NONE.equalsIgnoreCase(name)) {
+                children.add(ProductChildType.fromIncludeName(name)
+                    .orElseThrow(() -> new ValidationException("Invalid include: " + name + ". Allowed values: "
+                        + Arrays.stream(ProductChildType.values())
+                            .map(ProductChildType::getIncludeName)
+                            .collect(Collectors.joining(", ")) + ", all, none")));
+            }
+        }
+        return children;
+    }
+
+    private Set<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> fieldSet = new LinkedHashSet<>(tokens(fields));
+        for (String field : fieldSet) {
+            if (!knownFields.contains(field)) {
+                throw new ValidationException("Invalid field: " + field + ". Allowed values: "
+                    + String.join(", ", knownFields));
+            }
+        }
+        return fieldSet;
+    }
+
+    private static List<String> tokens(String value) {
+        return Arrays.stream(value.split(","))
+            .map(String::trim)
+            .filter(token -> !token.isEmpty())
+            .collect(Collectors.toList());
+    }
+}
@@ -1,29 +1,28 @@
 package com.lab.product.service.helper;
 
-import com.lab.product.DAO.*;
 import com.lab.product.DTO.*;
 import com.lab.product.entity.*;
 import com.lab.product.entity.ENUMS.CRUD_VALUE;
+import com.lab.product.entity.ENUMS.PRODUCT_ROLE_TYPE;
+import com.lab.product.entity.ENUMS.PRODUCT_TRANSACTION_TYPE;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
 public class ProductMapper {
     
-    private final ProductInterestRepository interestRepository;
-    private final ProductChargeRepository chargeRepository;
-    private final ProductCommunicationRepository communicationRepository;
-    private final ProductTransactionRepository transactionRepository;
-    private final ProductRoleRepository roleRepository;
-    private final ProductBalanceRepository balanceRepository;
-    private final ProductRulesRepository rulesRepository;
+    private final ProductBundleLoader bundleLoader;
+    private final ProductIdGenerator idGenerator;
 
     public ProductBalanceDTO toBalanceDto(PRODUCT_BALANCE balance) {
         if (balance == null) return null;
@@ -275,7 +274,7 @@ public class ProductMapper {
         entity.setCrud_value(CRUD_VALUE.C);
         
         // Set UUID reference
-        entity.setUUID_reference(UUID.randomUUID());
+        entity.setUUID_reference(idGenerator.next());
         
         return entity;
     }
@@ -299,7 +298,7 @@ public class ProductMapper {
         entity.setCrud_value(CRUD_VALUE.U);
         
         // Set UUID reference
-        entity.setUUID_reference(UUID.randomUUID());
+        entity.setUUID_reference(idGenerator.next());
         
         return entity;
     }
@@ -323,7 +322,7 @@ public class ProductMapper {
         entity.setCrud_value(CRUD_VALUE.D);
         
         // Set UUID reference
-        entity.setUUID_reference(UUID.randomUUID());
+        entity.setUUID_reference(idGenerator.next());
         
         return entity;
     }
@@ -334,6 +333,20 @@ public class ProductMapper {
     }
 
     public ProductDetailsDTO toDto(PRODUCT_DETAILS product) {
+        return toDto(product, EnumSet.allOf(ProductChildType.class));
+    }
+
+    // Only the requested child tables are queried; the other child lists stay null
+    public ProductDetailsDTO toDto(PRODUCT_DETAILS product, Set<ProductChildType> childTypes) {
+        if (product == null) return null;
+        // INSERT-ONLY Pattern: Fetch only latest child versions (single-product bundle)
+        Map<String, ProductChildBundle> children =
+            bundleLoader.loadLatestChildren(Collections.singletonList(product.getProductCode()), childTypes);
+        return toDto(product, children.get(product.getProductCode()));
+    }
+
+    // Assemble the DTO from child versions that were already loaded by ProductBundleLoader
+    public ProductDetailsDTO toDto(PRODUCT_DETAILS product, ProductChildBundle children) {
         if (product == null) return null;
         ProductDetailsDTO dto = new ProductDetailsDTO();
         dto.setProductId(product.getProductId());
@@ -348,61 +361,55 @@ public class ProductMapper {
         dto.setCreatedAt(product.getCreatedAt());
         dto.setEfctv_date(product.getEfctv_date());
         
-        // INSERT-ONLY Pattern: Fetch only latest versions using repositories
-        String productCode = product.getProductCode();
-        
-        // rules - fetch latest versions by productCode
-        List<PRODUCT_RULES> latestRules = rulesRepository.findByProductCode(productCode);
-        if (latestRules != null && !latestRules.isEmpty()) {
-            dto.setProductRules(latestRules.stream()
+        if (children == null) {
+            return dto;
+        }
+
+        // rules - latest versions by productCode
+        if (!children.getRules().isEmpty()) {
+            dto.setProductRules(children.getRules().stream()
                 .map(this::toRuleDto)
                 .collect(Collectors.toList()));
         }
 
-        // charges - fetch latest versions by productCode
-        List<PRODUCT_CHARGES> latestCharges = chargeRepository.findByProductCode(productCode);
-        if (latestCharges != null && !latestCharges.isEmpty()) {
-            dto.setProductCharges(latestCharges.stream()
+        // charges - latest versions by productCode
+        if (!children.getCharges().isEmpty()) {
+            dto.setProductCharges(children.getCharges().stream()
                 .map(this::toChargeDto)
                 .collect(Collectors.toList()));
         }
 
-        // roles - fetch latest versions by productCode
-        List<PRODUCT_ROLE> latestRoles = roleRepository.findByProductCode(productCode);
-        if (latestRoles != null && !latestRoles.isEmpty()) {
-            dto.setProductRoles(latestRoles.stream()
+        // roles - latest versions by productCode
+        if (!children.getRoles().isEmpty()) {
+            dto.setProductRoles(children.getRoles().stream()
                 .map(this::toRoleDto)
                 .collect(Collectors.toList()));
         }
 
-        // transactions - fetch latest versions by productCode
-        List<PRODUCT_TRANSACTION> latestTransactions = transactionRepository.findByProductCode(productCode);
-        if (latestTransactions != null && !latestTransactions.isEmpty()) {
-            dto.setProductTransactions(latestTransactions.stream()
+        // transactions - latest versions by productCode
+        if (!children.getTransactions().isEmpty()) {
+            dto.setProductTransactions(children.getTransactions().stream()
                 .map(this::toTransactionDto)
                 .collect(Collectors.toList()));
         }
         
-        // Interests - fetch latest versions by productCode
-        List<PRODUCT_INTEREST> latestInterests = interestRepository.findByProductCode(productCode);
-        if (latestInterests != null && !latestInterests.isEmpty()) {
-            dto.setProductInterests(latestInterests.stream()
+        // Interests - latest versions by productCode
+        if (!children.getInterests().isEmpty()) {
+            dto.setProductInterests(children.getInterests().stream()
                 .map(this::toInterestDto)
                 .collect(Collectors.toList()));
         }
 
-        // balances - fetch latest versions by productCode
-        List<PRODUCT_BALANCE> latestBalances = balanceRepository.findByProductCode(productCode);
-        if (latestBalances != null && !latestBalances.isEmpty()) {
-            dto.setProductBalances(latestBalances.stream()
+        // balances - latest versions by productCode
+        if (!children.getBalances().isEmpty()) {
+            dto.setProductBalances(children.getBalances().stream()
                 .map(this::toBalanceDto)
                 .collect(Collectors.toList()));
         }
 
-        // communications - fetch latest versions by productCode
-        List<PRODUCT_COMMUNICATION> latestComms = communicationRepository.findByProductCode(productCode);
-        if (latestComms != null && !latestComms.isEmpty()) {
-            dto.setProductCommunications(latestComms.stream()
+        // communications - latest versions by productCode
+        if (!children.getCommunications().isEmpty()) {
+            dto.setProductCommunications(children.getCommunications().stream()
                 .map(this::toCommunicationDto)
                 .collect(Collectors.toList()));
         }
@@ -413,8 +420,22 @@ public class ProductMapper {
     // Audit trail version - includes all audit fields
     public ProductDetailsDTO toDtoWithAudit(PRODUCT_DETAILS product) {
         if (product == null) return null;
-        ProductDetailsDTO dto = toDto(product);
-        
+        return withAuditFields(product, toDto(product));
+    }
+
+    // Audit trail version with children that were already resolved (e.g. as of the version's createdAt)
+    public ProductDetailsDTO toDtoWithAudit(PRODUCT_DETAILS product, ProductChildBundle children) {
+        if (product == null) return null;
+        return withAuditFields(product, toDto(product, children));
+    }
+
+    // Immutable version view - the version row and its audit fields only, no (mutable) child lists
+    public ProductDetailsDTO toVersionDto(PRODUCT_DETAILS product) {
+        if (product == null) return null;
+        return withAuditFields(product, toDto(product, (ProductChildBundle) null));
+    }
+
+    private ProductDetailsDTO withAuditFields(PRODUCT_DETAILS product, ProductDetailsDTO dto) {
         // Copy audit fields
         dto.setCrud_value(product.getCrud_value());
         dto.setUser_id(product.getUser_id());
@@ -429,9 +450,19 @@ public class ProductMapper {
         return dto;
     }
 
+    // Batched version - loads children of all products with one query per child table
     public List<ProductDetailsDTO> toDtoList(List<PRODUCT_DETAILS> products) {
+        return toDtoList(products, EnumSet.allOf(ProductChildType.class));
+    }
+
+    public List<ProductDetailsDTO> toDtoList(List<PRODUCT_DETAILS> products, Set<ProductChildType> childTypes) {
         if (products == null) return new ArrayList<>();
-        return products.stream().map(this::toDto).collect(Collectors.toList());
+        Map<String, ProductChildBundle> children = bundleLoader.loadLatestChildren(products.stream()
+            .map(PRODUCT_DETAILS::getProductCode)
+            .collect(Collectors.toList()), childTypes);
+        return products.stream()
+            .map(p -> toDto(p, children.get(p.getProductCode())))
+            .collect(Collectors.toList());
     }
 
     public PRODUCT_DETAILS toEntity(CreateOrUpdateProductRequestDTO dto) {
@@ -447,4 +478,95 @@ public class ProductMapper {
         if (dto.getProductCode() != null) existingProduct.setProductCode(dto.getProductCode());
         // child collections handled in service
     }
+
+    // Child rows built from request DTOs (audit fields are filled by the caller)
+    public PRODUCT_RULES toRuleEntity(PRODUCT_DETAILS product, ProductRuleRequestDTO dto) {
+        PRODUCT_RULES rule = new PRODUCT_RULES();
+        rule.setProduct(product);
+        // INSERT-ONLY Pattern: Set productCode for cross-version linking
+        rule.setProductCode(product.getProductCode());
+        rule.setRuleName(dto.getRuleName());
+        rule.setRuleCode(dto.getRuleCode());
+        rule.setRuleType(dto.getRuleType());
+        rule.setDataType(dto.getDataType());
+        rule.setRuleValue(dto.getRuleValue());
+        rule.setValidationType(dto.getValidationType());
+        return rule;
+    }
+
+    public PRODUCT_CHARGES toChargeEntity(PRODUCT_DETAILS product, ProductChargeRequestDTO dto) {
+        PRODUCT_CHARGES charge = new PRODUCT_CHARGES();
+        charge.setProduct(product);
+        // INSERT-ONLY Pattern: Set productCode for cross-version linking
+        charge.setProductCode(product.getProductCode());
+        charge.setChargeType(dto.getChargeType());
+        charge.setChargeName(dto.getChargeName());
+        charge.setChargeCode(dto.getChargeCode());
+        charge.setChargeValue(dto.getChargeValue());
+        charge.setCalculationType(dto.getCalculationType());
+        charge.setFrequency(dto.getFrequency());
+        charge.setDebitCredit(dto.getDebitCredit());
+        return charge;
+    }
+
+    public PRODUCT_ROLE toRoleEntity(PRODUCT_DETAILS product, ProductRoleRequestDTO dto) {
+        PRODUCT_ROLE role = new PRODUCT_ROLE();
+        role.setProduct(product);
+        // INSERT-ONLY Pattern: Set productCode for cross-version linking
+        role.setProductCode(product.getProductCode());
+        role.setRoleCode(dto.getRoleCode());
+        role.setRoleType(PRODUCT_ROLE_TYPE.valueOf(dto.getRoleType()));
+        role.setMandatory(dto.isActive());
+        role.setMaxCount(1);
+        return role;
+    }
+
+    public PRODUCT_TRANSACTION toTransactionEntity(PRODUCT_DETAILS product, ProductTransactionRequestDTO dto) {
+        PRODUCT_TRANSACTION transaction = new PRODUCT_TRANSACTION();
+        transaction.setProduct(product);
+        // INSERT-ONLY Pattern: Set productCode for cross-version linking
+        transaction.setProductCode(product.getProductCode());
+        transaction.setTransactionCode(dto.getTransactionCode());
+        transaction.setTransactionType(PRODUCT_TRANSACTION_TYPE.valueOf(dto.getTransactionType()));
+        transaction.setAllowed(dto.isActive());
+        return transaction;
+    }
+
+    public PRODUCT_INTEREST toInterestEntity(PRODUCT_DETAILS product, ProductInterestRequestDTO dto) {
+        PRODUCT_INTEREST interest = new PRODUCT_INTEREST();
+        interest.setProduct(product);
+        // INSERT-ONLY Pattern: Set productCode for cross-version linking
+        interest.setProductCode(product.getProductCode());
+        interest.setRateCode(dto.getRateCode());
+        interest.setTermInMonths(dto.getTermInMonths());
+        interest.setRateCumulative(dto.getRateCumulative());
+        interest.setRateNonCumulativeMonthly(dto.getRateNonCumulativeMonthly());
+        interest.setRateNonCumulativeQuarterly(dto.getRateNonCumulativeQuarterly());
+        interest.setRateNonCumulativeYearly(dto.getRateNonCumulativeYearly());
+        return interest;
+    }
+
+    public PRODUCT_BALANCE toBalanceEntity(PRODUCT_DETAILS product, ProductBalanceRequestDTO dto) {
+        PRODUCT_BALANCE balance = new PRODUCT_BALANCE();
+        balance.setProduct(product);
+        // INSERT-ONLY Pattern: Set productCode for cross-version linking
+        balance.setProductCode(product.getProductCode());
+        balance.setBalanceType(dto.getBalanceType());
+        balance.setIsActive(dto.getIsActive() != null ? dto.getIsActive() : true);
+        return balance;
+    }
+
+    public PRODUCT_COMMUNICATION toCommunicationEntity(PRODUCT_DETAILS product, ProductCommunicationRequestDTO dto) {
+        PRODUCT_COMMUNICATION communication = new PRODUCT_COMMUNICATION();
+        communication.setProduct(product);
+        // INSERT-ONLY Pattern: Set productCode for cross-version linking
+        communication.setProductCode(product.getProductCode());
+        communication.setCommCode(dto.getCommunicationCode());
+        communication.setCommunicationType(dto.getCommunicationType());
+        communication.setChannel(dto.getCommunicationChannel());
+        communication.setEvent(dto.getCommunicationCode());
+        communication.setTemplate(dto.getTemplateContent());
+        communication.setFrequencyLimit(dto.getFrequencyLimit());
+        return communication;
+    }
 }
@@ -0,0 +1,42 @@
+package com.lab.product.service.helper;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * What a product read should return: which child collections to load (include=) and,
+ * optionally, which top-level ProductDetailsDTO properties to serialize (fields=).
+ * Child tables that are not requested are never queried.
+ */
+public final class ProductReadOptions {
+
+    public static final ProductReadOptions FULL = new ProductReadOptions(EnumSet.allOf(ProductChildType.class), null);
+
+    private final Set<ProductChildType> children;
+    // null = every property
+    private final Set<String> fields;
+
+    ProductReadOptions(Set<ProductChildType> children, Set<String> fields) {
+        EnumSet<ProductChildType> copy = EnumSet.noneOf(ProductChildType.class);
+        copy.addAll(children);
+        this.children = Collections.unmodifiableSet(copy);
+        this.fields = fields == null ? null : Collections.unmodifiableSet(fields);
+    }
+
+    public Set<ProductChildType> getChildren() {
+        return children;
+    }
+
+    public Set<String> getFields() {
+        return fields;
+    }
+
+    public boolean includesAllChildren() {
+        return children.size() == ProductChildType.values().length;
+    }
+
+    public boolean isFull() {
+        return includesAllChildren() && fields == null;
+    }
+}
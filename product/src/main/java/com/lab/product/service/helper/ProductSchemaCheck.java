@@ -0,0 +1,131 @@
+package com.lab.product.service.helper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * INSERT-ONLY Pattern: Refuses to start on a schema the db/migration scripts have not been applied to.
+ * <p>
+ * Version numbering relies on a NOT NULL PRODUCT_VERSION_NO and a unique (code[, child code], version)
+ * index per versioned table (V6). spring.jpa.hibernate.ddl-auto=update adds missing columns and tries the
+ * unique constraints, but it does not backfill: on existing data the constraints cannot be created, and
+ * concurrent writers would then silently store duplicate version numbers. The migrations are run by hand,
+ * in version order (V2, V3 ... V10) with the service stopped, before the new version is started; this
+ * check turns a skipped or failed step into a startup error naming the missing constraints.
+ * Disable with product.schema-check.enabled=false.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "product.schema-check.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductSchemaCheck implements ApplicationRunner {
+
+    static final String VERSION_COLUMN = "PRODUCT_VERSION_NO";
+
+    // versioned table -> unique (code[, child code], version) index created by V6
+    static final Map<String, String> VERSION_INDEXES = new LinkedHashMap<>();
+
+    static {
+        VERSION_INDEXES.put("products", "uk_products_code_version");
+        VERSION_INDEXES.put("PRODUCT_RULES", "uk_rules_code_version");
+        VERSION_INDEXES.put("product_charges", "uk_charges_code_version");
+        VERSION_INDEXES.put("product_role_types", "uk_roles_code_version");
+        VERSION_INDEXES.put("product_transaction_types", "uk_transactions_code_version");
+        VERSION_INDEXES.put("interest_rates", "uk_interest_code_version");
+        VERSION_INDEXES.put("product_balances", "uk_balances_code_version");
+        VERSION_INDEXES.put("product_communications", "uk_communications_code_version");
+    }
+
+    private final DataSource dataSource;
+
+    @Override
+    public void run(ApplicationArguments args) throws SQLException {
+        List<String> problems = findProblems();
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("Database schema is missing migrations (apply db/migration V2..V10 in order): "
+                + String.join("; ", problems));
+        }
+        log.info("Version columns and unique version indexes present on {} tables", VERSION_INDEXES.size());
+    }
+
+    List<String> findProblems() throws SQLException {
+        List<String> problems = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (Map.Entry<String, String> entry : VERSION_INDEXES.entrySet()) {
+                Optional<String> table = tableName(connection, metaData, entry.getKey());
+                if (table.isEmpty()) {
+                    problems.add("table " + entry.getKey() + " does not exist");
+                    continue;
+                }
+                if (!versionColumnNotNull(connection, metaData, table.get())) {
+                    problems.add(table.get() + "." + VERSION_COLUMN + " is missing or nullable");
+                }
+                if (!uniqueIndexExists(connection, metaData, table.get(), entry.getValue())) {
+                    problems.add("unique index " + entry.getValue() + " on " + table.get() + " is missing");
+                }
+            }
+        }
+        return problems;
+    }
+
+    // Table names are case-sensitive on some MySQL installations and upper-cased by others
+    private static Optional<String> tableName(Connection connection, DatabaseMetaData metaData, String table)
+            throws SQLException {
+        try (ResultSet tables = metaData.getTables(connection.getCatalog(), connection.getSchema(), null,
+                new String[] {"TABLE"})) {
+            while (tables.next()) {
+                String name = tables.getString("TABLE_NAME");
+                if (name.equalsIgnoreCase(table)) {
+                    return Optional.of(name);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static boolean versionColumnNotNull(Connection connection, DatabaseMetaData metaData, String table)
+            throws SQLException {
+        try (ResultSet columns = metaData.getColumns(connection.getCatalog(), connection.getSchema(), table, null)) {
+            while (columns.next()) {
+                if (columns.getString("COLUMN_NAME").equalsIgnoreCase(VERSION_COLUMN)) {
+                    return columns.getInt("NULLABLE") == DatabaseMetaData.columnNoNulls;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean uniqueIndexExists(Connection connection, DatabaseMetaData metaData, String table,
+                                             String index) throws SQLException {
+        try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), table,
+                true, true)) {
+            while (indexes.next()) {
+                String name = indexes.getString("INDEX_NAME");
+                // MySQL keeps the name; H2 suffixes the index backing a named unique constraint
+                if (name != null && name.toLowerCase().startsWith(index.toLowerCase())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,115 @@
+package com.lab.product.service.helper;
+
+import com.lab.product.Exception.PreconditionFailedException;
+import com.lab.product.Exception.ValidationException;
+import com.lab.product.Exception.VersionConflicts;
+import com.lab.product.entity.*;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * INSERT-ONLY Pattern: Assigns versionNo to new version rows right before they are inserted: one more than
+ * the highest versionNo of the same business key (productCode, plus the child code on child tables),
+ * deleted versions included. Two concurrent writers that pick the same number for a key are rejected by the
+ * unique (code, versionNo) index, so the latest version is never ambiguous.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductVersionNumbers {
+
+    // Upper bound for the IN (...) list of a single lookup
+    private static final int MAX_CODES_PER_QUERY = 500;
+
+    // Child code property per child table; products are keyed by productCode alone
+    private static final Map<Class<?>, String> CHILD_CODES = Map.of(
+        PRODUCT_RULES.class, "ruleCode",
+        PRODUCT_CHARGES.class, "chargeCode",
+        PRODUCT_ROLE.class, "roleCode",
+        PRODUCT_TRANSACTION.class, "transactionCode",
+        PRODUCT_INTEREST.class, "rateCode",
+        PRODUCT_BALANCE.class, "balanceType",
+        PRODUCT_COMMUNICATION.class, "commCode");
+
+    private final EntityManager entityManager;
+
+    public <E extends AuditLoggable> E assign(E row) {
+        assignAll(List.of(row));
+        return row;
+    }
+
+    // Rows of one entity type; several rows of the same key get consecutive numbers in list order
+    public <E extends AuditLoggable> List<E> assignAll(List<E> rows) {
+        if (rows.isEmpty()) {
+            return rows;
+        }
+        Class<?> type = rows.get(0).getClass();
+        String childCode = CHILD_CODES.get(type);
+        List<String> productCodes = rows.stream().map(row -> String.valueOf(property(row, "productCode"))).distinct().toList();
+
+        Map<String, Long> latest = new HashMap<>();
+        for (int from = 0; from < productCodes.size(); from += MAX_CODES_PER_QUERY) {
+            List<String> chunk = productCodes.subList(from, Math.min(productCodes.size(), from + MAX_CODES_PER_QUERY));
+            for (Object[] max : latestVersionNumbers(type, childCode, chunk)) {
+                latest.put(key(max[0], childCode != null ? max[1] : null), (Long) max[max.length - 1]);
+            }
+        }
+        for (E row : rows) {
+            Object child = childCode != null ? property(row, childCode) : null;
+            // no version yet: starts at 1
+            row.setVersionNo(latest.merge(key(property(row, "productCode"), child), 1L, Long::sum));
+        }
+        return rows;
+    }
+
+    /**
+     * Optimistic write for If-Match updates, without a lock or a latest-version lookup: next becomes
+     * expected.versionNo + 1, and the unique (code, versionNo) index rejects the insert if another version
+     * of the key was written after expected.
+     */
+    public <E extends AuditLoggable> E saveAfter(JpaRepository<E, UUID> repository, E expected, E next) {
+        String childCode = CHILD_CODES.get(expected.getClass());
+        Object expectedChild = childCode != null ? property(expected, childCode) : null;
+        Object nextChild = childCode != null ? property(next, childCode) : null;
+        if (!key(property(expected, "productCode"), expectedChild).equals(key(property(next, "productCode"), nextChild))) {
+            throw new ValidationException("A conditional update cannot change the code of the version it updates");
+        }
+        next.setVersionNo(expected.getVersionNo() + 1);
+        try {
+            return repository.saveAndFlush(next);
+        } catch (DataIntegrityViolationException e) {
+            if (!VersionConflicts.isVersionConflict(e)) {
+                throw e;
+            }
+            throw new PreconditionFailedException("A newer version was written after the If-Match version");
+        }
+    }
+
+    private List<Object[]> latestVersionNumbers(Class<?> type, String childCode, List<String> productCodes) {
+        String entity = entityManager.getMetamodel().entity(type).getName();
+        String groupBy = childCode != null ? "e.productCode, e." + childCode : "e.productCode";
+        return entityManager.createQuery("SELECT " + groupBy + ", MAX(e.versionNo) FROM " + entity + " e " +
+                "WHERE e.productCode IN :productCodes GROUP BY " + groupBy, Object[].class)
+            .setParameter("productCodes", productCodes)
+            .getResultList();
+    }
+
+    private static Object property(Object row, String name) {
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(row);
+        return wrapper.getPropertyValue(name);
+    }
+
+    // Enum child codes (balanceType) compare by name
+    private static String key(Object productCode, Object childCode) {
+        return productCode + "\u0000" + (childCode != null ? childCode : "");
+    }
+}
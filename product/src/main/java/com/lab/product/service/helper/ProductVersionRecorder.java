@@ -0,0 +1,184 @@
+package com.lab.product.service.helper;
+
+import com.lab.product.DAO.ProductCurrentVersionRepository;
+import com.lab.product.Exception.PreconditionFailedException;
+import com.lab.product.entity.*;
+import com.lab.product.entity.ENUMS.CRUD_VALUE;
+import com.lab.product.entity.ENUMS.PRODUCT_ENTITY_TYPE;
+import com.lab.product.event.ProductChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * INSERT-ONLY Pattern: Moves the product_current_versions pointer to a freshly saved version row
+ * and publishes a {@link ProductChangedEvent}.
+ * Must be called by the service layer right after every insert-only save, inside the same transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductVersionRecorder {
+
+    private final ProductCurrentVersionRepository currentVersionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public void record(PRODUCT_DETAILS saved) {
+        record(PRODUCT_ENTITY_TYPE.PRODUCT, saved.getProductCode(), PRODUCT_CURRENT_VERSION_ID.NO_CHILD_CODE,
+            saved.getProductId(), saved.getCrud_value());
+    }
+
+    public void record(PRODUCT_RULES saved) {
+        record(PRODUCT_ENTITY_TYPE.RULE, saved.getProductCode(), saved.getRuleCode(),
+            saved.getRuleId(), saved.getCrud_value());
+    }
+
+    public void record(PRODUCT_CHARGES saved) {
+        record(PRODUCT_ENTITY_TYPE.CHARGE, saved.getProductCode(), saved.getChargeCode(),
+            saved.getChargeId(), saved.getCrud_value());
+    }
+
+    public void record(PRODUCT_ROLE saved) {
+        record(PRODUCT_ENTITY_TYPE.ROLE, saved.getProductCode(), saved.getRoleCode(),
+            saved.getRoleId(), saved.getCrud_value());
+    }
+
+    public void record(PRODUCT_TRANSACTION saved) {
+        record(PRODUCT_ENTITY_TYPE.TRANSACTION, saved.getProductCode(), saved.getTransactionCode(),
+            saved.getId(), saved.getCrud_value());
+    }
+
+    public void record(PRODUCT_INTEREST saved) {
+        record(PRODUCT_ENTITY_TYPE.INTEREST, saved.getProductCode(), saved.getRateCode(),
+            saved.getRateId(), saved.getCrud_value());
+    }
+
+    public void record(PRODUCT_BALANCE saved) {
+        record(PRODUCT_ENTITY_TYPE.BALANCE, saved.getProductCode(),
+            saved.getBalanceType() != null ? saved.getBalanceType().name() : null,
+            saved.getBalanceId(), saved.getCrud_value());
+    }
+
+    public void record(PRODUCT_COMMUNICATION saved) {
+        record(PRODUCT_ENTITY_TYPE.COMMUNICATION, saved.getProductCode(), saved.getCommCode(),
+            saved.getCommId(), saved.getCrud_value());
+    }
+
+    /**
+     * Conditional (If-Match) write: moves the pointer from expectedRowId to the saved row with one guarded
+     * UPDATE, and fails with PreconditionFailedException if another version became current meanwhile.
+     * A business key without a pointer (written before the pointer backfill ran) is recorded as usual.
+     */
+    public void recordIfCurrent(AuditLoggable saved, UUID expectedRowId) {
+        PRODUCT_CURRENT_VERSION pointer = pointerOf(saved);
+        PRODUCT_CURRENT_VERSION_ID id = pointer.getId();
+        int moved = currentVersionRepository.moveIfCurrent(id.getEntityType(), id.getProductCode(), id.getChildCode(),
+            expectedRowId, pointer.getRowId(), pointer.getCrud_value(), pointer.getUpdatedAt());
+        if (moved == 0) {
+            if (currentVersionRepository.existsById(id)) {
+                throw new PreconditionFailedException("Version " + expectedRowId + " is no longer the current version");
+            }
+            currentVersionRepository.save(pointer);
+        }
+        publish(pointer);
+    }
+
+    // True while the row is the version its pointer names, i.e. no later version has been written
+    public boolean isCurrent(AuditLoggable row) {
+        PRODUCT_CURRENT_VERSION pointer = pointerOf(row);
+        return currentVersionRepository.findById(pointer.getId())
+            .map(current -> pointer.getRowId().equals(current.getRowId()))
+            .orElse(false);
+    }
+
+    /**
+     * Same as calling record(...) for the product and for every child row, but the pointers are read
+     * with one query and written with saveAll, so a bundle write does not cost a round trip per pointer.
+     */
+    public void recordAll(PRODUCT_DETAILS product, ProductChildBundle rows) {
+        List<PRODUCT_CURRENT_VERSION> pointers = new ArrayList<>();
+        pointers.add(pointer(PRODUCT_ENTITY_TYPE.PRODUCT, product.getProductCode(),
+            PRODUCT_CURRENT_VERSION_ID.NO_CHILD_CODE, product.getProductId(), product.getCrud_value()));
+        recordAll(pointers, rows);
+    }
+
+    // Child rows only, e.g. a bulk revision that writes no new product version
+    public void recordAll(ProductChildBundle rows) {
+        recordAll(new ArrayList<>(), rows);
+    }
+
+    private void recordAll(List<PRODUCT_CURRENT_VERSION> pointers, ProductChildBundle rows) {
+        rows.getRules().forEach(r -> pointers.add(pointer(PRODUCT_ENTITY_TYPE.RULE, r.getProductCode(),
+            r.getRuleCode(), r.getRuleId(), r.getCrud_value())));
+        rows.getCharges().forEach(c -> pointers.add(pointer(PRODUCT_ENTITY_TYPE.CHARGE, c.getProductCode(),
+            c.getChargeCode(), c.getChargeId(), c.getCrud_value())));
+        rows.getRoles().forEach(r -> pointers.add(pointer(PRODUCT_ENTITY_TYPE.ROLE, r.getProductCode(),
+            r.getRoleCode(), r.getRoleId(), r.getCrud_value())));
+        rows.getTransactions().forEach(t -> pointers.add(pointer(PRODUCT_ENTITY_TYPE.TRANSACTION, t.getProductCode(),
+            t.getTransactionCode(), t.getId(), t.getCrud_value())));
+        rows.getInterests().forEach(i -> pointers.add(pointer(PRODUCT_ENTITY_TYPE.INTEREST, i.getProductCode(),
+            i.getRateCode(), i.getRateId(), i.getCrud_value())));
+        rows.getBalances().forEach(b -> pointers.add(pointer(PRODUCT_ENTITY_TYPE.BALANCE, b.getProductCode(),
+            b.getBalanceType() != null ? b.getBalanceType().name() : null, b.getBalanceId(), b.getCrud_value())));
+        rows.getCommunications().forEach(c -> pointers.add(pointer(PRODUCT_ENTITY_TYPE.COMMUNICATION, c.getProductCode(),
+            c.getCommCode(), c.getCommId(), c.getCrud_value())));
+        if (pointers.isEmpty()) {
+            return;
+        }
+
+        // existing pointers become managed here, so saveAll merges them without a select per pointer
+        currentVersionRepository.findAllById(pointers.stream().map(PRODUCT_CURRENT_VERSION::getId).toList());
+        currentVersionRepository.saveAll(pointers);
+        pointers.forEach(this::publish);
+    }
+
+    private void record(PRODUCT_ENTITY_TYPE entityType, String productCode, String childCode,
+                          UUID rowId, CRUD_VALUE crudValue) {
+        PRODUCT_CURRENT_VERSION pointer = pointer(entityType, productCode, childCode, rowId, crudValue);
+        // merge: inserts the pointer for a new business key, otherwise moves it to the new row
+        currentVersionRepository.save(pointer);
+        publish(pointer);
+    }
+
+    private static PRODUCT_CURRENT_VERSION pointerOf(AuditLoggable row) {
+        return switch (row) {
+            case PRODUCT_DETAILS p -> pointer(PRODUCT_ENTITY_TYPE.PRODUCT, p.getProductCode(),
+                PRODUCT_CURRENT_VERSION_ID.NO_CHILD_CODE, p.getProductId(), p.getCrud_value());
+            case PRODUCT_RULES r -> pointer(PRODUCT_ENTITY_TYPE.RULE, r.getProductCode(), r.getRuleCode(),
+                r.getRuleId(), r.getCrud_value());
+            case PRODUCT_CHARGES c -> pointer(PRODUCT_ENTITY_TYPE.CHARGE, c.getProductCode(), c.getChargeCode(),
+                c.getChargeId(), c.getCrud_value());
+            case PRODUCT_ROLE r -> pointer(PRODUCT_ENTITY_TYPE.ROLE, r.getProductCode(), r.getRoleCode(),
+                r.getRoleId(), r.getCrud_value());
+            case PRODUCT_TRANSACTION t -> pointer(PRODUCT_ENTITY_TYPE.TRANSACTION, t.getProductCode(),
+                t.getTransactionCode(), t.getId(), t.getCrud_value());
+            case PRODUCT_INTEREST i -> pointer(PRODUCT_ENTITY_TYPE.INTEREST, i.getProductCode(), i.getRateCode(),
+                i.getRateId(), i.getCrud_value());
+            case PRODUCT_BALANCE b -> pointer(PRODUCT_ENTITY_TYPE.BALANCE, b.getProductCode(),
+                b.getBalanceType() != null ? b.getBalanceType().name() : null, b.getBalanceId(), b.getCrud_value());
+            case PRODUCT_COMMUNICATION c -> pointer(PRODUCT_ENTITY_TYPE.COMMUNICATION, c.getProductCode(),
+                c.getCommCode(), c.getCommId(), c.getCrud_value());
+            default -> throw new IllegalArgumentException("Not a versioned entity: " + row.getClass().getName());
+        };
+    }
+
+    private static PRODUCT_CURRENT_VERSION pointer(PRODUCT_ENTITY_TYPE entityType, String productCode, String childCode,
+                                                   UUID rowId, CRUD_VALUE crudValue) {
+        PRODUCT_CURRENT_VERSION pointer = new PRODUCT_CURRENT_VERSION();
+        pointer.setId(new PRODUCT_CURRENT_VERSION_ID(entityType, productCode, childCode));
+        pointer.setRowId(rowId);
+        pointer.setCrud_value(crudValue != null ? crudValue : CRUD_VALUE.C);
+        pointer.setUpdatedAt(LocalDateTime.now());
+        return pointer;
+    }
+
+    private void publish(PRODUCT_CURRENT_VERSION pointer) {
+        PRODUCT_CURRENT_VERSION_ID id = pointer.getId();
+        eventPublisher.publishEvent(new ProductChangedEvent(id.getEntityType(), id.getProductCode(), id.getChildCode(),
+            pointer.getRowId(), pointer.getCrud_value()));
+    }
+}
@@ -0,0 +1,125 @@
+package com.lab.product.service.helper;
+
+import com.lab.product.DAO.ProductCurrentVersionRepository;
+import com.lab.product.entity.ENUMS.PRODUCT_ENTITY_TYPE;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * INSERT-ONLY Pattern: Serializes the writes of one productCode, so two writers never read the same
+ * latest version and both insert a successor. Every write method locks its productCode(s) before
+ * reading the latest version; the locks are held until the transaction completes:
+ * <ul>
+ *   <li>in-process: one of a fixed set of striped locks, picked by the productCode hash, so unrelated
+ *       products write in parallel and the lock count does not grow with the catalog;</li>
+ *   <li>across nodes: SELECT ... FOR UPDATE on the product's product_current_versions pointer row.</li>
+ * </ul>
+ * A new product has no pointer row yet; concurrent creates on different nodes are still caught by the
+ * unique (code, versionNo) index.
+ */
+@Component
+public class ProductWriteLocks {
+
+    // Upper bound for the IN (...) list of a single pointer lock query
+    private static final int MAX_CODES_PER_QUERY = 500;
+
+    private final ProductCurrentVersionRepository currentVersionRepository;
+    private final ReentrantLock[] stripes;
+    private final long timeoutNanos;
+
+    public ProductWriteLocks(ProductCurrentVersionRepository currentVersionRepository,
+                             @Value("${product.write-lock.stripes:256}") int stripes,
+                             @Value("${product.write-lock.timeout:10s}") Duration timeout) {
+        this.currentVersionRepository = currentVersionRepository;
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    public void lock(String productCode) {
+        lockAll(List.of(productCode));
+    }
+
+    /**
+     * Locks every productCode until the current transaction completes. Stripes and pointer rows are
+     * taken in a fixed order, so two writers of overlapping product sets cannot deadlock; a transaction
+     * that locks more codes in a later call can still wait out of order, which the timeout bounds.
+     */
+    public void lockAll(Collection<String> productCodes) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Product write locks are held until commit and need a transaction");
+        }
+        Held held = held();
+
+        Set<Integer> stripeIndexes = new TreeSet<>();
+        Set<String> codes = new TreeSet<>();
+        for (String productCode : productCodes) {
+            if (!held.productCodes.contains(productCode)) {
+                stripeIndexes.add(Math.floorMod(productCode.hashCode(), stripes.length));
+                codes.add(productCode);
+            }
+        }
+        for (int index : stripeIndexes) {
+            if (!held.stripes.contains(index)) {
+                acquire(stripes[index], codes);
+                held.stripes.add(index);
+            }
+        }
+
+        List<String> pending = new ArrayList<>(codes);
+        for (int from = 0; from < pending.size(); from += MAX_CODES_PER_QUERY) {
+            currentVersionRepository.lockPointers(PRODUCT_ENTITY_TYPE.PRODUCT,
+                pending.subList(from, Math.min(pending.size(), from + MAX_CODES_PER_QUERY)));
+        }
+        held.productCodes.addAll(codes);
+    }
+
+    private void acquire(ReentrantLock stripe, Collection<String> productCodes) {
+        try {
+            if (!stripe.tryLock(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new CannotAcquireLockException("Timed out waiting to write product(s) " + productCodes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CannotAcquireLockException("Interrupted waiting to write product(s) " + productCodes, e);
+        }
+    }
+
+    // Locks taken by the current transaction; released once it commits or rolls back
+    private Held held() {
+        Held held = (Held) TransactionSynchronizationManager.getResource(this);
+        if (held == null) {
+            Held created = new Held();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ProductWriteLocks.this);
+                    created.stripes.forEach(index -> stripes[index].unlock());
+                }
+            });
+            held = created;
+        }
+        return held;
+    }
+
+    private static final class Held {
+        private final Set<String> productCodes = new HashSet<>();
+        private final Set<Integer> stripes = new HashSet<>();
+    }
+}
@@ -1,15 +1,23 @@
 package com.lab.product.service.impl;
 
+import com.lab.product.DTO.CursorPage;
 import com.lab.product.DTO.ProductBalanceDTO;
 import com.lab.product.DTO.ProductBalanceRequestDTO;
+import com.lab.product.entity.ENUMS.CRUD_VALUE;
 import com.lab.product.entity.PRODUCT_BALANCE;
+import com.lab.product.entity.ContentHashes;
 import com.lab.product.entity.PRODUCT_DETAILS;
 import com.lab.product.entity.ENUMS.PRODUCT_BALANCE_TYPE;
+import com.lab.product.Exception.PreconditionFailedException;
 import com.lab.product.Exception.ResourceNotFoundException;
 import com.lab.product.DAO.ProductBalanceRepository;
 import com.lab.product.DAO.ProductDetailsRepository;
 import com.lab.product.service.ProductBalanceService;
+import com.lab.product.service.helper.AuditTrailPaging;
 import com.lab.product.service.helper.ProductMapper;
+import com.lab.product.service.helper.ProductVersionNumbers;
+import com.lab.product.service.helper.ProductVersionRecorder;
+import com.lab.product.service.helper.ProductWriteLocks;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils;
 import org.springframework.data.domain.Page;
@@ -18,6 +26,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,10 +37,15 @@ public class ProductBalanceServiceImpl implements ProductBalanceService {
     private final ProductBalanceRepository balanceRepository;
     private final ProductDetailsRepository productRepository;
     private final ProductMapper mapper;
+    private final ProductVersionRecorder versionRecorder;
+    private final ProductVersionNumbers versionNumbers;
+    private final ProductWriteLocks writeLocks;
+    private final AuditTrailPaging auditTrailPaging;
 
     @Override
     @Transactional
     public ProductBalanceDTO addBalanceToProduct(String productCode, ProductBalanceRequestDTO balanceDto) {
+        writeLocks.lock(productCode);
         // INSERT-ONLY Pattern: Find latest version of product
         PRODUCT_DETAILS product = productRepository.findLatestByProductCode(productCode)
             .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + productCode));
@@ -41,17 +56,13 @@ public class ProductBalanceServiceImpl implements ProductBalanceService {
                 "' already exists for product: " + productCode);
         }
 
-        PRODUCT_BALANCE balance = new PRODUCT_BALANCE();
-        balance.setProduct(product);
-        // INSERT-ONLY Pattern: Set productCode for cross-version linking
-        balance.setProductCode(productCode);
-        balance.setBalanceType(balanceDto.getBalanceType());
-        balance.setIsActive(balanceDto.getIsActive() != null ? balanceDto.getIsActive() : true);
+        PRODUCT_BALANCE balance = mapper.toBalanceEntity(product, balanceDto);
         
         // INSERT-ONLY Pattern: Fill audit fields for CREATE operation
         mapper.fillAuditFieldsForCreate(balance);
         
-        PRODUCT_BALANCE saved = balanceRepository.save(balance);
+        PRODUCT_BALANCE saved = balanceRepository.save(versionNumbers.assign(balance));
+        versionRecorder.record(saved);
         return mapper.toBalanceDto(saved);
     }
 
@@ -78,11 +89,46 @@ public class ProductBalanceServiceImpl implements ProductBalanceService {
     @Override
     @Transactional
     public ProductBalanceDTO updateBalance(String productCode, String balanceType, ProductBalanceRequestDTO balanceDto) {
+        writeLocks.lock(productCode);
         // INSERT-ONLY Pattern: Find existing balance by productCode and balanceType
         PRODUCT_BALANCE existing = balanceRepository.findByProductCodeAndBalanceType(productCode, 
             PRODUCT_BALANCE_TYPE.valueOf(balanceType))
             .orElseThrow(() -> new ResourceNotFoundException("Balance type not found: " + balanceType));
 
+        PRODUCT_BALANCE next = nextVersion(existing, balanceDto);
+        if (ContentHashes.sameContent(existing, next)) {
+            // INSERT-ONLY Pattern: Identical payload - keep the current version instead of inserting a copy
+            return mapper.toBalanceDto(existing);
+        }
+
+        // INSERT-ONLY Pattern: Save creates NEW row with same productCode
+        PRODUCT_BALANCE updated = balanceRepository.save(versionNumbers.assign(next));
+        versionRecorder.record(updated);
+        return mapper.toBalanceDto(updated);
+    }
+
+    // If-Match: a single guarded insert after the given version, without the write lock or a latest-version read
+    @Override
+    @Transactional
+    public ProductBalanceDTO updateBalance(String productCode, String balanceType, ProductBalanceRequestDTO balanceDto, UUID ifMatch) {
+        if (ifMatch == null) {
+            return updateBalance(productCode, balanceType, balanceDto);
+        }
+        PRODUCT_BALANCE expected = balanceRepository.findById(ifMatch)
+            .filter(b -> productCode.equals(b.getProductCode()) && b.getBalanceType() != null
+                && balanceType.equals(b.getBalanceType().name()) && b.getCrud_value() != CRUD_VALUE.D)
+            .orElseThrow(() -> new PreconditionFailedException("If-Match is not a version of balance type " + balanceType));
+
+        PRODUCT_BALANCE next = nextVersion(expected, balanceDto);
+        if (ContentHashes.sameContent(expected, next) && versionRecorder.isCurrent(expected)) {
+            return mapper.toBalanceDto(expected);
+        }
+        PRODUCT_BALANCE updated = versionNumbers.saveAfter(balanceRepository, expected, next);
+        versionRecorder.recordIfCurrent(updated, ifMatch);
+        return mapper.toBalanceDto(updated);
+    }
+
+    private PRODUCT_BALANCE nextVersion(PRODUCT_BALANCE existing, ProductBalanceRequestDTO balanceDto) {
         // INSERT-ONLY Pattern: Create NEW object instead of modifying existing
         PRODUCT_BALANCE newVersion = new PRODUCT_BALANCE();
         // Copy all fields from existing (excluding balanceId and versionTimestamp)
@@ -94,15 +140,13 @@ public class ProductBalanceServiceImpl implements ProductBalanceService {
         
         // INSERT-ONLY Pattern: Fill audit fields for UPDATE operation
         mapper.fillAuditFieldsForUpdate(newVersion);
-        
-        // INSERT-ONLY Pattern: Save creates NEW row with same productCode
-        PRODUCT_BALANCE updated = balanceRepository.save(newVersion);
-        return mapper.toBalanceDto(updated);
+        return newVersion;
     }
 
     @Override
     @Transactional
     public void deleteBalance(String productCode, String balanceType) {
+        writeLocks.lock(productCode);
         // INSERT-ONLY Pattern: Find existing balance by productCode and balanceType
         PRODUCT_BALANCE existing = balanceRepository.findByProductCodeAndBalanceType(productCode, 
             PRODUCT_BALANCE_TYPE.valueOf(balanceType))
@@ -117,7 +161,7 @@ public class ProductBalanceServiceImpl implements ProductBalanceService {
         mapper.fillAuditFieldsForDelete(deleteVersion);
         
         // INSERT-ONLY Pattern: Save creates NEW row with crud_value='D' (soft delete marker)
-        balanceRepository.save(deleteVersion);
+        versionRecorder.record(balanceRepository.save(versionNumbers.assign(deleteVersion)));
     }
 
     @Override
@@ -142,4 +186,36 @@ public class ProductBalanceServiceImpl implements ProductBalanceService {
                 .map(mapper::toBalanceDtoWithAudit)
                 .collect(Collectors.toList());
     }
+
+    @Override
+    public CursorPage<ProductBalanceDTO> getBalancesAuditTrailPage(String productCode, String cursor, int size) {
+        return auditTrailPaging.page(cursor, size,
+            (createdAt, versionNo, id, limit) -> balanceRepository.findAuditPageByProductCode(
+                productCode, createdAt, versionNo, id, limit),
+            PRODUCT_BALANCE::getBalanceId, mapper::toBalanceDtoWithAudit,
+            "No balances found for product: " + productCode);
+    }
+
+    @Override
+    public CursorPage<ProductBalanceDTO> getBalanceAuditTrailPage(String productCode, String balanceType, String cursor, int size) {
+        return auditTrailPaging.page(cursor, size,
+            (createdAt, versionNo, id, limit) -> balanceRepository.findAuditPageByProductCodeAndBalanceType(
+                productCode, PRODUCT_BALANCE_TYPE.valueOf(balanceType), createdAt, versionNo, id, limit),
+            PRODUCT_BALANCE::getBalanceId, mapper::toBalanceDtoWithAudit,
+            "Balance type not found: " + balanceType);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamBalancesAuditTrail(String productCode, Consumer<ProductBalanceDTO> sink) {
+        auditTrailPaging.stream(balanceRepository.streamAllVersionsByProductCode(productCode),
+            mapper::toBalanceDtoWithAudit, sink);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamBalanceAuditTrail(String productCode, String balanceType, Consumer<ProductBalanceDTO> sink) {
+        auditTrailPaging.stream(balanceRepository.streamAllVersionsByProductCodeAndBalanceType(productCode, PRODUCT_BALANCE_TYPE.valueOf(balanceType)),
+            mapper::toBalanceDtoWithAudit, sink);
+    }
 }
\ No newline at end of file
@@ -1,14 +1,22 @@
 package com.lab.product.service.impl;
 
+import com.lab.product.DTO.CursorPage;
 import com.lab.product.DTO.ProductChargeDTO;
 import com.lab.product.DTO.ProductChargeRequestDTO;
+import com.lab.product.entity.ENUMS.CRUD_VALUE;
 import com.lab.product.entity.PRODUCT_CHARGES;
+import com.lab.product.entity.ContentHashes;
 import com.lab.product.entity.PRODUCT_DETAILS;
+import com.lab.product.Exception.PreconditionFailedException;
 import com.lab.product.Exception.ResourceNotFoundException;
 import com.lab.product.DAO.ProductChargeRepository;
 import com.lab.product.DAO.ProductDetailsRepository;
 import com.lab.product.service.ProductChargeService;
+import com.lab.product.service.helper.AuditTrailPaging;
 import com.lab.product.service.helper.ProductMapper;
+import com.lab.product.service.helper.ProductVersionNumbers;
+import com.lab.product.service.helper.ProductVersionRecorder;
+import com.lab.product.service.helper.ProductWriteLocks;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils;
 import org.springframework.data.domain.Page;
@@ -17,6 +25,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,30 +36,26 @@ public class ProductChargeServiceImpl implements ProductChargeService {
     private final ProductChargeRepository chargeRepository;
     private final ProductDetailsRepository productRepository;
     private final ProductMapper mapper;
+    private final ProductVersionRecorder versionRecorder;
+    private final ProductVersionNumbers versionNumbers;
+    private final ProductWriteLocks writeLocks;
+    private final AuditTrailPaging auditTrailPaging;
 
     @Override
     @Transactional
     public ProductChargeDTO addChargeToProduct(String productCode, ProductChargeRequestDTO chargeDto) {
+        writeLocks.lock(productCode);
         // INSERT-ONLY Pattern: Find latest version of product
         PRODUCT_DETAILS product = productRepository.findLatestByProductCode(productCode)
             .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + productCode));
 
-        PRODUCT_CHARGES charge = new PRODUCT_CHARGES();
-        charge.setProduct(product);
-        // INSERT-ONLY Pattern: Set productCode for cross-version linking
-        charge.setProductCode(productCode);
-        charge.setChargeType(chargeDto.getChargeType());
-        charge.setChargeName(chargeDto.getChargeName());
-        charge.setChargeCode(chargeDto.getChargeCode());
-        charge.setChargeValue(chargeDto.getChargeValue());
-        charge.setCalculationType(chargeDto.getCalculationType());
-        charge.setFrequency(chargeDto.getFrequency());
-        charge.setDebitCredit(chargeDto.getDebitCredit());
+        PRODUCT_CHARGES charge = mapper.toChargeEntity(product, chargeDto);
         
         // INSERT-ONLY Pattern: Fill audit fields for CREATE operation
         mapper.fillAuditFieldsForCreate(charge);
         
-        PRODUCT_CHARGES saved = chargeRepository.save(charge);
+        PRODUCT_CHARGES saved = chargeRepository.save(versionNumbers.assign(charge));
+        versionRecorder.record(saved);
         return mapper.toChargeDto(saved);
     }
 
@@ -75,10 +81,45 @@ public class ProductChargeServiceImpl implements ProductChargeService {
     @Override
     @Transactional
     public ProductChargeDTO updateCharge(String productCode, String chargeCode, ProductChargeRequestDTO chargeDto) {
+        writeLocks.lock(productCode);
         // INSERT-ONLY Pattern: Find existing charge by productCode and chargeCode
         PRODUCT_CHARGES existing = chargeRepository.findByProductCodeAndChargeCode(productCode, chargeCode)
             .orElseThrow(() -> new ResourceNotFoundException("Charge not found: " + chargeCode));
 
+        PRODUCT_CHARGES next = nextVersion(existing, chargeDto);
+        if (ContentHashes.sameContent(existing, next)) {
+            // INSERT-ONLY Pattern: Identical payload - keep the current version instead of inserting a copy
+            return mapper.toChargeDto(existing);
+        }
+
+        // INSERT-ONLY Pattern: Save creates NEW row with same productCode
+        PRODUCT_CHARGES updated = chargeRepository.save(versionNumbers.assign(next));
+        versionRecorder.record(updated);
+        return mapper.toChargeDto(updated);
+    }
+
+    // If-Match: a single guarded insert after the given version, without the write lock or a latest-version read
+    @Override
+    @Transactional
+    public ProductChargeDTO updateCharge(String productCode, String chargeCode, ProductChargeRequestDTO chargeDto, UUID ifMatch) {
+        if (ifMatch == null) {
+            return updateCharge(productCode, chargeCode, chargeDto);
+        }
+        PRODUCT_CHARGES expected = chargeRepository.findById(ifMatch)
+            .filter(c -> productCode.equals(c.getProductCode()) && chargeCode.equals(c.getChargeCode())
+                && c.getCrud_value() != CRUD_VALUE.D)
+            .orElseThrow(() -> new PreconditionFailedException("If-Match is not a version of charge " + chargeCode));
+
+        PRODUCT_CHARGES next = nextVersion(expected, chargeDto);
+        if (ContentHashes.sameContent(expected, next) && versionRecorder.isCurrent(expected)) {
+            return mapper.toChargeDto(expected);
+        }
+        PRODUCT_CHARGES updated = versionNumbers.saveAfter(chargeRepository, expected, next);
+        versionRecorder.recordIfCurrent(updated, ifMatch);
+        return mapper.toChargeDto(updated);
+    }
+
+    private PRODUCT_CHARGES nextVersion(PRODUCT_CHARGES existing, ProductChargeRequestDTO chargeDto) {
         // INSERT-ONLY Pattern: Create NEW object instead of modifying existing
         PRODUCT_CHARGES newVersion = new PRODUCT_CHARGES();
         // Copy all fields from existing (excluding chargeId and versionTimestamp)
@@ -94,15 +135,13 @@ public class ProductChargeServiceImpl implements ProductChargeService {
         
         // INSERT-ONLY Pattern: Fill audit fields for UPDATE operation
         mapper.fillAuditFieldsForUpdate(newVersion);
-        
-        // INSERT-ONLY Pattern: Save creates NEW row with same productCode
-        PRODUCT_CHARGES updated = chargeRepository.save(newVersion);
-        return mapper.toChargeDto(updated);
+        return newVersion;
     }
 
     @Override
     @Transactional
     public void deleteCharge(String productCode, String chargeCode) {
+        writeLocks.lock(productCode);
         // INSERT-ONLY Pattern: Find existing charge by productCode and chargeCode
         PRODUCT_CHARGES existing = chargeRepository.findByProductCodeAndChargeCode(productCode, chargeCode)
             .orElseThrow(() -> new ResourceNotFoundException("Charge not found: " + chargeCode));
@@ -116,7 +155,7 @@ public class ProductChargeServiceImpl implements ProductChargeService {
         mapper.fillAuditFieldsForDelete(deleteVersion);
         
         // INSERT-ONLY Pattern: Save creates NEW row with crud_value='D' (soft delete marker)
-        chargeRepository.save(deleteVersion);
+        versionRecorder.record(chargeRepository.save(versionNumbers.assign(deleteVersion)));
     }
 
     @Override
@@ -140,4 +179,36 @@ public class ProductChargeServiceImpl implements ProductChargeService {
                 .map(mapper::toChargeDtoWithAudit)
                 .collect(Collectors.toList());
     }
+
+    @Override
+    public CursorPage<ProductChargeDTO> getChargesAuditTrailPage(String productCode, String cursor, int size) {
+        return auditTrailPaging.page(cursor, size,
+            (createdAt, versionNo, id, limit) -> chargeRepository.findAuditPageByProductCode(
+                productCode, createdAt, versionNo, id, limit),
+            PRODUCT_CHARGES::getChargeId, mapper::toChargeDtoWithAudit,
+            "No charges found for product: " + productCode);
+    }
+
+    @Override
+    public CursorPage<ProductChargeDTO> getChargeAuditTrailPage(String productCode, String chargeCode, String cursor, int size) {
+        return auditTrailPaging.page(cursor, size,
+            (createdAt, versionNo, id, limit) -> chargeRepository.findAuditPageByProductCodeAndChargeCode(
+                productCode, chargeCode, createdAt, versionNo, id, limit),
+            PRODUCT_CHARGES::getChargeId, mapper::toChargeDtoWithAudit,
+            "Charge not found: " + chargeCode);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamChargesAuditTrail(String productCode, Consumer<ProductChargeDTO> sink) {
+        auditTrailPaging.stream(chargeRepository.streamAllVersionsByProductCode(productCode),
+            mapper::toChargeDtoWithAudit, sink);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamChargeAuditTrail(String productCode, String chargeCode, Consumer<ProductChargeDTO> sink) {
+        auditTrailPaging.stream(chargeRepository.streamAllVersionsByProductCodeAndChargeCode(productCode, chargeCode),
+            mapper::toChargeDtoWithAudit, sink);
+    }
 }
\ No newline at end of file
@@ -2,13 +2,21 @@ package com.lab.product.service.impl;
 
 import com.lab.product.DAO.ProductCommunicationRepository;
 import com.lab.product.DAO.ProductDetailsRepository;
+import com.lab.product.DTO.CursorPage;
 import com.lab.product.DTO.ProductCommunicationDTO;
 import com.lab.product.DTO.ProductCommunicationRequestDTO;
+import com.lab.product.entity.ENUMS.CRUD_VALUE;
 import com.lab.product.entity.PRODUCT_COMMUNICATION;
+import com.lab.product.entity.ContentHashes;
 import com.lab.product.entity.PRODUCT_DETAILS;
+import com.lab.product.Exception.PreconditionFailedException;
 import com.lab.product.Exception.ResourceNotFoundException;
 import com.lab.product.service.ProductCommunicationService;
+import com.lab.product.service.helper.AuditTrailPaging;
 import com.lab.product.service.helper.ProductMapper;
+import com.lab.product.service.helper.ProductVersionNumbers;
+import com.lab.product.service.helper.ProductVersionRecorder;
+import com.lab.product.service.helper.ProductWriteLocks;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils;
 import org.springframework.data.domain.Page;
@@ -17,6 +25,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,29 +36,26 @@ public class ProductCommunicationServiceImpl implements ProductCommunicationServ
     private final ProductCommunicationRepository communicationRepository;
     private final ProductDetailsRepository productRepository;
     private final ProductMapper productMapper;
+    private final ProductVersionRecorder versionRecorder;
+    private final ProductVersionNumbers versionNumbers;
+    private final ProductWriteLocks writeLocks;
+    private final AuditTrailPaging auditTrailPaging;
 
     @Override
     @Transactional
     public ProductCommunicationDTO addCommunicationToProduct(String productCode, ProductCommunicationRequestDTO communicationDto) {
+        writeLocks.lock(productCode);
         // INSERT-ONLY Pattern: Find latest version of product
         PRODUCT_DETAILS product = productRepository.findLatestByProductCode(productCode)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + productCode));
 
-        PRODUCT_COMMUNICATION communication = new PRODUCT_COMMUNICATION();
-        communication.setProduct(product);
-        // INSERT-ONLY Pattern: Set productCode for cross-version linking
-        communication.setProductCode(productCode);
-        communication.setCommCode(communicationDto.getCommunicationCode());
-        communication.setCommunicationType(communicationDto.getCommunicationType());
-        communication.setChannel(communicationDto.getCommunicationChannel());
-        communication.setEvent(communicationDto.getCommunicationCode());
-        communication.setTemplate(communicationDto.getTemplateContent());
-        communication.setFrequencyLimit(communicationDto.getFrequencyLimit());
+        PRODUCT_COMMUNICATION communication = productMapper.toCommunicationEntity(product, communicationDto);
         
         // INSERT-ONLY Pattern: Fill audit fields for CREATE operation
         productMapper.fillAuditFieldsForCreate(communication);
         
-        PRODUCT_COMMUNICATION saved = communicationRepository.save(communication);
+        PRODUCT_COMMUNICATION saved = communicationRepository.save(versionNumbers.assign(communication));
+        versionRecorder.record(saved);
         return productMapper.toCommunicationDto(saved);
     }
 
@@ -76,10 +83,45 @@ public class ProductCommunicationServiceImpl implements ProductCommunicationServ
     @Override
     @Transactional
     public ProductCommunicationDTO updateCommunication(String productCode, String commCode, ProductCommunicationRequestDTO communicationDto) {
+        writeLocks.lock(productCode);
         // INSERT-ONLY Pattern: Find existing communication by productCode and commCode
         PRODUCT_COMMUNICATION existing = communicationRepository.findByProductCodeAndCommCode(productCode, commCode)
                 .orElseThrow(() -> new ResourceNotFoundException("Communication not found: " + commCode));
 
+        PRODUCT_COMMUNICATION next = nextVersion(existing, communicationDto);
+        if (ContentHashes.sameContent(existing, next)) {
+            // INSERT-ONLY Pattern: Identical payload - keep the current version instead of inserting a copy
+            return productMapper.toCommunicationDto(existing);
+        }
+
+        // INSERT-ONLY Pattern: Save creates NEW row with same productCode
+        PRODUCT_COMMUNICATION updated = communicationRepository.save(versionNumbers.assign(next));
+        versionRecorder.record(updated);
+        return productMapper.toCommunicationDto(updated);
+    }
+
+    // If-Match: a single guarded insert after the given version, without the write lock or a latest-version read
+    @Override
+    @Transactional
+    public ProductCommunicationDTO updateCommunication(String productCode, String commCode, ProductCommunicationRequestDTO communicationDto, UUID ifMatch) {
+        if (ifMatch == null) {
+            return updateCommunication(productCode, commCode, communicationDto);
+        }
+        PRODUCT_COMMUNICATION expected = communicationRepository.findById(ifMatch)
+            .filter(c -> productCode.equals(c.getProductCode()) && commCode.equals(c.getCommCode())
+                && c.getCrud_value() != CRUD_VALUE.D)
+            .orElseThrow(() -> new PreconditionFailedException("If-Match is not a version of communication " + commCode));
+
+        PRODUCT_COMMUNICATION next = nextVersion(expected, communicationDto);
+        if (ContentHashes.sameContent(expected, next) && versionRecorder.isCurrent(expected)) {
+            return productMapper.toCommunicationDto(expected);
+        }
+        PRODUCT_COMMUNICATION updated = versionNumbers.saveAfter(communicationRepository, expected, next);
+        versionRecorder.recordIfCurrent(updated, ifMatch);
+        return productMapper.toCommunicationDto(updated);
+    }
+
+    private PRODUCT_COMMUNICATION nextVersion(PRODUCT_COMMUNICATION existing, ProductCommunicationRequestDTO communicationDto) {
         // INSERT-ONLY Pattern: Create NEW object instead of modifying existing
         PRODUCT_COMMUNICATION newVersion = new PRODUCT_COMMUNICATION();
         // Copy all fields from existing (excluding commId and versionTimestamp)
@@ -95,15 +137,13 @@ public class ProductCommunicationServiceImpl implements ProductCommunicationServ
 
         // INSERT-ONLY Pattern: Fill audit fields for UPDATE operation
         productMapper.fillAuditFieldsForUpdate(newVersion);
-        
-        // INSERT-ONLY Pattern: Save creates NEW row with same productCode
-        PRODUCT_COMMUNICATION updated = communicationRepository.save(newVersion);
-        return productMapper.toCommunicationDto(updated);
+        return newVersion;
     }
 
     @Override
     @Transactional
     public void deleteCommunication(String productCode, String commCode) {
+        writeLocks.lock(productCode);
         // INSERT-ONLY Pattern: Find existing communication by productCode and commCode
         PRODUCT_COMMUNICATION existing = communicationRepository.findByProductCodeAndCommCode(productCode, commCode)
                 .orElseThrow(() -> new ResourceNotFoundException("Communication not found: " + commCode));
@@ -117,7 +157,7 @@ public class ProductCommunicationServiceImpl implements ProductCommunicationServ
         productMapper.fillAuditFieldsForDelete(deleteVersion);
         
         // INSERT-ONLY Pattern: Save creates NEW row with crud_value='D' (soft delete marker)
-        communicationRepository.save(deleteVersion);
+        versionRecorder.record(communicationRepository.save(versionNumbers.assign(deleteVersion)));
     }
 
     @Override
@@ -141,4 +181,36 @@ public class ProductCommunicationServiceImpl implements ProductCommunicationServ
                 .map(productMapper::toCommunicationDtoWithAudit)
                 .collect(Collectors.toList());
     }
+
+    @Override
+    public CursorPage<ProductCommunicationDTO> getCommunicationsAuditTrailPage(String productCode, String cursor, int size) {
+        return auditTrailPaging.page(cursor, size,
+            (createdAt, versionNo, id, limit) -> communicationRepository.findAuditPageByProductCode(
+                productCode, createdAt, versionNo, id, limit),
+            PRODUCT_COMMUNICATION::getCommId, productMapper::toCommunicationDtoWithAudit,
+            "No communications found for product: " + productCode);
+    }
+
+    @Override
+    public CursorPage<ProductCommunicationDTO> getCommunicationAuditTrailPage(String productCode, String commCode, String cursor, int size) {
+        return auditTrailPaging.page(cursor, size,
+            (createdAt, versionNo, id, limit) -> communicationRepository.findAuditPageByProductCodeAndCommCode(
+                productCode, commCode, createdAt, versionNo, id, limit),
+            PRODUCT_COMMUNICATION::getCommId, productMapper::toCommunicationDtoWithAudit,
+            "Communication not found: " + commCode);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamCommunicationsAuditTrail(String productCode, Consumer<ProductCommunicationDTO> sink) {
+        auditTrailPaging.stream(communicationRepository.streamAllVersionsByProductCode(productCode),
+            productMapper::toCommunicationDtoWithAudit, sink);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamCommunicationAuditTrail(String productCode, String commCode, Consumer<ProductCommunicationDTO> sink) {
+        auditTrailPaging.stream(communicationRepository.streamAllVersionsByProductCodeAndCommCode(productCode, commCode),
+            productMapper::toCommunicationDtoWithAudit, sink);
+    }
 }
\ No newline at end of file
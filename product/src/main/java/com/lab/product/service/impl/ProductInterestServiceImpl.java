@@ -1,54 +1,85 @@
 package com.lab.product.service.impl;
 
+import com.lab.product.DTO.CursorPage;
 import com.lab.product.DTO.ProductInterestDTO;
 import com.lab.product.DTO.ProductInterestRequestDTO;
+import com.lab.product.DTO.ProductInterestRevisionDTO;
+import com.lab.product.DTO.ProductInterestRevisionResultDTO;
+import com.lab.product.entity.ENUMS.CRUD_VALUE;
 import com.lab.product.entity.PRODUCT_INTEREST;
+import com.lab.product.entity.ContentHashes;
 import com.lab.product.entity.PRODUCT_DETAILS;
+import com.lab.product.Exception.PreconditionFailedException;
 import com.lab.product.Exception.ResourceNotFoundException;
+import com.lab.product.Exception.ValidationException;
 import com.lab.product.DAO.ProductInterestRepository;
 import com.lab.product.DAO.ProductDetailsRepository;
 import com.lab.product.service.ProductInterestService;
+import com.lab.product.service.helper.AuditTrailPaging;
+import com.lab.product.service.helper.ProductBundleLoader;
+import com.lab.product.service.helper.ProductChildBundle;
+import com.lab.product.service.helper.ProductChildType;
 import com.lab.product.service.helper.ProductMapper;
+import com.lab.product.service.helper.ProductVersionNumbers;
+import com.lab.product.service.helper.ProductVersionRecorder;
+import com.lab.product.service.helper.ProductWriteLocks;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.UUID;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ProductInterestServiceImpl implements ProductInterestService {
+
+    // Rows flushed at a time during a bulk revision; a multiple of hibernate.jdbc.batch_size
+    private static final int REVISION_CHUNK_SIZE = 500;
+
+    private static final int MAX_REVISION_ROWS = 10_000;
     
     private final ProductInterestRepository interestRepository;
     private final ProductDetailsRepository productRepository;
     private final ProductMapper mapper;
+    private final ProductVersionRecorder versionRecorder;
+    private final ProductVersionNumbers versionNumbers;
+    private final ProductWriteLocks writeLocks;
+    private final AuditTrailPaging auditTrailPaging;
+    private final ProductBundleLoader bundleLoader;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional
     public ProductInterestDTO addInterestToProduct(String productCode, ProductInterestRequestDTO interestDto) {
+        writeLocks.lock(productCode);
         // INSERT-ONLY Pattern: Find latest version of product
         PRODUCT_DETAILS product = productRepository.findLatestByProductCode(productCode)
             .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + productCode));
 
-        PRODUCT_INTEREST interest = new PRODUCT_INTEREST();
-        interest.setProduct(product);
-        // INSERT-ONLY Pattern: Set productCode for cross-version linking
-        interest.setProductCode(productCode);
-        interest.setRateCode(interestDto.getRateCode());
-        interest.setTermInMonths(interestDto.getTermInMonths());
-        interest.setRateCumulative(interestDto.getRateCumulative());
-        interest.setRateNonCumulativeMonthly(interestDto.getRateNonCumulativeMonthly());
-        interest.setRateNonCumulativeQuarterly(interestDto.getRateNonCumulativeQuarterly());
-        interest.setRateNonCumulativeYearly(interestDto.getRateNonCumulativeYearly());
+        PRODUCT_INTEREST interest = mapper.toInterestEntity(product, interestDto);
         
         // INSERT-ONLY Pattern: Fill audit fields for CREATE operation
         mapper.fillAuditFieldsForCreate(interest);
         
-        PRODUCT_INTEREST saved = interestRepository.save(interest);
+        PRODUCT_INTEREST saved = interestRepository.save(versionNumbers.assign(interest));
+        versionRecorder.record(saved);
         return mapper.toInterestDto(saved);
     }
 
@@ -75,10 +106,45 @@ public class ProductInterestServiceImpl implements ProductInterestService {
     @Override
     @Transactional
     public ProductInterestDTO updateInterestRate(String productCode, String rateCode, ProductInterestRequestDTO interestDto) {
+        writeLocks.lock(productCode);
         // INSERT-ONLY Pattern: Find existing interest rate by productCode and rateCode
         PRODUCT_INTEREST existing = interestRepository.findByProductCodeAndRateCode(productCode, rateCode)
             .orElseThrow(() -> new ResourceNotFoundException("Interest rate not found: " + rateCode));
-        
+
+        PRODUCT_INTEREST next = nextVersion(existing, interestDto);
+        if (ContentHashes.sameContent(existing, next)) {
+            // INSERT-ONLY Pattern: Identical payload - keep the current version instead of inserting a copy
+            return mapper.toInterestDto(existing);
+        }
+
+        // INSERT-ONLY Pattern: Save creates NEW row with same productCode
+        PRODUCT_INTEREST updated = interestRepository.save(versionNumbers.assign(next));
+        versionRecorder.record(updated);
+        return mapper.toInterestDto(updated);
+    }
+
+    // If-Match: a single guarded insert after the given version, without the write lock or a latest-version read
+    @Override
+    @Transactional
+    public ProductInterestDTO updateInterestRate(String productCode, String rateCode, ProductInterestRequestDTO interestDto, UUID ifMatch) {
+        if (ifMatch == null) {
+            return updateInterestRate(productCode, rateCode, interestDto);
+        }
+        PRODUCT_INTEREST expected = interestRepository.findById(ifMatch)
+            .filter(i -> productCode.equals(i.getProductCode()) && rateCode.equals(i.getRateCode())
+                && i.getCrud_value() != CRUD_VALUE.D)
+            .orElseThrow(() -> new PreconditionFailedException("If-Match is not a version of interest rate " + rateCode));
+
+        PRODUCT_INTEREST next = nextVersion(expected, interestDto);
+        if (ContentHashes.sameContent(expected, next) && versionRecorder.isCurrent(expected)) {
+            return mapper.toInterestDto(expected);
+        }
+        PRODUCT_INTEREST updated = versionNumbers.saveAfter(interestRepository, expected, next);
+        versionRecorder.recordIfCurrent(updated, ifMatch);
+        return mapper.toInterestDto(updated);
+    }
+
+    private PRODUCT_INTEREST nextVersion(PRODUCT_INTEREST existing, ProductInterestRequestDTO interestDto) {
         // INSERT-ONLY Pattern: Create NEW object instead of modifying existing
         PRODUCT_INTEREST newVersion = new PRODUCT_INTEREST();
         // Copy all fields from existing (excluding rateId and versionTimestamp)
@@ -94,15 +160,13 @@ public class ProductInterestServiceImpl implements ProductInterestService {
         
         // INSERT-ONLY Pattern: Fill audit fields for UPDATE operation
         mapper.fillAuditFieldsForUpdate(newVersion);
-        
-        // INSERT-ONLY Pattern: Save creates NEW row with same productCode
-        PRODUCT_INTEREST updated = interestRepository.save(newVersion);
-        return mapper.toInterestDto(updated);
+        return newVersion;
     }
 
     @Override
     @Transactional
     public void deleteInterestRate(String productCode, String rateCode) {
+        writeLocks.lock(productCode);
         // INSERT-ONLY Pattern: Find existing interest rate by productCode and rateCode
         PRODUCT_INTEREST existing = interestRepository.findByProductCodeAndRateCode(productCode, rateCode)
             .orElseThrow(() -> new ResourceNotFoundException("Interest rate not found: " + rateCode));
@@ -116,7 +180,125 @@ public class ProductInterestServiceImpl implements ProductInterestService {
         mapper.fillAuditFieldsForDelete(deleteVersion);
         
         // INSERT-ONLY Pattern: Save creates NEW row with crud_value='D' (soft delete marker)
-        interestRepository.save(deleteVersion);
+        versionRecorder.record(interestRepository.save(versionNumbers.assign(deleteVersion)));
+    }
+
+    /**
+     * Bulk rate revision: the current version of every listed rate is read with one query per 500
+     * products, and the new versions are inserted in chunks of REVISION_CHUNK_SIZE, each flushed as JDBC
+     * batches and followed by a persistence-context clear, so the revision size does not grow memory.
+     * Rows without a current rate are reported and rows equal to their current rate are counted, neither is
+     * written. All chunks commit or roll back together.
+     */
+    @Override
+    @Transactional
+    public ProductInterestRevisionResultDTO reviseInterestRates(List<ProductInterestRevisionDTO> revisions) {
+        long started = System.nanoTime();
+        validateRevisions(revisions);
+
+        // INSERT-ONLY Pattern: Latest non-deleted rates of every affected product
+        Set<String> productCodes = revisions.stream()
+            .map(ProductInterestRevisionDTO::getProductCode)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        writeLocks.lockAll(productCodes);
+        Map<String, PRODUCT_INTEREST> current = new HashMap<>();
+        bundleLoader.loadLatestChildren(productCodes, EnumSet.of(ProductChildType.INTEREST)).values()
+            .forEach(bundle -> bundle.getInterests()
+                .forEach(rate -> current.put(revisionKey(rate.getProductCode(), rate.getRateCode()), rate)));
+
+        List<PRODUCT_INTEREST> newVersions = new ArrayList<>(revisions.size());
+        List<String> notFound = new ArrayList<>();
+        int unchanged = 0;
+        for (ProductInterestRevisionDTO revision : revisions) {
+            String key = revisionKey(revision.getProductCode(), revision.getRateCode());
+            PRODUCT_INTEREST existing = current.get(key);
+            if (existing == null) {
+                notFound.add(key);
+                continue;
+            }
+            PRODUCT_INTEREST revised = revisedVersion(existing, revision);
+            if (ContentHashes.sameContent(existing, revised)) {
+                // INSERT-ONLY Pattern: Identical payload - keep the current version instead of inserting a copy
+                unchanged++;
+            } else {
+                newVersions.add(revised);
+            }
+        }
+
+        // one versionNo lookup per 500 products, before the first insert
+        versionNumbers.assignAll(newVersions);
+
+        int chunks = 0;
+        for (int from = 0; from < newVersions.size(); from += REVISION_CHUNK_SIZE) {
+            ProductChildBundle chunk = new ProductChildBundle();
+            chunk.getInterests().addAll(interestRepository.saveAll(
+                newVersions.subList(from, Math.min(newVersions.size(), from + REVISION_CHUNK_SIZE))));
+            versionRecorder.recordAll(chunk);
+            entityManager.flush();
+            entityManager.clear();
+            chunks++;
+        }
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        double ratesPerSecond = newVersions.size() * 1000.0 / elapsedMillis;
+        log.info("Interest rate revision: {} of {} rates revised in {} chunks, {} ms ({} rates/s)",
+            newVersions.size(), revisions.size(), chunks, elapsedMillis, Math.round(ratesPerSecond));
+        return new ProductInterestRevisionResultDTO(revisions.size(), newVersions.size(), unchanged, notFound, chunks,
+            elapsedMillis, ratesPerSecond);
+    }
+
+    private void validateRevisions(List<ProductInterestRevisionDTO> revisions) {
+        if (revisions == null || revisions.isEmpty()) {
+            throw new ValidationException("At least one rate revision is required");
+        }
+        if (revisions.size() > MAX_REVISION_ROWS) {
+            throw new ValidationException("At most " + MAX_REVISION_ROWS + " rate revisions per request");
+        }
+        Set<String> keys = new HashSet<>();
+        for (ProductInterestRevisionDTO revision : revisions) {
+            if (revision == null || revision.getProductCode() == null || revision.getProductCode().isBlank()
+                    || revision.getRateCode() == null || revision.getRateCode().isBlank()) {
+                throw new ValidationException("Product code and rate code are required in every rate revision");
+            }
+            if (Stream.of(revision.getRateCumulative(), revision.getRateNonCumulativeMonthly(),
+                    revision.getRateNonCumulativeQuarterly(), revision.getRateNonCumulativeYearly())
+                    .anyMatch(rate -> rate != null && rate.signum() <= 0)) {
+                throw new ValidationException("Rates must be greater than 0: "
+                    + revisionKey(revision.getProductCode(), revision.getRateCode()));
+            }
+            if (!keys.add(revisionKey(revision.getProductCode(), revision.getRateCode()))) {
+                throw new ValidationException("Duplicate rate revision: "
+                    + revisionKey(revision.getProductCode(), revision.getRateCode()));
+            }
+        }
+    }
+
+    private PRODUCT_INTEREST revisedVersion(PRODUCT_INTEREST existing, ProductInterestRevisionDTO revision) {
+        // INSERT-ONLY Pattern: Create NEW object instead of modifying existing
+        PRODUCT_INTEREST newVersion = new PRODUCT_INTEREST();
+        // Copy all fields from existing (excluding rateId and versionTimestamp)
+        BeanUtils.copyProperties(existing, newVersion, "rateId");
+
+        // Apply the revised rates; a rate that is not given keeps its current value
+        if (revision.getRateCumulative() != null) {
+            newVersion.setRateCumulative(revision.getRateCumulative());
+        }
+        if (revision.getRateNonCumulativeMonthly() != null) {
+            newVersion.setRateNonCumulativeMonthly(revision.getRateNonCumulativeMonthly());
+        }
+        if (revision.getRateNonCumulativeQuarterly() != null) {
+            newVersion.setRateNonCumulativeQuarterly(revision.getRateNonCumulativeQuarterly());
+        }
+        if (revision.getRateNonCumulativeYearly() != null) {
+            newVersion.setRateNonCumulativeYearly(revision.getRateNonCumulativeYearly());
+        }
+
+        // INSERT-ONLY Pattern: Fill audit fields for UPDATE operation
+        return mapper.fillAuditFieldsForUpdate(newVersion);
+    }
+
+    private static String revisionKey(String productCode, String rateCode) {
+        return productCode + "/" + rateCode;
     }
 
     @Override
@@ -140,4 +322,36 @@ public class ProductInterestServiceImpl implements ProductInterestService {
                 .map(mapper::toInterestDtoWithAudit)
                 .collect(Collectors.toList());
     }
+
+    @Override
+    public CursorPage<ProductInterestDTO> getInterestRatesAuditTrailPage(String productCode, String cursor, int size) {
+        return auditTrailPaging.page(cursor, size,
+            (createdAt, versionNo, id, limit) -> interestRepository.findAuditPageByProductCode(
+                productCode, createdAt, versionNo, id, limit),
+            PRODUCT_INTEREST::getRateId, mapper::toInterestDtoWithAudit,
+            "No interest rates found for product: " + productCode);
+    }
+
+    @Override
+    public CursorPage<ProductInterestDTO> getInterestRateAuditTrailPage(String productCode, String rateCode, String cursor, int size) {
+        return auditTrailPaging.page(cursor, size,
+            (createdAt, versionNo, id, limit) -> interestRepository.findAuditPageByProductCodeAndRateCode(
+                productCode, rateCode, createdAt, versionNo, id, limit),
+            PRODUCT_INTEREST::getRateId, mapper::toInterestDtoWithAudit,
+            "Interest rate not found: " + rateCode);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamInterestRatesAuditTrail(String productCode, Consumer<ProductInterestDTO> sink) {
+        auditTrailPaging.stream(interestRepository.streamAllVersionsByProductCode(productCode),
+            mapper::toInterestDtoWithAudit, sink);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamInterestRateAuditTrail(String productCode, String rateCode, Consumer<ProductInterestDTO> sink) {
+        auditTrailPaging.stream(interestRepository.streamAllVersionsByProductCodeAndRateCode(productCode, rateCode),
+            mapper::toInterestDtoWithAudit, sink);
+    }
 }
@@ -1,15 +1,23 @@
 package com.lab.product.service.impl;
 
+import com.lab.product.DTO.CursorPage;
 import com.lab.product.DTO.ProductRoleDTO;
 import com.lab.product.DTO.ProductRoleRequestDTO;
+import com.lab.product.entity.ENUMS.CRUD_VALUE;
 import com.lab.product.entity.PRODUCT_ROLE;
+import com.lab.product.entity.ContentHashes;
 import com.lab.product.entity.PRODUCT_DETAILS;
 import com.lab.product.entity.ENUMS.PRODUCT_ROLE_TYPE;
+import com.lab.product.Exception.PreconditionFailedException;
 import com.lab.product.Exception.ResourceNotFoundException;
 import com.lab.product.DAO.ProductRoleRepository;
 import com.lab.product.DAO.ProductDetailsRepository;
 import com.lab.product.service.ProductRoleService;
+import com.lab.product.service.helper.AuditTrailPaging;
 import com.lab.product.service.helper.ProductMapper;
+import com.lab.product.service.helper.ProductVersionNumbers;
+import com.lab.product.service.helper.ProductVersionRecorder;
+import com.lab.product.service.helper.ProductWriteLocks;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils;
 import org.springframework.data.domain.Page;
@@ -18,6 +26,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,27 +37,26 @@ public class ProductRoleServiceImpl implements ProductRoleService {
     private final ProductRoleRepository roleRepository;
     private final ProductDetailsRepository productRepository;
     private final ProductMapper mapper;
+    private final ProductVersionRecorder versionRecorder;
+    private final ProductVersionNumbers versionNumbers;
+    private final ProductWriteLocks writeLocks;
+    private final AuditTrailPaging auditTrailPaging;
 
     @Override
     @Transactional
     public ProductRoleDTO addRoleToProduct(String productCode, ProductRoleRequestDTO roleDto) {
+        writeLocks.lock(productCode);
         // INSERT-ONLY Pattern: Find latest version of product
         PRODUCT_DETAILS product = productRepository.findLatestByProductCode(productCode)
             .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + productCode));
 
-        PRODUCT_ROLE role = new PRODUCT_ROLE();
-        role.setProduct(product);
-        // INSERT-ONLY Pattern: Set productCode for cross-version linking
-        role.setProductCode(productCode);
-        role.setRoleCode(roleDto.getRoleCode());
-        role.setRoleType(PRODUCT_ROLE_TYPE.valueOf(roleDto.getRoleType()));
-        role.setMandatory(roleDto.isActive());
-        role.setMaxCount(1);
+        PRODUCT_ROLE role = mapper.toRoleEntity(product, roleDto);
         
         // INSERT-ONLY Pattern: Fill audit fields for CREATE operation
         mapper.fillAuditFieldsForCreate(role);
         
-        PRODUCT_ROLE saved = roleRepository.save(role);
+        PRODUCT_ROLE saved = roleRepository.save(versionNumbers.assign(role));
+        versionRecorder.record(saved);
         return mapper.toRoleDto(saved);
     }
 
@@ -74,10 +83,45 @@ public class ProductRoleServiceImpl implements ProductRoleService {
     @Override
     @Transactional
     public ProductRoleDTO updateRole(String productCode, String roleCode, ProductRoleRequestDTO roleDto) {
+        writeLocks.lock(productCode);
         // INSERT-ONLY Pattern: Find existing role by productCode and roleCode
         PRODUCT_ROLE existing = roleRepository.findByProductCodeAndRoleCode(productCode, roleCode)
             .orElseThrow(() -> new ResourceNotFoundException("Role not found: " + roleCode));
-            
+
+        PRODUCT_ROLE next = nextVersion(existing, roleDto);
+        if (ContentHashes.sameContent(existing, next)) {
+            // INSERT-ONLY Pattern: Identical payload - keep the current version instead of inserting a copy
+            return mapper.toRoleDto(existing);
+        }
+
+        // INSERT-ONLY Pattern: Save creates NEW row with same productCode
+        PRODUCT_ROLE updated = roleRepository.save(versionNumbers.assign(next));
+        versionRecorder.record(updated);
+        return mapper.toRoleDto(updated);
+    }
+
+    // If-Match: a single guarded insert after the given version, without the write lock or a latest-version read
+    @Override
+    @Transactional
+    public ProductRoleDTO updateRole(String productCode, String roleCode, ProductRoleRequestDTO roleDto, UUID ifMatch) {
+        if (ifMatch == null) {
+            return updateRole(productCode, roleCode, roleDto);
+        }
+        PRODUCT_ROLE expected = roleRepository.findById(ifMatch)
+            .filter(r -> productCode.equals(r.getProductCode()) && roleCode.equals(r.getRoleCode())
+                && r.getCrud_value() != CRUD_VALUE.D)
+            .orElseThrow(() -> new PreconditionFailedException("If-Match is not a version of role " + roleCode));
+
+        PRODUCT_ROLE next = nextVersion(expected, roleDto);
+        if (ContentHashes.sameContent(expected, next) && versionRecorder.isCurrent(expected)) {
+            return mapper.toRoleDto(expected);
+        }
+        PRODUCT_ROLE updated = versionNumbers.saveAfter(roleRepository, expected, next);
+        versionRecorder.recordIfCurrent(updated, ifMatch);
+        return mapper.toRoleDto(updated);
+    }
+
+    private PRODUCT_ROLE nextVersion(PRODUCT_ROLE existing, ProductRoleRequestDTO roleDto) {
         // INSERT-ONLY Pattern: Create NEW object instead of modifying existing
         PRODUCT_ROLE newVersion = new PRODUCT_ROLE();
         // Copy all fields from existing (excluding roleId and versionTimestamp)
@@ -91,15 +135,13 @@ public class ProductRoleServiceImpl implements ProductRoleService {
         
         // INSERT-ONLY Pattern: Fill audit fields for UPDATE operation
         mapper.fillAuditFieldsForUpdate(newVersion);
-        
-        // INSERT-ONLY Pattern: Save creates NEW row with same productCode
-        PRODUCT_ROLE updated = roleRepository.save(newVersion);
-        return mapper.toRoleDto(updated);
+        return newVersion;
     }
 
     @Override
     @Transactional
     public void deleteRole(String productCode, String roleCode) {
+        writeLocks.lock(productCode);
         // INSERT-ONLY Pattern: Find existing role by productCode and roleCode
         PRODUCT_ROLE existing = roleRepository.findByProductCodeAndRoleCode(productCode, roleCode)
             .orElseThrow(() -> new ResourceNotFoundException("Role not found: " + roleCode));
@@ -113,7 +155,7 @@ public class ProductRoleServiceImpl implements ProductRoleService {
         mapper.fillAuditFieldsForDelete(deleteVersion);
         
         // INSERT-ONLY Pattern: Save creates NEW row with crud_value='D' (soft delete marker)
-        roleRepository.save(deleteVersion);
+        versionRecorder.record(roleRepository.save(versionNumbers.assign(deleteVersion)));
     }
 
     @Override
@@ -137,4 +179,36 @@ public class ProductRoleServiceImpl implements ProductRoleService {
                 .map(mapper::toRoleDtoWithAudit)
                 .collect(Collectors.toList());
     }
+
+    @Override
+    public CursorPage<ProductRoleDTO> getRolesAuditTrailPage(String productCode, String cursor, int size) {
+        return auditTrailPaging.page(cursor, size,
+            (createdAt, versionNo, id, limit) -> roleRepository.findAuditPageByProductCode(
+                productCode, createdAt, versionNo, id, limit),
+            PRODUCT_ROLE::getRoleId, mapper::toRoleDtoWithAudit,
+            "No roles found for product: " + productCode);
+    }
+
+    @Override
+    public CursorPage<ProductRoleDTO> getRoleAuditTrailPage(String productCode, String roleCode, String cursor, int size) {
+        return auditTrailPaging.page(cursor, size,
+            (createdAt, versionNo, id, limit) -> roleRepository.findAuditPageByProductCodeAndRoleCode(
+                productCode, roleCode, createdAt, versionNo, id, limit),
+            PRODUCT_ROLE::getRoleId, mapper::toRoleDtoWithAudit,
+            "Role not found: " + roleCode);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamRolesAuditTrail(String productCode, Consumer<ProductRoleDTO> sink) {
+        auditTrailPaging.stream(roleRepository.streamAllVersionsByProductCode(productCode),
+            mapper::toRoleDtoWithAudit, sink);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamRoleAuditTrail(String productCode, String roleCode, Consumer<ProductRoleDTO> sink) {
+        auditTrailPaging.stream(roleRepository.streamAllVersionsByProductCodeAndRoleCode(productCode, roleCode),
+            mapper::toRoleDtoWithAudit, sink);
+    }
 }
\ No newline at end of file
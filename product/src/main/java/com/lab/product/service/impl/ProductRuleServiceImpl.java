@@ -1,14 +1,22 @@
 package com.lab.product.service.impl;
 
+import com.lab.product.DTO.CursorPage;
 import com.lab.product.DTO.ProductRuleDTO;
 import com.lab.product.DTO.ProductRuleRequestDTO;
+import com.lab.product.entity.ENUMS.CRUD_VALUE;
 import com.lab.product.entity.PRODUCT_RULES;
+import com.lab.product.entity.ContentHashes;
 import com.lab.product.entity.PRODUCT_DETAILS;
+import com.lab.product.Exception.PreconditionFailedException;
 import com.lab.product.Exception.ResourceNotFoundException;
 import com.lab.product.DAO.ProductRulesRepository;
 import com.lab.product.DAO.ProductDetailsRepository;
 import com.lab.product.service.ProductRuleService;
+import com.lab.product.service.helper.AuditTrailPaging;
 import com.lab.product.service.helper.ProductMapper;
+import com.lab.product.service.helper.ProductVersionNumbers;
+import com.lab.product.service.helper.ProductVersionRecorder;
+import com.lab.product.service.helper.ProductWriteLocks;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils;
 import org.springframework.data.domain.Page;
@@ -17,6 +25,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,29 +36,26 @@ public class ProductRuleServiceImpl implements ProductRuleService {
     private final ProductRulesRepository ruleRepository;
     private final ProductDetailsRepository productRepository;
     private final ProductMapper mapper;
+    private final ProductVersionRecorder versionRecorder;
+    private final ProductVersionNumbers versionNumbers;
+    private final ProductWriteLocks writeLocks;
+    private final AuditTrailPaging auditTrailPaging;
 
     @Override
     @Transactional
     public ProductRuleDTO addRuleToProduct(String productCode, ProductRuleRequestDTO ruleDto) {
+        writeLocks.lock(productCode);
         // INSERT-ONLY Pattern: Find latest version of product
         PRODUCT_DETAILS product = productRepository.findLatestByProductCode(productCode)
             .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + productCode));
 
-        PRODUCT_RULES rule = new PRODUCT_RULES();
-        rule.setProduct(product);
-        // INSERT-ONLY Pattern: Set productCode for cross-version linking
-        rule.setProductCode(productCode);
-        rule.setRuleName(ruleDto.getRuleName());
-        rule.setRuleCode(ruleDto.getRuleCode());
-        rule.setRuleType(ruleDto.getRuleType());
-        rule.setDataType(ruleDto.getDataType());
-        rule.setRuleValue(ruleDto.getRuleValue());
-        rule.setValidationType(ruleDto.getValidationType());
+        PRODUCT_RULES rule = mapper.toRuleEntity(product, ruleDto);
         
         // INSERT-ONLY Pattern: Fill audit fields for CREATE operation
         mapper.fillAuditFieldsForCreate(rule);
         
-        PRODUCT_RULES saved = ruleRepository.save(rule);
+        PRODUCT_RULES saved = ruleRepository.save(versionNumbers.assign(rule));
+        versionRecorder.record(saved);
         return mapper.toRuleDto(saved);
     }
 
@@ -74,10 +81,45 @@ public class ProductRuleServiceImpl implements ProductRuleService {
     @Override
     @Transactional
     public ProductRuleDTO updateRule(String productCode, String ruleCode, ProductRuleRequestDTO ruleDto) {
+        writeLocks.lock(productCode);
         // INSERT-ONLY Pattern: Find existing rule by productCode and ruleCode
         PRODUCT_RULES existing = ruleRepository.findByProductCodeAndRuleCode(productCode, ruleCode)
             .orElseThrow(() -> new ResourceNotFoundException("Rule not found: " + ruleCode));
 
+        PRODUCT_RULES next = nextVersion(existing, ruleDto);
+        if (ContentHashes.sameContent(existing, next)) {
+            // INSERT-ONLY Pattern: Identical payload - keep the current version instead of inserting a copy
+            return mapper.toRuleDto(existing);
+        }
+
+        // INSERT-ONLY Pattern: Save creates NEW row with same productCode
+        PRODUCT_RULES updated = ruleRepository.save(versionNumbers.assign(next));
+        versionRecorder.record(updated);
+        return mapper.toRuleDto(updated);
+    }
+
+    // If-Match: a single guarded insert after the given version, without the write lock or a latest-version read
+    @Override
+    @Transactional
+    public ProductRuleDTO updateRule(String productCode, String ruleCode, ProductRuleRequestDTO ruleDto, UUID ifMatch) {
+        if (ifMatch == null) {
+            return updateRule(productCode, ruleCode, ruleDto);
+        }
+        PRODUCT_RULES expected = ruleRepository.findById(ifMatch)
+            .filter(r -> productCode.equals(r.getProductCode()) && ruleCode.equals(r.getRuleCode())
+                && r.getCrud_value() != CRUD_VALUE.D)
+            .orElseThrow(() -> new PreconditionFailedException("If-Match is not a version of rule " + ruleCode));
+
+        PRODUCT_RULES next = nextVersion(expected, ruleDto);
+        if (ContentHashes.sameContent(expected, next) && versionRecorder.isCurrent(expected)) {
+            return mapper.toRuleDto(expected);
+        }
+        PRODUCT_RULES updated = versionNumbers.saveAfter(ruleRepository, expected, next);
+        versionRecorder.recordIfCurrent(updated, ifMatch);
+        return mapper.toRuleDto(updated);
+    }
+
+    private PRODUCT_RULES nextVersion(PRODUCT_RULES existing, ProductRuleRequestDTO ruleDto) {
         // INSERT-ONLY Pattern: Create NEW object instead of modifying existing
         PRODUCT_RULES newVersion = new PRODUCT_RULES();
         // Copy all fields from existing (excluding ruleId and versionTimestamp)
@@ -92,15 +134,13 @@ public class ProductRuleServiceImpl implements ProductRuleService {
         
         // INSERT-ONLY Pattern: Fill audit fields for UPDATE operation
         mapper.fillAuditFieldsForUpdate(newVersion);
-        
-        // INSERT-ONLY Pattern: Save creates NEW row with same productCode
-        PRODUCT_RULES updated = ruleRepository.save(newVersion);
-        return mapper.toRuleDto(updated);
+        return newVersion;
     }
 
     @Override
     @Transactional
     public void deleteRule(String productCode, String ruleCode) {
+        writeLocks.lock(productCode);
         // INSERT-ONLY Pattern: Find existing rule by productCode and ruleCode
         PRODUCT_RULES existing = ruleRepository.findByProductCodeAndRuleCode(productCode, ruleCode)
             .orElseThrow(() -> new ResourceNotFoundException("Rule not found: " + ruleCode));
@@ -114,7 +154,7 @@ public class ProductRuleServiceImpl implements ProductRuleService {
         mapper.fillAuditFieldsForDelete(deleteVersion);
         
         // INSERT-ONLY Pattern: Save creates NEW row with crud_value='D' (soft delete marker)
-        ruleRepository.save(deleteVersion);
+        versionRecorder.record(ruleRepository.save(versionNumbers.assign(deleteVersion)));
     }
 
     @Override
@@ -138,4 +178,36 @@ public class ProductRuleServiceImpl implements ProductRuleService {
                 .map(mapper::toRuleDtoWithAudit)
                 .collect(Collectors.toList());
     }
+
+    @Override
+    public CursorPage<ProductRuleDTO> getRulesAuditTrailPage(String productCode, String cursor, int size) {
+        return auditTrailPaging.page(cursor, size,
+            (createdAt, versionNo, id, limit) -> ruleRepository.findAuditPageByProductCode(
+                productCode, createdAt, versionNo, id, limit),
+            PRODUCT_RULES::getRuleId, mapper::toRuleDtoWithAudit,
+            "No rules found for product: " + productCode);
+    }
+
+    @Override
+    public CursorPage<ProductRuleDTO> getRuleAuditTrailPage(String productCode, String ruleCode, String cursor, int size) {
+        return auditTrailPaging.page(cursor, size,
+            (createdAt, versionNo, id, limit) -> ruleRepository.findAuditPageByProductCodeAndRuleCode(
+                productCode, ruleCode, createdAt, versionNo, id, limit),
+            PRODUCT_RULES::getRuleId, mapper::toRuleDtoWithAudit,
+            "Rule not found: " + ruleCode);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamRulesAuditTrail(String productCode, Consumer<ProductRuleDTO> sink) {
+        auditTrailPaging.stream(ruleRepository.streamAllVersionsByProductCode(productCode),
+            mapper::toRuleDtoWithAudit, sink);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamRuleAuditTrail(String productCode, String ruleCode, Consumer<ProductRuleDTO> sink) {
+        auditTrailPaging.stream(ruleRepository.streamAllVersionsByProductCodeAndRuleCode(productCode, ruleCode),
+            mapper::toRuleDtoWithAudit, sink);
+    }
 }
\ No newline at end of file
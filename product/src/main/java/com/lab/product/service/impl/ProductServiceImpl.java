@@ -1,42 +1,111 @@
 package com.lab.product.service.impl;
 
+import com.lab.product.cache.ProductBundleCache;
+import com.lab.product.cache.ProductFacet;
+import com.lab.product.cache.ProductFacetIndex;
+import com.lab.product.cache.ProductSuggestIndex;
+import com.lab.product.cache.ProductLookupGuard;
+import com.lab.product.config.LatestVersionProperties;
 import com.lab.product.DTO.CreateOrUpdateProductRequestDTO;
+import com.lab.product.DTO.ProductBatchItemDTO;
+import com.lab.product.DTO.ProductBundleRequestDTO;
+import com.lab.product.DTO.CursorPage;
 import com.lab.product.DTO.ProductDetailsDTO;
+import com.lab.product.DTO.ProductFacetResultDTO;
+import com.lab.product.DTO.ProductSearchCriteria;
+import com.lab.product.DTO.ProductSuggestionDTO;
+import com.lab.product.DTO.ProductSummaryDTO;
+import com.lab.product.entity.ContentHashes;
 import com.lab.product.entity.PRODUCT_DETAILS;
 import com.lab.product.entity.ENUMS.COMPOUNDING_FREQUENCY;
+import com.lab.product.entity.ENUMS.CRUD_VALUE;
 import com.lab.product.entity.ENUMS.INTEREST_TYPE;
 import com.lab.product.entity.ENUMS.PRODUCT_TYPE;
 import com.lab.product.entity.ENUMS.PRODUCT_STATUS;
 import com.lab.product.entity.ENUMS.PRODUCT_CURRENCY;
 import com.lab.product.DAO.ProductDetailsRepository;
+import com.lab.product.DAO.ProductSpecifications;
 import com.lab.product.service.ProductService;
+import com.lab.product.service.helper.AuditTrailPaging;
+import com.lab.product.service.helper.ProductAuditTrailAssembler;
+import com.lab.product.service.helper.ProductBundleLoader;
+import com.lab.product.service.helper.ProductBundleWriter;
+import com.lab.product.service.helper.ProductChildBundle;
 import com.lab.product.service.helper.ProductMapper;
+import com.lab.product.service.helper.ProductReadOptions;
+import com.lab.product.service.helper.ProductVersionNumbers;
+import com.lab.product.service.helper.ProductVersionRecorder;
+import com.lab.product.service.helper.ProductWriteLocks;
+import com.lab.product.Exception.PreconditionFailedException;
+import com.lab.product.Exception.ProductNotFoundException;
 import com.lab.product.Exception.ResourceNotFoundException;
 import com.lab.product.Exception.ValidationException;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.sql.Date;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
+    // Products mapped per batch of child queries during export
+    private static final int EXPORT_CHUNK_SIZE = 200;
+
+    private static final int MAX_SUGGESTIONS = 50;
+
+    private static final int MAX_BATCH_CODES = 100;
+
     private final ProductDetailsRepository productDetailsRepository;
     private final ProductMapper mapper;
+    private final LatestVersionProperties latestVersion;
+    private final ProductVersionRecorder versionRecorder;
+    private final ProductVersionNumbers versionNumbers;
+    private final ProductWriteLocks writeLocks;
+    private final ProductBundleLoader bundleLoader;
+    private final ProductBundleWriter bundleWriter;
+    private final ProductBundleCache bundleCache;
+    private final ProductLookupGuard lookupGuard;
+    private final ProductFacetIndex facetIndex;
+    private final ProductSuggestIndex suggestIndex;
+    private final ProductAuditTrailAssembler auditTrailAssembler;
+    private final AuditTrailPaging auditTrailPaging;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional
     public ProductDetailsDTO createProduct(CreateOrUpdateProductRequestDTO requestDTO) {
+        // Basic product details only
+        PRODUCT_DETAILS product = newProduct(requestDTO);
+        writeLocks.lock(product.getProductCode());
+        PRODUCT_DETAILS saved = productDetailsRepository.save(versionNumbers.assign(product));
+        versionRecorder.record(saved);
+        return mapper.toDto(saved);
+    }
+
+    private PRODUCT_DETAILS newProduct(CreateOrUpdateProductRequestDTO requestDTO) {
         validateProductRequest(requestDTO);
         
         PRODUCT_DETAILS entity = mapper.toEntity(requestDTO);
@@ -63,10 +132,7 @@ public class ProductServiceImpl implements ProductService {
         } catch (IllegalArgumentException e) {
             throw new ValidationException("Invalid enum value: " + e.getMessage());
         }
-
-        // Basic product details only
-        PRODUCT_DETAILS saved = productDetailsRepository.save(entity);
-        return mapper.toDto(saved);
+        return entity;
     }
 
     private void validateProductRequest(CreateOrUpdateProductRequestDTO request) {
@@ -92,11 +158,46 @@ public class ProductServiceImpl implements ProductService {
         }
         
         validateProductRequest(requestDTO);
+        writeLocks.lock(productCode);
         
         // INSERT-ONLY Pattern: Find latest non-deleted version
-        PRODUCT_DETAILS existing = productDetailsRepository.findLatestByProductCode(productCode)
+        PRODUCT_DETAILS existing = findLatest(productCode)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + productCode));
-        
+
+        PRODUCT_DETAILS next = nextVersion(existing, requestDTO);
+        if (ContentHashes.sameContent(existing, next)) {
+            // INSERT-ONLY Pattern: Identical payload - keep the current version instead of inserting a copy
+            return mapper.toDto(existing);
+        }
+
+        // INSERT-ONLY Pattern: Save creates NEW row with same productCode but different productId
+        PRODUCT_DETAILS saved = productDetailsRepository.save(versionNumbers.assign(next));
+        versionRecorder.record(saved);
+        return mapper.toDto(saved);
+    }
+
+    // If-Match: a single guarded insert after the given version, without the write lock or a latest-version read
+    @Override
+    @Transactional
+    public ProductDetailsDTO updateProduct(String productCode, CreateOrUpdateProductRequestDTO requestDTO, UUID ifMatch) {
+        if (ifMatch == null) {
+            return updateProduct(productCode, requestDTO);
+        }
+        validateProductRequest(requestDTO);
+        PRODUCT_DETAILS expected = productDetailsRepository.findById(ifMatch)
+                .filter(p -> p.getProductCode().equals(productCode) && p.getCrud_value() != CRUD_VALUE.D)
+                .orElseThrow(() -> new PreconditionFailedException("If-Match is not a version of product " + productCode));
+
+        PRODUCT_DETAILS next = nextVersion(expected, requestDTO);
+        if (ContentHashes.sameContent(expected, next) && versionRecorder.isCurrent(expected)) {
+            return mapper.toDto(expected);
+        }
+        PRODUCT_DETAILS saved = versionNumbers.saveAfter(productDetailsRepository, expected, next);
+        versionRecorder.recordIfCurrent(saved, ifMatch);
+        return mapper.toDto(saved);
+    }
+
+    private PRODUCT_DETAILS nextVersion(PRODUCT_DETAILS existing, CreateOrUpdateProductRequestDTO requestDTO) {
         // INSERT-ONLY Pattern: Create NEW object instead of modifying existing
         PRODUCT_DETAILS newVersion = new PRODUCT_DETAILS();
         // Copy all fields from existing (excluding productId - createdAt will be auto-set)
@@ -126,11 +227,60 @@ public class ProductServiceImpl implements ProductService {
         }
         
         // INSERT-ONLY Pattern: Set audit fields for UPDATE operation
-        newVersion = mapper.fillAuditFieldsForUpdate(newVersion);
+        return mapper.fillAuditFieldsForUpdate(newVersion);
+    }
 
-        // INSERT-ONLY Pattern: Save creates NEW row with same productCode but different productId
-        PRODUCT_DETAILS saved = productDetailsRepository.save(newVersion);
-        return mapper.toDto(saved);
+    /**
+     * Product plus all child collections in one transaction. Every row is validated before the first
+     * insert, and each table is written with one batched saveAll instead of one request per child.
+     */
+    @Override
+    @Transactional
+    public ProductDetailsDTO createProductBundle(ProductBundleRequestDTO requestDTO) {
+        if (requestDTO == null) {
+            throw new ValidationException("Product bundle request cannot be null");
+        }
+        PRODUCT_DETAILS product = newProduct(requestDTO.getProduct());
+        writeLocks.lock(product.getProductCode());
+        if (findLatest(product.getProductCode()).isPresent()) {
+            throw new ValidationException("Product already exists: " + product.getProductCode());
+        }
+        PRODUCT_DETAILS saved = productDetailsRepository.save(versionNumbers.assign(product));
+        return mapper.toDto(saved, bundleWriter.write(saved, requestDTO, new ProductChildBundle()));
+    }
+
+    @Override
+    @Transactional
+    public ProductDetailsDTO replaceProductBundle(String productCode, ProductBundleRequestDTO requestDTO) {
+        return replaceProductBundle(productCode, requestDTO, null);
+    }
+
+    // Replaces the product and every child collection: children missing from the request get delete markers.
+    // The bundle rewrites every child, so it keeps the write lock; If-Match is checked against the latest version.
+    @Override
+    @Transactional
+    public ProductDetailsDTO replaceProductBundle(String productCode, ProductBundleRequestDTO requestDTO, UUID ifMatch) {
+        if (requestDTO == null) {
+            throw new ValidationException("Product bundle request cannot be null");
+        }
+        validateProductRequest(requestDTO.getProduct());
+        if (!productCode.equals(requestDTO.getProduct().getProductCode())) {
+            throw new ValidationException("Product code in body does not match path: " + productCode);
+        }
+        writeLocks.lock(productCode);
+        PRODUCT_DETAILS existing = findLatest(productCode)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + productCode));
+        if (ifMatch != null && !ifMatch.equals(existing.getProductId())) {
+            throw new PreconditionFailedException("Version " + ifMatch + " is no longer the current version");
+        }
+        ProductChildBundle children = bundleLoader.loadLatestChildren(List.of(productCode)).get(productCode);
+
+        PRODUCT_DETAILS next = nextVersion(existing, requestDTO.getProduct());
+        // INSERT-ONLY Pattern: Unchanged product fields keep the current product version; children are compared one by one
+        PRODUCT_DETAILS saved = ContentHashes.sameContent(existing, next)
+            ? existing
+            : productDetailsRepository.save(versionNumbers.assign(next));
+        return mapper.toDto(saved, bundleWriter.write(saved, requestDTO, children));
     }
 
     @Override
@@ -140,67 +290,218 @@ public class ProductServiceImpl implements ProductService {
         return mapper.toDto(p);
     }
 
+    @Override
+    public ProductDetailsDTO getProductVersion(UUID productId) {
+        // INSERT-ONLY Pattern: A single immutable version row (with audit fields, without children)
+        PRODUCT_DETAILS p = productDetailsRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product version not found: " + productId));
+        return mapper.toVersionDto(p);
+    }
+
     @Override
     public ProductDetailsDTO getProductByCode(String productCode) {
-        // INSERT-ONLY Pattern: Use findLatestByProductCode to get current version
-        PRODUCT_DETAILS p = productDetailsRepository.findLatestByProductCode(productCode)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + productCode));
-        return mapper.toDto(p);
+        // Unknown or recently-missing codes are rejected without a DB round trip
+        long lookupToken = lookupGuard.checkMayExist(productCode);
+        try {
+            // Latest bundles are cached; every product/child write invalidates via ProductChangedEvent
+            return bundleCache.getOrLoad(productCode, () -> {
+                // INSERT-ONLY Pattern: Use findLatest (configured strategy) to get current version
+                PRODUCT_DETAILS p = findLatest(productCode)
+                        .orElseThrow(() -> new ProductNotFoundException(productCode));
+                return mapper.toDto(p);
+            });
+        } catch (ProductNotFoundException e) {
+            lookupGuard.recordMissing(productCode, lookupToken);
+            throw e;
+        }
     }
 
     @Override
-    public List<ProductDetailsDTO> searchProducts(String productType, String status, String startDate, String endDate) {
+    public ProductDetailsDTO getProductByCode(String productCode, ProductReadOptions options) {
+        if (options.includesAllChildren()) {
+            return getProductByCode(productCode);
+        }
+        // Partial reads bypass the bundle cache (it holds full bundles) and query only the requested child tables
+        long lookupToken = lookupGuard.checkMayExist(productCode);
         try {
-            List<PRODUCT_DETAILS> results;
+            PRODUCT_DETAILS p = findLatest(productCode)
+                    .orElseThrow(() -> new ProductNotFoundException(productCode));
+            return mapper.toDto(p, options.getChildren());
+        } catch (ProductNotFoundException e) {
+            lookupGuard.recordMissing(productCode, lookupToken);
+            throw e;
+        }
+    }
 
-            if (productType != null) {
-                PRODUCT_TYPE typeEnum = PRODUCT_TYPE.valueOf(productType.toUpperCase());
-                if (typeEnum == null) {
-                    throw new ResourceNotFoundException("Product type not found: " + productType);
-                }
-                results = productDetailsRepository.findByProductType(typeEnum);
-            } else if (status != null) {
-                PRODUCT_STATUS statusEnum = PRODUCT_STATUS.valueOf(status.toUpperCase());
-                if (statusEnum == null) {
-                    throw new ResourceNotFoundException("Product status not found: " + status);
-                }
-                results = productDetailsRepository.findByStatus(statusEnum);
-            } else if (startDate != null && endDate != null) {
-                try {
-                    Date start = Date.valueOf(LocalDate.parse(startDate));
-                    Date end = Date.valueOf(LocalDate.parse(endDate));
-                    
-                    if (end.before(start)) {
-                        throw new ValidationException("End date must be after start date");
-                    }
-                    
-                    results = productDetailsRepository.findByEfctv_dateBetween(start, end);
-                } catch (DateTimeParseException e) {
-                    throw new ValidationException("Invalid date format. Use ISO format (YYYY-MM-DD)");
+    @Override
+    public List<ProductBatchItemDTO> getProductsByCodes(List<String> productCodes, ProductReadOptions options) {
+        Set<String> codes = new LinkedHashSet<>();
+        if (productCodes != null) {
+            productCodes.stream().filter(code -> code != null && !code.isBlank()).map(String::trim).forEach(codes::add);
+        }
+        if (codes.isEmpty()) {
+            throw new ValidationException("At least one product code is required");
+        }
+        if (codes.size() > MAX_BATCH_CODES) {
+            throw new ValidationException("At most " + MAX_BATCH_CODES + " product codes per request");
+        }
+
+        // Codes rejected by the lookup guard (never created / recently missing) are not queried at all
+        Map<String, Long> lookupTokens = new LinkedHashMap<>();
+        for (String code : codes) {
+            try {
+                lookupTokens.put(code, lookupGuard.checkMayExist(code));
+            } catch (ProductNotFoundException e) {
+                // reported as not found below
+            }
+        }
+
+        // Product codes may compare case-insensitively in the database
+        Map<String, ProductDetailsDTO> found = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (!lookupTokens.isEmpty()) {
+            // INSERT-ONLY Pattern: one query for all latest versions, then one query per requested child table
+            List<PRODUCT_DETAILS> products = productDetailsRepository.findAll(Specification.allOf(
+                ProductSpecifications.latestNotDeleted(latestVersion.strategyFor(LatestVersionProperties.PRODUCTS)),
+                ProductSpecifications.hasCodeIn(lookupTokens.keySet())));
+            mapper.toDtoList(products, options.getChildren()).forEach(dto -> found.put(dto.getProductCode(), dto));
+        }
+
+        List<ProductBatchItemDTO> items = new ArrayList<>(codes.size());
+        for (String code : codes) {
+            ProductDetailsDTO dto = found.get(code);
+            if (dto != null) {
+                items.add(new ProductBatchItemDTO(code, true, dto));
+                continue;
+            }
+            Long lookupToken = lookupTokens.get(code);
+            if (lookupToken != null) {
+                lookupGuard.recordMissing(code, lookupToken);
+            }
+            items.add(new ProductBatchItemDTO(code, false, null));
+        }
+        return items;
+    }
+
+    @Override
+    public List<ProductDetailsDTO> searchProducts(ProductSearchCriteria criteria) {
+        return searchProducts(criteria, ProductReadOptions.FULL);
+    }
+
+    @Override
+    public List<ProductDetailsDTO> searchProducts(ProductSearchCriteria criteria, ProductReadOptions options) {
+        List<PRODUCT_DETAILS> results = productDetailsRepository.findAll(searchSpecification(criteria));
+        // Batched mapping: children of all results are loaded with one query per requested child table
+        return mapper.toDtoList(results, options.getChildren());
+    }
+
+    @Override
+    public List<ProductSummaryDTO> searchProductSummaries(ProductSearchCriteria criteria) {
+        // Summary projection: read straight from products, no child tables and no managed entities
+        return productDetailsRepository.findSummaries(searchSpecification(criteria));
+    }
+
+    @Override
+    public ProductFacetResultDTO searchFacets(Map<ProductFacet, String> selections) {
+        // Comma-separated values of one facet are ORed; facets are ANDed. Served from memory, not MySQL.
+        Map<ProductFacet, Set<Enum<?>>> selection = new EnumMap<>(ProductFacet.class);
+        selections.forEach((facet, csv) -> {
+            if (csv == null || csv.isBlank()) {
+                return;
+            }
+            Set<Enum<?>> values = new LinkedHashSet<>();
+            for (String value : csv.split(",")) {
+                if (!value.isBlank()) {
+                    values.add(facet.parse(value));
                 }
-            } else {
-                results = productDetailsRepository.findAll();
             }
+            selection.put(facet, values);
+        });
+        return facetIndex.query(selection);
+    }
+
+    @Override
+    public List<ProductSuggestionDTO> suggestProducts(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new ValidationException("Suggest prefix must not be blank");
+        }
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new ValidationException("Suggest limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        // Served from the in-memory prefix index, not MySQL
+        return suggestIndex.suggest(prefix, limit);
+    }
 
-            return results.stream()
-                    .map(mapper::toDto)
-                    .collect(Collectors.toList());
+    // All given filters are ANDed in one query; the latest-version filter is applied exactly once
+    private Specification<PRODUCT_DETAILS> searchSpecification(ProductSearchCriteria criteria) {
+        List<Specification<PRODUCT_DETAILS>> specs = new ArrayList<>();
+        specs.add(ProductSpecifications.latestNotDeleted(latestVersion.strategyFor(LatestVersionProperties.PRODUCTS)));
+        try {
+            if (criteria.getProductType() != null) {
+                specs.add(ProductSpecifications.hasType(PRODUCT_TYPE.valueOf(criteria.getProductType().toUpperCase())));
+            }
+            if (criteria.getStatus() != null) {
+                specs.add(ProductSpecifications.hasStatus(PRODUCT_STATUS.valueOf(criteria.getStatus().toUpperCase())));
+            }
+            if (criteria.getCurrency() != null) {
+                specs.add(ProductSpecifications.hasCurrency(PRODUCT_CURRENCY.valueOf(criteria.getCurrency().toUpperCase())));
+            }
+            if (criteria.getInterestType() != null) {
+                specs.add(ProductSpecifications.hasInterestType(
+                    INTEREST_TYPE.valueOf(criteria.getInterestType().toUpperCase())));
+            }
         } catch (IllegalArgumentException e) {
             throw new ValidationException("Invalid search parameter: " + e.getMessage());
         }
+
+        Date start = parseSearchDate(criteria.getStartDate());
+        Date end = parseSearchDate(criteria.getEndDate());
+        if (start != null && end != null && end.before(start)) {
+            throw new ValidationException("End date must be after start date");
+        }
+        if (start != null) {
+            specs.add(ProductSpecifications.effectiveAfter(start));
+        }
+        if (end != null) {
+            specs.add(ProductSpecifications.effectiveBefore(end));
+        }
+        return Specification.allOf(specs);
+    }
+
+    private static Date parseSearchDate(String date) {
+        if (date == null) {
+            return null;
+        }
+        try {
+            return Date.valueOf(LocalDate.parse(date));
+        } catch (DateTimeParseException e) {
+            throw new ValidationException("Invalid date format. Use ISO format (YYYY-MM-DD)");
+        }
     }
 
     @Override
     public Page<ProductDetailsDTO> getAllProducts(Pageable pageable) {
-        return productDetailsRepository.findAll(pageable)
-                .map(mapper::toDto);
+        return getAllProducts(pageable, ProductReadOptions.FULL);
+    }
+
+    @Override
+    public Page<ProductDetailsDTO> getAllProducts(Pageable pageable, ProductReadOptions options) {
+        Page<PRODUCT_DETAILS> page = productDetailsRepository.findAll(pageable);
+        // Batched mapping: children of the whole page are loaded with one query per requested child table
+        return new PageImpl<>(mapper.toDtoList(page.getContent(), options.getChildren()), pageable, page.getTotalElements());
+    }
+
+    @Override
+    public Page<ProductSummaryDTO> getAllProductSummaries(Pageable pageable) {
+        // Summary projection: same rows as getAllProducts, without child tables or managed entities
+        return productDetailsRepository.findAllSummaries(pageable);
     }
 
     @Override
     @Transactional
     public void deleteProduct(String productCode) {
+        writeLocks.lock(productCode);
         // INSERT-ONLY Pattern: Find latest non-deleted version
-        PRODUCT_DETAILS existing = productDetailsRepository.findLatestByProductCode(productCode)
+        PRODUCT_DETAILS existing = findLatest(productCode)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + productCode));
         
         // INSERT-ONLY Pattern: Create NEW object for delete marker (soft delete)
@@ -214,7 +515,7 @@ public class ProductServiceImpl implements ProductService {
         deleteVersion = mapper.fillAuditFieldsForDelete(deleteVersion);
         
         // INSERT-ONLY Pattern: Save creates NEW row with crud_value='D' (soft delete marker)
-        productDetailsRepository.save(deleteVersion);
+        versionRecorder.record(productDetailsRepository.save(versionNumbers.assign(deleteVersion)));
     }
 
     @Override
@@ -223,9 +524,67 @@ public class ProductServiceImpl implements ProductService {
         if (allVersions.isEmpty()) {
             throw new ResourceNotFoundException("Product not found: " + productCode);
         }
-        return allVersions.stream()
-                .map(mapper::toDtoWithAudit)
-                .collect(Collectors.toList());
+        // Children as of each version's createdAt, one all-versions query per child table
+        return auditTrailAssembler.assemble(productCode, allVersions);
+    }
+
+    // Bounded audit trail: version rows only (no children), keyset-paginated on (createdAt, versionNo, productId)
+    @Override
+    public CursorPage<ProductDetailsDTO> getProductAuditTrailPage(String productCode, String cursor, int size) {
+        return auditTrailPaging.page(cursor, size,
+            (createdAt, versionNo, id, limit) -> productDetailsRepository.findAuditPageByProductCode(
+                productCode, createdAt, versionNo, id, limit),
+            PRODUCT_DETAILS::getProductId, mapper::toVersionDto,
+            "Product not found: " + productCode);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamProductAuditTrail(String productCode, Consumer<ProductDetailsDTO> sink) {
+        auditTrailPaging.stream(productDetailsRepository.streamAllVersionsByProductCode(productCode),
+            mapper::toVersionDto, sink);
+    }
+
+    /**
+     * Catalog export: products are read forward-only from a JDBC cursor and mapped in chunks, with one
+     * query per requested child table per chunk. The persistence context is cleared after every chunk,
+     * so memory stays constant however large the catalog is.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportProducts(boolean allVersions, ProductReadOptions options, Consumer<ProductDetailsDTO> sink) {
+        try (Stream<PRODUCT_DETAILS> products = allVersions
+                ? productDetailsRepository.streamAllVersions()
+                : streamLatest()) {
+            List<PRODUCT_DETAILS> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+            Iterator<PRODUCT_DETAILS> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == EXPORT_CHUNK_SIZE || !iterator.hasNext()) {
+                    mapper.toDtoList(chunk, options.getChildren()).forEach(sink);
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    // INSERT-ONLY Pattern: Latest non-deleted version, using the configured latest-version strategy
+    private Optional<PRODUCT_DETAILS> findLatest(String productCode) {
+        return switch (latestVersion.strategyFor(LatestVersionProperties.PRODUCTS)) {
+            case WINDOW -> productDetailsRepository.findLatestByProductCodeWindowed(productCode);
+            case POINTER -> productDetailsRepository.findLatestByProductCodeViaPointer(productCode);
+            default -> productDetailsRepository.findLatestByProductCode(productCode);
+        };
+    }
+
+    // Catalog export counterpart of findLatest: same strategy, so the export reads the same current set
+    private Stream<PRODUCT_DETAILS> streamLatest() {
+        return switch (latestVersion.strategyFor(LatestVersionProperties.PRODUCTS)) {
+            case WINDOW -> productDetailsRepository.streamLatestVersionsWindowed();
+            case POINTER -> productDetailsRepository.streamLatestVersionsViaPointer();
+            default -> productDetailsRepository.streamLatestVersions();
+        };
     }
 
     // Removed validateRateMatrixEntry method as it's no longer needed with the simplified DTO structure
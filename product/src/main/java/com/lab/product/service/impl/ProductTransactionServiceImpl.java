@@ -1,15 +1,23 @@
 package com.lab.product.service.impl;
 
+import com.lab.product.DTO.CursorPage;
 import com.lab.product.DTO.ProductTransactionDTO;
 import com.lab.product.DTO.ProductTransactionRequestDTO;
+import com.lab.product.entity.ENUMS.CRUD_VALUE;
 import com.lab.product.entity.PRODUCT_TRANSACTION;
+import com.lab.product.entity.ContentHashes;
 import com.lab.product.entity.PRODUCT_DETAILS;
 import com.lab.product.entity.ENUMS.PRODUCT_TRANSACTION_TYPE;
+import com.lab.product.Exception.PreconditionFailedException;
 import com.lab.product.Exception.ResourceNotFoundException;
 import com.lab.product.DAO.ProductTransactionRepository;
 import com.lab.product.DAO.ProductDetailsRepository;
 import com.lab.product.service.ProductTransactionService;
+import com.lab.product.service.helper.AuditTrailPaging;
 import com.lab.product.service.helper.ProductMapper;
+import com.lab.product.service.helper.ProductVersionNumbers;
+import com.lab.product.service.helper.ProductVersionRecorder;
+import com.lab.product.service.helper.ProductWriteLocks;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils;
 import org.springframework.data.domain.Page;
@@ -18,6 +26,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,26 +37,26 @@ public class ProductTransactionServiceImpl implements ProductTransactionService
     private final ProductTransactionRepository transactionRepository;
     private final ProductDetailsRepository productRepository;
     private final ProductMapper mapper;
+    private final ProductVersionRecorder versionRecorder;
+    private final ProductVersionNumbers versionNumbers;
+    private final ProductWriteLocks writeLocks;
+    private final AuditTrailPaging auditTrailPaging;
 
     @Override
     @Transactional
     public ProductTransactionDTO addTransactionToProduct(String productCode, ProductTransactionRequestDTO transactionDto) {
+        writeLocks.lock(productCode);
         // INSERT-ONLY Pattern: Find latest version of product
         PRODUCT_DETAILS product = productRepository.findLatestByProductCode(productCode)
             .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + productCode));
 
-        PRODUCT_TRANSACTION transaction = new PRODUCT_TRANSACTION();
-        transaction.setProduct(product);
-        // INSERT-ONLY Pattern: Set productCode for cross-version linking
-        transaction.setProductCode(productCode);
-        transaction.setTransactionCode(transactionDto.getTransactionCode());
-        transaction.setTransactionType(PRODUCT_TRANSACTION_TYPE.valueOf(transactionDto.getTransactionType()));
-        transaction.setAllowed(transactionDto.isActive());
+        PRODUCT_TRANSACTION transaction = mapper.toTransactionEntity(product, transactionDto);
         
         // INSERT-ONLY Pattern: Fill audit fields for CREATE operation
         mapper.fillAuditFieldsForCreate(transaction);
         
-        PRODUCT_TRANSACTION saved = transactionRepository.save(transaction);
+        PRODUCT_TRANSACTION saved = transactionRepository.save(versionNumbers.assign(transaction));
+        versionRecorder.record(saved);
         return mapper.toTransactionDto(saved);
     }
 
@@ -72,10 +82,45 @@ public class ProductTransactionServiceImpl implements ProductTransactionService
     @Override
     @Transactional
     public ProductTransactionDTO updateTransaction(String productCode, String transactionCode, ProductTransactionRequestDTO transactionDto) {
+        writeLocks.lock(productCode);
         // INSERT-ONLY Pattern: Find existing transaction by productCode and transactionCode
         PRODUCT_TRANSACTION existing = transactionRepository.findByProductCodeAndTransactionCode(productCode, transactionCode)
             .orElseThrow(() -> new ResourceNotFoundException("Transaction not found: " + transactionCode));
 
+        PRODUCT_TRANSACTION next = nextVersion(existing, transactionDto);
+        if (ContentHashes.sameContent(existing, next)) {
+            // INSERT-ONLY Pattern: Identical payload - keep the current version instead of inserting a copy
+            return mapper.toTransactionDto(existing);
+        }
+
+        // INSERT-ONLY Pattern: Save creates NEW row with same productCode
+        PRODUCT_TRANSACTION updated = transactionRepository.save(versionNumbers.assign(next));
+        versionRecorder.record(updated);
+        return mapper.toTransactionDto(updated);
+    }
+
+    // If-Match: a single guarded insert after the given version, without the write lock or a latest-version read
+    @Override
+    @Transactional
+    public ProductTransactionDTO updateTransaction(String productCode, String transactionCode, ProductTransactionRequestDTO transactionDto, UUID ifMatch) {
+        if (ifMatch == null) {
+            return updateTransaction(productCode, transactionCode, transactionDto);
+        }
+        PRODUCT_TRANSACTION expected = transactionRepository.findById(ifMatch)
+            .filter(t -> productCode.equals(t.getProductCode()) && transactionCode.equals(t.getTransactionCode())
+                && t.getCrud_value() != CRUD_VALUE.D)
+            .orElseThrow(() -> new PreconditionFailedException("If-Match is not a version of transaction " + transactionCode));
+
+        PRODUCT_TRANSACTION next = nextVersion(expected, transactionDto);
+        if (ContentHashes.sameContent(expected, next) && versionRecorder.isCurrent(expected)) {
+            return mapper.toTransactionDto(expected);
+        }
+        PRODUCT_TRANSACTION updated = versionNumbers.saveAfter(transactionRepository, expected, next);
+        versionRecorder.recordIfCurrent(updated, ifMatch);
+        return mapper.toTransactionDto(updated);
+    }
+
+    private PRODUCT_TRANSACTION nextVersion(PRODUCT_TRANSACTION existing, ProductTransactionRequestDTO transactionDto) {
         // INSERT-ONLY Pattern: Create NEW object instead of modifying existing
         PRODUCT_TRANSACTION newVersion = new PRODUCT_TRANSACTION();
         // Copy all fields from existing (excluding transactionId and versionTimestamp)
@@ -88,15 +133,13 @@ public class ProductTransactionServiceImpl implements ProductTransactionService
         
         // INSERT-ONLY Pattern: Fill audit fields for UPDATE operation
         mapper.fillAuditFieldsForUpdate(newVersion);
-        
-        // INSERT-ONLY Pattern: Save creates NEW row with same productCode
-        PRODUCT_TRANSACTION updated = transactionRepository.save(newVersion);
-        return mapper.toTransactionDto(updated);
+        return newVersion;
     }
 
     @Override
     @Transactional
     public void deleteTransaction(String productCode, String transactionCode) {
+        writeLocks.lock(productCode);
         // INSERT-ONLY Pattern: Find existing transaction by productCode and transactionCode
         PRODUCT_TRANSACTION existing = transactionRepository.findByProductCodeAndTransactionCode(productCode, transactionCode)
             .orElseThrow(() -> new ResourceNotFoundException("Transaction not found: " + transactionCode));
@@ -110,7 +153,7 @@ public class ProductTransactionServiceImpl implements ProductTransactionService
         mapper.fillAuditFieldsForDelete(deleteVersion);
         
         // INSERT-ONLY Pattern: Save creates NEW row with crud_value='D' (soft delete marker)
-        transactionRepository.save(deleteVersion);
+        versionRecorder.record(transactionRepository.save(versionNumbers.assign(deleteVersion)));
     }
 
     @Override
@@ -134,4 +177,36 @@ public class ProductTransactionServiceImpl implements ProductTransactionService
                 .map(mapper::toTransactionDtoWithAudit)
                 .collect(Collectors.toList());
     }
+
+    @Override
+    public CursorPage<ProductTransactionDTO> getTransactionsAuditTrailPage(String productCode, String cursor, int size) {
+        return auditTrailPaging.page(cursor, size,
+            (createdAt, versionNo, id, limit) -> transactionRepository.findAuditPageByProductCode(
+                productCode, createdAt, versionNo, id, limit),
+            PRODUCT_TRANSACTION::getId, mapper::toTransactionDtoWithAudit,
+            "No transactions found for product: " + productCode);
+    }
+
+    @Override
+    public CursorPage<ProductTransactionDTO> getTransactionAuditTrailPage(String productCode, String transactionCode, String cursor, int size) {
+        return auditTrailPaging.page(cursor, size,
+            (createdAt, versionNo, id, limit) -> transactionRepository.findAuditPageByProductCodeAndTransactionCode(
+                productCode, transactionCode, createdAt, versionNo, id, limit),
+            PRODUCT_TRANSACTION::getId, mapper::toTransactionDtoWithAudit,
+            "Transaction not found: " + transactionCode);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamTransactionsAuditTrail(String productCode, Consumer<ProductTransactionDTO> sink) {
+        auditTrailPaging.stream(transactionRepository.streamAllVersionsByProductCode(productCode),
+            mapper::toTransactionDtoWithAudit, sink);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamTransactionAuditTrail(String productCode, String transactionCode, Consumer<ProductTransactionDTO> sink) {
+        auditTrailPaging.stream(transactionRepository.streamAllVersionsByProductCodeAndTransactionCode(productCode, transactionCode),
+            mapper::toTransactionDtoWithAudit, sink);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+-- Drop idx_products_code_crtn (V5, phase 1)
+-- V5 added it for MAX(PRODUCT_CRTN_DATE) per PRODUCT_CODE; since V6 the latest version is
+-- MAX(PRODUCT_VERSION_NO) per PRODUCT_CODE, answered by uk_products_code_version
+-- (PRODUCT_CODE, PRODUCT_VERSION_NO DESC). Every remaining (PRODUCT_CODE[, PRODUCT_CRTN_DATE]) lookup
+-- is served by V9's idx_products_code_crtn_version, of which this index is a prefix; keeping it only
+-- costs a write per insert. V5 itself is left unchanged: applied migrations must not be edited.
+
+DROP INDEX idx_products_code_crtn ON products;
@@ -0,0 +1,72 @@
+-- Current-Version Pointer Table for INSERT-ONLY Pattern
+-- One row per business key (entity type + product code + child code) pointing at the
+-- latest version row, maintained by the service layer on every insert-only write.
+-- Latest-version reads join on ROW_ID instead of scanning for MAX(PRODUCT_CRTN_DATE).
+
+-- ============================================================
+-- PHASE 1: Create pointer table
+-- ============================================================
+CREATE TABLE product_current_versions (
+    ENTITY_TYPE VARCHAR(20)  NOT NULL,
+    PRODUCT_CODE VARCHAR(50) NOT NULL,
+    CHILD_CODE  VARCHAR(100) NOT NULL,
+    ROW_ID      BINARY(16)   NOT NULL,
+    CRUD_VALUE  VARCHAR(1)   NOT NULL,
+    UPDATED_AT  DATETIME(6)  NOT NULL,
+    PRIMARY KEY (ENTITY_TYPE, PRODUCT_CODE, CHILD_CODE)
+);
+
+CREATE INDEX idx_current_versions_row_id ON product_current_versions (ROW_ID);
+
+-- ============================================================
+-- PHASE 2: Backfill pointers from existing version history
+-- (same statements as ProductCurrentVersionRepository.rebuild*)
+-- ============================================================
+INSERT INTO product_current_versions (ENTITY_TYPE, PRODUCT_CODE, CHILD_CODE, ROW_ID, CRUD_VALUE, UPDATED_AT)
+SELECT 'PRODUCT', latest.PRODUCT_CODE, '', latest.PRODUCT_ID, latest.PRODUCT_CRUD_VALUE, CURRENT_TIMESTAMP
+FROM (SELECT t.*, ROW_NUMBER() OVER (PARTITION BY t.PRODUCT_CODE ORDER BY t.PRODUCT_CRTN_DATE DESC) AS rn
+      FROM products t) latest
+WHERE latest.rn = 1;
+
+INSERT INTO product_current_versions (ENTITY_TYPE, PRODUCT_CODE, CHILD_CODE, ROW_ID, CRUD_VALUE, UPDATED_AT)
+SELECT 'RULE', latest.PRODUCT_CODE, latest.RULE_CODE, latest.RULE_ID, latest.PRODUCT_CRUD_VALUE, CURRENT_TIMESTAMP
+FROM (SELECT t.*, ROW_NUMBER() OVER (PARTITION BY t.PRODUCT_CODE, t.RULE_CODE ORDER BY t.PRODUCT_CRTN_DATE DESC) AS rn
+      FROM PRODUCT_RULES t) latest
+WHERE latest.rn = 1;
+
+INSERT INTO product_current_versions (ENTITY_TYPE, PRODUCT_CODE, CHILD_CODE, ROW_ID, CRUD_VALUE, UPDATED_AT)
+SELECT 'CHARGE', latest.PRODUCT_CODE, latest.charge_code, latest.charge_id, latest.PRODUCT_CRUD_VALUE, CURRENT_TIMESTAMP
+FROM (SELECT t.*, ROW_NUMBER() OVER (PARTITION BY t.PRODUCT_CODE, t.charge_code ORDER BY t.PRODUCT_CRTN_DATE DESC) AS rn
+      FROM product_charges t) latest
+WHERE latest.rn = 1;
+
+INSERT INTO product_current_versions (ENTITY_TYPE, PRODUCT_CODE, CHILD_CODE, ROW_ID, CRUD_VALUE, UPDATED_AT)
+SELECT 'ROLE', latest.PRODUCT_CODE, latest.role_code, latest.role_id, latest.PRODUCT_CRUD_VALUE, CURRENT_TIMESTAMP
+FROM (SELECT t.*, ROW_NUMBER() OVER (PARTITION BY t.PRODUCT_CODE, t.role_code ORDER BY t.PRODUCT_CRTN_DATE DESC) AS rn
+      FROM product_role_types t) latest
+WHERE latest.rn = 1;
+
+-- product_transaction_types and product_balances version on their own created_at column
+INSERT INTO product_current_versions (ENTITY_TYPE, PRODUCT_CODE, CHILD_CODE, ROW_ID, CRUD_VALUE, UPDATED_AT)
+SELECT 'TRANSACTION', latest.PRODUCT_CODE, latest.transaction_code, latest.id, latest.PRODUCT_CRUD_VALUE, CURRENT_TIMESTAMP
+FROM (SELECT t.*, ROW_NUMBER() OVER (PARTITION BY t.PRODUCT_CODE, t.transaction_code ORDER BY t.created_at DESC) AS rn
+      FROM product_transaction_types t) latest
+WHERE latest.rn = 1;
+
+INSERT INTO product_current_versions (ENTITY_TYPE, PRODUCT_CODE, CHILD_CODE, ROW_ID, CRUD_VALUE, UPDATED_AT)
+SELECT 'INTEREST', latest.PRODUCT_CODE, latest.rate_code, latest.rate_id, latest.PRODUCT_CRUD_VALUE, CURRENT_TIMESTAMP
+FROM (SELECT t.*, ROW_NUMBER() OVER (PARTITION BY t.PRODUCT_CODE, t.rate_code ORDER BY t.PRODUCT_CRTN_DATE DESC) AS rn
+      FROM interest_rates t) latest
+WHERE latest.rn = 1;
+
+INSERT INTO product_current_versions (ENTITY_TYPE, PRODUCT_CODE, CHILD_CODE, ROW_ID, CRUD_VALUE, UPDATED_AT)
+SELECT 'BALANCE', latest.PRODUCT_CODE, latest.balance_type, latest.balance_id, latest.PRODUCT_CRUD_VALUE, CURRENT_TIMESTAMP
+FROM (SELECT t.*, ROW_NUMBER() OVER (PARTITION BY t.PRODUCT_CODE, t.balance_type ORDER BY t.created_at DESC) AS rn
+      FROM product_balances t) latest
+WHERE latest.rn = 1;
+
+INSERT INTO product_current_versions (ENTITY_TYPE, PRODUCT_CODE, CHILD_CODE, ROW_ID, CRUD_VALUE, UPDATED_AT)
+SELECT 'COMMUNICATION', latest.PRODUCT_CODE, latest.comm_code, latest.comm_id, latest.PRODUCT_CRUD_VALUE, CURRENT_TIMESTAMP
+FROM (SELECT t.*, ROW_NUMBER() OVER (PARTITION BY t.PRODUCT_CODE, t.comm_code ORDER BY t.PRODUCT_CRTN_DATE DESC) AS rn
+      FROM product_communications t) latest
+WHERE latest.rn = 1;
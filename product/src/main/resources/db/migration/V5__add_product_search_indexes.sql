@@ -0,0 +1,32 @@
+-- Composite indexes for multi-criteria product search
+-- /api/products/search ANDs productType, status, effective date range, currency and
+-- interestType in one query, restricted to the latest non-deleted version per PRODUCT_CODE.
+
+-- ============================================================
+-- PHASE 1: Latest-version lookup
+-- ============================================================
+
+-- MAX(PRODUCT_CRTN_DATE) per PRODUCT_CODE is resolved from the index alone
+-- (idx_products_code_crud_crtn has PRODUCT_CRUD_VALUE in between and cannot serve it)
+CREATE INDEX idx_products_code_crtn
+ON products(PRODUCT_CODE, PRODUCT_CRTN_DATE);
+
+-- ============================================================
+-- PHASE 2: Search filters
+-- ============================================================
+
+-- productType [+ status] [+ effective date range]
+CREATE INDEX idx_products_type_status_efctv
+ON products(PRODUCT_TYPE, PRODUCT_STATUS, PRODUCT_EFCTV_DATE);
+
+-- status [+ effective date range], without productType
+CREATE INDEX idx_products_status_efctv
+ON products(PRODUCT_STATUS, PRODUCT_EFCTV_DATE);
+
+-- effective date range alone
+CREATE INDEX idx_products_efctv
+ON products(PRODUCT_EFCTV_DATE);
+
+-- currency [+ interestType]
+CREATE INDEX idx_products_currency_interest
+ON products(PRODUCT_CURRENCY, INTEREST_TYPE);
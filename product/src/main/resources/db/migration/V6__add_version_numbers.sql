@@ -0,0 +1,81 @@
+-- Explicit per-key version numbers for the INSERT-ONLY Pattern
+-- PRODUCT_VERSION_NO is 1, 2, 3... per PRODUCT_CODE (and child code on child tables), assigned by the
+-- service layer before each insert. The highest number is the latest version: unlike MAX(PRODUCT_CRTN_DATE)
+-- it cannot tie, and the unique (code, version DESC) index turns the lookup into a single index seek and
+-- rejects two concurrent writers that picked the same number.
+
+-- ============================================================
+-- PHASE 1: Add the column
+-- ============================================================
+ALTER TABLE products ADD COLUMN PRODUCT_VERSION_NO BIGINT NULL;
+ALTER TABLE PRODUCT_RULES ADD COLUMN PRODUCT_VERSION_NO BIGINT NULL;
+ALTER TABLE product_charges ADD COLUMN PRODUCT_VERSION_NO BIGINT NULL;
+ALTER TABLE product_role_types ADD COLUMN PRODUCT_VERSION_NO BIGINT NULL;
+ALTER TABLE product_transaction_types ADD COLUMN PRODUCT_VERSION_NO BIGINT NULL;
+ALTER TABLE interest_rates ADD COLUMN PRODUCT_VERSION_NO BIGINT NULL;
+ALTER TABLE product_balances ADD COLUMN PRODUCT_VERSION_NO BIGINT NULL;
+ALTER TABLE product_communications ADD COLUMN PRODUCT_VERSION_NO BIGINT NULL;
+
+-- ============================================================
+-- PHASE 2: Backfill from the existing version history (creation order, id breaks ties)
+-- ============================================================
+UPDATE products target
+JOIN (SELECT t.PRODUCT_ID, ROW_NUMBER() OVER (PARTITION BY t.PRODUCT_CODE ORDER BY t.PRODUCT_CRTN_DATE, t.PRODUCT_ID) AS version_no
+      FROM products t) numbered ON numbered.PRODUCT_ID = target.PRODUCT_ID
+SET target.PRODUCT_VERSION_NO = numbered.version_no;
+
+UPDATE PRODUCT_RULES target
+JOIN (SELECT t.RULE_ID, ROW_NUMBER() OVER (PARTITION BY t.PRODUCT_CODE, t.RULE_CODE ORDER BY t.PRODUCT_CRTN_DATE, t.RULE_ID) AS version_no
+      FROM PRODUCT_RULES t) numbered ON numbered.RULE_ID = target.RULE_ID
+SET target.PRODUCT_VERSION_NO = numbered.version_no;
+
+UPDATE product_charges target
+JOIN (SELECT t.charge_id, ROW_NUMBER() OVER (PARTITION BY t.PRODUCT_CODE, t.charge_code ORDER BY t.PRODUCT_CRTN_DATE, t.charge_id) AS version_no
+      FROM product_charges t) numbered ON numbered.charge_id = target.charge_id
+SET target.PRODUCT_VERSION_NO = numbered.version_no;
+
+UPDATE product_role_types target
+JOIN (SELECT t.role_id, ROW_NUMBER() OVER (PARTITION BY t.PRODUCT_CODE, t.role_code ORDER BY t.PRODUCT_CRTN_DATE, t.role_id) AS version_no
+      FROM product_role_types t) numbered ON numbered.role_id = target.role_id
+SET target.PRODUCT_VERSION_NO = numbered.version_no;
+
+UPDATE product_transaction_types target
+JOIN (SELECT t.id, ROW_NUMBER() OVER (PARTITION BY t.PRODUCT_CODE, t.transaction_code ORDER BY t.created_at, t.id) AS version_no
+      FROM product_transaction_types t) numbered ON numbered.id = target.id
+SET target.PRODUCT_VERSION_NO = numbered.version_no;
+
+UPDATE interest_rates target
+JOIN (SELECT t.rate_id, ROW_NUMBER() OVER (PARTITION BY t.PRODUCT_CODE, t.rate_code ORDER BY t.PRODUCT_CRTN_DATE, t.rate_id) AS version_no
+      FROM interest_rates t) numbered ON numbered.rate_id = target.rate_id
+SET target.PRODUCT_VERSION_NO = numbered.version_no;
+
+UPDATE product_balances target
+JOIN (SELECT t.balance_id, ROW_NUMBER() OVER (PARTITION BY t.PRODUCT_CODE, t.balance_type ORDER BY t.created_at, t.balance_id) AS version_no
+      FROM product_balances t) numbered ON numbered.balance_id = target.balance_id
+SET target.PRODUCT_VERSION_NO = numbered.version_no;
+
+UPDATE product_communications target
+JOIN (SELECT t.comm_id, ROW_NUMBER() OVER (PARTITION BY t.PRODUCT_CODE, t.comm_code ORDER BY t.PRODUCT_CRTN_DATE, t.comm_id) AS version_no
+      FROM product_communications t) numbered ON numbered.comm_id = target.comm_id
+SET target.PRODUCT_VERSION_NO = numbered.version_no;
+
+-- ============================================================
+-- PHASE 3: Require the column and index the business key
+-- ============================================================
+ALTER TABLE products MODIFY PRODUCT_VERSION_NO BIGINT NOT NULL;
+ALTER TABLE PRODUCT_RULES MODIFY PRODUCT_VERSION_NO BIGINT NOT NULL;
+ALTER TABLE product_charges MODIFY PRODUCT_VERSION_NO BIGINT NOT NULL;
+ALTER TABLE product_role_types MODIFY PRODUCT_VERSION_NO BIGINT NOT NULL;
+ALTER TABLE product_transaction_types MODIFY PRODUCT_VERSION_NO BIGINT NOT NULL;
+ALTER TABLE interest_rates MODIFY PRODUCT_VERSION_NO BIGINT NOT NULL;
+ALTER TABLE product_balances MODIFY PRODUCT_VERSION_NO BIGINT NOT NULL;
+ALTER TABLE product_communications MODIFY PRODUCT_VERSION_NO BIGINT NOT NULL;
+
+CREATE UNIQUE INDEX uk_products_code_version ON products (PRODUCT_CODE, PRODUCT_VERSION_NO DESC);
+CREATE UNIQUE INDEX uk_rules_code_version ON PRODUCT_RULES (PRODUCT_CODE, RULE_CODE, PRODUCT_VERSION_NO DESC);
+CREATE UNIQUE INDEX uk_charges_code_version ON product_charges (PRODUCT_CODE, charge_code, PRODUCT_VERSION_NO DESC);
+CREATE UNIQUE INDEX uk_roles_code_version ON product_role_types (PRODUCT_CODE, role_code, PRODUCT_VERSION_NO DESC);
+CREATE UNIQUE INDEX uk_transactions_code_version ON product_transaction_types (PRODUCT_CODE, transaction_code, PRODUCT_VERSION_NO DESC);
+CREATE UNIQUE INDEX uk_interest_code_version ON interest_rates (PRODUCT_CODE, rate_code, PRODUCT_VERSION_NO DESC);
+CREATE UNIQUE INDEX uk_balances_code_version ON product_balances (PRODUCT_CODE, balance_type, PRODUCT_VERSION_NO DESC);
+CREATE UNIQUE INDEX uk_communications_code_version ON product_communications (PRODUCT_CODE, comm_code, PRODUCT_VERSION_NO DESC);
@@ -0,0 +1,15 @@
+-- Content hash per version row for the INSERT-ONLY Pattern
+-- PRODUCT_CONTENT_HASH is the SHA-256 (hex) of a row's business content, computed by the application on
+-- insert (ContentHashes). An update whose new version hashes like the current version is skipped, so
+-- re-sending an unchanged payload no longer adds a row.
+-- Existing rows keep NULL: the hash covers Java-side canonical values (e.g. BigDecimal without trailing
+-- zeros) that SQL cannot reproduce exactly, so it is computed on the fly when such a row is compared.
+
+ALTER TABLE products ADD COLUMN PRODUCT_CONTENT_HASH CHAR(64) NULL;
+ALTER TABLE PRODUCT_RULES ADD COLUMN PRODUCT_CONTENT_HASH CHAR(64) NULL;
+ALTER TABLE product_charges ADD COLUMN PRODUCT_CONTENT_HASH CHAR(64) NULL;
+ALTER TABLE product_role_types ADD COLUMN PRODUCT_CONTENT_HASH CHAR(64) NULL;
+ALTER TABLE product_transaction_types ADD COLUMN PRODUCT_CONTENT_HASH CHAR(64) NULL;
+ALTER TABLE interest_rates ADD COLUMN PRODUCT_CONTENT_HASH CHAR(64) NULL;
+ALTER TABLE product_balances ADD COLUMN PRODUCT_CONTENT_HASH CHAR(64) NULL;
+ALTER TABLE product_communications ADD COLUMN PRODUCT_CONTENT_HASH CHAR(64) NULL;
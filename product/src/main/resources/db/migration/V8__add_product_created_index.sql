@@ -0,0 +1,7 @@
+-- Incremental refresh of the product code Bloom filter
+-- Every few seconds ProductLookupGuard reads the codes created since its last refresh
+-- (including rows written by other instances or directly in SQL); without this index that
+-- range scan reads the whole products table.
+
+CREATE INDEX idx_products_crtn_code
+ON products(PRODUCT_CRTN_DATE, PRODUCT_CODE);
@@ -0,0 +1,14 @@
+-- Keyset indexes for the paged and streamed audit trails
+-- findAuditPageBy... / streamAllVersionsBy... read one product's versions ordered by
+-- (PRODUCT_CRTN_DATE DESC, PRODUCT_VERSION_NO DESC, id DESC); with these indexes a page is a
+-- range read in index order instead of a sort of the product's whole history
+-- (only rows sharing PRODUCT_CRTN_DATE and PRODUCT_VERSION_NO are still sorted by id).
+
+CREATE INDEX idx_products_code_crtn_version ON products (PRODUCT_CODE, PRODUCT_CRTN_DATE, PRODUCT_VERSION_NO);
+CREATE INDEX idx_rules_code_crtn_version ON PRODUCT_RULES (PRODUCT_CODE, PRODUCT_CRTN_DATE, PRODUCT_VERSION_NO);
+CREATE INDEX idx_charges_code_crtn_version ON product_charges (PRODUCT_CODE, PRODUCT_CRTN_DATE, PRODUCT_VERSION_NO);
+CREATE INDEX idx_roles_code_crtn_version ON product_role_types (PRODUCT_CODE, PRODUCT_CRTN_DATE, PRODUCT_VERSION_NO);
+CREATE INDEX idx_transactions_code_crtn_version ON product_transaction_types (PRODUCT_CODE, PRODUCT_CRTN_DATE, PRODUCT_VERSION_NO);
+CREATE INDEX idx_interest_code_crtn_version ON interest_rates (PRODUCT_CODE, PRODUCT_CRTN_DATE, PRODUCT_VERSION_NO);
+CREATE INDEX idx_balances_code_crtn_version ON product_balances (PRODUCT_CODE, PRODUCT_CRTN_DATE, PRODUCT_VERSION_NO);
+CREATE INDEX idx_communications_code_crtn_version ON product_communications (PRODUCT_CODE, PRODUCT_CRTN_DATE, PRODUCT_VERSION_NO);
@@ -0,0 +1,125 @@
+package com.lab.product;
+
+import com.lab.product.entity.*;
+import com.lab.product.entity.ENUMS.*;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds valid, unsaved product and child version rows for repository and service tests.
+ * Rows are numbered like ProductVersionNumbers numbers them: 1, 2, 3... per business key (productCode,
+ * plus the child code on child tables), so rows must be built in version order.
+ * One instance per test: JUnit creates a new test class instance, and with it new numbering, for every test.
+ */
+public class ProductFixtures {
+
+    private final Map<String, Long> versionNos = new HashMap<>();
+
+    public PRODUCT_DETAILS product(String code, String name, CRUD_VALUE crudValue) {
+        PRODUCT_DETAILS product = new PRODUCT_DETAILS();
+        product.setProductCode(code);
+        product.setProductName(name);
+        product.setProductType(PRODUCT_TYPE.FIXED_DEPOSIT);
+        product.setStatus(PRODUCT_STATUS.ACTIVE);
+        product.setCurrency(PRODUCT_CURRENCY.INR);
+        return version(product, code, null, crudValue);
+    }
+
+    public PRODUCT_CHARGES charge(PRODUCT_DETAILS product, String chargeCode, String chargeName, CRUD_VALUE crudValue) {
+        PRODUCT_CHARGES charge = new PRODUCT_CHARGES();
+        charge.setProduct(product);
+        charge.setProductCode(product.getProductCode());
+        charge.setChargeCode(chargeCode);
+        charge.setChargeName(chargeName);
+        charge.setChargeType(PRODUCT_CHARGE_TYPE.PENALTY);
+        charge.setCalculationType(PRODUCT_CHARGE_CALCULATION_TYPE.FLAT);
+        charge.setChargeValue(new BigDecimal("100.00"));
+        charge.setDebitCredit(PRODUCT_DebitCredit.DEBIT);
+        return version(charge, product.getProductCode(), chargeCode, crudValue);
+    }
+
+    public PRODUCT_RULES rule(PRODUCT_DETAILS product, String ruleCode, String ruleName, CRUD_VALUE crudValue) {
+        PRODUCT_RULES rule = new PRODUCT_RULES();
+        rule.setProduct(product);
+        rule.setProductCode(product.getProductCode());
+        rule.setRuleCode(ruleCode);
+        rule.setRuleName(ruleName);
+        rule.setRuleType(PRODUCT_RULE_TYPE.SIMPLE);
+        rule.setDataType(PRODUCT_RULE_DATA.TEXT);
+        rule.setRuleValue("18");
+        rule.setValidationType(PRODUCT_RULE_VALIDATION.EXACT);
+        return version(rule, product.getProductCode(), ruleCode, crudValue);
+    }
+
+    public PRODUCT_ROLE role(PRODUCT_DETAILS product, String roleCode, CRUD_VALUE crudValue) {
+        PRODUCT_ROLE role = new PRODUCT_ROLE();
+        role.setProduct(product);
+        role.setProductCode(product.getProductCode());
+        role.setRoleCode(roleCode);
+        role.setRoleType(PRODUCT_ROLE_TYPE.OWNER);
+        role.setMandatory(true);
+        role.setMaxCount(1);
+        return version(role, product.getProductCode(), roleCode, crudValue);
+    }
+
+    public PRODUCT_TRANSACTION transaction(PRODUCT_DETAILS product, String transactionCode, CRUD_VALUE crudValue) {
+        PRODUCT_TRANSACTION transaction = new PRODUCT_TRANSACTION();
+        transaction.setProduct(product);
+        transaction.setProductCode(product.getProductCode());
+        transaction.setTransactionCode(transactionCode);
+        transaction.setTransactionType(PRODUCT_TRANSACTION_TYPE.DEPOSIT);
+        transaction.setAllowed(true);
+        return version(transaction, product.getProductCode(), transactionCode, crudValue);
+    }
+
+    public PRODUCT_COMMUNICATION communication(PRODUCT_DETAILS product, String commCode, CRUD_VALUE crudValue) {
+        PRODUCT_COMMUNICATION comm = new PRODUCT_COMMUNICATION();
+        comm.setProduct(product);
+        comm.setProductCode(product.getProductCode());
+        comm.setCommCode(commCode);
+        comm.setCommunicationType(PRODUCT_COMM_TYPE.STATEMENT);
+        comm.setChannel(PRODUCT_COMM_CHANNEL.EMAIL);
+        comm.setEvent("ACCOUNT_OPENING");
+        comm.setTemplate("email-template");
+        comm.setFrequencyLimit(10);
+        return version(comm, product.getProductCode(), commCode, crudValue);
+    }
+
+    public PRODUCT_INTEREST interest(PRODUCT_DETAILS product, String rateCode, CRUD_VALUE crudValue) {
+        PRODUCT_INTEREST interest = new PRODUCT_INTEREST();
+        interest.setProduct(product);
+        interest.setProductCode(product.getProductCode());
+        interest.setRateCode(rateCode);
+        // NOT NULL columns of interest_rates: the H2 test schema rejects a row without them
+        interest.setTermInMonths(12);
+        interest.setRateCumulative(new BigDecimal("5.50"));
+        interest.setRateNonCumulativeMonthly(new BigDecimal("5.35"));
+        interest.setRateNonCumulativeQuarterly(new BigDecimal("5.40"));
+        interest.setRateNonCumulativeYearly(new BigDecimal("5.50"));
+        return version(interest, product.getProductCode(), rateCode, crudValue);
+    }
+
+    public PRODUCT_BALANCE balance(PRODUCT_DETAILS product, PRODUCT_BALANCE_TYPE balanceType, CRUD_VALUE crudValue) {
+        PRODUCT_BALANCE balance = new PRODUCT_BALANCE();
+        balance.setProduct(product);
+        balance.setProductCode(product.getProductCode());
+        balance.setBalanceType(balanceType);
+        balance.setIsActive(true);
+        return version(balance, product.getProductCode(), balanceType.name(), crudValue);
+    }
+
+    private <E extends AuditLoggable> E version(E row, String productCode, String childCode, CRUD_VALUE crudValue) {
+        String key = row.getClass().getSimpleName() + "\u0000" + productCode + "\u0000" + (childCode != null ? childCode : "");
+        row.setVersionNo(versionNos.merge(key, 1L, Long::sum));
+        row.setCrud_value(crudValue);
+        row.setEfctv_date(Date.valueOf(LocalDate.now()));
+        row.setUser_id("1001");
+        row.setWs_id("1");
+        row.setPrgm_id("1");
+        return row;
+    }
+}
@@ -0,0 +1,35 @@
+package com.lab.product.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void testAddedValues_AlwaysMightContain() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("FD" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("FD" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void testAbsentValues_FalsePositiveRateNearTarget() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("FD" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("LOAN" + i)) {
+                falsePositives++;
+            }
+        }
+        // 1% target, generous bound to keep the test deterministic across hash layouts
+        assertThat(falsePositives).isLessThan(300);
+    }
+}
@@ -0,0 +1,87 @@
+package com.lab.product.cache;
+
+import com.lab.product.DTO.ProductDetailsDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that an invalidation during a load keeps that load's result out of the cache for the
+ * invalidated code only, that invalidation covers every spelling of a code, and that an entry is
+ * only served for the spelling it was loaded with.
+ */
+class ProductBundleCacheTest {
+
+    private final ProductBundleCache cache =
+        new ProductBundleCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1), Duration.ofSeconds(5));
+
+    @Test
+    void testInvalidationDuringLoad_ResultNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        // a write to the same product commits while the bundle is being read
+        cache.getOrLoad("FD001", () -> {
+            loads.incrementAndGet();
+            cache.invalidate("FD001");
+            return bundle("FD001", "stale");
+        });
+
+        assertThat(cache.getOrLoad("FD001", counting(loads, "FD001", "fresh")).getProductName()).isEqualTo("fresh");
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testInvalidationOfOtherCodeDuringLoad_ResultCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getOrLoad("FD001", () -> {
+            loads.incrementAndGet();
+            cache.invalidate("SAV001");
+            return bundle("FD001", "current");
+        });
+
+        assertThat(cache.getOrLoad("FD001", counting(loads, "FD001", "reloaded")).getProductName()).isEqualTo("current");
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testInvalidate_DropsEverySpelling() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.getOrLoad("FD001", counting(loads, "FD001", "before"));
+
+        cache.invalidate("fd001");
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.getOrLoad("FD001", counting(loads, "FD001", "after")).getProductName()).isEqualTo("after");
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testOtherSpelling_NotServedFromEntry() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.getOrLoad("FD001", counting(loads, "FD001", "upper"));
+
+        assertThat(cache.getOrLoad("fd001", counting(loads, "fd001", "lower")).getProductName()).isEqualTo("lower");
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    private static Supplier<ProductDetailsDTO> counting(AtomicInteger loads, String productCode, String productName) {
+        return () -> {
+            loads.incrementAndGet();
+            return bundle(productCode, productName);
+        };
+    }
+
+    private static ProductDetailsDTO bundle(String productCode, String productName) {
+        ProductDetailsDTO bundle = new ProductDetailsDTO();
+        bundle.setProductCode(productCode);
+        bundle.setProductName(productName);
+        return bundle;
+    }
+}
@@ -0,0 +1,91 @@
+package com.lab.product.cache;
+
+import com.lab.product.DTO.ProductFacetResultDTO;
+import com.lab.product.ProductFixtures;
+import com.lab.product.config.LatestVersionProperties;
+import com.lab.product.entity.*;
+import com.lab.product.entity.ENUMS.*;
+import com.lab.product.service.helper.ProductBundleLoader;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies facet queries (OR within a facet, AND across facets) and facet counts
+ * over the latest non-deleted product versions.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ProductFacetIndex.class, ProductBundleLoader.class, LatestVersionProperties.class})
+class ProductFacetIndexTest {
+
+    private final ProductFixtures fixtures = new ProductFixtures();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductFacetIndex facetIndex;
+
+    @Test
+    void testFacetQuery_AndAcrossFacets_OrWithinFacet() {
+        PRODUCT_DETAILS savings = entityManager.persistAndFlush(
+            createProduct("FCT001", PRODUCT_TYPE.SAVINGS, PRODUCT_CURRENCY.INR, CRUD_VALUE.C));
+        entityManager.persistAndFlush(createTransaction(savings, PRODUCT_TRANSACTION_TYPE.DEPOSIT, true));
+        entityManager.persistAndFlush(createTransaction(savings, PRODUCT_TRANSACTION_TYPE.WITHDRAWAL, false));
+
+        PRODUCT_DETAILS deposit = entityManager.persistAndFlush(
+            createProduct("FCT002", PRODUCT_TYPE.FIXED_DEPOSIT, PRODUCT_CURRENCY.INR, CRUD_VALUE.C));
+        entityManager.persistAndFlush(fixtures.balance(deposit, PRODUCT_BALANCE_TYPE.FD_PRINCIPAL, CRUD_VALUE.C));
+        entityManager.persistAndFlush(createTransaction(deposit, PRODUCT_TRANSACTION_TYPE.DEPOSIT, true));
+
+        entityManager.persistAndFlush(createProduct("FCT003", PRODUCT_TYPE.LOAN, PRODUCT_CURRENCY.AED, CRUD_VALUE.C));
+        // deleted products are not indexed
+        entityManager.persistAndFlush(createProduct("FCT004", PRODUCT_TYPE.SAVINGS, PRODUCT_CURRENCY.INR, CRUD_VALUE.C));
+        entityManager.persistAndFlush(createProduct("FCT004", PRODUCT_TYPE.SAVINGS, PRODUCT_CURRENCY.INR, CRUD_VALUE.D));
+        entityManager.clear();
+
+        facetIndex.rebuild();
+
+        ProductFacetResultDTO all = facetIndex.query(Map.of());
+        assertThat(all.getProductCodes()).containsExactly("FCT001", "FCT002", "FCT003");
+
+        ProductFacetResultDTO result = facetIndex.query(Map.of(
+            ProductFacet.TYPE, Set.of(PRODUCT_TYPE.SAVINGS, PRODUCT_TYPE.FIXED_DEPOSIT),
+            ProductFacet.TRANSACTION_TYPE, Set.of(PRODUCT_TRANSACTION_TYPE.DEPOSIT)));
+        assertThat(result.getProductCodes()).containsExactly("FCT001", "FCT002");
+        assertThat(result.getCounts().get("currency")).containsEntry("INR", 2).containsEntry("AED", 0);
+        assertThat(result.getCounts().get("balanceType")).containsEntry("FD_PRINCIPAL", 1);
+        // disallowed transaction types are not facet values of the product
+        assertThat(result.getCounts().get("transactionType")).containsEntry("WITHDRAWAL", 0);
+        // a facet's counts ignore its own selection
+        assertThat(result.getCounts().get("productType")).containsEntry("LOAN", 0).containsEntry("SAVINGS", 1);
+
+        ProductFacetResultDTO none = facetIndex.query(Map.of(
+            ProductFacet.CURRENCY, Set.of(PRODUCT_CURRENCY.AED),
+            ProductFacet.BALANCE_TYPE, Set.of(PRODUCT_BALANCE_TYPE.FD_PRINCIPAL)));
+        assertThat(none.getTotal()).isZero();
+    }
+
+    private PRODUCT_DETAILS createProduct(String code, PRODUCT_TYPE type, PRODUCT_CURRENCY currency, CRUD_VALUE crudValue) {
+        PRODUCT_DETAILS product = fixtures.product(code, "Facet Product " + code, crudValue);
+        product.setProductType(type);
+        product.setCurrency(currency);
+        return product;
+    }
+
+    private PRODUCT_TRANSACTION createTransaction(PRODUCT_DETAILS product, PRODUCT_TRANSACTION_TYPE type, boolean allowed) {
+        PRODUCT_TRANSACTION transaction = fixtures.transaction(product, "TXN_" + type.name(), CRUD_VALUE.C);
+        transaction.setTransactionType(type);
+        transaction.setAllowed(allowed);
+        return transaction;
+    }
+}
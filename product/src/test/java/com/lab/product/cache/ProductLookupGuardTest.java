@@ -0,0 +1,75 @@
+package com.lab.product.cache;
+
+import com.lab.product.DAO.ProductDetailsRepository;
+import com.lab.product.Exception.ProductNotFoundException;
+import com.lab.product.ProductFixtures;
+import com.lab.product.entity.ENUMS.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifies that products written without a ProductChangedEvent on this instance (another instance,
+ * plain SQL) are let through once the Bloom filter is refreshed, and that a filter that has not been
+ * refreshed within max-staleness rejects nothing.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class ProductLookupGuardTest {
+
+    private final ProductFixtures fixtures = new ProductFixtures();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductDetailsRepository productDetailsRepository;
+
+    @Test
+    void testCodeCreatedElsewhere_AcceptedAfterRefresh() {
+        ProductLookupGuard guard = guard(Duration.ofMinutes(1));
+        entityManager.persistAndFlush(fixtures.product("LKP001", "Lookup Product", CRUD_VALUE.C));
+        guard.rebuild();
+
+        entityManager.persistAndFlush(fixtures.product("LKP002", "Lookup Product", CRUD_VALUE.C));
+
+        assertThatCode(() -> guard.checkMayExist("LKP001")).doesNotThrowAnyException();
+        assertThatThrownBy(() -> guard.checkMayExist("LKP002")).isInstanceOf(ProductNotFoundException.class);
+
+        guard.refresh();
+
+        assertThatCode(() -> guard.checkMayExist("LKP002")).doesNotThrowAnyException();
+        assertThatCode(() -> guard.checkMayExist("lkp002")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void testStaleFilter_RejectsNothing() {
+        ProductLookupGuard guard = guard(Duration.ZERO);
+        entityManager.persistAndFlush(fixtures.product("LKP003", "Lookup Product", CRUD_VALUE.C));
+        guard.rebuild();
+
+        assertThatCode(() -> guard.checkMayExist("LKP404")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void testRefreshBeforeBuild_RejectsNothing() {
+        ProductLookupGuard guard = guard(Duration.ofMinutes(1));
+
+        guard.refresh();
+
+        assertThatCode(() -> guard.checkMayExist("LKP404")).doesNotThrowAnyException();
+    }
+
+    private ProductLookupGuard guard(Duration maxStaleness) {
+        return new ProductLookupGuard(productDetailsRepository, new SimpleMeterRegistry(), 1000, 0.01,
+            Duration.ofSeconds(5), 100, Duration.ofMinutes(1), maxStaleness);
+    }
+}
@@ -0,0 +1,62 @@
+package com.lab.product.cache;
+
+import com.lab.product.DTO.ProductSuggestionDTO;
+import com.lab.product.ProductFixtures;
+import com.lab.product.config.LatestVersionProperties;
+import com.lab.product.entity.PRODUCT_DETAILS;
+import com.lab.product.entity.ENUMS.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies prefix matching on productCode and on each word of productName,
+ * over the latest non-deleted product versions only.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ProductSuggestIndex.class, LatestVersionProperties.class})
+class ProductSuggestIndexTest {
+
+    private final ProductFixtures fixtures = new ProductFixtures();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductSuggestIndex suggestIndex;
+
+    @Test
+    void testSuggest_CodeMatchesFirstThenNameWords() {
+        entityManager.persistAndFlush(createProduct("SAV001", "Basic Savings", CRUD_VALUE.C));
+        entityManager.persistAndFlush(createProduct("SAV001", "Basic Savings Plus", CRUD_VALUE.U));
+        entityManager.persistAndFlush(createProduct("FD001", "Senior Savings Deposit", CRUD_VALUE.C));
+        entityManager.persistAndFlush(createProduct("LN001", "Home Loan", CRUD_VALUE.C));
+        entityManager.persistAndFlush(createProduct("SAV002", "Closed Savings", CRUD_VALUE.C));
+        entityManager.persistAndFlush(createProduct("SAV002", "Closed Savings", CRUD_VALUE.D));
+        entityManager.clear();
+
+        suggestIndex.rebuild();
+
+        assertThat(suggestIndex.suggest("Sav", 10))
+            .extracting(ProductSuggestionDTO::getProductCode)
+            .containsExactly("SAV001", "FD001");
+        assertThat(suggestIndex.suggest("sav", 10).get(0).getProductName()).isEqualTo("Basic Savings Plus");
+        assertThat(suggestIndex.suggest("loan", 10))
+            .extracting(ProductSuggestionDTO::getProductCode)
+            .containsExactly("LN001");
+        assertThat(suggestIndex.suggest("s", 1)).hasSize(1);
+        assertThat(suggestIndex.suggest("closed", 10)).isEmpty();
+    }
+
+    private PRODUCT_DETAILS createProduct(String code, String name, CRUD_VALUE crudValue) {
+        PRODUCT_DETAILS product = fixtures.product(code, name, crudValue);
+        product.setProductType(PRODUCT_TYPE.SAVINGS);
+        return product;
+    }
+}
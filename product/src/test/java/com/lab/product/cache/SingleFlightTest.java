@@ -0,0 +1,110 @@
+package com.lab.product.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifies that concurrent calls for one key share a single load, that failures reach every
+ * waiter, and that a waiter falls back to its own load when the leader is too slow.
+ */
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void testConcurrentCalls_ShareSingleLoad() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>("test", Duration.ofSeconds(5), registry);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> flight.execute("FD001", () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "bundle";
+                })));
+            }
+            // let every caller reach the in-flight load before the leader finishes
+            while (counter("leader") + counter("coalesced") < callers) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("bundle");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(counter("leader")).isEqualTo(1);
+        assertThat(counter("coalesced")).isEqualTo(callers - 1);
+        assertThat(flight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void testLeaderFailure_PropagatesAndIsNotRemembered() {
+        SingleFlight<String, String> flight = new SingleFlight<>("test", Duration.ofSeconds(5), registry);
+
+        assertThatThrownBy(() -> flight.execute("MISSING", () -> {
+            throw new IllegalArgumentException("Product not found: MISSING");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(flight.execute("MISSING", () -> "created later")).isEqualTo("created later");
+    }
+
+    @Test
+    void testSlowLeader_WaiterTimesOutAndLoadsItself() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>("test", Duration.ofMillis(50), registry);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> leader = executor.submit(() -> flight.execute("FD001", () -> {
+                leaderStarted.countDown();
+                await(release);
+                return "leader";
+            }));
+            assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(flight.execute("FD001", () -> "fallback")).isEqualTo("fallback");
+            assertThat(counter("timeout")).isEqualTo(1);
+
+            release.countDown();
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("leader");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private double counter(String role) {
+        return registry.get("singleflight.calls").tag("role", role).counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
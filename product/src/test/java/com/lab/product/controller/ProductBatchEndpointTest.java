@@ -0,0 +1,113 @@
+package com.lab.product.controller;
+
+import com.lab.product.DTO.ProductBatchItemDTO;
+import com.lab.product.DTO.ProductDetailsDTO;
+import com.lab.product.Exception.ValidationException;
+import com.lab.product.cache.VersionResponseCache;
+import com.lab.product.config.SecurityConfig;
+import com.lab.product.security.JwtAuthenticationEntryPoint;
+import com.lab.product.service.ProductService;
+import com.lab.product.service.helper.ProductFieldFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies /api/products/batch over HTTP: POST /api/products/batch is public like the GET variant while
+ * other POSTs still need the ADMIN role, and a request over the 100-code limit is answered with 400.
+ * The multi-get itself is covered by ProductBatchLookupTest.
+ */
+@WebMvcTest(ProductController.class)
+@Import({SecurityConfig.class, JwtAuthenticationEntryPoint.class, VersionResponseCache.class, ProductFieldFilter.class,
+         NdjsonResponseWriter.class})
+class ProductBatchEndpointTest {
+
+    private static final String CREATE_PRODUCT = """
+        {"productCode": "SAV009", "productName": "Savings", "productType": "SAVINGS",
+         "currency": "INR", "efctv_date": "2026-01-01"}
+        """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ProductService productService;
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @Test
+    void testBatchPost_WithoutToken_IsPublic() throws Exception {
+        ProductDetailsDTO product = new ProductDetailsDTO();
+        product.setProductCode("SAV001");
+        when(productService.getProductsByCodes(anyList(), any()))
+            .thenReturn(List.of(new ProductBatchItemDTO("SAV001", true, product),
+                                new ProductBatchItemDTO("NOPE01", false, null)));
+
+        mockMvc.perform(post("/api/products/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[\"SAV001\", \"NOPE01\"]"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].found").value(true))
+            .andExpect(jsonPath("$[0].product.productCode").value("SAV001"))
+            .andExpect(jsonPath("$[1].found").value(false));
+    }
+
+    @Test
+    void testOtherPost_RequiresAdmin() throws Exception {
+        token("user-token", Map.of("userType", "CUSTOMER"));
+        token("admin-token", Map.of("userType", "ADMIN"));
+        when(productService.createProduct(any())).thenReturn(new ProductDetailsDTO());
+
+        mockMvc.perform(post("/api/products").contentType(MediaType.APPLICATION_JSON).content(CREATE_PRODUCT))
+            .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/products").contentType(MediaType.APPLICATION_JSON).content(CREATE_PRODUCT)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer user-token"))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/products").contentType(MediaType.APPLICATION_JSON).content(CREATE_PRODUCT)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer admin-token"))
+            .andExpect(status().isCreated());
+    }
+
+    @Test
+    void testOverCodeLimit_Returns400() throws Exception {
+        when(productService.getProductsByCodes(anyList(), any()))
+            .thenThrow(new ValidationException("At most 100 product codes per request"));
+
+        mockMvc.perform(get("/api/products/batch").param("codes", "P1,P2"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("At most 100 product codes per request"));
+        mockMvc.perform(post("/api/products/batch").contentType(MediaType.APPLICATION_JSON).content("[\"P1\", \"P2\"]"))
+            .andExpect(status().isBadRequest());
+    }
+
+    private void token(String value, Map<String, Object> claims) {
+        Jwt jwt = Jwt.withTokenValue(value)
+            .header("alg", "RS256")
+            .subject(value)
+            .claims(c -> c.putAll(claims))
+            .issuedAt(Instant.now())
+            .expiresAt(Instant.now().plusSeconds(60))
+            .build();
+        when(jwtDecoder.decode(value)).thenReturn(jwt);
+    }
+}
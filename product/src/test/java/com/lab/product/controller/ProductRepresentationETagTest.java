@@ -0,0 +1,61 @@
+package com.lab.product.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lab.product.DTO.ProductChargeDTO;
+import com.lab.product.DTO.ProductDetailsDTO;
+import com.lab.product.service.helper.ProductFieldFilter;
+import com.lab.product.service.helper.ProductReadOptions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductRepresentationETagTest {
+
+    private final ProductFieldFilter filter = new ProductFieldFilter(new ObjectMapper());
+
+    private final UUID productId = UUID.randomUUID();
+
+    @Test
+    void testChildWrite_ChangesETag_SameProductVersion() {
+        ProductDetailsDTO before = product(UUID.randomUUID());
+        ProductDetailsDTO after = product(UUID.randomUUID());
+
+        assertThat(ProductRepresentationETag.of(after, ProductReadOptions.FULL))
+            .isNotEqualTo(ProductRepresentationETag.of(before, ProductReadOptions.FULL));
+        assertThat(IfMatchHeader.etag(after.getProductId())).isEqualTo(IfMatchHeader.etag(before.getProductId()));
+    }
+
+    @Test
+    void testSameBundle_SameETag() {
+        UUID chargeId = UUID.randomUUID();
+
+        assertThat(ProductRepresentationETag.of(product(chargeId), ProductReadOptions.FULL))
+            .isEqualTo(ProductRepresentationETag.of(product(chargeId), ProductReadOptions.FULL));
+    }
+
+    @Test
+    void testReadOptions_ChangeETag_FieldOrderDoesNot() {
+        ProductDetailsDTO product = product(UUID.randomUUID());
+
+        String full = ProductRepresentationETag.of(product, ProductReadOptions.FULL);
+        String charges = ProductRepresentationETag.of(product, filter.parse("charges", null));
+        String fields = ProductRepresentationETag.of(product, filter.parse(null, "productCode,productName"));
+
+        assertThat(List.of(full, charges, fields)).doesNotHaveDuplicates();
+        assertThat(ProductRepresentationETag.of(product, filter.parse(null, "productName,productCode"))).isEqualTo(fields);
+    }
+
+    private ProductDetailsDTO product(UUID chargeId) {
+        ProductDetailsDTO product = new ProductDetailsDTO();
+        product.setProductId(productId);
+        product.setProductCode("FD001");
+        ProductChargeDTO charge = new ProductChargeDTO();
+        charge.setChargeId(chargeId);
+        product.setProductCharges(new ArrayList<>(List.of(charge)));
+        return product;
+    }
+}
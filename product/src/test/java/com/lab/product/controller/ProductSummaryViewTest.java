@@ -0,0 +1,61 @@
+package com.lab.product.controller;
+
+import com.lab.product.DTO.ProductSummaryDTO;
+import com.lab.product.cache.VersionResponseCache;
+import com.lab.product.config.SecurityConfig;
+import com.lab.product.security.JwtAuthenticationEntryPoint;
+import com.lab.product.service.ProductService;
+import com.lab.product.service.helper.ProductFieldFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies GET /api/products?view=summary: answered from the summary projection, and rejected with 400
+ * when combined with include or fields, which only apply to the full view.
+ */
+@WebMvcTest(ProductController.class)
+@Import({SecurityConfig.class, JwtAuthenticationEntryPoint.class, VersionResponseCache.class, ProductFieldFilter.class,
+         NdjsonResponseWriter.class})
+class ProductSummaryViewTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ProductService productService;
+
+    @Test
+    void testSummaryView_ReturnsSummaries() throws Exception {
+        ProductSummaryDTO summary = new ProductSummaryDTO();
+        summary.setProductCode("SAV001");
+        when(productService.getAllProductSummaries(any())).thenReturn(new PageImpl<>(List.of(summary)));
+
+        mockMvc.perform(get("/api/products").param("view", "summary"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].productCode").value("SAV001"));
+    }
+
+    @Test
+    void testSummaryView_WithIncludeOrFields_Returns400() throws Exception {
+        mockMvc.perform(get("/api/products").param("view", "summary").param("include", "charges"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/products").param("view", "summary").param("fields", "productCode"))
+            .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(productService);
+    }
+}
@@ -0,0 +1,97 @@
+package com.lab.product.controller;
+
+import com.lab.product.DTO.ProductDetailsDTO;
+import com.lab.product.Exception.ResourceNotFoundException;
+import com.lab.product.cache.VersionResponseCache;
+import com.lab.product.config.SecurityConfig;
+import com.lab.product.security.JwtAuthenticationEntryPoint;
+import com.lab.product.service.ProductService;
+import com.lab.product.service.helper.ProductFieldFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies GET /api/products/versions/{productId}: 200 with the row-id ETag, 304 only for an existing version
+ * whose ETag is one of the If-None-Match entity tags, and 404 for an unknown id whatever If-None-Match says.
+ */
+@WebMvcTest(ProductController.class)
+@Import({SecurityConfig.class, JwtAuthenticationEntryPoint.class, VersionResponseCache.class, ProductFieldFilter.class,
+         NdjsonResponseWriter.class})
+class ProductVersionEndpointTest {
+
+    private static final UUID STORED = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
+    private static final UUID UNKNOWN = UUID.fromString("0b7a2f0e-9c51-4e43-9d4f-5f1d1c2e8a11");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ProductService productService;
+
+    @Test
+    void testStoredVersion_Returns200WithETag() throws Exception {
+        storedVersion();
+
+        mockMvc.perform(get("/api/products/versions/{productId}", STORED))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + STORED + "\""))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+            .andExpect(jsonPath("$.productCode").value("FD001"));
+    }
+
+    @Test
+    void testMatchingEntityTag_Returns304() throws Exception {
+        storedVersion();
+
+        mockMvc.perform(get("/api/products/versions/{productId}", STORED)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"other\", W/\"" + STORED + "\""))
+            .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/products/versions/{productId}", STORED)
+                .header(HttpHeaders.IF_NONE_MATCH, "*"))
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testTagContainingId_Returns200() throws Exception {
+        storedVersion();
+
+        mockMvc.perform(get("/api/products/versions/{productId}", STORED)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"v1-" + STORED + "\""))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void testUnknownVersion_Returns404_WithIfNoneMatch() throws Exception {
+        when(productService.getProductVersion(UNKNOWN))
+            .thenThrow(new ResourceNotFoundException("Product version not found: " + UNKNOWN));
+
+        mockMvc.perform(get("/api/products/versions/{productId}", UNKNOWN)
+                .header(HttpHeaders.IF_NONE_MATCH, "*"))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/products/versions/{productId}", UNKNOWN)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"" + UNKNOWN + "\""))
+            .andExpect(status().isNotFound())
+            .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    private void storedVersion() {
+        ProductDetailsDTO version = new ProductDetailsDTO();
+        version.setProductId(STORED);
+        version.setProductCode("FD001");
+        when(productService.getProductVersion(STORED)).thenReturn(version);
+    }
+}
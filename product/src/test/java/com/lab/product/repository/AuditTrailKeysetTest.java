@@ -0,0 +1,101 @@
+package com.lab.product.repository;
+
+import com.lab.product.DAO.ProductChargeRepository;
+import com.lab.product.ProductFixtures;
+import com.lab.product.entity.*;
+import com.lab.product.entity.ENUMS.*;
+import com.lab.product.service.helper.AuditCursor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that walking the audit trail page by page on the (createdAt, versionNo, id) keyset returns every
+ * version exactly once, in the same order as the streamed variant, and newest version first when
+ * versions share a createdAt.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class AuditTrailKeysetTest {
+
+    private final ProductFixtures fixtures = new ProductFixtures();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductChargeRepository productChargeRepository;
+
+    @Test
+    void testKeysetPages_CoverStreamedTrailInOrder() {
+        PRODUCT_DETAILS product = entityManager.persistAndFlush(fixtures.product("KEY001", "Keyset Product", CRUD_VALUE.C));
+        for (int i = 0; i < 7; i++) {
+            entityManager.persistAndFlush(fixtures.charge(product, "CHARGE00" + (i % 3), "Charge", i == 0 ? CRUD_VALUE.C : CRUD_VALUE.U));
+        }
+
+        List<UUID> paged = new ArrayList<>();
+        AuditCursor cursor = AuditCursor.FIRST;
+        int pages = 0;
+        while (true) {
+            List<PRODUCT_CHARGES> page = productChargeRepository.findAuditPageByProductCode(
+                "KEY001", cursor.createdAt(), cursor.versionNo(), cursor.id(), PageRequest.of(0, 3));
+            if (page.isEmpty()) {
+                break;
+            }
+            pages++;
+            page.forEach(charge -> paged.add(charge.getChargeId()));
+            PRODUCT_CHARGES last = page.get(page.size() - 1);
+            cursor = AuditCursor.decode(new AuditCursor(last.getCreatedAt(), last.getVersionNo(), last.getChargeId()).encode());
+        }
+
+        List<UUID> streamed;
+        try (Stream<PRODUCT_CHARGES> rows = productChargeRepository.streamAllVersionsByProductCode("KEY001")) {
+            streamed = rows.map(PRODUCT_CHARGES::getChargeId).collect(Collectors.toList());
+        }
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(paged).hasSize(7).doesNotHaveDuplicates();
+        assertThat(paged).containsExactlyElementsOf(streamed);
+    }
+
+    @Test
+    void testKeysetPages_SameCreatedAt_NewestVersionFirst() {
+        PRODUCT_DETAILS product = entityManager.persistAndFlush(fixtures.product("KEY002", "Keyset Product", CRUD_VALUE.C));
+        for (int i = 0; i < 5; i++) {
+            entityManager.persistAndFlush(fixtures.charge(product, "CHARGE001", "Charge", i == 0 ? CRUD_VALUE.C : CRUD_VALUE.U));
+        }
+        // versions written in one batch can share a timestamp
+        entityManager.getEntityManager()
+            .createQuery("UPDATE PRODUCT_CHARGES c SET c.createdAt = :createdAt WHERE c.productCode = 'KEY002'")
+            .setParameter("createdAt", LocalDateTime.of(2024, 1, 1, 0, 0))
+            .executeUpdate();
+        entityManager.clear();
+
+        List<Long> paged = new ArrayList<>();
+        AuditCursor cursor = AuditCursor.FIRST;
+        while (true) {
+            List<PRODUCT_CHARGES> page = productChargeRepository.findAuditPageByProductCodeAndChargeCode(
+                "KEY002", "CHARGE001", cursor.createdAt(), cursor.versionNo(), cursor.id(), PageRequest.of(0, 2));
+            if (page.isEmpty()) {
+                break;
+            }
+            page.forEach(charge -> paged.add(charge.getVersionNo()));
+            PRODUCT_CHARGES last = page.get(page.size() - 1);
+            cursor = new AuditCursor(last.getCreatedAt(), last.getVersionNo(), last.getChargeId());
+        }
+
+        assertThat(paged).containsExactly(5L, 4L, 3L, 2L, 1L);
+    }
+}
@@ -0,0 +1,100 @@
+package com.lab.product.repository;
+
+import com.lab.product.DAO.*;
+import com.lab.product.ProductFixtures;
+import com.lab.product.entity.*;
+import com.lab.product.entity.ENUMS.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that the product_current_versions backfill points at the latest version row
+ * and that pointer-based reads hide business keys whose latest version is deleted, and that the
+ * catalog export reads the same current set with every latest-version strategy.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class CurrentVersionPointerTest {
+
+    private final ProductFixtures fixtures = new ProductFixtures();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductCurrentVersionRepository currentVersionRepository;
+
+    @Autowired
+    private ProductDetailsRepository productDetailsRepository;
+
+    @Autowired
+    private ProductChargeRepository productChargeRepository;
+
+    @Test
+    void testBackfill_PointsAtLatestVersion() {
+        PRODUCT_DETAILS product1 = entityManager.persistAndFlush(fixtures.product("PTR001", "Pointer Product", CRUD_VALUE.C));
+        PRODUCT_DETAILS product2 = entityManager.persistAndFlush(fixtures.product("PTR001", "Pointer Product Updated", CRUD_VALUE.U));
+
+        entityManager.persistAndFlush(fixtures.charge(product1, "CHARGE001", "Charge", CRUD_VALUE.C));
+        PRODUCT_CHARGES latestCharge = entityManager.persistAndFlush(fixtures.charge(product2, "CHARGE001", "Charge Updated", CRUD_VALUE.U));
+        entityManager.persistAndFlush(fixtures.charge(product2, "CHARGE002", "Charge Two", CRUD_VALUE.C));
+        entityManager.persistAndFlush(fixtures.charge(product2, "CHARGE002", "Charge Two Deleted", CRUD_VALUE.D));
+
+        rebuildPointers();
+
+        assertThat(productDetailsRepository.findLatestByProductCodeViaPointer("PTR001"))
+            .get()
+            .extracting(PRODUCT_DETAILS::getProductId)
+            .isEqualTo(product2.getProductId());
+
+        List<PRODUCT_CHARGES> charges = productChargeRepository.findLatestByProductCodesViaPointer(List.of("PTR001"));
+        assertThat(charges).extracting(PRODUCT_CHARGES::getChargeId).containsExactly(latestCharge.getChargeId());
+    }
+
+    @Test
+    void testProductPointer_LatestDeleted_ReturnsEmpty() {
+        entityManager.persistAndFlush(fixtures.product("PTR002", "Pointer Product", CRUD_VALUE.C));
+        entityManager.persistAndFlush(fixtures.product("PTR002", "Pointer Product Deleted", CRUD_VALUE.D));
+
+        rebuildPointers();
+
+        assertThat(productDetailsRepository.findLatestByProductCodeViaPointer("PTR002")).isEmpty();
+    }
+
+    @Test
+    void testExportStreams_AllStrategiesReadSameCurrentSet() {
+        entityManager.persistAndFlush(fixtures.product("PTR003", "Export Product", CRUD_VALUE.C));
+        PRODUCT_DETAILS latest = entityManager.persistAndFlush(fixtures.product("PTR003", "Export Product Updated", CRUD_VALUE.U));
+        entityManager.persistAndFlush(fixtures.product("PTR004", "Export Product", CRUD_VALUE.C));
+        entityManager.persistAndFlush(fixtures.product("PTR004", "Export Product Deleted", CRUD_VALUE.D));
+
+        rebuildPointers();
+
+        List<UUID> expected = List.of(latest.getProductId());
+        try (Stream<PRODUCT_DETAILS> products = productDetailsRepository.streamLatestVersions()) {
+            assertThat(products.map(PRODUCT_DETAILS::getProductId)).containsExactlyElementsOf(expected);
+        }
+        try (Stream<PRODUCT_DETAILS> products = productDetailsRepository.streamLatestVersionsWindowed()) {
+            assertThat(products.map(PRODUCT_DETAILS::getProductId)).containsExactlyElementsOf(expected);
+        }
+        try (Stream<PRODUCT_DETAILS> products = productDetailsRepository.streamLatestVersionsViaPointer()) {
+            assertThat(products.map(PRODUCT_DETAILS::getProductId)).containsExactlyElementsOf(expected);
+        }
+    }
+
+    private void rebuildPointers() {
+        currentVersionRepository.deleteAllInBatch();
+        currentVersionRepository.rebuildProducts();
+        currentVersionRepository.rebuildCharges();
+        entityManager.clear();
+    }
+}
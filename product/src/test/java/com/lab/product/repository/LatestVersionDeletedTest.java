@@ -28,6 +28,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 @ActiveProfiles("test")
 class LatestVersionDeletedTest {
 
+    // Rows are built in version order: later rows get higher version numbers
+    private long nextVersionNo;
+
     @Autowired
     private TestEntityManager entityManager;
 
@@ -274,6 +277,7 @@ class LatestVersionDeletedTest {
         product.setStatus(PRODUCT_STATUS.ACTIVE);
         product.setCurrency(PRODUCT_CURRENCY.INR);
         product.setCrud_value(crudValue);
+        product.setVersionNo(++nextVersionNo);
         product.setEfctv_date(Date.valueOf(LocalDate.now()));
         product.setUser_id("1001");
         product.setWs_id("1");
@@ -292,6 +296,7 @@ class LatestVersionDeletedTest {
         charge.setChargeValue(new BigDecimal("100.00"));
         charge.setDebitCredit(PRODUCT_DebitCredit.DEBIT);
         charge.setCrud_value(crudValue);
+        charge.setVersionNo(++nextVersionNo);
         charge.setEfctv_date(Date.valueOf(LocalDate.now()));
         charge.setUser_id("1001");
         charge.setWs_id("1");
@@ -310,6 +315,7 @@ class LatestVersionDeletedTest {
         rule.setRuleValue("18");
         rule.setValidationType(PRODUCT_RULE_VALIDATION.EXACT);
         rule.setCrud_value(crudValue);
+        rule.setVersionNo(++nextVersionNo);
         rule.setEfctv_date(Date.valueOf(LocalDate.now()));
         rule.setUser_id("1001");
         rule.setWs_id("1");
@@ -326,6 +332,7 @@ class LatestVersionDeletedTest {
         role.setMandatory(true);
         role.setMaxCount(1);
         role.setCrud_value(crudValue);
+        role.setVersionNo(++nextVersionNo);
         role.setEfctv_date(Date.valueOf(LocalDate.now()));
         role.setUser_id("1001");
         role.setWs_id("1");
@@ -341,6 +348,7 @@ class LatestVersionDeletedTest {
         txn.setTransactionType(PRODUCT_TRANSACTION_TYPE.DEPOSIT);
         txn.setAllowed(true);
         txn.setCrud_value(crudValue);
+        txn.setVersionNo(++nextVersionNo);
         txn.setEfctv_date(Date.valueOf(LocalDate.now()));
         txn.setUser_id("1001");
         txn.setWs_id("1");
@@ -359,6 +367,7 @@ class LatestVersionDeletedTest {
         comm.setTemplate("email-template");
         comm.setFrequencyLimit(10);
         comm.setCrud_value(crudValue);
+        comm.setVersionNo(++nextVersionNo);
         comm.setEfctv_date(Date.valueOf(LocalDate.now()));
         comm.setUser_id("1001");
         comm.setWs_id("1");
@@ -371,8 +380,13 @@ class LatestVersionDeletedTest {
         interest.setProduct(product);
         interest.setProductCode(product.getProductCode());
         interest.setRateCode(rateCode);
+        interest.setTermInMonths(12);
         interest.setRateCumulative(new BigDecimal("5.50"));
+        interest.setRateNonCumulativeMonthly(new BigDecimal("5.35"));
+        interest.setRateNonCumulativeQuarterly(new BigDecimal("5.40"));
+        interest.setRateNonCumulativeYearly(new BigDecimal("5.50"));
         interest.setCrud_value(crudValue);
+        interest.setVersionNo(++nextVersionNo);
         interest.setEfctv_date(Date.valueOf(LocalDate.now()));
         interest.setUser_id("1001");
         interest.setWs_id("1");
@@ -387,6 +401,7 @@ class LatestVersionDeletedTest {
         balance.setBalanceType(balanceType);
         balance.setIsActive(true);
         balance.setCrud_value(crudValue);
+        balance.setVersionNo(++nextVersionNo);
         balance.setEfctv_date(Date.valueOf(LocalDate.now()));
         balance.setUser_id("1001");
         balance.setWs_id("1");
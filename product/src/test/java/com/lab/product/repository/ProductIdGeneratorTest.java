@@ -0,0 +1,54 @@
+package com.lab.product.repository;
+
+import com.lab.product.ProductFixtures;
+import com.lab.product.config.ProductIdConfig;
+import com.lab.product.entity.ENUMS.CRUD_VALUE;
+import com.lab.product.entity.PRODUCT_DETAILS;
+import com.lab.product.entity.PRODUCT_INTEREST;
+import com.lab.product.entity.TimeOrderedProductIdGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that product.id.generator selects the generator Hibernate uses for @ProductId primary keys,
+ * and that the default time-ordered generator hands out increasing version 7 ids.
+ */
+@DataJpaTest(properties = "product.id.generator=RANDOM")
+@ActiveProfiles("test")
+@Import(ProductIdConfig.class)
+class ProductIdGeneratorTest {
+
+    private final ProductFixtures fixtures = new ProductFixtures();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void testPersist_RandomConfigured_AssignsVersion4Ids() {
+        PRODUCT_DETAILS product = entityManager.persistAndFlush(fixtures.product("IDG001", "Id Product", CRUD_VALUE.C));
+        PRODUCT_INTEREST rate = entityManager.persistAndFlush(fixtures.interest(product, "RATE001", CRUD_VALUE.C));
+
+        assertThat(product.getProductId().version()).isEqualTo(4);
+        assertThat(rate.getRateId().version()).isEqualTo(4);
+    }
+
+    @Test
+    void testTimeOrdered_IdsAreVersion7AndIncreasing() {
+        TimeOrderedProductIdGenerator generator = new TimeOrderedProductIdGenerator();
+
+        List<UUID> ids = IntStream.range(0, 10_000).mapToObj(i -> generator.next()).toList();
+
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+        assertThat(ids).allMatch(id -> id.version() == 7 && id.variant() == 2);
+    }
+}
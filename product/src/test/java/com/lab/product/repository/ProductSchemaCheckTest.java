@@ -0,0 +1,54 @@
+package com.lab.product.repository;
+
+import com.lab.product.service.helper.ProductSchemaCheck;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifies that the startup schema check accepts a schema with the version columns and unique version
+ * indexes, and names what is missing otherwise. Runs on its own database: the second test alters the schema.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:schemacheck")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(ProductSchemaCheck.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ProductSchemaCheckTest {
+
+    @Autowired
+    private ProductSchemaCheck schemaCheck;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testMigratedSchema_Starts() {
+        assertThatCode(() -> schemaCheck.run(new DefaultApplicationArguments())).doesNotThrowAnyException();
+    }
+
+    @Test
+    void testMissingIndexAndNullableColumn_FailStartup() {
+        jdbcTemplate.execute("ALTER TABLE product_charges DROP CONSTRAINT uk_charges_code_version");
+        jdbcTemplate.execute("ALTER TABLE interest_rates ALTER COLUMN PRODUCT_VERSION_NO SET NULL");
+
+        assertThatThrownBy(() -> schemaCheck.run(new DefaultApplicationArguments()))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("unique index uk_charges_code_version")
+            .hasMessageContaining("PRODUCT_VERSION_NO is missing or nullable")
+            .satisfies(e -> assertThat(e.getMessage()).doesNotContain("uk_products_code_version"));
+    }
+}
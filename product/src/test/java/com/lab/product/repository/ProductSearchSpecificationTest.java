@@ -0,0 +1,124 @@
+package com.lab.product.repository;
+
+import com.lab.product.DAO.*;
+import com.lab.product.DTO.ProductSummaryDTO;
+import com.lab.product.ProductFixtures;
+import com.lab.product.config.LatestVersionStrategy;
+import com.lab.product.entity.*;
+import com.lab.product.entity.ENUMS.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that search filters are ANDed together and only ever match the latest
+ * non-deleted version of a product, for both the MAX subquery and the pointer table.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class ProductSearchSpecificationTest {
+
+    private final ProductFixtures fixtures = new ProductFixtures();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductDetailsRepository productDetailsRepository;
+
+    @Autowired
+    private ProductCurrentVersionRepository currentVersionRepository;
+
+    @Test
+    void testCombinedFilters_MatchLatestVersionOnly() {
+        // SRCH001: older version matched all filters, latest is INACTIVE
+        entityManager.persistAndFlush(createProduct("SRCH001", PRODUCT_STATUS.ACTIVE, PRODUCT_CURRENCY.INR, CRUD_VALUE.C));
+        entityManager.persistAndFlush(createProduct("SRCH001", PRODUCT_STATUS.INACTIVE, PRODUCT_CURRENCY.INR, CRUD_VALUE.U));
+        // SRCH002: matches every filter
+        PRODUCT_DETAILS match = entityManager.persistAndFlush(
+            createProduct("SRCH002", PRODUCT_STATUS.ACTIVE, PRODUCT_CURRENCY.INR, CRUD_VALUE.C));
+        // SRCH003: same type and status, different currency
+        entityManager.persistAndFlush(createProduct("SRCH003", PRODUCT_STATUS.ACTIVE, PRODUCT_CURRENCY.JPY, CRUD_VALUE.C));
+        // SRCH004: matching, but the latest version is deleted
+        entityManager.persistAndFlush(createProduct("SRCH004", PRODUCT_STATUS.ACTIVE, PRODUCT_CURRENCY.INR, CRUD_VALUE.C));
+        entityManager.persistAndFlush(createProduct("SRCH004", PRODUCT_STATUS.ACTIVE, PRODUCT_CURRENCY.INR, CRUD_VALUE.D));
+        rebuildPointers();
+
+        for (LatestVersionStrategy strategy : LatestVersionStrategy.values()) {
+            Specification<PRODUCT_DETAILS> spec = Specification.allOf(
+                ProductSpecifications.latestNotDeleted(strategy),
+                ProductSpecifications.hasType(PRODUCT_TYPE.SAVINGS),
+                ProductSpecifications.hasStatus(PRODUCT_STATUS.ACTIVE),
+                ProductSpecifications.hasCurrency(PRODUCT_CURRENCY.INR),
+                ProductSpecifications.hasInterestType(INTEREST_TYPE.COMPOUND),
+                ProductSpecifications.effectiveAfter(Date.valueOf(LocalDate.now().minusDays(1))),
+                ProductSpecifications.effectiveBefore(Date.valueOf(LocalDate.now().plusDays(1))));
+
+            assertThat(productDetailsRepository.findAll(spec))
+                .as(strategy.name())
+                .extracting(PRODUCT_DETAILS::getProductId)
+                .containsExactly(match.getProductId());
+            assertThat(productDetailsRepository.findSummaries(spec))
+                .as(strategy.name())
+                .extracting(ProductSummaryDTO::getProductCode)
+                .containsExactly("SRCH002");
+        }
+    }
+
+    @Test
+    void testNoFilters_ReturnsEachCurrentProductOnce() {
+        entityManager.persistAndFlush(createProduct("SRCH010", PRODUCT_STATUS.ACTIVE, PRODUCT_CURRENCY.INR, CRUD_VALUE.C));
+        entityManager.persistAndFlush(createProduct("SRCH010", PRODUCT_STATUS.ACTIVE, PRODUCT_CURRENCY.AED, CRUD_VALUE.U));
+        entityManager.persistAndFlush(createProduct("SRCH011", PRODUCT_STATUS.DRAFT, PRODUCT_CURRENCY.INR, CRUD_VALUE.C));
+
+        List<PRODUCT_DETAILS> results = productDetailsRepository.findAll(
+            ProductSpecifications.latestNotDeleted(LatestVersionStrategy.MAX_SUBQUERY));
+
+        assertThat(results).extracting(PRODUCT_DETAILS::getProductCode).containsExactlyInAnyOrder("SRCH010", "SRCH011");
+        assertThat(results).filteredOn(p -> p.getProductCode().equals("SRCH010"))
+            .extracting(PRODUCT_DETAILS::getCurrency)
+            .containsExactly(PRODUCT_CURRENCY.AED);
+    }
+
+    @Test
+    void testCodeIn_ReturnsLatestVersionOfEachFoundCode() {
+        entityManager.persistAndFlush(createProduct("SRCH020", PRODUCT_STATUS.ACTIVE, PRODUCT_CURRENCY.INR, CRUD_VALUE.C));
+        PRODUCT_DETAILS latest = entityManager.persistAndFlush(
+            createProduct("SRCH020", PRODUCT_STATUS.INACTIVE, PRODUCT_CURRENCY.INR, CRUD_VALUE.U));
+        PRODUCT_DETAILS other = entityManager.persistAndFlush(
+            createProduct("SRCH021", PRODUCT_STATUS.ACTIVE, PRODUCT_CURRENCY.JPY, CRUD_VALUE.C));
+        entityManager.persistAndFlush(createProduct("SRCH022", PRODUCT_STATUS.ACTIVE, PRODUCT_CURRENCY.INR, CRUD_VALUE.C));
+
+        List<PRODUCT_DETAILS> results = productDetailsRepository.findAll(Specification.allOf(
+            ProductSpecifications.latestNotDeleted(LatestVersionStrategy.MAX_SUBQUERY),
+            ProductSpecifications.hasCodeIn(List.of("SRCH020", "SRCH021", "MISSING"))));
+
+        assertThat(results).extracting(PRODUCT_DETAILS::getProductId)
+            .containsExactlyInAnyOrder(latest.getProductId(), other.getProductId());
+    }
+
+    private void rebuildPointers() {
+        currentVersionRepository.deleteAllInBatch();
+        currentVersionRepository.rebuildProducts();
+        entityManager.clear();
+    }
+
+    private PRODUCT_DETAILS createProduct(String code, PRODUCT_STATUS status, PRODUCT_CURRENCY currency,
+                                          CRUD_VALUE crudValue) {
+        PRODUCT_DETAILS product = fixtures.product(code, "Search Product " + code, crudValue);
+        product.setProductType(PRODUCT_TYPE.SAVINGS);
+        product.setStatus(status);
+        product.setCurrency(currency);
+        product.setInterestType(INTEREST_TYPE.COMPOUND);
+        return product;
+    }
+}
@@ -0,0 +1,97 @@
+package com.lab.product.repository;
+
+import com.lab.product.DAO.ProductCurrentVersionRepository;
+import com.lab.product.DAO.ProductDetailsRepository;
+import com.lab.product.DAO.ProductSpecifications;
+import com.lab.product.DTO.ProductSummaryDTO;
+import com.lab.product.ProductFixtures;
+import com.lab.product.config.LatestVersionStrategy;
+import com.lab.product.entity.ENUMS.CRUD_VALUE;
+import com.lab.product.entity.ENUMS.PRODUCT_STATUS;
+import com.lab.product.entity.PRODUCT_DETAILS;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Verifies the view=summary constructor-expression projections: findSummaries with the latest-version
+ * specification returns one summary per product, built from its latest non-deleted version, for every
+ * strategy; findAllSummaries pages over every stored version, like the full list view.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class ProductSummaryQueriesTest {
+
+    private final ProductFixtures fixtures = new ProductFixtures();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductDetailsRepository productDetailsRepository;
+
+    @Autowired
+    private ProductCurrentVersionRepository currentVersionRepository;
+
+    @Test
+    void testFindSummaries_LatestVersionPerCode() {
+        PRODUCT_DETAILS first = entityManager.persistAndFlush(fixtures.product("SUM001", "Summary One", CRUD_VALUE.C));
+        PRODUCT_DETAILS latest = entityManager.persistAndFlush(
+            inactive(fixtures.product("SUM001", "Summary One Renamed", CRUD_VALUE.U)));
+        PRODUCT_DETAILS other = entityManager.persistAndFlush(fixtures.product("SUM002", "Summary Two", CRUD_VALUE.C));
+        entityManager.persistAndFlush(fixtures.product("SUM003", "Summary Deleted", CRUD_VALUE.C));
+        entityManager.persistAndFlush(fixtures.product("SUM003", "Summary Deleted", CRUD_VALUE.D));
+        currentVersionRepository.rebuildProducts();
+        entityManager.clear();
+
+        for (LatestVersionStrategy strategy : LatestVersionStrategy.values()) {
+            List<ProductSummaryDTO> summaries = productDetailsRepository.findSummaries(
+                ProductSpecifications.latestNotDeleted(strategy));
+
+            assertThat(summaries)
+                .as(strategy.name())
+                .extracting(ProductSummaryDTO::getProductId, ProductSummaryDTO::getProductCode,
+                            ProductSummaryDTO::getProductName, ProductSummaryDTO::getStatus)
+                .containsExactlyInAnyOrder(
+                    tuple(latest.getProductId(), "SUM001", "Summary One Renamed", PRODUCT_STATUS.INACTIVE),
+                    tuple(other.getProductId(), "SUM002", "Summary Two", PRODUCT_STATUS.ACTIVE));
+            assertThat(summaries).extracting(ProductSummaryDTO::getProductId).doesNotContain(first.getProductId());
+        }
+    }
+
+    @Test
+    void testFindAllSummaries_ListsEveryVersion() {
+        entityManager.persistAndFlush(fixtures.product("SUM010", "Summary Ten", CRUD_VALUE.C));
+        entityManager.persistAndFlush(inactive(fixtures.product("SUM010", "Summary Ten Renamed", CRUD_VALUE.U)));
+        entityManager.persistAndFlush(fixtures.product("SUM011", "Summary Eleven", CRUD_VALUE.C));
+        entityManager.persistAndFlush(fixtures.product("SUM011", "Summary Eleven", CRUD_VALUE.D));
+        entityManager.clear();
+
+        Page<ProductSummaryDTO> page = productDetailsRepository.findAllSummaries(
+            PageRequest.of(0, 3, Sort.by("productCode", "versionNo")));
+
+        // same rows as the full view (findAll), page by page
+        assertThat(page.getTotalElements()).isEqualTo(productDetailsRepository.count()).isEqualTo(4);
+        assertThat(page.getContent())
+            .extracting(ProductSummaryDTO::getProductCode, ProductSummaryDTO::getProductName)
+            .containsExactly(
+                tuple("SUM010", "Summary Ten"),
+                tuple("SUM010", "Summary Ten Renamed"),
+                tuple("SUM011", "Summary Eleven"));
+    }
+
+    private static PRODUCT_DETAILS inactive(PRODUCT_DETAILS product) {
+        product.setStatus(PRODUCT_STATUS.INACTIVE);
+        return product;
+    }
+}
@@ -0,0 +1,123 @@
+package com.lab.product.repository;
+
+import com.lab.product.entity.ProductIdGenerator;
+import com.lab.product.entity.RandomProductIdGenerator;
+import com.lab.product.entity.TimeOrderedProductIdGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the random (UUIDv4) and time-ordered (UUIDv7) ProductIdGenerator implementations: generation
+ * throughput across threads, and batched insert throughput into a BINARY(16) primary key.
+ * H2 only indicates the trend; run against MySQL for InnoDB page-split numbers.
+ *
+ * Opt-in only: mvn test -Dbenchmark=true -Dtest=UuidInsertBenchmarkTest
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class UuidInsertBenchmarkTest {
+
+    private static final int GENERATED = 2_000_000;
+    private static final int ROWS = 100_000;
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void createTable() throws SQLException {
+        execute("CREATE TABLE uuid_insert_bench (ID BINARY(16) PRIMARY KEY, PAYLOAD VARCHAR(64))");
+    }
+
+    @AfterEach
+    void dropTable() throws SQLException {
+        execute("DROP TABLE uuid_insert_bench");
+    }
+
+    @Test
+    void compareRandomAndTimeOrderedKeys() throws SQLException {
+        ProductIdGenerator random = new RandomProductIdGenerator();
+        ProductIdGenerator timeOrdered = new TimeOrderedProductIdGenerator();
+        List<UUID> ordered = IntStream.range(0, 10_000).mapToObj(i -> timeOrdered.next()).toList();
+        assertThat(ordered).isSorted().doesNotHaveDuplicates();
+        assertThat(ordered.get(0).version()).isEqualTo(7);
+
+        long randomGenerate = generate(random);
+        long orderedGenerate = generate(timeOrdered);
+        System.out.printf("UUID generation, %d ids on all cores: random %d ms, time-ordered %d ms%n",
+            GENERATED, randomGenerate / 1_000_000, orderedGenerate / 1_000_000);
+
+        long randomInsert = insert(random);
+        execute("DELETE FROM uuid_insert_bench");
+        long orderedInsert = insert(timeOrdered);
+        System.out.printf("Batched inserts, %d rows: random %.0f rows/s, time-ordered %.0f rows/s%n",
+            ROWS, ROWS * 1e9 / randomInsert, ROWS * 1e9 / orderedInsert);
+    }
+
+    private static long generate(ProductIdGenerator ids) {
+        long start = System.nanoTime();
+        IntStream.range(0, GENERATED).parallel().forEach(i -> ids.next());
+        return System.nanoTime() - start;
+    }
+
+    private long insert(ProductIdGenerator ids) throws SQLException {
+        List<UUID> keys = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            keys.add(ids.next());
+        }
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement(
+                 "INSERT INTO uuid_insert_bench (ID, PAYLOAD) VALUES (?, ?)")) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < ROWS; i++) {
+                insert.setBytes(1, toBytes(keys.get(i)));
+                insert.setString(2, "row " + i);
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        return System.nanoTime() - start;
+    }
+
+    // Same byte order as Hibernate's UUID-to-BINARY(16) mapping: most significant bits first
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+            .putLong(id.getMostSignificantBits())
+            .putLong(id.getLeastSignificantBits())
+            .array();
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.lab.product.service;
+
+import com.lab.product.DAO.ProductChargeRepository;
+import com.lab.product.Exception.PreconditionFailedException;
+import com.lab.product.Exception.ValidationException;
+import com.lab.product.Exception.VersionConflicts;
+import com.lab.product.ProductFixtures;
+import com.lab.product.entity.*;
+import com.lab.product.entity.ENUMS.*;
+import com.lab.product.service.helper.ProductVersionNumbers;
+import com.lab.product.service.helper.ProductVersionRecorder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifies that an If-Match update is written directly after the version it names and moves the
+ * pointer, and that a second update of the same (now stale) version fails with 412, through the
+ * pointer compare-and-set and, without a pointer, through the unique (code, versionNo) index. Other
+ * constraint violations are not mistaken for a stale version.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ProductVersionNumbers.class, ProductVersionRecorder.class})
+class ConditionalUpdateTest {
+
+    private final ProductFixtures fixtures = new ProductFixtures();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductChargeRepository chargeRepository;
+
+    @Autowired
+    private ProductVersionNumbers versionNumbers;
+
+    @Autowired
+    private ProductVersionRecorder versionRecorder;
+
+    @Test
+    void testUpdateOfCurrentVersion_Succeeds_StaleVersionFails() {
+        PRODUCT_DETAILS product = entityManager.persistAndFlush(createProduct("IFM001"));
+        PRODUCT_CHARGES first = chargeRepository.save(versionNumbers.assign(createCharge(product, "CHARGE001")));
+        versionRecorder.record(first);
+
+        PRODUCT_CHARGES second = versionNumbers.saveAfter(chargeRepository, first, nextVersion(first, "150.00"));
+        versionRecorder.recordIfCurrent(second, first.getChargeId());
+
+        assertThat(second.getVersionNo()).isEqualTo(first.getVersionNo() + 1);
+        assertThat(chargeRepository.findByProductCodeAndChargeCode("IFM001", "CHARGE001"))
+            .get()
+            .extracting(PRODUCT_CHARGES::getChargeId)
+            .isEqualTo(second.getChargeId());
+
+        // a second client that also read the first version
+        assertThatThrownBy(() -> {
+            PRODUCT_CHARGES stale = versionNumbers.saveAfter(chargeRepository, first, nextVersion(first, "175.00"));
+            versionRecorder.recordIfCurrent(stale, first.getChargeId());
+        }).isInstanceOf(PreconditionFailedException.class);
+    }
+
+    @Test
+    void testStaleInsert_RejectedByVersionIndex_WithoutPointer() {
+        PRODUCT_DETAILS product = entityManager.persistAndFlush(createProduct("IFM003"));
+        // no pointer rows: only the unique (code, versionNo) index can catch the stale write
+        PRODUCT_CHARGES first = chargeRepository.save(versionNumbers.assign(createCharge(product, "CHARGE001")));
+        versionNumbers.saveAfter(chargeRepository, first, nextVersion(first, "150.00"));
+
+        assertThatThrownBy(() -> versionNumbers.saveAfter(chargeRepository, first, nextVersion(first, "175.00")))
+            .isInstanceOf(PreconditionFailedException.class);
+    }
+
+    @Test
+    void testOtherConstraintViolation_NotReportedAsStale() {
+        PRODUCT_DETAILS product = entityManager.persistAndFlush(createProduct("IFM004"));
+        PRODUCT_CHARGES first = chargeRepository.save(versionNumbers.assign(createCharge(product, "CHARGE001")));
+        PRODUCT_CHARGES unnamed = nextVersion(first, "150.00");
+        unnamed.setChargeName(null);
+
+        assertThatThrownBy(() -> versionNumbers.saveAfter(chargeRepository, first, unnamed))
+            .isInstanceOf(DataIntegrityViolationException.class)
+            .satisfies(e -> assertThat(VersionConflicts.isVersionConflict(e)).isFalse());
+    }
+
+    @Test
+    void testConditionalUpdate_ChangedCode_Rejected() {
+        PRODUCT_DETAILS product = entityManager.persistAndFlush(createProduct("IFM002"));
+        PRODUCT_CHARGES first = chargeRepository.save(versionNumbers.assign(createCharge(product, "CHARGE001")));
+        PRODUCT_CHARGES renamed = nextVersion(first, "150.00");
+        renamed.setChargeCode("CHARGE002");
+
+        assertThatThrownBy(() -> versionNumbers.saveAfter(chargeRepository, first, renamed))
+            .isInstanceOf(ValidationException.class);
+    }
+
+    private PRODUCT_CHARGES nextVersion(PRODUCT_CHARGES existing, String chargeValue) {
+        PRODUCT_CHARGES newVersion = new PRODUCT_CHARGES();
+        BeanUtils.copyProperties(existing, newVersion, "chargeId");
+        newVersion.setChargeValue(new BigDecimal(chargeValue));
+        newVersion.setCrud_value(CRUD_VALUE.U);
+        return newVersion;
+    }
+
+    private PRODUCT_DETAILS createProduct(String code) {
+        return fixtures.product(code, "Conditional Product " + code, CRUD_VALUE.C);
+    }
+
+    private PRODUCT_CHARGES createCharge(PRODUCT_DETAILS product, String chargeCode) {
+        return fixtures.charge(product, chargeCode, "Charge " + chargeCode, CRUD_VALUE.C);
+    }
+}
@@ -0,0 +1,86 @@
+package com.lab.product.service;
+
+import com.lab.product.DAO.ProductChargeRepository;
+import com.lab.product.ProductFixtures;
+import com.lab.product.entity.*;
+import com.lab.product.entity.ENUMS.*;
+import com.lab.product.service.helper.ProductVersionNumbers;
+import com.lab.product.service.helper.ProductVersionRecorder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that a version row stores the hash of its content, that a re-sent payload hashes like the
+ * current version (audit fields and decimal scale aside) and that a changed field does not.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ProductVersionNumbers.class, ProductVersionRecorder.class})
+class ContentHashTest {
+
+    private final ProductFixtures fixtures = new ProductFixtures();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductChargeRepository chargeRepository;
+
+    @Autowired
+    private ProductVersionNumbers versionNumbers;
+
+    @Autowired
+    private ProductVersionRecorder versionRecorder;
+
+    @Test
+    void testSamePayload_SameContent_ChangedValueDiffers() {
+        PRODUCT_DETAILS product = entityManager.persistAndFlush(createProduct("HASH001"));
+        PRODUCT_CHARGES current = chargeRepository.save(versionNumbers.assign(createCharge(product, "CHARGE001")));
+        versionRecorder.record(current);
+        entityManager.flush();
+        entityManager.clear();
+
+        PRODUCT_CHARGES stored = chargeRepository.findById(current.getChargeId()).orElseThrow();
+        assertThat(stored.getContentHash()).hasSize(64).isEqualTo(ContentHashes.of(stored));
+        assertThat(versionRecorder.isCurrent(stored)).isTrue();
+
+        // same charge value with another scale, new audit fields
+        assertThat(ContentHashes.sameContent(stored, nextVersion(stored, "100.0"))).isTrue();
+        assertThat(ContentHashes.sameContent(stored, nextVersion(stored, "150.00"))).isFalse();
+    }
+
+    @Test
+    void testRowWithoutStoredHash_HashedOnTheFly() {
+        PRODUCT_DETAILS product = entityManager.persistAndFlush(createProduct("HASH002"));
+        PRODUCT_CHARGES legacy = createCharge(product, "CHARGE001");
+
+        assertThat(legacy.getContentHash()).isNull();
+        assertThat(ContentHashes.sameContent(legacy, nextVersion(legacy, "100.00"))).isTrue();
+    }
+
+    private PRODUCT_CHARGES nextVersion(PRODUCT_CHARGES existing, String chargeValue) {
+        PRODUCT_CHARGES newVersion = new PRODUCT_CHARGES();
+        BeanUtils.copyProperties(existing, newVersion, "chargeId");
+        newVersion.setChargeValue(new BigDecimal(chargeValue));
+        newVersion.setCrud_value(CRUD_VALUE.U);
+        newVersion.setUser_id("1002");
+        return newVersion;
+    }
+
+    private PRODUCT_DETAILS createProduct(String code) {
+        return fixtures.product(code, "Hashed Product " + code, CRUD_VALUE.C);
+    }
+
+    private PRODUCT_CHARGES createCharge(PRODUCT_DETAILS product, String chargeCode) {
+        return fixtures.charge(product, chargeCode, "Charge " + chargeCode, CRUD_VALUE.C);
+    }
+}
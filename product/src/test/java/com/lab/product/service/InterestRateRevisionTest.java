@@ -0,0 +1,138 @@
+package com.lab.product.service;
+
+import com.lab.product.DAO.ProductCurrentVersionRepository;
+import com.lab.product.DAO.ProductInterestRepository;
+import com.lab.product.DTO.ProductInterestRevisionDTO;
+import com.lab.product.DTO.ProductInterestRevisionResultDTO;
+import com.lab.product.ProductFixtures;
+import com.lab.product.config.LatestVersionProperties;
+import com.lab.product.config.ProductIdConfig;
+import com.lab.product.entity.*;
+import com.lab.product.entity.ENUMS.*;
+import com.lab.product.service.helper.AuditTrailPaging;
+import com.lab.product.service.helper.ProductBundleLoader;
+import com.lab.product.service.helper.ProductMapper;
+import com.lab.product.service.helper.ProductVersionNumbers;
+import com.lab.product.service.helper.ProductVersionRecorder;
+import com.lab.product.service.helper.ProductWriteLocks;
+import com.lab.product.service.impl.ProductInterestServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies a bulk rate revision spanning several flush chunks against the database: every changed rate
+ * gets the next versionNo of its own (productCode, rateCode) key and its pointer moves to the new row,
+ * while rates equal to the current version and rates without a current version write nothing.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ProductInterestServiceImpl.class, ProductMapper.class, ProductIdConfig.class, ProductBundleLoader.class,
+         ProductVersionRecorder.class, ProductVersionNumbers.class, ProductWriteLocks.class, AuditTrailPaging.class,
+         LatestVersionProperties.class})
+class InterestRateRevisionTest {
+
+    private static final int RATES_PER_PRODUCT = 250;
+
+    private final ProductFixtures fixtures = new ProductFixtures();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductInterestService interestService;
+
+    @Autowired
+    private ProductInterestRepository interestRepository;
+
+    @Autowired
+    private ProductCurrentVersionRepository currentVersionRepository;
+
+    @Test
+    void testRevision_SeveralChunks_NumbersPerKeyAndMovesPointers() {
+        for (String productCode : List.of("RVS001", "RVS002", "RVS003")) {
+            PRODUCT_DETAILS product = entityManager.persist(fixtures.product(productCode, "Revision Product", CRUD_VALUE.C));
+            for (int i = 0; i < RATES_PER_PRODUCT; i++) {
+                entityManager.persist(fixtures.interest(product, rateCode(i), CRUD_VALUE.C));
+            }
+            if (productCode.equals("RVS001")) {
+                // a rate already at version 2
+                entityManager.persist(fixtures.interest(product, rateCode(0), CRUD_VALUE.U));
+            }
+            if (productCode.equals("RVS002")) {
+                entityManager.persist(fixtures.interest(product, "RATE_DEL", CRUD_VALUE.C));
+                entityManager.persist(fixtures.interest(product, "RATE_DEL", CRUD_VALUE.D));
+            }
+        }
+        entityManager.flush();
+        currentVersionRepository.rebuildProducts();
+        currentVersionRepository.rebuildInterests();
+        entityManager.clear();
+        long rowsBefore = interestRepository.count();
+        UUID revisedPointerBefore = pointer("RVS002", rateCode(249));
+        UUID unchangedPointerBefore = pointer("RVS003", rateCode(249));
+
+        List<ProductInterestRevisionDTO> revisions = new ArrayList<>();
+        for (String productCode : List.of("RVS001", "RVS002", "RVS003")) {
+            for (int i = 0; i < RATES_PER_PRODUCT; i++) {
+                // the last 10 rates of RVS003 are revised to the rate they already have
+                boolean same = productCode.equals("RVS003") && i >= RATES_PER_PRODUCT - 10;
+                revisions.add(revision(productCode, rateCode(i), same ? "5.50" : "6.25"));
+            }
+        }
+        revisions.add(revision("RVS002", "RATE_DEL", "6.25"));
+        revisions.add(revision("RVS009", rateCode(0), "6.25"));
+
+        ProductInterestRevisionResultDTO result = interestService.reviseInterestRates(revisions);
+
+        assertThat(result.getRequested()).isEqualTo(752);
+        assertThat(result.getRevised()).isEqualTo(740);
+        assertThat(result.getChunks()).isEqualTo(2);
+        assertThat(result.getUnchanged()).isEqualTo(10);
+        assertThat(result.getNotFound()).containsExactlyInAnyOrder("RVS002/RATE_DEL", "RVS009/RATE000");
+        assertThat(interestRepository.count()).isEqualTo(rowsBefore + 740);
+
+        assertThat(latest("RVS001", rateCode(0)).getVersionNo()).isEqualTo(3);
+        assertThat(latest("RVS001", rateCode(1)).getVersionNo()).isEqualTo(2);
+        PRODUCT_INTEREST revised = latest("RVS002", rateCode(249));
+        assertThat(revised.getVersionNo()).isEqualTo(2);
+        assertThat(revised.getRateCumulative()).isEqualByComparingTo("6.25");
+        assertThat(revised.getCrud_value()).isEqualTo(CRUD_VALUE.U);
+        assertThat(latest("RVS003", rateCode(249)).getVersionNo()).isEqualTo(1);
+
+        assertThat(pointer("RVS002", rateCode(249))).isEqualTo(revised.getRateId()).isNotEqualTo(revisedPointerBefore);
+        assertThat(pointer("RVS003", rateCode(249))).isEqualTo(unchangedPointerBefore);
+    }
+
+    private PRODUCT_INTEREST latest(String productCode, String rateCode) {
+        return interestRepository.findByProductCodeAndRateCode(productCode, rateCode).orElseThrow();
+    }
+
+    private UUID pointer(String productCode, String rateCode) {
+        return currentVersionRepository.findById(new PRODUCT_CURRENT_VERSION_ID(PRODUCT_ENTITY_TYPE.INTEREST, productCode, rateCode))
+            .orElseThrow()
+            .getRowId();
+    }
+
+    private static String rateCode(int i) {
+        return String.format("RATE%03d", i);
+    }
+
+    private static ProductInterestRevisionDTO revision(String productCode, String rateCode, String rateCumulative) {
+        ProductInterestRevisionDTO revision = new ProductInterestRevisionDTO();
+        revision.setProductCode(productCode);
+        revision.setRateCode(rateCode);
+        revision.setRateCumulative(new BigDecimal(rateCumulative));
+        return revision;
+    }
+}
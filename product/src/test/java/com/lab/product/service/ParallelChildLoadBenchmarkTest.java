@@ -0,0 +1,124 @@
+package com.lab.product.service;
+
+import com.lab.product.DAO.*;
+import com.lab.product.ProductFixtures;
+import com.lab.product.config.LatestVersionProperties;
+import com.lab.product.entity.*;
+import com.lab.product.entity.ENUMS.*;
+import com.lab.product.service.helper.ProductBundleLoader;
+import com.lab.product.service.helper.ProductChildBundle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares single-product child loading with the seven child queries issued sequentially
+ * versus concurrently on virtual threads (product.bundle-loader.parallel-children).
+ *
+ * Opt-in only: mvn test -Dbenchmark=true -Dtest=ParallelChildLoadBenchmarkTest
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+@Import({ProductBundleLoader.class, LatestVersionProperties.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ParallelChildLoadBenchmarkTest {
+
+    private final ProductFixtures fixtures = new ProductFixtures();
+
+    private static final String PRODUCT_CODE = "PAR001";
+    private static final int CHILDREN_PER_TABLE = 20;
+    private static final int VERSIONS_PER_CODE = 20;
+    private static final int ROUNDS = 200;
+
+    @Autowired
+    private ProductBundleLoader bundleLoader;
+
+    @Autowired
+    private ProductDetailsRepository productDetailsRepository;
+
+    @Autowired
+    private ProductChargeRepository productChargeRepository;
+
+    @Autowired
+    private ProductRulesRepository productRulesRepository;
+
+    @Autowired
+    private ProductCommunicationRepository productCommunicationRepository;
+
+    @BeforeEach
+    void seedProduct() {
+        PRODUCT_DETAILS product = productDetailsRepository.save(fixtures.product(PRODUCT_CODE, "Parallel Product", CRUD_VALUE.C));
+        List<PRODUCT_CHARGES> charges = new ArrayList<>();
+        List<PRODUCT_RULES> rules = new ArrayList<>();
+        List<PRODUCT_COMMUNICATION> communications = new ArrayList<>();
+        for (int c = 0; c < CHILDREN_PER_TABLE; c++) {
+            for (int v = 0; v < VERSIONS_PER_CODE; v++) {
+                charges.add(fixtures.charge(product, "CHG" + c, "Charge", CRUD_VALUE.U));
+                rules.add(fixtures.rule(product, "RULE" + c, "Rule", CRUD_VALUE.U));
+                communications.add(fixtures.communication(product, "COMM" + c, CRUD_VALUE.U));
+            }
+        }
+        productChargeRepository.saveAll(charges);
+        productRulesRepository.saveAll(rules);
+        productCommunicationRepository.saveAll(communications);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        productChargeRepository.deleteAllInBatch();
+        productRulesRepository.deleteAllInBatch();
+        productCommunicationRepository.deleteAllInBatch();
+        productDetailsRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void compareSequentialAndParallelChildLoads() {
+        setParallel(false);
+        ProductChildBundle sequential = load();
+        long sequentialNanos = time();
+
+        setParallel(true);
+        ProductChildBundle parallel = load();
+        long parallelNanos = time();
+
+        assertThat(parallel.getCharges()).hasSameSizeAs(sequential.getCharges()).hasSize(CHILDREN_PER_TABLE);
+        assertThat(parallel.getRules()).hasSameSizeAs(sequential.getRules()).hasSize(CHILDREN_PER_TABLE);
+        assertThat(parallel.getCommunications()).hasSameSizeAs(sequential.getCommunications()).hasSize(CHILDREN_PER_TABLE);
+
+        System.out.printf("Single-product child load: sequential %.3f ms, parallel (virtual threads) %.3f ms%n",
+            sequentialNanos / 1_000_000.0, parallelNanos / 1_000_000.0);
+    }
+
+    private ProductChildBundle load() {
+        Map<String, ProductChildBundle> bundles = bundleLoader.loadLatestChildren(List.of(PRODUCT_CODE));
+        return bundles.get(PRODUCT_CODE);
+    }
+
+    private long time() {
+        load(); // warm-up
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            load();
+        }
+        return (System.nanoTime() - start) / ROUNDS;
+    }
+
+    private void setParallel(boolean parallel) {
+        ReflectionTestUtils.setField(bundleLoader, "parallelChildren", parallel);
+    }
+}
@@ -0,0 +1,95 @@
+package com.lab.product.service;
+
+import com.lab.product.DAO.ProductDetailsRepository;
+import com.lab.product.DTO.ProductChargeDTO;
+import com.lab.product.DTO.ProductDetailsDTO;
+import com.lab.product.ProductFixtures;
+import com.lab.product.config.LatestVersionProperties;
+import com.lab.product.config.ProductIdConfig;
+import com.lab.product.entity.*;
+import com.lab.product.entity.ENUMS.*;
+import com.lab.product.service.helper.ProductAuditTrailAssembler;
+import com.lab.product.service.helper.ProductBundleLoader;
+import com.lab.product.service.helper.ProductMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that every audit trail version carries the children in effect during that version,
+ * not the current children, and that versions sharing a createdAt are ordered by versionNo.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ProductAuditTrailAssembler.class, ProductMapper.class, ProductIdConfig.class, ProductBundleLoader.class,
+         LatestVersionProperties.class})
+class ProductAuditTrailAssemblerTest {
+
+    private final ProductFixtures fixtures = new ProductFixtures();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductDetailsRepository productDetailsRepository;
+
+    @Autowired
+    private ProductAuditTrailAssembler assembler;
+
+    @Test
+    void testAuditTrail_ChildrenAsOfEachVersion() {
+        PRODUCT_DETAILS version1 = entityManager.persistAndFlush(fixtures.product("AUD001", "Audit Product", CRUD_VALUE.C));
+        entityManager.persistAndFlush(fixtures.charge(version1, "CHARGE001", "Charge", CRUD_VALUE.C));
+        entityManager.persistAndFlush(fixtures.charge(version1, "CHARGE002", "Charge Two", CRUD_VALUE.C));
+
+        PRODUCT_DETAILS version2 = entityManager.persistAndFlush(fixtures.product("AUD001", "Audit Product Updated", CRUD_VALUE.U));
+        entityManager.persistAndFlush(fixtures.charge(version2, "CHARGE001", "Charge Updated", CRUD_VALUE.U));
+        entityManager.persistAndFlush(fixtures.charge(version2, "CHARGE002", "Charge Two", CRUD_VALUE.D));
+
+        List<PRODUCT_DETAILS> versions = productDetailsRepository.findAllVersionsByProductCode("AUD001");
+        List<ProductDetailsDTO> trail = assembler.assemble("AUD001", versions);
+
+        // newest first, as returned by findAllVersionsByProductCode
+        assertThat(trail).extracting(ProductDetailsDTO::getProductId)
+            .containsExactly(version2.getProductId(), version1.getProductId());
+        assertThat(trail.get(0).getProductCharges()).extracting(ProductChargeDTO::getChargeName)
+            .containsExactly("Charge Updated");
+        assertThat(trail.get(1).getProductCharges()).extracting(ProductChargeDTO::getChargeName)
+            .containsExactlyInAnyOrder("Charge", "Charge Two");
+        assertThat(trail.get(1).getCrud_value()).isEqualTo(CRUD_VALUE.C);
+    }
+
+    @Test
+    void testAuditTrail_SameCreatedAt_OrderedByVersionNo() {
+        PRODUCT_DETAILS version1 = entityManager.persistAndFlush(fixtures.product("AUD002", "Audit Product", CRUD_VALUE.C));
+        entityManager.persistAndFlush(fixtures.charge(version1, "CHARGE001", "Charge", CRUD_VALUE.C));
+        PRODUCT_DETAILS version2 = entityManager.persistAndFlush(fixtures.product("AUD002", "Audit Product Updated", CRUD_VALUE.U));
+        entityManager.persistAndFlush(fixtures.charge(version2, "CHARGE001", "Charge Updated", CRUD_VALUE.U));
+
+        // every row written within one timestamp tick
+        LocalDateTime tick = LocalDateTime.now().withNano(0);
+        for (String entity : List.of("PRODUCT_DETAILS", "PRODUCT_CHARGES")) {
+            entityManager.getEntityManager()
+                .createQuery("UPDATE " + entity + " e SET e.createdAt = :tick WHERE e.productCode = 'AUD002'")
+                .setParameter("tick", tick)
+                .executeUpdate();
+        }
+        entityManager.clear();
+
+        List<PRODUCT_DETAILS> versions = productDetailsRepository.findAllVersionsByProductCode("AUD002");
+        List<ProductDetailsDTO> trail = assembler.assemble("AUD002", versions);
+
+        assertThat(trail).extracting(ProductDetailsDTO::getProductId)
+            .containsExactly(version2.getProductId(), version1.getProductId());
+        assertThat(trail.get(0).getProductCharges()).extracting(ProductChargeDTO::getChargeName)
+            .containsExactly("Charge Updated");
+    }
+}
@@ -0,0 +1,132 @@
+package com.lab.product.service;
+
+import com.lab.product.DTO.ProductBatchItemDTO;
+import com.lab.product.DTO.ProductDetailsDTO;
+import com.lab.product.Exception.ProductNotFoundException;
+import com.lab.product.Exception.ValidationException;
+import com.lab.product.ProductFixtures;
+import com.lab.product.cache.ProductBundleCache;
+import com.lab.product.cache.ProductFacetIndex;
+import com.lab.product.cache.ProductLookupGuard;
+import com.lab.product.cache.ProductSuggestIndex;
+import com.lab.product.config.LatestVersionProperties;
+import com.lab.product.config.ProductIdConfig;
+import com.lab.product.entity.ENUMS.CRUD_VALUE;
+import com.lab.product.service.helper.AuditTrailPaging;
+import com.lab.product.service.helper.ProductAuditTrailAssembler;
+import com.lab.product.service.helper.ProductBundleLoader;
+import com.lab.product.service.helper.ProductBundleWriter;
+import com.lab.product.service.helper.ProductMapper;
+import com.lab.product.service.helper.ProductReadOptions;
+import com.lab.product.service.helper.ProductVersionNumbers;
+import com.lab.product.service.helper.ProductVersionRecorder;
+import com.lab.product.service.helper.ProductWriteLocks;
+import com.lab.product.service.impl.ProductServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the multi-get behind /api/products/batch against the database: at most 100 distinct codes,
+ * duplicates returned once in request order, codes matched case-insensitively (H2 in IGNORECASE mode, like
+ * MySQL's default collation), and codes rejected by the lookup guard reported as not found without a query.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:batchdb;IGNORECASE=TRUE")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({ProductServiceImpl.class, ProductMapper.class, ProductIdConfig.class, ProductBundleLoader.class,
+         ProductVersionRecorder.class, ProductVersionNumbers.class, ProductWriteLocks.class, AuditTrailPaging.class,
+         LatestVersionProperties.class})
+class ProductBatchLookupTest {
+
+    private final ProductFixtures fixtures = new ProductFixtures();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductService productService;
+
+    @MockitoBean
+    private ProductLookupGuard lookupGuard;
+
+    @MockitoBean
+    private ProductBundleWriter bundleWriter;
+
+    @MockitoBean
+    private ProductBundleCache bundleCache;
+
+    @MockitoBean
+    private ProductFacetIndex facetIndex;
+
+    @MockitoBean
+    private ProductSuggestIndex suggestIndex;
+
+    @MockitoBean
+    private ProductAuditTrailAssembler auditTrailAssembler;
+
+    @BeforeEach
+    void createProducts() {
+        entityManager.persist(fixtures.product("SAV001", "Savings", CRUD_VALUE.C));
+        entityManager.persist(fixtures.product("FD001", "Fixed Deposit", CRUD_VALUE.C));
+        // exists in the database, but the guard's filter says it was never created
+        entityManager.persist(fixtures.product("GHOST01", "Ghost", CRUD_VALUE.C));
+        entityManager.flush();
+        entityManager.clear();
+        when(lookupGuard.checkMayExist(anyString())).thenReturn(7L);
+        when(lookupGuard.checkMayExist("GHOST01")).thenThrow(new ProductNotFoundException("GHOST01"));
+    }
+
+    @Test
+    void testBatch_DuplicatesOnce_CaseInsensitive_InRequestOrder() {
+        List<ProductBatchItemDTO> items = productService.getProductsByCodes(
+            List.of("FD001", " sav001 ", "FD001", "NOPE01"), ProductReadOptions.FULL);
+
+        assertThat(items).extracting(ProductBatchItemDTO::getProductCode).containsExactly("FD001", "sav001", "NOPE01");
+        assertThat(items).extracting(ProductBatchItemDTO::isFound).containsExactly(true, true, false);
+        assertThat(((ProductDetailsDTO) items.get(1).getProduct()).getProductCode()).isEqualTo("SAV001");
+        assertThat(items.get(2).getProduct()).isNull();
+        verify(lookupGuard).recordMissing("NOPE01", 7L);
+    }
+
+    @Test
+    void testBatch_CodeRejectedByLookupGuard_NotFoundAndNotQueried() {
+        List<ProductBatchItemDTO> items = productService.getProductsByCodes(
+            List.of("GHOST01", "SAV001"), ProductReadOptions.FULL);
+
+        assertThat(items).extracting(ProductBatchItemDTO::isFound).containsExactly(false, true);
+        verify(lookupGuard, never()).recordMissing(eq("GHOST01"), anyLong());
+    }
+
+    @Test
+    void testBatch_MoreThan100DistinctCodes_Rejected() {
+        List<String> hundred = IntStream.range(0, 100).mapToObj(i -> "P" + i).toList();
+        List<String> hundredAndOne = IntStream.range(0, 101).mapToObj(i -> "P" + i).toList();
+
+        assertThat(productService.getProductsByCodes(hundred, ProductReadOptions.FULL)).hasSize(100);
+        // duplicates do not count towards the limit
+        assertThat(productService.getProductsByCodes(
+            IntStream.range(0, 150).mapToObj(i -> "P" + i % 100).toList(), ProductReadOptions.FULL)).hasSize(100);
+        assertThatThrownBy(() -> productService.getProductsByCodes(hundredAndOne, ProductReadOptions.FULL))
+            .isInstanceOf(ValidationException.class)
+            .hasMessageContaining("100");
+    }
+}
@@ -0,0 +1,95 @@
+package com.lab.product.service;
+
+import com.lab.product.DAO.*;
+import com.lab.product.config.LatestVersionProperties;
+import com.lab.product.service.helper.ProductBundleLoader;
+import com.lab.product.service.helper.ProductChildBundle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies that parallel child loading of several concurrent product reads never has more child
+ * queries in flight than product.bundle-loader.max-concurrent-queries, and still loads every table.
+ */
+class ProductBundleLoaderFanOutTest {
+
+    private static final int MAX_CONCURRENT_QUERIES = 2;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger queries = new AtomicInteger();
+
+    private final ExecutorService readers = Executors.newFixedThreadPool(4);
+
+    private ProductBundleLoader loader;
+
+    @AfterEach
+    void shutdown() {
+        readers.shutdownNow();
+        ReflectionTestUtils.invokeMethod(loader, "shutdown");
+    }
+
+    @Test
+    void testConcurrentLoads_StayWithinQueryLimit() throws Exception {
+        ProductRulesRepository rules = mock(ProductRulesRepository.class);
+        ProductChargeRepository charges = mock(ProductChargeRepository.class);
+        ProductRoleRepository roles = mock(ProductRoleRepository.class);
+        ProductTransactionRepository transactions = mock(ProductTransactionRepository.class);
+        ProductInterestRepository interests = mock(ProductInterestRepository.class);
+        ProductBalanceRepository balances = mock(ProductBalanceRepository.class);
+        ProductCommunicationRepository communications = mock(ProductCommunicationRepository.class);
+        when(rules.findLatestByProductCodes(anyCollection())).thenAnswer(slowQuery());
+        when(charges.findLatestByProductCodes(anyCollection())).thenAnswer(slowQuery());
+        when(roles.findLatestByProductCodes(anyCollection())).thenAnswer(slowQuery());
+        when(transactions.findLatestByProductCodes(anyCollection())).thenAnswer(slowQuery());
+        when(interests.findLatestByProductCodes(anyCollection())).thenAnswer(slowQuery());
+        when(balances.findLatestByProductCodes(anyCollection())).thenAnswer(slowQuery());
+        when(communications.findLatestByProductCodes(anyCollection())).thenAnswer(slowQuery());
+        loader = new ProductBundleLoader(rules, charges, roles, transactions, interests, balances, communications,
+            new LatestVersionProperties());
+        ReflectionTestUtils.setField(loader, "parallelChildren", true);
+        ReflectionTestUtils.setField(loader, "maxConcurrentQueries", MAX_CONCURRENT_QUERIES);
+        ReflectionTestUtils.invokeMethod(loader, "createQueryPermits");
+
+        List<Future<Map<String, ProductChildBundle>>> reads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            String code = "FAN00" + i;
+            reads.add(readers.submit(() -> loader.loadLatestChildren(List.of(code))));
+        }
+        for (Future<Map<String, ProductChildBundle>> read : reads) {
+            assertThat(read.get(10, TimeUnit.SECONDS)).hasSize(1);
+        }
+
+        assertThat(queries.get()).isEqualTo(4 * 7);
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(MAX_CONCURRENT_QUERIES);
+    }
+
+    private <T> Answer<List<T>> slowQuery() {
+        return invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+                queries.incrementAndGet();
+                return List.of();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        };
+    }
+}
@@ -0,0 +1,129 @@
+package com.lab.product.service;
+
+import com.lab.product.DTO.CreateOrUpdateProductRequestDTO;
+import com.lab.product.DTO.ProductBundleRequestDTO;
+import com.lab.product.DTO.ProductChargeRequestDTO;
+import com.lab.product.DTO.ProductRoleRequestDTO;
+import com.lab.product.Exception.ValidationException;
+import com.lab.product.DAO.ProductChargeRepository;
+import com.lab.product.DAO.ProductCurrentVersionRepository;
+import com.lab.product.ProductFixtures;
+import com.lab.product.config.LatestVersionProperties;
+import com.lab.product.config.ProductIdConfig;
+import com.lab.product.entity.*;
+import com.lab.product.entity.ENUMS.*;
+import com.lab.product.service.helper.ProductBundleLoader;
+import com.lab.product.service.helper.ProductBundleWriter;
+import com.lab.product.service.helper.ProductChildBundle;
+import com.lab.product.service.helper.ProductMapper;
+import com.lab.product.service.helper.ProductVersionNumbers;
+import com.lab.product.service.helper.ProductVersionRecorder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Verifies that a bundle replace writes C/U rows for the requested children and D markers for the
+ * existing children that were left out, and that an invalid bundle writes nothing.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ProductBundleWriter.class, ProductMapper.class, ProductIdConfig.class, ProductBundleLoader.class,
+         ProductVersionRecorder.class, ProductVersionNumbers.class,
+         LatestVersionProperties.class})
+class ProductBundleWriterTest {
+
+    private final ProductFixtures fixtures = new ProductFixtures();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductBundleWriter bundleWriter;
+
+    @Autowired
+    private ProductBundleLoader bundleLoader;
+
+    @Autowired
+    private ProductChargeRepository chargeRepository;
+
+    @Autowired
+    private ProductCurrentVersionRepository currentVersionRepository;
+
+    @Test
+    void testReplace_UpdatesKeptChildrenAndDeletesMissingOnes() {
+        PRODUCT_DETAILS version1 = entityManager.persistAndFlush(createProduct(CRUD_VALUE.C));
+        entityManager.persistAndFlush(fixtures.charge(version1, "CHG001", "Charge", CRUD_VALUE.C));
+        entityManager.persistAndFlush(fixtures.charge(version1, "CHG002", "Charge Two", CRUD_VALUE.C));
+        ProductChildBundle existing = bundleLoader.loadLatestChildren(List.of("BND001")).get("BND001");
+
+        PRODUCT_DETAILS version2 = entityManager.persistAndFlush(createProduct(CRUD_VALUE.U));
+        ProductBundleRequestDTO request = bundle(chargeRequest("CHG001", "Charge Updated"), chargeRequest("CHG003", "New Charge"));
+        ProductChildBundle written = bundleWriter.write(version2, request, existing);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(written.getCharges()).extracting(PRODUCT_CHARGES::getChargeCode, PRODUCT_CHARGES::getCrud_value)
+            .containsExactly(tuple("CHG001", CRUD_VALUE.U),
+                             tuple("CHG003", CRUD_VALUE.C));
+        assertThat(bundleLoader.loadLatestChildren(List.of("BND001")).get("BND001").getCharges())
+            .extracting(PRODUCT_CHARGES::getChargeName)
+            .containsExactlyInAnyOrder("Charge Updated", "New Charge");
+        // product pointer plus one pointer per charge code, including the deleted one
+        assertThat(currentVersionRepository.count()).isEqualTo(4);
+    }
+
+    @Test
+    void testInvalidBundle_WritesNothing() {
+        PRODUCT_DETAILS product = entityManager.persistAndFlush(createProduct(CRUD_VALUE.C));
+        ProductBundleRequestDTO duplicate = bundle(chargeRequest("CHG001", "Charge"), chargeRequest("CHG001", "Again"));
+        ProductBundleRequestDTO badEnum = bundle(chargeRequest("CHG001", "Charge"));
+        ProductRoleRequestDTO role = new ProductRoleRequestDTO();
+        role.setRoleCode("ROLE001");
+        role.setRoleName("Owner");
+        role.setRoleType("NOT_A_ROLE");
+        badEnum.getProductRoles().add(role);
+
+        assertThatThrownBy(() -> bundleWriter.write(product, duplicate, new ProductChildBundle()))
+            .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> bundleWriter.write(product, badEnum, new ProductChildBundle()))
+            .isInstanceOf(ValidationException.class);
+        assertThat(chargeRepository.count()).isZero();
+    }
+
+    private static ProductBundleRequestDTO bundle(ProductChargeRequestDTO... charges) {
+        ProductBundleRequestDTO request = new ProductBundleRequestDTO();
+        CreateOrUpdateProductRequestDTO product = new CreateOrUpdateProductRequestDTO();
+        product.setProductCode("BND001");
+        request.setProduct(product);
+        request.getProductCharges().addAll(List.of(charges));
+        return request;
+    }
+
+    private static ProductChargeRequestDTO chargeRequest(String chargeCode, String chargeName) {
+        ProductChargeRequestDTO charge = new ProductChargeRequestDTO();
+        charge.setChargeCode(chargeCode);
+        charge.setChargeName(chargeName);
+        charge.setChargeType(PRODUCT_CHARGE_TYPE.PENALTY);
+        charge.setCalculationType(PRODUCT_CHARGE_CALCULATION_TYPE.FLAT);
+        charge.setChargeValue(new BigDecimal("100.00"));
+        charge.setDebitCredit(PRODUCT_DebitCredit.DEBIT);
+        return charge;
+    }
+
+    private PRODUCT_DETAILS createProduct(CRUD_VALUE crudValue) {
+        PRODUCT_DETAILS product = fixtures.product("BND001", "Bundle Product", crudValue);
+        product.setProductType(PRODUCT_TYPE.SAVINGS);
+        return product;
+    }
+}
@@ -0,0 +1,65 @@
+package com.lab.product.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.lab.product.DTO.ProductDetailsDTO;
+import com.lab.product.Exception.ValidationException;
+import com.lab.product.service.helper.ProductChildType;
+import com.lab.product.service.helper.ProductFieldFilter;
+import com.lab.product.service.helper.ProductReadOptions;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductFieldFilterTest {
+
+    private final ProductFieldFilter filter = new ProductFieldFilter(new ObjectMapper());
+
+    @Test
+    void testNoParams_LoadsEverything() {
+        ProductReadOptions options = filter.parse(null, null);
+
+        assertThat(options.isFull()).isTrue();
+    }
+
+    @Test
+    void testInclude_LoadsOnlyListedChildren() {
+        ProductReadOptions options = filter.parse("charges, interest", null);
+
+        assertThat(options.getChildren()).containsExactlyInAnyOrder(ProductChildType.CHARGES, ProductChildType.INTEREST);
+        assertThat(options.getFields()).isNull();
+    }
+
+    @Test
+    void testIncludeNone_LoadsNoChildren() {
+        assertThat(filter.parse("none", null).getChildren()).isEmpty();
+    }
+
+    @Test
+    void testFields_NarrowChildrenToListedCollections() {
+        ProductReadOptions options = filter.parse(null, "productCode,productInterests");
+
+        assertThat(options.getChildren()).containsExactly(ProductChildType.INTEREST);
+    }
+
+    @Test
+    void testApply_RetainsOnlyRequestedFields() {
+        ProductDetailsDTO dto = new ProductDetailsDTO();
+        dto.setProductCode("FD001");
+        dto.setProductName("Fixed Deposit");
+
+        Object filtered = filter.apply(dto, filter.parse(null, "productCode"));
+
+        assertThat(filtered).isInstanceOf(ObjectNode.class);
+        ObjectNode node = (ObjectNode) filtered;
+        assertThat(node.size()).isEqualTo(1);
+        assertThat(node.get("productCode").asText()).isEqualTo("FD001");
+    }
+
+    @Test
+    void testUnknownIncludeOrField_IsRejected() {
+        assertThatThrownBy(() -> filter.parse("fees", null)).isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> filter.parse(null, "price")).isInstanceOf(ValidationException.class);
+    }
+}
@@ -0,0 +1,84 @@
+package com.lab.product.service;
+
+import com.lab.product.service.helper.ProductWriteLocks;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifies that a second writer of the same product waits until the first one commits,
+ * while a writer of another product goes ahead.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(ProductWriteLocks.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductWriteLocksTest {
+
+    @Autowired
+    private ProductWriteLocks writeLocks;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testSameProductWaitsForCommit_OtherProductDoesNot() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch firstLocked = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Future<?> first = executor.submit(() -> transaction.executeWithoutResult(status -> {
+                writeLocks.lock("LCK001");
+                firstLocked.countDown();
+                await(releaseFirst);
+            }));
+            assertThat(firstLocked.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Future<?> sameProduct = executor.submit(
+                () -> transaction.executeWithoutResult(status -> writeLocks.lock("LCK001")));
+            Future<?> otherProduct = executor.submit(
+                () -> transaction.executeWithoutResult(status -> writeLocks.lock("LCK002")));
+
+            otherProduct.get(5, TimeUnit.SECONDS);
+            assertThatThrownBy(() -> sameProduct.get(200, TimeUnit.MILLISECONDS))
+                .isInstanceOf(TimeoutException.class);
+
+            releaseFirst.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            sameProduct.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testLockOutsideTransaction_Fails() {
+        assertThatThrownBy(() -> writeLocks.lock("LCK001")).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}